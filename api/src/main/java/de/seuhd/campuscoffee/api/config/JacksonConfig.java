@@ -0,0 +1,30 @@
+package de.seuhd.campuscoffee.api.config;
+
+import com.fasterxml.jackson.annotation.JsonFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import de.seuhd.campuscoffee.api.dtos.PosDto;
+import org.springframework.boot.autoconfigure.jackson.Jackson2ObjectMapperBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Jackson configuration for the CampusCoffee API.
+ * Registers a property filter for POS DTOs, so that responses can be limited to the fields a client selected
+ * (see {@link org.springframework.http.converter.json.MappingJacksonValue#setFilters}).
+ * Without a selection, the filter is unknown to the object mapper and all fields are written.
+ */
+@Configuration
+public class JacksonConfig {
+    public static final String FIELD_FILTER = "fieldFilter";
+
+    @Bean
+    public Jackson2ObjectMapperBuilderCustomizer fieldFilterCustomizer() {
+        return builder -> builder
+                .mixIn(PosDto.class, FieldFilterMixIn.class)
+                .filters(new SimpleFilterProvider().setFailOnUnknownId(false));
+    }
+
+    @JsonFilter(FIELD_FILTER)
+    private interface FieldFilterMixIn {
+    }
+}
@@ -1,11 +1,30 @@
 package de.seuhd.campuscoffee.api.controller;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.ser.FilterProvider;
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import de.seuhd.campuscoffee.api.config.JacksonConfig;
+import de.seuhd.campuscoffee.api.dtos.BatchItemResultDto;
+import de.seuhd.campuscoffee.api.dtos.OsmImportDto;
+import de.seuhd.campuscoffee.api.dtos.PosChangesDto;
 import de.seuhd.campuscoffee.api.dtos.PosDto;
 import de.seuhd.campuscoffee.api.exceptions.ErrorResponse;
 import de.seuhd.campuscoffee.api.mapper.PosDtoMapper;
+import de.seuhd.campuscoffee.api.sse.ChangeBroadcaster;
+import de.seuhd.campuscoffee.api.sse.ChangeStreams;
+import de.seuhd.campuscoffee.api.util.ControllerUtils;
 import de.seuhd.campuscoffee.domain.model.CampusType;
+import de.seuhd.campuscoffee.domain.model.Pos;
+import de.seuhd.campuscoffee.domain.model.PosQuery;
+import de.seuhd.campuscoffee.domain.model.PosSort;
+import de.seuhd.campuscoffee.domain.model.PosType;
 import de.seuhd.campuscoffee.domain.ports.PosService;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -13,13 +32,30 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.jspecify.annotations.Nullable;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.json.MappingJacksonValue;
 import org.springframework.stereotype.Controller;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.reflect.RecordComponent;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 import static de.seuhd.campuscoffee.api.util.ControllerUtils.getLocation;
+import static de.seuhd.campuscoffee.api.util.ControllerUtils.getNextPage;
+import static de.seuhd.campuscoffee.api.util.ControllerUtils.getNextPageAtOffset;
 
 /**
  * Controller for handling POS-related API requests.
@@ -30,11 +66,28 @@ import static de.seuhd.campuscoffee.api.util.ControllerUtils.getLocation;
 @Slf4j
 @RequiredArgsConstructor
 public class PosController {
+    static final int DEFAULT_PAGE_SIZE = 100;
+    static final int MAX_PAGE_SIZE = 1000;
+    static final int DEFAULT_NEARBY_LIMIT = 10;
+    static final int DEFAULT_RADIUS = 1000;
+    static final int MAX_RADIUS = 50_000;
+    private static final Set<String> POS_FIELDS = Arrays.stream(PosDto.class.getRecordComponents())
+            .map(RecordComponent::getName)
+            .collect(Collectors.toUnmodifiableSet());
+
     private final PosService posService;
     private final PosDtoMapper posDtoMapper;
+    private final ObjectMapper objectMapper;
+    private final ChangeStreams changeStreams;
 
     @Operation(
-            summary = "Get all POS.",
+            summary = "Get all POS, optionally filtered, sorted, and one page at a time.",
+            description = "Without parameters, all POS are returned ordered by ID. The filters 'campus', 'type', " +
+                    "'postalCode', and 'city' can be combined and are evaluated by the database. 'sort' takes a " +
+                    "comma-separated list of properties (prefix '-' for descending order), and 'fields' limits the " +
+                    "returned properties. If 'after' or 'limit' is set, the POS are returned in pages. Without " +
+                    "'sort', a 'Link' header with rel=\"next\" points to the next page. The 'ETag' changes with " +
+                    "every write to any POS; pass it in 'If-None-Match' to skip the body if nothing changed.",
             responses = {
                     @ApiResponse(
                             responseCode = "200",
@@ -42,15 +95,279 @@ public class PosController {
                                     mediaType = "application/json",
                                     schema = @Schema(type = "array", implementation = PosDto.class)
                             ),
-                            description = "All POS as a JSON array."
+                            description = "The matching POS (or the requested page) as a JSON array."
+                    ),
+                    @ApiResponse(
+                            responseCode = "304",
+                            description = "No POS changed since the version in 'If-None-Match' or 'If-Modified-Since'."
+                    ),
+                    @ApiResponse(
+                            responseCode = "400",
+                            content = @Content(
+                                    mediaType = "application/json",
+                                    schema = @Schema(implementation = ErrorResponse.class)
+                            ),
+                            description = "The page size is out of range, a sort property or field is unknown, " +
+                                    "or 'after' is combined with 'sort'."
                     )
             }
     )
     @GetMapping("")
-    public ResponseEntity<List<PosDto>> getAll() {
+    public ResponseEntity<MappingJacksonValue> getAll(
+            @Parameter(description = "ID of the last POS of the previous page (exclusive); not combinable with 'sort'.")
+            @RequestParam(value = "after", required = false) Long after,
+            @Parameter(description = "Page size (1 to " + MAX_PAGE_SIZE + ", default " + DEFAULT_PAGE_SIZE + ").")
+            @RequestParam(value = "limit", required = false) Integer limit,
+            @Parameter(description = "Only POS on this campus.")
+            @RequestParam(value = "campus", required = false) CampusType campus,
+            @Parameter(description = "Only POS of this type.")
+            @RequestParam(value = "type", required = false) PosType type,
+            @Parameter(description = "Only POS with this postal code.")
+            @RequestParam(value = "postalCode", required = false) Integer postalCode,
+            @Parameter(description = "Only POS in this city.")
+            @RequestParam(value = "city", required = false) String city,
+            @Parameter(description = "Properties to sort by, e.g., 'city,-name'.")
+            @RequestParam(value = "sort", required = false) List<String> sort,
+            @Parameter(description = "Properties to return, e.g., 'id,name'; all properties if not set.")
+            @RequestParam(value = "fields", required = false) List<String> fields,
+            WebRequest request) {
+
+        Integer pageSize = null;
+        if (after != null || limit != null) {
+            pageSize = limit == null ? DEFAULT_PAGE_SIZE : limit;
+            if (pageSize < 1 || pageSize > MAX_PAGE_SIZE) {
+                throw new IllegalArgumentException("Page size must be between 1 and " + MAX_PAGE_SIZE + ".");
+            }
+        }
+        List<PosSort> sortCriteria = sort == null ? List.of() : sort.stream().map(PosSort::parse).toList();
+        FilterProvider fieldFilter = fields == null ? null : getFieldFilter(fields);
+        Optional<List<Pos>> posList = posService.queryIfModified(PosQuery.builder()
+                        .campus(campus)
+                        .type(type)
+                        .postalCode(postalCode)
+                        .city(city)
+                        .sort(sortCriteria)
+                        .after(after)
+                        .limit(pageSize)
+                        .build(),
+                version -> ControllerUtils.isNotModified(request, version));
+        if (posList.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).build();
+        }
+
+        List<PosDto> posDtos = posList.get().stream()
+                .map(posDtoMapper::fromDomain)
+                .toList();
+        MappingJacksonValue body = new MappingJacksonValue(posDtos);
+        body.setFilters(fieldFilter);
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (pageSize != null && sortCriteria.isEmpty() && posDtos.size() == pageSize) {
+            // a full page indicates that there may be further POS
+            response.header(HttpHeaders.LINK,
+                    "<" + getNextPage(posDtos.getLast().id(), pageSize) + ">; rel=\"next\"");
+        }
+        return response.body(body);
+    }
+
+    @Operation(
+            summary = "Export all POS as a streamed JSON array.",
+            description = "The POS are read from the database and written to the response one by one, " +
+                    "so the server's memory usage does not depend on the number of POS.",
+            responses = {
+                    @ApiResponse(
+                            responseCode = "200",
+                            content = @Content(
+                                    mediaType = "application/json",
+                                    schema = @Schema(type = "array", implementation = PosDto.class)
+                            ),
+                            description = "All POS ordered by ID as a JSON array."
+                    )
+            }
+    )
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> export() {
+        // flushing after each row would result in one write call per POS
+        ObjectWriter writer = objectMapper.writerFor(PosDto.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+
+        StreamingResponseBody body = outputStream -> {
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)) {
+                generator.writeStartArray();
+                posService.streamAll(pos -> {
+                    try {
+                        writer.writeValue(generator, posDtoMapper.fromDomain(pos));
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+                generator.writeEndArray();
+            }
+        };
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(body);
+    }
+
+    @Operation(
+            summary = "Get the POS changed since a given sync token.",
+            description = "Returns the POS created or updated and the IDs of the POS deleted since 'since', so that " +
+                    "clients that keep a copy of the POS only fetch the changes. Without 'since', all POS are " +
+                    "returned. Pass 'next' of the response as 'since' to the next request. Changes that were in " +
+                    "progress during a request are returned again by the next one, so clients must apply them " +
+                    "idempotently (deletions last). Deleted POS are only reported for 'pos.changes.retention'; " +
+                    "older tokens are rejected with 410, after which the client has to fetch all POS again " +
+                    "without 'since'.",
+            responses = {
+                    @ApiResponse(
+                            responseCode = "200",
+                            content = @Content(
+                                    mediaType = "application/json",
+                                    schema = @Schema(implementation = PosChangesDto.class)
+                            ),
+                            description = "The changed POS, the IDs of the deleted POS, and the token for the next request."
+                    ),
+                    @ApiResponse(
+                            responseCode = "400",
+                            content = @Content(
+                                    mediaType = "application/json",
+                                    schema = @Schema(implementation = ErrorResponse.class)
+                            ),
+                            description = "'since' is not a valid sync token."
+                    ),
+                    @ApiResponse(
+                            responseCode = "410",
+                            content = @Content(
+                                    mediaType = "application/json",
+                                    schema = @Schema(implementation = ErrorResponse.class)
+                            ),
+                            description = "'since' has expired; fetch all POS again without 'since'."
+                    )
+            }
+    )
+    @GetMapping("/changes")
+    public ResponseEntity<PosChangesDto> getChanges(
+            @Parameter(description = "'next' of the previous response.")
+            @RequestParam(value = "since", required = false) Long since) {
 
         return ResponseEntity.ok(
-                posService.getAll().stream()
+                PosChangesDto.fromDomain(posService.getChanges(since), posDtoMapper::fromDomain)
+        );
+    }
+
+    @Operation(
+            summary = "Stream POS changes as server-sent events.",
+            description = "Sends an 'upserted' event with the POS whenever a POS is created or updated, and a " +
+                    "'deleted' event with its ID whenever a POS is deleted. If a client cannot keep up, pending " +
+                    "events for the same POS are coalesced; if too many POS change meanwhile, the pending events " +
+                    "are replaced by a single '" + ChangeBroadcaster.RESET_EVENT + "' event, after which the client " +
+                    "has to fetch the POS again.",
+            responses = {
+                    @ApiResponse(
+                            responseCode = "200",
+                            content = @Content(mediaType = MediaType.TEXT_EVENT_STREAM_VALUE),
+                            description = "A stream of change events that stays open until the stream times out."
+                    )
+            }
+    )
+    @GetMapping(path = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter stream() {
+        return changeStreams.subscribeToPos();
+    }
+
+    @Operation(
+            summary = "Search POS by name and description.",
+            description = "Combines full-text search with typo-tolerant similarity search. The best hits are " +
+                    "returned first. Quoted phrases and '-word' to exclude a word are supported. If the page is full, " +
+                    "a 'Link' header with rel=\"next\" points to the next page.",
+            responses = {
+                    @ApiResponse(
+                            responseCode = "200",
+                            content = @Content(
+                                    mediaType = "application/json",
+                                    schema = @Schema(type = "array", implementation = PosDto.class)
+                            ),
+                            description = "The requested page of hits as a JSON array, best hits first."
+                    ),
+                    @ApiResponse(
+                            responseCode = "400",
+                            content = @Content(
+                                    mediaType = "application/json",
+                                    schema = @Schema(implementation = ErrorResponse.class)
+                            ),
+                            description = "The query is blank, the offset is negative, or the page size is out of range."
+                    )
+            }
+    )
+    @GetMapping("/search")
+    public ResponseEntity<List<PosDto>> search(
+            @Parameter(description = "The search query, e.g., 'botanik'.")
+            @RequestParam("q") String query,
+            @Parameter(description = "Number of hits to skip (default 0).")
+            @RequestParam(value = "offset", defaultValue = "0") int offset,
+            @Parameter(description = "Page size (1 to " + MAX_PAGE_SIZE + ", default " + DEFAULT_PAGE_SIZE + ").")
+            @RequestParam(value = "limit", defaultValue = "" + DEFAULT_PAGE_SIZE) int limit) {
+
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Page size must be between 1 and " + MAX_PAGE_SIZE + ".");
+        }
+        List<PosDto> hits = posService.search(query, offset, limit).stream()
+                .map(posDtoMapper::fromDomain)
+                .toList();
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (hits.size() == limit) {
+            // a full page indicates that there may be further hits
+            response.header(HttpHeaders.LINK, "<" + getNextPageAtOffset(offset + limit, limit) + ">; rel=\"next\"");
+        }
+        return response.body(hits);
+    }
+
+    @Operation(
+            summary = "Get the POS nearest to a location.",
+            description = "Returns the POS within the radius around the location, nearest first. POS without " +
+                    "coordinates are not considered.",
+            responses = {
+                    @ApiResponse(
+                            responseCode = "200",
+                            content = @Content(
+                                    mediaType = "application/json",
+                                    schema = @Schema(type = "array", implementation = PosDto.class)
+                            ),
+                            description = "The POS within the radius as a JSON array, nearest first."
+                    ),
+                    @ApiResponse(
+                            responseCode = "400",
+                            content = @Content(
+                                    mediaType = "application/json",
+                                    schema = @Schema(implementation = ErrorResponse.class)
+                            ),
+                            description = "The coordinates, the radius, or the page size are out of range."
+                    )
+            }
+    )
+    @GetMapping("/nearby")
+    public ResponseEntity<List<PosDto>> nearby(
+            @Parameter(description = "Latitude of the location in degrees (WGS 84).")
+            @RequestParam("lat") double latitude,
+            @Parameter(description = "Longitude of the location in degrees (WGS 84).")
+            @RequestParam("lon") double longitude,
+            @Parameter(description = "Maximum distance in meters (up to " + MAX_RADIUS + ", default " +
+                    DEFAULT_RADIUS + ").")
+            @RequestParam(value = "radius", defaultValue = "" + DEFAULT_RADIUS) double radius,
+            @Parameter(description = "Maximum number of POS (1 to " + MAX_PAGE_SIZE + ", default " +
+                    DEFAULT_NEARBY_LIMIT + ").")
+            @RequestParam(value = "limit", defaultValue = "" + DEFAULT_NEARBY_LIMIT) int limit) {
+
+        if (radius > MAX_RADIUS) {
+            throw new IllegalArgumentException("Radius must not exceed " + MAX_RADIUS + " m.");
+        }
+        if (limit > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Page size must be between 1 and " + MAX_PAGE_SIZE + ".");
+        }
+        return ResponseEntity.ok(
+                posService.nearby(latitude, longitude, radius, limit).stream()
                         .map(posDtoMapper::fromDomain)
                         .toList()
         );
@@ -67,6 +384,10 @@ public class PosController {
                             ),
                             description = "The POS with the provided ID as a JSON object."
                     ),
+                    @ApiResponse(
+                            responseCode = "304",
+                            description = "The POS did not change since the version in 'If-None-Match'."
+                    ),
                     @ApiResponse(
                             responseCode = "404",
                             content = @Content(
@@ -79,11 +400,10 @@ public class PosController {
     )
     @GetMapping("/{id}")
     public ResponseEntity<PosDto> getById(
-            @PathVariable Long id) {
+            @PathVariable Long id,
+            WebRequest request) {
 
-        return ResponseEntity.ok(
-                posDtoMapper.fromDomain(posService.getById(id))
-        );
+        return getIfModified(posService.getById(id), request);
     }
 
     @Operation(
@@ -97,6 +417,10 @@ public class PosController {
                             ),
                             description = "The POS with the provided name as a JSON object."
                     ),
+                    @ApiResponse(
+                            responseCode = "304",
+                            description = "The POS did not change since the version in 'If-None-Match'."
+                    ),
                     @ApiResponse(
                             responseCode = "404",
                             content = @Content(
@@ -109,11 +433,10 @@ public class PosController {
     )
     @GetMapping("/filter")
     public ResponseEntity<PosDto> filter(
-            @RequestParam("name") String name) {
+            @RequestParam("name") String name,
+            WebRequest request) {
 
-        return ResponseEntity.ok(
-                posDtoMapper.fromDomain(posService.getByName(name))
-        );
+        return getIfModified(posService.getByName(name), request);
     }
 
     @Operation(
@@ -141,12 +464,48 @@ public class PosController {
     public ResponseEntity<PosDto> create(
             @RequestBody @Valid PosDto posDto) {
 
-        PosDto created = upsert(posDto);
+        PosDto created = upsert(posDto, null);
         return ResponseEntity
                 .created(getLocation(created.id()))
+                .eTag(ControllerUtils.getETag(created.id(), created.version()))
                 .body(created);
     }
 
+    @Operation(
+            summary = "Create or update multiple POS at once.",
+            description = "POS without an ID are created, POS with an ID are updated. The POS are written in " +
+                    "batches, and a failing POS (e.g., duplicate name or unknown ID) does not affect the others. " +
+                    "The response contains one result per POS in the order of the request body.",
+            responses = {
+                    @ApiResponse(
+                            responseCode = "200",
+                            content = @Content(
+                                    mediaType = "application/json",
+                                    schema = @Schema(type = "array", implementation = BatchItemResultDto.class)
+                            ),
+                            description = "One result per POS, either with the upserted POS or with the error."
+                    ),
+                    @ApiResponse(
+                            responseCode = "400",
+                            content = @Content(
+                                    mediaType = "application/json",
+                                    schema = @Schema(implementation = ErrorResponse.class)
+                            ),
+                            description = "Bean validation failed for at least one POS."
+                    )
+            }
+    )
+    @PostMapping("/batch")
+    public ResponseEntity<List<BatchItemResultDto<PosDto>>> upsertAll(
+            @RequestBody List<@Valid PosDto> posDtos) {
+
+        return ResponseEntity.ok(
+                posService.upsertAll(posDtos.stream().map(posDtoMapper::toDomain).toList()).stream()
+                        .map(result -> BatchItemResultDto.fromDomain(result, posDtoMapper::fromDomain))
+                        .toList()
+        );
+    }
+
     @Operation(
             summary = "Import a new POS from an OpenStreetMap node.",
             responses = {
@@ -189,8 +548,46 @@ public class PosController {
                 .body(createdPos);
     }
 
+    @Operation(
+            summary = "Import multiple POS from OpenStreetMap nodes at once.",
+            description = "The nodes are fetched concurrently, limited by the configured OSM API request limits. " +
+                    "A failing node (e.g., not found or missing address fields) does not affect the others. " +
+                    "The response contains one result per node ID in the order of the request body.",
+            responses = {
+                    @ApiResponse(
+                            responseCode = "200",
+                            content = @Content(
+                                    mediaType = "application/json",
+                                    schema = @Schema(type = "array", implementation = BatchItemResultDto.class)
+                            ),
+                            description = "One result per node ID, either with the imported POS or with the error."
+                    ),
+                    @ApiResponse(
+                            responseCode = "400",
+                            content = @Content(
+                                    mediaType = "application/json",
+                                    schema = @Schema(implementation = ErrorResponse.class)
+                            ),
+                            description = "Validation failed (e.g., no node IDs or missing campus type)."
+                    )
+            }
+    )
+    @PostMapping("/import/osm")
+    public ResponseEntity<List<BatchItemResultDto<PosDto>>> importAll(
+            @RequestBody @Valid OsmImportDto osmImportDto) {
+
+        return ResponseEntity.ok(
+                posService.importFromOsmNodes(osmImportDto.nodeIds(), osmImportDto.campusType()).stream()
+                        .map(result -> BatchItemResultDto.fromDomain(result, posDtoMapper::fromDomain))
+                        .toList()
+        );
+    }
+
     @Operation(
             summary = "Update an existing POS by ID.",
+            description = "Pass the 'ETag' of the POS in 'If-Match' to update it only if it was not changed since " +
+                    "it was read. Without 'If-Match', the POS is overwritten regardless of its version. " +
+                    "The response contains the new 'ETag'.",
             responses = {
                     @ApiResponse(
                             responseCode = "200",
@@ -215,20 +612,31 @@ public class PosController {
                                     schema = @Schema(implementation = ErrorResponse.class)
                             ),
                             description = "No POS with the provided ID could be found."
+                    ),
+                    @ApiResponse(
+                            responseCode = "412",
+                            content = @Content(
+                                    mediaType = "application/json",
+                                    schema = @Schema(implementation = ErrorResponse.class)
+                            ),
+                            description = "The POS was changed since the version in 'If-Match' was read."
                     )
             }
     )
     @PutMapping("/{id}")
     public ResponseEntity<PosDto> update(
             @PathVariable Long id,
+            @Parameter(description = "'ETag' of the POS the update is based on (optional).")
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
             @RequestBody @Valid PosDto posDto) {
 
         if (!id.equals(posDto.id())) {
             throw new IllegalArgumentException("POS ID in path and body do not match.");
         }
-        return ResponseEntity.ok(
-                upsert(posDto)
-        );
+        PosDto updated = upsert(posDto, ControllerUtils.getExpectedVersion(ifMatch, id));
+        return ResponseEntity.ok()
+                .eTag(ControllerUtils.getETag(updated.id(), updated.version()))
+                .body(updated);
     }
 
     @Operation(
@@ -255,16 +663,49 @@ public class PosController {
         return ResponseEntity.noContent().build();
     }
 
+    /**
+     * Builds a filter that limits the serialized POS to the selected fields (see {@link JacksonConfig}).
+     *
+     * @param fields the names of the fields to serialize
+     * @return the filter provider to pass to the response body
+     * @throws IllegalArgumentException if a field does not exist
+     */
+    private static FilterProvider getFieldFilter(List<String> fields) {
+        for (String field : fields) {
+            if (!POS_FIELDS.contains(field)) {
+                throw new IllegalArgumentException("POS have no field '" + field + "'.");
+            }
+        }
+        return new SimpleFilterProvider()
+                .addFilter(JacksonConfig.FIELD_FILTER, SimpleBeanPropertyFilter.filterOutAllExcept(Set.copyOf(fields)));
+    }
+
+    /**
+     * Common response logic for reading a single POS: maps the POS only if the client's copy is outdated.
+     *
+     * @param pos     the requested POS
+     * @param request the current request with the conditional headers
+     * @return the POS as a DTO, or an empty response with status 304 if the client's copy is up to date
+     */
+    private ResponseEntity<PosDto> getIfModified(Pos pos, WebRequest request) {
+        if (ControllerUtils.isNotModified(request, pos.id(), pos.version(), pos.updatedAt())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).build();
+        }
+        return ResponseEntity.ok(posDtoMapper.fromDomain(pos));
+    }
+
     /**
      * Common upsert logic for create and update.
+     * The version in the body is ignored; an update is conditional only if the client sent 'If-Match'.
      *
-     * @param posDto the POS DTO to map and upsert
+     * @param posDto          the POS DTO to map and upsert
+     * @param expectedVersion the version the POS must still have, or null to overwrite any version
      * @return the upserted POS mapped back to the DTO format.
      */
-    private PosDto upsert(PosDto posDto) {
+    private PosDto upsert(PosDto posDto, @Nullable Long expectedVersion) {
         return posDtoMapper.fromDomain(
                 posService.upsert(
-                        posDtoMapper.toDomain(posDto)
+                        posDtoMapper.toDomain(posDto.toBuilder().version(expectedVersion).build())
                 )
         );
     }
@@ -2,6 +2,10 @@ package de.seuhd.campuscoffee.api.controller;
 
 import java.util.List;
 
+import org.jspecify.annotations.Nullable;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -10,15 +14,23 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import de.seuhd.campuscoffee.api.dtos.UserDto;
 import de.seuhd.campuscoffee.api.exceptions.ErrorResponse;
 import de.seuhd.campuscoffee.api.mapper.UserDtoMapper;
+import de.seuhd.campuscoffee.api.sse.ChangeBroadcaster;
+import de.seuhd.campuscoffee.api.sse.ChangeStreams;
+import de.seuhd.campuscoffee.api.util.ControllerUtils;
 import static de.seuhd.campuscoffee.api.util.ControllerUtils.getLocation;
+import de.seuhd.campuscoffee.domain.model.User;
 import de.seuhd.campuscoffee.domain.ports.UserService;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -35,6 +47,7 @@ import lombok.extern.slf4j.Slf4j;
 public class UserController {
     private final UserService userService;
     private final UserDtoMapper userDtoMapper;
+    private final ChangeStreams changeStreams;
 
     @Operation(
         summary = "Get all Users.",
@@ -46,17 +59,43 @@ public class UserController {
                     schema = @Schema(type = "array", implementation = UserDto.class)
                 ),
                 description = "All Users as JSON array."
+            ),
+            @ApiResponse(
+                responseCode = "304",
+                description = "No User changed since the version in 'If-None-Match' or 'If-Modified-Since'."
             )
         }
     )
     @GetMapping("")
-    public ResponseEntity<List<UserDto>> getAll() {
+    public ResponseEntity<List<UserDto>> getAll(
+            WebRequest request) {
 
-        return ResponseEntity.ok(
-            userService.getall().stream()
+        return userService.getAllIfModified(version -> ControllerUtils.isNotModified(request, version))
+            .map(users -> ResponseEntity.ok(
+                users.stream()
                       .map(userDtoMapper::fromDomain)
                       .toList()
-        );
+            ))
+            .orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_MODIFIED).build());
+    }
+
+    @Operation(
+            summary = "Stream User changes as server-sent events.",
+            description = "Sends an 'upserted' event with the User whenever a User is created or updated, and a " +
+                    "'deleted' event with its ID whenever a User is deleted. Slow clients receive coalesced events " +
+                    "or a single '" + ChangeBroadcaster.RESET_EVENT + "' event, after which they have to fetch the " +
+                    "Users again.",
+            responses = {
+                    @ApiResponse(
+                            responseCode = "200",
+                            content = @Content(mediaType = MediaType.TEXT_EVENT_STREAM_VALUE),
+                            description = "A stream of change events that stays open until the stream times out."
+                    )
+            }
+    )
+    @GetMapping(path = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter stream() {
+        return changeStreams.subscribeToUsers();
     }
 
     @Operation(
@@ -70,6 +109,10 @@ public class UserController {
                             ),
                             description = "The User with the provided ID as a JSON object."
                     ),
+                    @ApiResponse(
+                            responseCode = "304",
+                            description = "The User did not change since the version in 'If-None-Match'."
+                    ),
                     @ApiResponse(
                             responseCode = "404",
                             content = @Content(
@@ -82,11 +125,10 @@ public class UserController {
     )
     @GetMapping("/{id}")
     public ResponseEntity<UserDto> getById(
-            @PathVariable Long id) {
+            @PathVariable Long id,
+            WebRequest request) {
 
-        return ResponseEntity.ok(
-                userDtoMapper.fromDomain(userService.getById(id))
-        );
+        return getIfModified(userService.getById(id), request);
     }
 
     @Operation(
@@ -100,6 +142,10 @@ public class UserController {
                             ),
                             description = "The User with the provided name as a JSON object."
                     ),
+                    @ApiResponse(
+                            responseCode = "304",
+                            description = "The User did not change since the version in 'If-None-Match'."
+                    ),
                     @ApiResponse(
                             responseCode = "404",
                             content = @Content(
@@ -112,11 +158,10 @@ public class UserController {
     )
     @GetMapping("/filter")
     public ResponseEntity<UserDto> filter(
-            @RequestParam("name") String name) {
+            @RequestParam("name") String name,
+            WebRequest request) {
 
-        return ResponseEntity.ok(
-                userDtoMapper.fromDomain(userService.getByName(name))
-        );
+        return getIfModified(userService.getByName(name), request);
     }
 
     @Operation(
@@ -144,14 +189,18 @@ public class UserController {
     public ResponseEntity<UserDto> create(
             @RequestBody @Valid UserDto userDto) {
 
-        UserDto created = upsert(userDto);
+        UserDto created = upsert(userDto, null);
         return ResponseEntity
                 .created(getLocation(created.id()))
+                .eTag(ControllerUtils.getETag(created.id(), created.version()))
                 .body(created);
     }
 
     @Operation(
             summary = "Update an existing User by ID.",
+            description = "Pass the 'ETag' of the User in 'If-Match' to update it only if it was not changed since " +
+                    "it was read. Without 'If-Match', the User is overwritten regardless of its version. " +
+                    "The response contains the new 'ETag'.",
             responses = {
                     @ApiResponse(
                             responseCode = "200",
@@ -176,20 +225,31 @@ public class UserController {
                                     schema = @Schema(implementation = ErrorResponse.class)
                             ),
                             description = "No User with the provided ID could be found."
+                    ),
+                    @ApiResponse(
+                            responseCode = "412",
+                            content = @Content(
+                                    mediaType = "application/json",
+                                    schema = @Schema(implementation = ErrorResponse.class)
+                            ),
+                            description = "The User was changed since the version in 'If-Match' was read."
                     )
             }
     )
     @PutMapping("/{id}")
     public ResponseEntity<UserDto> update(
             @PathVariable Long id,
+            @Parameter(description = "'ETag' of the User the update is based on (optional).")
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
             @RequestBody @Valid UserDto userDto) {
 
         if (!id.equals(userDto.id())) {
             throw new IllegalArgumentException("User ID in path and body do not match.");
         }
-        return ResponseEntity.ok(
-                upsert(userDto)
-        );
+        UserDto updated = upsert(userDto, ControllerUtils.getExpectedVersion(ifMatch, id));
+        return ResponseEntity.ok()
+                .eTag(ControllerUtils.getETag(updated.id(), updated.version()))
+                .body(updated);
     }
 
     @Operation(
@@ -216,16 +276,32 @@ public class UserController {
         return ResponseEntity.noContent().build();
     }
 
+    /**
+     * Common response logic for reading a single User: maps the User only if the client's copy is outdated.
+     *
+     * @param user    the requested User
+     * @param request the current request with the conditional headers
+     * @return the User as a DTO, or an empty response with status 304 if the client's copy is up to date
+     */
+    private ResponseEntity<UserDto> getIfModified(User user, WebRequest request) {
+        if (ControllerUtils.isNotModified(request, user.id(), user.version(), user.updatedAt())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).build();
+        }
+        return ResponseEntity.ok(userDtoMapper.fromDomain(user));
+    }
+
     /**
      * Common upsert logic for create and update.
+     * The version in the body is ignored; an update is conditional only if the client sent 'If-Match'.
      *
-     * @param posDto the POS DTO to map and upsert
-     * @return the upserted POS mapped back to the DTO format.
+     * @param userDto         the User DTO to map and upsert
+     * @param expectedVersion the version the User must still have, or null to overwrite any version
+     * @return the upserted User mapped back to the DTO format.
      */
-    private UserDto upsert(UserDto userDto) {
+    private UserDto upsert(UserDto userDto, @Nullable Long expectedVersion) {
         return userDtoMapper.fromDomain(
                 userService.upsert(
-                        userDtoMapper.toDomain(userDto)
+                        userDtoMapper.toDomain(userDto.toBuilder().version(expectedVersion).build())
                 )
         );
     }
@@ -0,0 +1,52 @@
+package de.seuhd.campuscoffee.api.dtos;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import de.seuhd.campuscoffee.api.exceptions.ErrorMapping;
+import de.seuhd.campuscoffee.domain.model.BatchItemResult;
+import lombok.Builder;
+import org.jspecify.annotations.NonNull;
+import org.jspecify.annotations.Nullable;
+
+import java.util.function.Function;
+
+/**
+ * DTO record for the outcome of a single item of a batch request.
+ * Failed items carry the same status code, error code, and message that the corresponding single-item request would
+ * return (see {@link ErrorMapping}).
+ *
+ * @param <T> the type of the DTO returned for succeeded items
+ */
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL) // excludes null fields from JSON
+public record BatchItemResultDto<T>(
+        int index, // position of the item in the request body
+        @NonNull Status status,
+        @Nullable T value, // is null if the item failed
+        @Nullable Integer statusCode, // is null if the item succeeded
+        @Nullable String errorCode, // is null if the item succeeded
+        @Nullable String message // is null if the item succeeded
+) {
+    public enum Status {
+        SUCCEEDED, FAILED
+    }
+
+    /**
+     * Converts a domain batch result to a DTO.
+     *
+     * @param result the domain batch result
+     * @param mapper maps the value of a succeeded item to its DTO
+     * @param <S>    the domain type of the value
+     * @param <T>    the DTO type of the value
+     * @return the batch result as a DTO
+     */
+    public static <S, T> @NonNull BatchItemResultDto<T> fromDomain(
+            @NonNull BatchItemResult<S> result, @NonNull Function<? super S, ? extends T> mapper) {
+        if (result.error() != null) {
+            return new BatchItemResultDto<>(result.index(), Status.FAILED, null,
+                    ErrorMapping.statusOf(result.error()).value(), ErrorMapping.errorCodeOf(result.error()),
+                    ErrorMapping.messageOf(result.error()));
+        }
+        return new BatchItemResultDto<>(result.index(), Status.SUCCEEDED,
+                mapper.apply(result.value()), null, null, null);
+    }
+}
@@ -0,0 +1,22 @@
+package de.seuhd.campuscoffee.api.dtos;
+
+import de.seuhd.campuscoffee.domain.model.CampusType;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.Builder;
+import org.jspecify.annotations.NonNull;
+
+import java.util.List;
+
+/**
+ * DTO record for importing multiple POS from OpenStreetMap nodes at once.
+ */
+@Builder(toBuilder = true)
+public record OsmImportDto(
+        @NotNull
+        @Size(min = 1, max = 1000, message = "Between 1 and 1000 OSM node IDs can be imported at once.")
+        @NonNull List<@NotNull Long> nodeIds,
+
+        @NotNull
+        @NonNull CampusType campusType // assigned to all imported POS
+) {}
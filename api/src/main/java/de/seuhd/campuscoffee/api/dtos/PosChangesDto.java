@@ -0,0 +1,32 @@
+package de.seuhd.campuscoffee.api.dtos;
+
+import de.seuhd.campuscoffee.domain.model.Pos;
+import de.seuhd.campuscoffee.domain.model.PosChanges;
+import lombok.Builder;
+import org.jspecify.annotations.NonNull;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * DTO record for the changes of the POS since a given sync token.
+ * Deleted POS are only listed by ID, so the size of the response depends on the number of changes only.
+ */
+@Builder
+public record PosChangesDto(
+        @NonNull List<PosDto> updated, // created or updated POS, ordered by ID
+        @NonNull List<Long> deleted, // IDs of deleted POS; apply after 'updated', since a POS may be in both
+        @NonNull Long next // pass as 'since' to the next request
+) {
+    /**
+     * Converts domain POS changes to a DTO.
+     *
+     * @param changes the domain POS changes
+     * @param mapper  maps a changed POS to its DTO
+     * @return the POS changes as a DTO
+     */
+    public static @NonNull PosChangesDto fromDomain(
+            @NonNull PosChanges changes, @NonNull Function<? super Pos, PosDto> mapper) {
+        return new PosChangesDto(changes.updated().stream().map(mapper).toList(), changes.deleted(), changes.next());
+    }
+}
@@ -1,7 +1,11 @@
 package de.seuhd.campuscoffee.api.dtos;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import de.seuhd.campuscoffee.domain.model.CampusType;
 import de.seuhd.campuscoffee.domain.model.PosType;
+import jakarta.validation.constraints.AssertTrue;
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Size;
@@ -19,6 +23,7 @@ public record PosDto(
         @Nullable Long id, // id is null when creating a new task
         @Nullable LocalDateTime createdAt, // is null when using DTO to create a new POS
         @Nullable LocalDateTime updatedAt, // is set when creating or updating a POS
+        @Nullable Long version, // is set by the server; an update takes the expected version from 'If-Match' instead
 
         @Size(min = 1, max = 255, message = "Name must be between 1 and 255 characters long.")
         @NonNull String name,
@@ -44,5 +49,27 @@ public record PosDto(
 
         @NotNull
         @Size(min = 1, max = 255, message = "City must be between 1 and 255 characters long.")
-        @NonNull String city
-) {}
+        @NonNull String city,
+
+        @Nullable Long osmNodeId, // is set when the POS was imported from OpenStreetMap; ignored in requests
+        @Nullable Long osmVersion, // is set when the POS was imported from OpenStreetMap; ignored in requests
+
+        @DecimalMin(value = "-90", message = "Latitude must be between -90 and 90 degrees.")
+        @DecimalMax(value = "90", message = "Latitude must be between -90 and 90 degrees.")
+        @Nullable Double latitude, // is set together with longitude, e.g., when imported from OpenStreetMap
+
+        @DecimalMin(value = "-180", message = "Longitude must be between -180 and 180 degrees.")
+        @DecimalMax(value = "180", message = "Longitude must be between -180 and 180 degrees.")
+        @Nullable Double longitude
+) {
+    /**
+     * Checks that the coordinates are given together, as required by the data store.
+     *
+     * @return true if both or neither of latitude and longitude are set
+     */
+    @JsonIgnore
+    @AssertTrue(message = "Latitude and longitude must be set together.")
+    public boolean isLocationComplete() {
+        return (latitude == null) == (longitude == null);
+    }
+}
@@ -20,6 +20,7 @@ public record UserDto (
         @Nullable Long id, // id is null when creating a new user
         @Nullable LocalDateTime createdAt, // is null when using DTO to create a new user
         @Nullable LocalDateTime updatedAt, // is set when creating or updating a user
+        @Nullable Long version, // is set by the server; an update takes the expected version from 'If-Match' instead
 
         @NotNull
         @Size(min = 1, max = 255, message = "Login name must be between 1 and 255 characters long.")
@@ -0,0 +1,75 @@
+package de.seuhd.campuscoffee.api.exceptions;
+
+import de.seuhd.campuscoffee.domain.exceptions.DuplicationException;
+import de.seuhd.campuscoffee.domain.exceptions.MissingFieldException;
+import de.seuhd.campuscoffee.domain.exceptions.NotFoundException;
+import de.seuhd.campuscoffee.domain.exceptions.SyncTokenExpiredException;
+import de.seuhd.campuscoffee.domain.exceptions.ValidationException;
+import de.seuhd.campuscoffee.domain.exceptions.VersionConflictException;
+import org.jspecify.annotations.NonNull;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.MethodArgumentNotValidException;
+import org.springframework.web.method.annotation.HandlerMethodValidationException;
+import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
+
+/**
+ * Maps exceptions to the HTTP status, error code, and message that clients receive, both for failed requests
+ * (see {@link GlobalExceptionHandler}) and for the failed items of batch requests.
+ * Unexpected exceptions are reported without their type and message, which may reveal SQL or constraint names.
+ */
+public final class ErrorMapping {
+    static final String UNEXPECTED_ERROR_CODE = "InternalServerError";
+    static final String UNEXPECTED_ERROR_MESSAGE = "An unexpected error occurred.";
+
+    private ErrorMapping() {
+    }
+
+    /**
+     * Determines the HTTP status for an exception.
+     *
+     * @param exception the exception
+     * @return the HTTP status; 500 (Internal Server Error) for unexpected exceptions
+     */
+    public static @NonNull HttpStatus statusOf(@NonNull Throwable exception) {
+        return switch (exception) {
+            case NotFoundException ignored -> HttpStatus.NOT_FOUND;
+            case DuplicationException ignored -> HttpStatus.CONFLICT;
+            case VersionConflictException ignored -> HttpStatus.PRECONDITION_FAILED;
+            case SyncTokenExpiredException ignored -> HttpStatus.GONE;
+            case IllegalArgumentException ignored -> HttpStatus.BAD_REQUEST;
+            case MissingFieldException ignored -> HttpStatus.BAD_REQUEST;
+            case MethodArgumentTypeMismatchException ignored -> HttpStatus.BAD_REQUEST; // e.g., unknown enum value
+            case ValidationException ignored -> HttpStatus.BAD_REQUEST;
+            case MethodArgumentNotValidException ignored -> HttpStatus.BAD_REQUEST; // see usages of @Valid
+            case HandlerMethodValidationException ignored -> HttpStatus.BAD_REQUEST; // e.g., List<@Valid PosDto>
+            default -> HttpStatus.INTERNAL_SERVER_ERROR;
+        };
+    }
+
+    /**
+     * Determines the machine-readable error code for an exception.
+     *
+     * @param exception the exception
+     * @return the simple class name of the exception (e.g., NotFoundException), or a generic code for unexpected
+     *         exceptions
+     */
+    public static @NonNull String errorCodeOf(@NonNull Throwable exception) {
+        return isUnexpected(exception) ? UNEXPECTED_ERROR_CODE : exception.getClass().getSimpleName();
+    }
+
+    /**
+     * Determines the human-readable message for an exception.
+     *
+     * @param exception the exception
+     * @return the message of the exception, or a generic message for unexpected exceptions
+     */
+    public static @NonNull String messageOf(@NonNull Throwable exception) {
+        return isUnexpected(exception) || exception.getMessage() == null
+                ? UNEXPECTED_ERROR_MESSAGE
+                : exception.getMessage();
+    }
+
+    private static boolean isUnexpected(Throwable exception) {
+        return statusOf(exception) == HttpStatus.INTERNAL_SERVER_ERROR;
+    }
+}
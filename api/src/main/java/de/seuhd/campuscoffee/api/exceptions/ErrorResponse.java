@@ -16,7 +16,8 @@ import java.time.LocalDateTime;
 @JsonInclude(JsonInclude.Include.NON_NULL) // excludes null fields from JSON
 public class ErrorResponse {
     /**
-     * Machine-readable error code based on exception class name (e.g., NotFoundException).
+     * Machine-readable error code based on exception class name (e.g., NotFoundException); InternalServerError for
+     * unexpected errors.
      * Enables clients to handle specific error types programmatically.
      */
     @NonNull
@@ -3,7 +3,9 @@ package de.seuhd.campuscoffee.api.exceptions;
 import de.seuhd.campuscoffee.domain.exceptions.DuplicationException;
 import de.seuhd.campuscoffee.domain.exceptions.NotFoundException;
 import de.seuhd.campuscoffee.domain.exceptions.MissingFieldException;
+import de.seuhd.campuscoffee.domain.exceptions.SyncTokenExpiredException;
 import de.seuhd.campuscoffee.domain.exceptions.ValidationException;
+import de.seuhd.campuscoffee.domain.exceptions.VersionConflictException;
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
@@ -13,12 +15,14 @@ import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.context.request.ServletWebRequest;
 import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.method.annotation.HandlerMethodValidationException;
+import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
 
 import java.time.LocalDateTime;
 
 /**
  * Global exception handler for all controllers.
- * Provides centralized exception handling and standardized error responses.
+ * Provides centralized exception handling and standardized error responses (see {@link ErrorMapping}).
  */
 @Slf4j
 @ControllerAdvice
@@ -40,7 +44,7 @@ public class GlobalExceptionHandler {
             WebRequest request
     ) {
         log.warn("Resource not found: {}", exception.getMessage());
-        return buildErrorResponse(exception, HttpStatus.NOT_FOUND, request);
+        return buildErrorResponse(exception, request);
     }
 
     /**
@@ -59,7 +63,46 @@ public class GlobalExceptionHandler {
             WebRequest request
     ) {
         log.warn("Duplicate resource: {}", exception.getMessage());
-        return buildErrorResponse(exception, HttpStatus.CONFLICT, request);
+        return buildErrorResponse(exception, request);
+    }
+
+    /**
+     * Handles conditional updates of entities that were changed since the expected version was read.
+     * Returns HTTP 412 (Precondition Failed), since the version is sent in the 'If-Match' header.
+     *
+     * @param exception the version conflict exception that was thrown
+     * @param request the web request
+     * @return ResponseEntity with ErrorResponse and HTTP 412
+     */
+    @ExceptionHandler({
+            VersionConflictException.class
+    })
+    public ResponseEntity<ErrorResponse> handleVersionConflictException(
+            RuntimeException exception,
+            WebRequest request
+    ) {
+        log.warn("Version conflict: {}", exception.getMessage());
+        return buildErrorResponse(exception, request);
+    }
+
+    /**
+     * Handles requests for changes since sync tokens that are older than the retained deletions.
+     * Returns HTTP 410 (Gone), since the changes since the token are no longer available; the client has to fetch
+     * all entities again.
+     *
+     * @param exception the sync token expired exception that was thrown
+     * @param request the web request
+     * @return ResponseEntity with ErrorResponse and HTTP 410
+     */
+    @ExceptionHandler({
+            SyncTokenExpiredException.class
+    })
+    public ResponseEntity<ErrorResponse> handleSyncTokenExpiredException(
+            RuntimeException exception,
+            WebRequest request
+    ) {
+        log.warn("Sync token expired: {}", exception.getMessage());
+        return buildErrorResponse(exception, request);
     }
 
     /**
@@ -72,14 +115,15 @@ public class GlobalExceptionHandler {
      */
     @ExceptionHandler({
             IllegalArgumentException.class,
-            MissingFieldException.class
+            MissingFieldException.class,
+            MethodArgumentTypeMismatchException.class // e.g., unknown enum value in a query parameter
     })
     public ResponseEntity<ErrorResponse> handleBadRequestException(
             RuntimeException exception,
             WebRequest request
     ) {
         log.warn("Bad request: {}", exception.getMessage());
-        return buildErrorResponse(exception, HttpStatus.BAD_REQUEST, request);
+        return buildErrorResponse(exception, request);
     }
 
     /**
@@ -92,14 +136,15 @@ public class GlobalExceptionHandler {
      */
     @ExceptionHandler({
             ValidationException.class,
-            MethodArgumentNotValidException.class // see usages of @Valid annotation
+            MethodArgumentNotValidException.class, // see usages of @Valid annotation
+            HandlerMethodValidationException.class // @Valid on container elements, e.g., List<@Valid PosDto>
     })
     public ResponseEntity<ErrorResponse> handleDomainValidationException(
-            RuntimeException exception,
+            Exception exception,
             WebRequest request
     ) {
         log.warn("Domain validation failed: {}", exception.getMessage());
-        return buildErrorResponse(exception, HttpStatus.BAD_REQUEST, request);
+        return buildErrorResponse(exception, request);
     }
 
     /**
@@ -116,44 +161,25 @@ public class GlobalExceptionHandler {
             WebRequest request
     ) {
         log.error("Unexpected error occurred", exception);
-        return buildErrorResponse(exception, HttpStatus.INTERNAL_SERVER_ERROR, request,
-                "An unexpected error occurred.");
+        return buildErrorResponse(exception, request);
     }
 
     /**
-     * Builds a standardized error response using the exception message.
+     * Builds a standardized error response with the status, error code, and message that {@link ErrorMapping}
+     * determines for the exception, so that failed requests and failed items of batch requests look the same.
      *
      * @param exception the exception that was thrown
-     * @param status the HTTP status to return
      * @param request the web request
-     * @return ResponseEntity with ErrorResponse and the specified HTTP status
+     * @return ResponseEntity with ErrorResponse and the HTTP status of the exception
      */
     private ResponseEntity<ErrorResponse> buildErrorResponse(
             Exception exception,
-            HttpStatus status,
             WebRequest request
     ) {
-        return buildErrorResponse(exception, status, request, exception.getMessage());
-    }
-
-    /**
-     * Builds a standardized error response with a custom message.
-     *
-     * @param exception the exception that was thrown
-     * @param status the HTTP status to return
-     * @param request the web request
-     * @param message custom error message (overrides exception message).
-     * @return ResponseEntity with ErrorResponse and the specified HTTP status
-     */
-    private ResponseEntity<ErrorResponse> buildErrorResponse(
-            Exception exception,
-            HttpStatus status,
-            WebRequest request,
-            String message
-    ) {
+        HttpStatus status = ErrorMapping.statusOf(exception);
         ErrorResponse error = ErrorResponse.builder()
-                .errorCode(exception.getClass().getSimpleName())
-                .message(message)
+                .errorCode(ErrorMapping.errorCodeOf(exception))
+                .message(ErrorMapping.messageOf(exception))
                 .statusCode(status.value())
                 .statusMessage(status.getReasonPhrase())
                 .timestamp(LocalDateTime.now())
@@ -0,0 +1,87 @@
+package de.seuhd.campuscoffee.api.filter;
+
+import de.seuhd.campuscoffee.domain.model.ReadConsistency;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.jspecify.annotations.NonNull;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Set;
+
+/**
+ * Filter that requires the latest state for the reads of a client for {@code replicas.read-your-writes} after the
+ * client wrote (see {@link ReadConsistency}), so that the client does not miss its own changes on a database replica
+ * that lags behind. Active only if replicas are configured ({@code replicas.urls}).
+ * <p>
+ * Each write request sets a cookie that expires at the end of this time; the reads of requests with the cookie, and
+ * of the write requests themselves, are served by the primary.
+ */
+@Component
+@ConditionalOnProperty("replicas.urls[0]")
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+    public static final String COOKIE_NAME = "read-primary-until";
+    private static final Set<String> READ_METHODS = Set.of("GET", "HEAD", "OPTIONS", "TRACE");
+
+    private final Duration readYourWrites;
+
+    public ReadYourWritesFilter(@Value("${replicas.read-your-writes:5s}") Duration readYourWrites) {
+        this.readYourWrites = readYourWrites;
+    }
+
+    @Override
+    protected void doFilterInternal(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response,
+                                    @NonNull FilterChain filterChain) throws ServletException, IOException {
+        long now = System.currentTimeMillis();
+        boolean writes = !READ_METHODS.contains(request.getMethod());
+        if (!writes && !readsOwnWrites(request, now)) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        if (writes) {
+            // the cookie is set before the response is committed; a failed write only sends a few more reads to the
+            // primary
+            Cookie cookie = new Cookie(COOKIE_NAME, Long.toString(now + readYourWrites.toMillis()));
+            cookie.setMaxAge((int) Math.ceil(readYourWrites.toMillis() / 1000.0));
+            cookie.setPath("/");
+            cookie.setHttpOnly(true);
+            response.addCookie(cookie);
+        }
+        try (ReadConsistency.Scope ignored = ReadConsistency.requireLatest()) {
+            filterChain.doFilter(request, response);
+        }
+    }
+
+    /**
+     * Checks whether the client wrote recently, i.e., sent a cookie that has not expired yet.
+     * The expiry time is checked as well, in case a client keeps cookies longer than requested.
+     *
+     * @param request the current request
+     * @param now     the current time in milliseconds since the epoch
+     * @return true if the reads of the request must see the latest state
+     */
+    private static boolean readsOwnWrites(HttpServletRequest request, long now) {
+        Cookie[] cookies = request.getCookies();
+        if (cookies == null) {
+            return false;
+        }
+        for (Cookie cookie : cookies) {
+            if (COOKIE_NAME.equals(cookie.getName())) {
+                try {
+                    return Long.parseLong(cookie.getValue()) > now;
+                } catch (NumberFormatException e) {
+                    return false;
+                }
+            }
+        }
+        return false;
+    }
+}
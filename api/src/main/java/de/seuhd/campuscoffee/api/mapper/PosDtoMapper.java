@@ -3,6 +3,7 @@ package de.seuhd.campuscoffee.api.mapper;
 import de.seuhd.campuscoffee.api.dtos.PosDto;
 import de.seuhd.campuscoffee.domain.model.Pos;
 import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
 
 /**
@@ -12,10 +13,15 @@ import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean
  * <p>
  * This is part of the API layer adapter in the hexagonal architecture, enabling the
  * domain layer to remain independent of API concerns.
+ * <p>
+ * The OSM node and version of a POS are only set by imports and syncs, so clients cannot change them: they are
+ * ignored when converting a DTO to the domain model, and updates keep the stored values.
  */
 @Mapper(componentModel = "spring")
 @ConditionalOnMissingBean // prevent IntelliJ warning about duplicate beans
 public interface PosDtoMapper {
     PosDto fromDomain(Pos source);
+    @Mapping(target = "osmNodeId", ignore = true)
+    @Mapping(target = "osmVersion", ignore = true)
     Pos toDomain(PosDto source);
 }
@@ -0,0 +1,165 @@
+package de.seuhd.campuscoffee.api.sse;
+
+import org.springframework.http.MediaType;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Fans out change events to the subscribers of a server-sent event (SSE) stream without blocking the publisher.
+ * <p>
+ * Each subscriber has a bounded buffer of pending events. A task on the given executor drains the buffer only while
+ * it is not empty, so idle subscribers do not occupy a thread, and a slow subscriber only delays itself. Pending
+ * events with the same key (e.g., the ID of a POS) are coalesced, so a slow subscriber receives the latest state of
+ * each POS instead of every intermediate state. If the buffer of a subscriber overflows nevertheless, its pending
+ * events are dropped and replaced by a single {@value #RESET_EVENT} event, after which the client has to fetch the
+ * current state.
+ */
+public class ChangeBroadcaster {
+    public static final String RESET_EVENT = "reset";
+    private static final Object RESET_KEY = new Object();
+    private static final Object HEARTBEAT_KEY = new Object();
+    private static final Set<DataWithMediaType> RESET = SseEmitter.event().name(RESET_EVENT).data("").build();
+    private static final Set<DataWithMediaType> HEARTBEAT = SseEmitter.event().comment("heartbeat").build();
+    private static final Set<DataWithMediaType> CONNECTED = SseEmitter.event().comment("connected").build();
+
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final Executor executor;
+    private final int bufferSize;
+    private final Duration timeout;
+
+    /**
+     * @param executor   runs the tasks that send the pending events to the subscribers, e.g., on virtual threads
+     * @param bufferSize the maximum number of pending events per subscriber
+     * @param timeout    the time after which a stream is closed (clients reconnect automatically)
+     */
+    public ChangeBroadcaster(Executor executor, int bufferSize, Duration timeout) {
+        if (bufferSize < 1) {
+            throw new IllegalArgumentException("Buffer size must be positive, but was " + bufferSize + ".");
+        }
+        this.executor = executor;
+        this.bufferSize = bufferSize;
+        this.timeout = timeout;
+    }
+
+    /**
+     * Opens a new stream that receives all events published from now on.
+     *
+     * @return the emitter to return from the controller method
+     */
+    public SseEmitter subscribe() {
+        SseEmitter emitter = new SseEmitter(timeout.toMillis());
+        Subscriber subscriber = new Subscriber(emitter);
+        // completion is also signaled after timeouts and errors
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onError(error -> subscribers.remove(subscriber));
+        subscribers.add(subscriber);
+        // the response headers are only sent with the first data, so clients would not know the stream is open
+        subscriber.offer(HEARTBEAT_KEY, CONNECTED);
+        return emitter;
+    }
+
+    /**
+     * @return true if at least one stream is open, i.e., if published events are sent to anybody
+     */
+    public boolean hasSubscribers() {
+        return !subscribers.isEmpty();
+    }
+
+    /**
+     * Publishes an event to all open streams. Never blocks on a subscriber.
+     *
+     * @param key  the key of the changed object; a pending event with the same key is replaced by this event
+     * @param name the name of the event
+     * @param json the data of the event, serialized once for all subscribers
+     */
+    public void publish(Object key, String name, String json) {
+        Set<DataWithMediaType> event = SseEmitter.event().name(name).data(json, MediaType.APPLICATION_JSON).build();
+        subscribers.forEach(subscriber -> subscriber.offer(key, event));
+    }
+
+    /**
+     * Sends a comment to all open streams, so that idle connections are not closed by proxies and disconnected
+     * clients are detected.
+     */
+    public void sendHeartbeat() {
+        subscribers.forEach(subscriber -> subscriber.offer(HEARTBEAT_KEY, HEARTBEAT));
+    }
+
+    /**
+     * An open stream with its buffer of pending events.
+     */
+    private final class Subscriber implements Runnable {
+        private final SseEmitter emitter;
+        // insertion order is the order in which the events are sent; guarded by this
+        private final Map<Object, Set<DataWithMediaType>> pending = new LinkedHashMap<>();
+        // true while a task is scheduled or running for this subscriber; guarded by this
+        private boolean draining;
+
+        Subscriber(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        void offer(Object key, Set<DataWithMediaType> event) {
+            synchronized (this) {
+                if (pending.containsKey(RESET_KEY)) {
+                    return; // the client fetches the current state anyway
+                }
+                // removing the key first moves a coalesced event to the end of the buffer
+                pending.remove(key);
+                if (pending.size() < bufferSize) {
+                    pending.put(key, event);
+                } else {
+                    pending.clear();
+                    pending.put(RESET_KEY, RESET);
+                }
+                if (draining) {
+                    return;
+                }
+                draining = true;
+            }
+            try {
+                executor.execute(this);
+            } catch (RejectedExecutionException e) {
+                // the application is shutting down
+                subscribers.remove(this);
+            }
+        }
+
+        @Override
+        public void run() {
+            while (true) {
+                Set<DataWithMediaType> event;
+                synchronized (this) {
+                    Iterator<Set<DataWithMediaType>> iterator = pending.values().iterator();
+                    if (!iterator.hasNext()) {
+                        draining = false;
+                        return;
+                    }
+                    event = iterator.next();
+                    iterator.remove();
+                }
+                try {
+                    emitter.send(event);
+                } catch (IOException | IllegalStateException e) {
+                    // the client disconnected or the stream is already complete; Spring MVC cleans up the request,
+                    // and this subscriber stays marked as draining, so it is never scheduled again
+                    subscribers.remove(this);
+                    synchronized (this) {
+                        pending.clear();
+                    }
+                    return;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package de.seuhd.campuscoffee.api.sse;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import de.seuhd.campuscoffee.api.mapper.PosDtoMapper;
+import de.seuhd.campuscoffee.api.mapper.UserDtoMapper;
+import de.seuhd.campuscoffee.domain.model.ChangeType;
+import de.seuhd.campuscoffee.domain.model.PosChange;
+import de.seuhd.campuscoffee.domain.model.UserChange;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.jspecify.annotations.Nullable;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Component that publishes the POS and user changes of the domain layer ({@link PosChange}, {@link UserChange}) as
+ * server-sent events to the subscribers of the POS and user streams (see {@link ChangeBroadcaster}).
+ * <p>
+ * Each change is mapped and serialized once, and only if somebody is subscribed. Events are named after the
+ * {@link ChangeType} ("upserted" with the DTO as data, "deleted" with the ID as data), and the subscribers' buffers are
+ * drained on virtual threads. The buffer size ({@code sse.buffer-size}), stream timeout ({@code sse.timeout}), and
+ * heartbeat interval ({@code sse.heartbeat-interval}) are configurable.
+ */
+@Slf4j
+@Component
+public class ChangeStreams {
+    private final ObjectMapper objectMapper;
+    private final PosDtoMapper posDtoMapper;
+    private final UserDtoMapper userDtoMapper;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final ChangeBroadcaster posBroadcaster;
+    private final ChangeBroadcaster userBroadcaster;
+
+    ChangeStreams(ObjectMapper objectMapper, PosDtoMapper posDtoMapper, UserDtoMapper userDtoMapper,
+                  @Value("${sse.buffer-size:256}") int bufferSize,
+                  @Value("${sse.timeout:30m}") Duration timeout) {
+        this.objectMapper = objectMapper;
+        this.posDtoMapper = posDtoMapper;
+        this.userDtoMapper = userDtoMapper;
+        this.posBroadcaster = new ChangeBroadcaster(executor, bufferSize, timeout);
+        this.userBroadcaster = new ChangeBroadcaster(executor, bufferSize, timeout);
+    }
+
+    public SseEmitter subscribeToPos() {
+        return posBroadcaster.subscribe();
+    }
+
+    public SseEmitter subscribeToUsers() {
+        return userBroadcaster.subscribe();
+    }
+
+    @EventListener
+    void onPosChange(PosChange change) {
+        if (posBroadcaster.hasSubscribers()) {
+            publish(posBroadcaster, change.type(), change.id(),
+                    change.pos() == null ? null : posDtoMapper.fromDomain(change.pos()));
+        }
+    }
+
+    @EventListener
+    void onUserChange(UserChange change) {
+        if (userBroadcaster.hasSubscribers()) {
+            publish(userBroadcaster, change.type(), change.id(),
+                    change.user() == null ? null : userDtoMapper.fromDomain(change.user()));
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${sse.heartbeat-interval:30s}")
+    void sendHeartbeats() {
+        posBroadcaster.sendHeartbeat();
+        userBroadcaster.sendHeartbeat();
+    }
+
+    @PreDestroy
+    void close() {
+        executor.shutdownNow();
+    }
+
+    private void publish(ChangeBroadcaster broadcaster, ChangeType type, Long id, @Nullable Object dto) {
+        String json;
+        try {
+            json = objectMapper.writeValueAsString(dto == null ? Map.of("id", id) : dto);
+        } catch (JsonProcessingException e) {
+            // the change is committed already, so the writer must not fail because of the stream
+            log.error("Could not serialize {} change of ID {}: {}", type, id, e.getMessage());
+            return;
+        }
+        broadcaster.publish(id, type.name().toLowerCase(Locale.ROOT), json);
+    }
+}
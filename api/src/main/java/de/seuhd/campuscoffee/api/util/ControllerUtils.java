@@ -1,10 +1,20 @@
 package de.seuhd.campuscoffee.api.util;
 
+import de.seuhd.campuscoffee.domain.model.CollectionVersion;
+import org.jspecify.annotations.Nullable;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
 import java.net.URI;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
 
 public class ControllerUtils {
+    /**
+     * The version expected by an 'If-Match' header that matches no version of the resource.
+     */
+    public static final long UNMATCHED_VERSION = -1;
+
     /**
      * Builds the location URI for a newly created resource.
      * @param resourceId the ID of the created resource
@@ -16,4 +26,109 @@ public class ControllerUtils {
                 .buildAndExpand(resourceId)
                 .toUri();
     }
+
+    /**
+     * Builds the URI of the next page for keyset-paginated resources based on the current request.
+     * @param after the ID of the last resource on the current page
+     * @param limit the page size
+     * @return the URI of the next page
+     */
+    public static URI getNextPage(Long after, int limit) {
+        return ServletUriComponentsBuilder.fromCurrentRequest()
+                .replaceQueryParam("after", after)
+                .replaceQueryParam("limit", limit)
+                .build()
+                .toUri();
+    }
+
+    /**
+     * Builds the URI of the next page for offset-paginated resources (e.g., search results) based on the current request.
+     * @param offset the offset of the next page
+     * @param limit the page size
+     * @return the URI of the next page
+     */
+    public static URI getNextPageAtOffset(int offset, int limit) {
+        return ServletUriComponentsBuilder.fromCurrentRequest()
+                .replaceQueryParam("offset", offset)
+                .replaceQueryParam("limit", limit)
+                .build()
+                .toUri();
+    }
+
+    /**
+     * Builds the strong ETag of a single resource from its ID and version, so it changes with every update.
+     * @param resourceId the ID of the resource
+     * @param version the version of the resource
+     * @return the quoted ETag
+     */
+    public static String getETag(Long resourceId, Long version) {
+        return "\"" + resourceId + "-" + version + "\"";
+    }
+
+    /**
+     * Reads the version that a conditional update expects from the 'If-Match' header of the request.
+     * Only a single strong ETag of the resource (see {@link #getETag(Long, Long)}) can match; any other ETag
+     * results in {@value #UNMATCHED_VERSION}, a version that no resource has, so that the update fails like an
+     * update of an outdated version.
+     * @param ifMatch the value of the 'If-Match' header; may be null
+     * @param resourceId the ID of the resource to update
+     * @return the expected version, or null if the header is missing or "*" and the update is not conditional
+     * @throws IllegalArgumentException if the header contains more than one ETag
+     */
+    public static @Nullable Long getExpectedVersion(@Nullable String ifMatch, Long resourceId) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.strip().equals("*")) {
+            return null;
+        }
+        String eTag = ifMatch.strip();
+        if (eTag.indexOf(',') >= 0) {
+            throw new IllegalArgumentException("'If-Match' must contain a single ETag, but was: " + ifMatch);
+        }
+        String prefix = "\"" + resourceId + "-";
+        if (eTag.length() > prefix.length() + 1 && eTag.startsWith(prefix) && eTag.endsWith("\"")) {
+            try {
+                return Long.parseLong(eTag, prefix.length(), eTag.length() - 1, 10);
+            } catch (NumberFormatException e) {
+                return UNMATCHED_VERSION;
+            }
+        }
+        return UNMATCHED_VERSION; // weak ETags, ETags of other resources, or collection ETags
+    }
+
+    /**
+     * Checks the conditional headers of a request for a single resource ('If-None-Match' and 'If-Modified-Since').
+     * The strong ETag is derived from the ID and the version of the resource (see {@link #getETag(Long, Long)}).
+     * Sets the 'ETag' and 'Last-Modified' headers of the response and, if the client's copy is up to date, its status
+     * to 304 (Not Modified).
+     * @param request the current request
+     * @param resourceId the ID of the resource
+     * @param version the version of the resource; if null, the request is never conditional
+     * @param updatedAt the time of the last update of the resource (UTC); if null, the request is never conditional
+     * @return true if the client's copy is up to date and the response must not have a body
+     */
+    public static boolean isNotModified(WebRequest request, Long resourceId, @Nullable Long version,
+                                        @Nullable LocalDateTime updatedAt) {
+        if (version == null || updatedAt == null) {
+            return false;
+        }
+        return request.checkNotModified(getETag(resourceId, version), toEpochMilli(updatedAt));
+    }
+
+    /**
+     * Checks the conditional headers of a request for a collection ('If-None-Match').
+     * The strong ETag is the version of the collection, which changes with every write to the collection.
+     * Collections have no 'Last-Modified' header, because writes may become visible in a different order than their
+     * times. Sets the 'ETag' header of the response and, if the client's copy is up to date, its status to 304
+     * (Not Modified).
+     * @param request the current request
+     * @param version the current version of the collection; must be read before the collection itself,
+     *                so that a concurrent write results in an outdated ETag rather than in a missed change
+     * @return true if the client's copy is up to date and the response must not have a body
+     */
+    public static boolean isNotModified(WebRequest request, CollectionVersion version) {
+        return request.checkNotModified("\"v" + version.version() + "\"");
+    }
+
+    private static long toEpochMilli(LocalDateTime utcDateTime) {
+        return utcDateTime.toInstant(ZoneOffset.UTC).toEpochMilli();
+    }
 }
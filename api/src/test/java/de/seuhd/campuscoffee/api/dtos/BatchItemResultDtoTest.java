@@ -0,0 +1,37 @@
+package de.seuhd.campuscoffee.api.dtos;
+
+import de.seuhd.campuscoffee.domain.exceptions.DuplicationException;
+import de.seuhd.campuscoffee.domain.model.BatchItemResult;
+import de.seuhd.campuscoffee.domain.model.Pos;
+import org.junit.jupiter.api.Test;
+
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class BatchItemResultDtoTest {
+    @Test
+    void failedItemHasErrorOfSingleRequest() {
+        BatchItemResultDto<Object> dto = BatchItemResultDto.fromDomain(
+                BatchItemResult.failure(3, new DuplicationException(Pos.class, "name", "Schmelzpunkt")),
+                Function.identity());
+
+        assertEquals(BatchItemResultDto.Status.FAILED, dto.status());
+        assertEquals(3, dto.index());
+        assertEquals(409, dto.statusCode());
+        assertEquals("DuplicationException", dto.errorCode());
+        assertEquals(new DuplicationException(Pos.class, "name", "Schmelzpunkt").getMessage(), dto.message());
+    }
+
+    @Test
+    void failedItemHidesUnexpectedError() {
+        BatchItemResultDto<Object> dto = BatchItemResultDto.fromDomain(
+                BatchItemResult.failure(0, new IllegalStateException(
+                        "ERROR: new row for relation \"pos\" violates check constraint \"pos_location_check\"")),
+                Function.identity());
+
+        assertEquals(500, dto.statusCode());
+        assertEquals("InternalServerError", dto.errorCode());
+        assertEquals("An unexpected error occurred.", dto.message());
+    }
+}
@@ -41,4 +41,28 @@ public class PosDtoTest {
         Set<ConstraintViolation<PosDto>> violations = validator.validate(invalidPosDto);
         assertFalse(violations.isEmpty());
     }
+
+    @Test
+    void invalidLatitude_outOfRange() {
+        PosDto validPosDto = posDtoMapper.fromDomain(TestFixtures.getPosList().getFirst());
+        PosDto invalidPosDto = validPosDto.toBuilder().latitude(90.5).build();
+        Set<ConstraintViolation<PosDto>> violations = validator.validate(invalidPosDto);
+        assertFalse(violations.isEmpty());
+    }
+
+    @Test
+    void invalidLocation_onlyLatitude() {
+        PosDto validPosDto = posDtoMapper.fromDomain(TestFixtures.getPosList().getFirst());
+        PosDto invalidPosDto = validPosDto.toBuilder().longitude(null).build();
+        Set<ConstraintViolation<PosDto>> violations = validator.validate(invalidPosDto);
+        assertFalse(violations.isEmpty());
+    }
+
+    @Test
+    void validLocation_neither() {
+        PosDto validPosDto = posDtoMapper.fromDomain(TestFixtures.getPosList().getFirst());
+        PosDto posDtoWithoutLocation = validPosDto.toBuilder().latitude(null).longitude(null).build();
+        Set<ConstraintViolation<PosDto>> violations = validator.validate(posDtoWithoutLocation);
+        assertTrue(violations.isEmpty());
+    }
 }
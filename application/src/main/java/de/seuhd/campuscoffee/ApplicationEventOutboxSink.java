@@ -0,0 +1,28 @@
+package de.seuhd.campuscoffee;
+
+import de.seuhd.campuscoffee.domain.model.OutboxEvent;
+import de.seuhd.campuscoffee.domain.ports.OutboxSink;
+import lombok.RequiredArgsConstructor;
+import org.jspecify.annotations.NonNull;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * {@link OutboxSink} that publishes each relayed event as an application event, so that in-process listeners
+ * ({@code @EventListener} methods for {@link OutboxEvent}) receive it. Listeners are called on the relay thread;
+ * if one throws, the batch is sent again later. Active if the property {@code outbox.sink} is "events".
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "outbox.sink", havingValue = "events")
+class ApplicationEventOutboxSink implements OutboxSink {
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Override
+    public void send(@NonNull List<OutboxEvent> events) {
+        events.forEach(eventPublisher::publishEvent);
+    }
+}
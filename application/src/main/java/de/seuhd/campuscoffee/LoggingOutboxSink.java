@@ -0,0 +1,27 @@
+package de.seuhd.campuscoffee;
+
+import de.seuhd.campuscoffee.domain.model.OutboxEvent;
+import de.seuhd.campuscoffee.domain.ports.OutboxSink;
+import lombok.extern.slf4j.Slf4j;
+import org.jspecify.annotations.NonNull;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Default {@link OutboxSink} that writes each relayed event as a line to the logger {@code outbox}, which can be
+ * routed to a separate log file. Active if the property {@code outbox.sink} is "log" or not set.
+ */
+@Slf4j(topic = "outbox")
+@Component
+@ConditionalOnProperty(name = "outbox.sink", havingValue = "log", matchIfMissing = true)
+class LoggingOutboxSink implements OutboxSink {
+    @Override
+    public void send(@NonNull List<OutboxEvent> events) {
+        for (OutboxEvent event : events) {
+            log.info("{} {} {} v{} {} {}", event.id(), event.aggregateType(), event.aggregateId(),
+                    event.aggregateVersion(), event.type(), event.payload());
+        }
+    }
+}
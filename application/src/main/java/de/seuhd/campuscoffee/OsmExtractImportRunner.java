@@ -0,0 +1,41 @@
+package de.seuhd.campuscoffee;
+
+import de.seuhd.campuscoffee.domain.model.CampusType;
+import de.seuhd.campuscoffee.domain.ports.PosService;
+import lombok.RequiredArgsConstructor;
+import org.jspecify.annotations.Nullable;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.nio.file.Path;
+import java.util.Arrays;
+
+/**
+ * Component that imports POS from a local OpenStreetMap extract file after the application has started.
+ * Only active if the property {@code osm.extract.file} is set, e.g., via
+ * {@code --osm.extract.file=heidelberg.osm.gz --osm.extract.campus=ALTSTADT}; the campus is required.
+ * Add {@code --spring.main.web-application-type=none} to exit after the import.
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty("osm.extract.file")
+class OsmExtractImportRunner implements ApplicationRunner {
+    private final PosService posService;
+    @Value("${osm.extract.file}")
+    private final Path file;
+    @Value("${osm.extract.campus:#{null}}")
+    private final @Nullable CampusType campusType;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (campusType == null) {
+            throw new IllegalStateException("Set osm.extract.campus to the campus of the POS in " + file + " (one of "
+                    + Arrays.toString(CampusType.values()) + ").");
+        }
+        // progress and a summary are logged by the service
+        posService.importFromOsmExtract(file, campusType);
+    }
+}
@@ -0,0 +1,69 @@
+package de.seuhd.campuscoffee;
+
+import de.seuhd.campuscoffee.domain.model.OsmSyncSummary;
+import de.seuhd.campuscoffee.domain.ports.PosService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Component that periodically syncs the POS imported from OpenStreetMap with their source nodes
+ * (see {@link PosService#syncFromOsm(Duration, int)}).
+ * Only active if the property {@code osm.sync.enabled} is true. The numbers of checked, changed, and failed POS
+ * are published as the counters {@code osm.sync.pos.checked}, {@code osm.sync.pos.changed}, and
+ * {@code osm.sync.pos.failed}, and the run time of each sync as the timer {@code osm.sync.duration}.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "osm.sync.enabled", havingValue = "true")
+class OsmSyncScheduler {
+    private final PosService posService;
+    private final Duration maxAge;
+    private final int batchSize;
+    private final Counter checkedCounter;
+    private final Counter changedCounter;
+    private final Counter failedCounter;
+    private final Timer durationTimer;
+
+    OsmSyncScheduler(PosService posService, MeterRegistry meterRegistry,
+                     @Value("${osm.sync.max-age:1d}") Duration maxAge,
+                     @Value("${osm.sync.batch-size:500}") int batchSize) {
+        this.posService = posService;
+        this.maxAge = maxAge;
+        this.batchSize = batchSize;
+        this.checkedCounter = Counter.builder("osm.sync.pos.checked")
+                .description("POS whose OSM node was fetched by the OSM sync")
+                .register(meterRegistry);
+        this.changedCounter = Counter.builder("osm.sync.pos.changed")
+                .description("POS updated by the OSM sync because their OSM node changed")
+                .register(meterRegistry);
+        this.failedCounter = Counter.builder("osm.sync.pos.failed")
+                .description("POS that the OSM sync could not sync")
+                .register(meterRegistry);
+        this.durationTimer = Timer.builder("osm.sync.duration")
+                .description("Run time of the OSM syncs")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(cron = "${osm.sync.cron:0 0 3 * * *}")
+    void sync() {
+        try {
+            // the summary is logged by the service
+            OsmSyncSummary summary = posService.syncFromOsm(maxAge, batchSize);
+            checkedCounter.increment(summary.checked());
+            changedCounter.increment(summary.changed());
+            failedCounter.increment(summary.failed());
+            durationTimer.record(summary.duration());
+        } catch (RuntimeException e) {
+            // keep the schedule, the remaining POS are synced in the next run
+            log.error("OSM sync failed", e);
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package de.seuhd.campuscoffee;
+
+import de.seuhd.campuscoffee.domain.model.OutboxEvent;
+import de.seuhd.campuscoffee.domain.ports.OutboxDataService;
+import de.seuhd.campuscoffee.domain.ports.OutboxSink;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+
+/**
+ * Component that periodically relays the POS and user changes recorded in the outbox to the configured
+ * {@link OutboxSink} (see {@link OutboxDataService#relay(int, OutboxSink)}).
+ * Active unless the property {@code outbox.relay.enabled} is false. Each run sends batches of
+ * {@code outbox.relay.batch-size} events until the outbox is drained; a failed batch is sent again in the next run.
+ * The number of relayed events is published as the counter {@code outbox.events.relayed}, the time between recording
+ * and relaying each event as the timer {@code outbox.events.lag}, and failed runs as the counter
+ * {@code outbox.relay.failed}.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "outbox.relay.enabled", havingValue = "true", matchIfMissing = true)
+class OutboxRelay {
+    private final OutboxDataService outboxDataService;
+    private final OutboxSink sink;
+    private final int batchSize;
+    private final Counter relayedCounter;
+    private final Counter failedCounter;
+    private final Timer lagTimer;
+
+    OutboxRelay(OutboxDataService outboxDataService, OutboxSink sink, MeterRegistry meterRegistry,
+                @Value("${outbox.relay.batch-size:100}") int batchSize) {
+        this.outboxDataService = outboxDataService;
+        this.sink = sink;
+        this.batchSize = batchSize;
+        this.relayedCounter = Counter.builder("outbox.events.relayed")
+                .description("POS and user changes sent to the outbox sink")
+                .register(meterRegistry);
+        this.failedCounter = Counter.builder("outbox.relay.failed")
+                .description("Outbox relay runs that stopped because a batch could not be sent")
+                .register(meterRegistry);
+        this.lagTimer = Timer.builder("outbox.events.lag")
+                .description("Time between recording a change in the outbox and sending it to the sink")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${outbox.relay.interval:1s}")
+    void relay() {
+        try {
+            int relayed;
+            do {
+                relayed = outboxDataService.relay(batchSize, this::send);
+            } while (relayed == batchSize);
+        } catch (RuntimeException e) {
+            // the batch stays in the outbox and is sent again in the next run
+            failedCounter.increment();
+            log.error("Relaying outbox events failed", e);
+        }
+    }
+
+    private void send(List<OutboxEvent> events) {
+        sink.send(events);
+        LocalDateTime now = LocalDateTime.now(ZoneId.of("UTC"));
+        relayedCounter.increment(events.size());
+        events.forEach(event -> lagTimer.record(Duration.between(event.createdAt(), now)));
+    }
+}
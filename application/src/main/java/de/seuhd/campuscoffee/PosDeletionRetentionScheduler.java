@@ -0,0 +1,45 @@
+package de.seuhd.campuscoffee;
+
+import de.seuhd.campuscoffee.domain.ports.PosService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Component that periodically forgets POS deleted longer ago than {@code pos.changes.retention}
+ * (see {@link PosService#pruneDeletions(Duration)}), so that the tombstones behind {@code GET /api/pos/changes} do
+ * not grow forever. Clients whose sync token is older than the retention get 410 (Gone) and fetch all POS again.
+ * The number of forgotten POS is published as the counter {@code pos.changes.deletions.pruned}.
+ */
+@Slf4j
+@Component
+class PosDeletionRetentionScheduler {
+    private final PosService posService;
+    private final Duration retention;
+    private final Counter prunedCounter;
+
+    PosDeletionRetentionScheduler(PosService posService, MeterRegistry meterRegistry,
+                                  @Value("${pos.changes.retention:30d}") Duration retention) {
+        this.posService = posService;
+        this.retention = retention;
+        this.prunedCounter = Counter.builder("pos.changes.deletions.pruned")
+                .description("Deleted POS that are no longer reported to clients that sync changes")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(cron = "${pos.changes.prune-cron:0 30 3 * * *}")
+    void prune() {
+        try {
+            // the number of forgotten POS is logged by the service
+            prunedCounter.increment(posService.pruneDeletions(retention));
+        } catch (RuntimeException e) {
+            // keep the schedule, the tombstones are pruned in the next run
+            log.error("Pruning deleted POS failed", e);
+        }
+    }
+}
@@ -22,13 +22,24 @@ public class SystemTestUtils {
      *
      * @return Configured PostgreSQLContainer instance
      */
-    @SuppressWarnings("resource")
     public static PostgreSQLContainer<?> getPostgresContainer() {
+        return getPostgresContainer("postgres");
+    }
+
+    /**
+     * Creates and configures a PostgreSQL testcontainer with the given database, e.g., for a second database server.
+     * Containers with different databases are not reused for each other.
+     *
+     * @param databaseName the name of the database
+     * @return Configured PostgreSQLContainer instance
+     */
+    @SuppressWarnings("resource")
+    public static PostgreSQLContainer<?> getPostgresContainer(String databaseName) {
         return new PostgreSQLContainer<>(
                 DockerImageName.parse("postgres:17-alpine"))
                 .withUsername("postgres")
                 .withPassword("postgres")
-                .withDatabaseName("postgres")
+                .withDatabaseName(databaseName)
                 .withReuse(true);
     }
 
@@ -42,6 +53,9 @@ public class SystemTestUtils {
         registry.add("spring.datasource.url", postgresContainer::getJdbcUrl);
         registry.add("spring.datasource.username", postgresContainer::getUsername);
         registry.add("spring.datasource.password", postgresContainer::getPassword);
+        // all test contexts share the database, so their scheduled relays would compete for the outbox events;
+        // tests relay the outbox explicitly instead (see OutboxSystemTests)
+        registry.add("outbox.relay.enabled", () -> "false");
     }
 
     /**
@@ -0,0 +1,375 @@
+package de.seuhd.campuscoffee.tests.load;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import de.seuhd.campuscoffee.api.dtos.PosDto;
+import de.seuhd.campuscoffee.api.dtos.UserDto;
+import de.seuhd.campuscoffee.domain.model.BatchItemResult;
+import de.seuhd.campuscoffee.domain.model.CampusType;
+import de.seuhd.campuscoffee.domain.model.Pos;
+import de.seuhd.campuscoffee.domain.model.PosType;
+import de.seuhd.campuscoffee.domain.model.User;
+import de.seuhd.campuscoffee.tests.system.AbstractSysTest;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Load test for the POS and user REST APIs.
+ * A configurable number of concurrent clients sends a mix of read and write requests for a fixed duration after
+ * a warm-up phase. Throughput and latency percentiles are reported per operation and written to
+ * {@code target/load-test-report.txt}; the test fails if the configured thresholds are not met.
+ * <p>
+ * Tagged {@code load} and therefore only run with the Maven profile {@code load-tests}, e.g.:
+ * {@code mvn -pl application -P load-tests test -Dload.concurrency=32 -Dload.duration=60s -Dload.max-p99=200ms}.
+ * OSM imports are served by a local stub that generates a café for every requested node.
+ */
+@Slf4j
+@Tag("load")
+public class ApiLoadTests extends AbstractSysTest {
+    private static final String NODE_PATH = "/node/";
+    private static final long FIRST_OSM_NODE_ID = 1_000_000L;
+
+    private static final int TOTAL_WEIGHT = Arrays.stream(Operation.values())
+            .mapToInt(operation -> operation.weight)
+            .sum();
+
+    private static final HttpServer osmStubServer;
+
+    static {
+        try {
+            osmStubServer = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        osmStubServer.createContext("/", ApiLoadTests::handleOsmRequest);
+        osmStubServer.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        osmStubServer.start();
+    }
+
+    /**
+     * The operations of the workload with their share of all requests in percent.
+     */
+    private enum Operation {
+        GET_POS_PAGE(5),
+        GET_POS(25),
+        FILTER_POS(15),
+        CREATE_POS(8),
+        UPDATE_POS(9),
+        DELETE_POS(8),
+        IMPORT_OSM_POS(5),
+        GET_ALL_USERS(5),
+        GET_USER(15),
+        CREATE_USER(5);
+
+        private final int weight;
+
+        Operation(int weight) {
+            this.weight = weight;
+        }
+    }
+
+    @DynamicPropertySource
+    static void configureLoadTest(DynamicPropertyRegistry registry) {
+        registry.add("osm.api.base-url", () -> "http://localhost:" + osmStubServer.getAddress().getPort());
+        registry.add("osm.api.min-request-interval", () -> "0ms");
+        registry.add("osm.api.max-concurrent-requests", () -> "64");
+        // one log line per request would dominate the console output
+        registry.add("logging.level.de.seuhd.campuscoffee", () -> "WARN");
+        registry.add("logging.level.de.seuhd.campuscoffee.tests.load", () -> "INFO"); // the report
+    }
+
+    @Value("${load.concurrency:8}")
+    private int concurrency;
+    @Value("${load.warmup:5s}")
+    private Duration warmup;
+    @Value("${load.duration:20s}")
+    private Duration duration;
+    @Value("${load.seed-pos:500}")
+    private int seedPos;
+    @Value("${load.seed-users:100}")
+    private int seedUsers;
+    @Value("${load.min-throughput:50}")
+    private double minThroughput;
+    @Value("${load.max-p99:1s}")
+    private Duration maxP99;
+    @Value("${load.max-error-rate:0.001}")
+    private double maxErrorRate;
+    @Value("${load.report:target/load-test-report.txt}")
+    private Path reportFile;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @LocalServerPort
+    private int port;
+
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1) // the application does not support HTTP/2 without TLS
+            .executor(Executors.newVirtualThreadPerTaskExecutor())
+            .build();
+    private final AtomicLong sequence = new AtomicLong();
+    private List<Pos> seededPos;
+    private List<User> seededUsers;
+
+    @Test
+    void mixedWorkload() throws Exception {
+        seededPos = posService.upsertAll(IntStream.range(0, seedPos).mapToObj(i -> pos("Seeded POS " + i)).toList())
+                .stream()
+                .map(BatchItemResult::value)
+                .toList();
+        seededUsers = IntStream.range(0, seedUsers)
+                .mapToObj(i -> userService.upsert(user("seeded_user_" + i)))
+                .toList();
+
+        runWorkload(warmup, newStats()); // let the JIT compile the hot paths and fill the connection pools
+        Map<Operation, LatencyStats> stats = newStats();
+        long startNanos = System.nanoTime();
+        runWorkload(duration, stats);
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - startNanos);
+
+        LatencyStats total = LatencyStats.combine("TOTAL", stats.values());
+        String report = LatencyStats.header() + System.lineSeparator()
+                + stats.values().stream().map(operationStats -> operationStats.format(elapsed))
+                        .collect(Collectors.joining(System.lineSeparator())) + System.lineSeparator()
+                + total.format(elapsed) + System.lineSeparator()
+                + String.format("%d clients, %d s%n", concurrency, elapsed.toSeconds());
+        log.info("Load test report:{}{}", System.lineSeparator(), report);
+        Files.createDirectories(reportFile.toAbsolutePath().getParent());
+        Files.writeString(reportFile, report);
+
+        assertThat(total.errorRate()).as("error rate").isLessThanOrEqualTo(maxErrorRate);
+        assertThat(total.throughput(elapsed)).as("throughput (requests per second)")
+                .isGreaterThanOrEqualTo(minThroughput);
+        assertThat(total.percentile(99)).as("p99 latency").isLessThanOrEqualTo(maxP99);
+    }
+
+    private Map<Operation, LatencyStats> newStats() {
+        Map<Operation, LatencyStats> stats = new EnumMap<>(Operation.class);
+        for (Operation operation : Operation.values()) {
+            stats.put(operation, new LatencyStats(operation.name()));
+        }
+        return stats;
+    }
+
+    /**
+     * Runs the workload with the configured number of concurrent clients, each on its own virtual thread.
+     *
+     * @param duration how long the clients send requests
+     * @param stats    the statistics per operation
+     */
+    private void runWorkload(Duration duration, Map<Operation, LatencyStats> stats) throws Exception {
+        long deadline = System.nanoTime() + duration.toNanos();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<Void>> clients = new ArrayList<>();
+            for (int i = 0; i < concurrency; i++) {
+                clients.add(executor.submit(() -> {
+                    Deque<PosDto> createdPos = new ArrayDeque<>();
+                    while (System.nanoTime() < deadline) {
+                        sendRequest(nextOperation(), createdPos, stats);
+                    }
+                    return null;
+                }));
+            }
+            for (Future<Void> client : clients) {
+                client.get();
+            }
+        } catch (ExecutionException e) {
+            throw (Exception) e.getCause();
+        }
+    }
+
+    private Operation nextOperation() {
+        int random = ThreadLocalRandom.current().nextInt(TOTAL_WEIGHT);
+        for (Operation operation : Operation.values()) {
+            random -= operation.weight;
+            if (random < 0) {
+                return operation;
+            }
+        }
+        throw new IllegalStateException("Weights do not add up.");
+    }
+
+    /**
+     * Sends one request of the given operation and records its latency.
+     * Each client updates and deletes only the POS it created itself, so that the clients do not interfere;
+     * if it has none, it creates a POS instead.
+     *
+     * @param operation  the operation
+     * @param createdPos the POS created by this client that have not been deleted yet
+     * @param stats      the statistics per operation
+     */
+    private void sendRequest(Operation operation, Deque<PosDto> createdPos, Map<Operation, LatencyStats> stats)
+            throws IOException, InterruptedException {
+        if ((operation == Operation.UPDATE_POS || operation == Operation.DELETE_POS) && createdPos.isEmpty()) {
+            operation = Operation.CREATE_POS;
+        }
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        HttpRequest request = switch (operation) {
+            case GET_POS_PAGE -> get("/api/pos?limit=50");
+            case GET_POS -> get("/api/pos/" + seededPos.get(random.nextInt(seededPos.size())).id());
+            case FILTER_POS -> get("/api/pos/filter?name=" + URLEncoder.encode(
+                    seededPos.get(random.nextInt(seededPos.size())).name(), StandardCharsets.UTF_8));
+            case CREATE_POS -> send("POST", "/api/pos", posDto("Load POS " + sequence.incrementAndGet()));
+            case UPDATE_POS -> {
+                PosDto pos = createdPos.peekLast();
+                yield send("PUT", "/api/pos/" + pos.id(), pos.toBuilder().description("Updated").build());
+            }
+            case DELETE_POS -> send("DELETE", "/api/pos/" + createdPos.pollFirst().id(), null);
+            case IMPORT_OSM_POS -> send("POST",
+                    "/api/pos/import/osm/" + (FIRST_OSM_NODE_ID + sequence.incrementAndGet()), CampusType.BERGHEIM);
+            case GET_ALL_USERS -> get("/api/users");
+            case GET_USER -> get("/api/users/" + seededUsers.get(random.nextInt(seededUsers.size())).id());
+            case CREATE_USER -> send("POST", "/api/users", userDto("load_user_" + sequence.incrementAndGet()));
+        };
+
+        long startNanos = System.nanoTime();
+        boolean success;
+        HttpResponse<String> response = null;
+        try {
+            response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+            success = HttpStatus.valueOf(response.statusCode()).is2xxSuccessful();
+        } catch (IOException e) {
+            success = false;
+        }
+        stats.get(operation).record(System.nanoTime() - startNanos, success);
+
+        if (success && operation == Operation.CREATE_POS) {
+            createdPos.addLast(objectMapper.readValue(response.body(), PosDto.class));
+        }
+    }
+
+    private HttpRequest get(String path) {
+        return HttpRequest.newBuilder(uri(path)).GET().build();
+    }
+
+    private HttpRequest send(String method, String path, Object body) throws IOException {
+        HttpRequest.BodyPublisher bodyPublisher = body == null
+                ? HttpRequest.BodyPublishers.noBody()
+                : HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body));
+        return HttpRequest.newBuilder(uri(path))
+                .header("Content-Type", "application/json")
+                .method(method, bodyPublisher)
+                .build();
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + port + path);
+    }
+
+    private static Pos pos(String name) {
+        return Pos.builder()
+                .name(name)
+                .description("Seeded for the load test")
+                .type(PosType.CAFE)
+                .campus(CampusType.ALTSTADT)
+                .street("Hauptstraße")
+                .houseNumber("1a")
+                .postalCode(69117)
+                .city("Heidelberg")
+                .build();
+    }
+
+    private static PosDto posDto(String name) {
+        return PosDto.builder()
+                .name(name)
+                .description("Created by the load test")
+                .type(PosType.CAFE)
+                .campus(CampusType.INF)
+                .street("Im Neuenheimer Feld")
+                .houseNumber("205")
+                .postalCode(69120)
+                .city("Heidelberg")
+                .build();
+    }
+
+    private static User user(String name) {
+        return User.builder()
+                .name(name)
+                .emailAddress(name + "@example.org")
+                .firstName("Load")
+                .lastName("Test")
+                .build();
+    }
+
+    private static UserDto userDto(String name) {
+        return UserDto.builder()
+                .name(name)
+                .emailAddress(name + "@example.org")
+                .firstName("Load")
+                .lastName("Test")
+                .build();
+    }
+
+    /**
+     * Serves every requested node as a complete café, so that each import creates a new POS.
+     *
+     * @param exchange the HTTP exchange
+     * @throws IOException if the response cannot be written
+     */
+    private static void handleOsmRequest(HttpExchange exchange) throws IOException {
+        String path = exchange.getRequestURI().getPath();
+        if (!path.startsWith(NODE_PATH)) {
+            exchange.sendResponseHeaders(HttpStatus.NOT_FOUND.value(), -1);
+            exchange.close();
+            return;
+        }
+        String nodeId = path.substring(NODE_PATH.length());
+        byte[] body = ("""
+                <?xml version="1.0" encoding="UTF-8"?>
+                <osm version="0.6" generator="stub">
+                 <node id="%s" visible="true" version="1" lat="49.41" lon="8.70">
+                  <tag k="amenity" v="cafe"/>
+                  <tag k="name" v="OSM Café %s"/>
+                  <tag k="addr:street" v="Hauptstraße"/>
+                  <tag k="addr:housenumber" v="2"/>
+                  <tag k="addr:postcode" v="69117"/>
+                  <tag k="addr:city" v="Heidelberg"/>
+                 </node>
+                </osm>
+                """.formatted(nodeId, nodeId)).getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "text/xml; charset=utf-8");
+        exchange.sendResponseHeaders(HttpStatus.OK.value(), body.length);
+        try (OutputStream outputStream = exchange.getResponseBody()) {
+            outputStream.write(body);
+        }
+    }
+}
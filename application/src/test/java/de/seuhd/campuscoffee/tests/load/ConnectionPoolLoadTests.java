@@ -0,0 +1,215 @@
+package de.seuhd.campuscoffee.tests.load;
+
+import de.seuhd.campuscoffee.domain.model.CampusType;
+import de.seuhd.campuscoffee.domain.model.Pos;
+import de.seuhd.campuscoffee.domain.model.PosType;
+import de.seuhd.campuscoffee.domain.model.User;
+import de.seuhd.campuscoffee.tests.system.AbstractSysTest;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Load test for the connection pool: many concurrent clients read large POS pages and the user list through a small
+ * pool ({@code load.pool-size}), so that throughput is bound by how long each request holds a connection.
+ * Throughput and latency percentiles are reported together with the mean time a connection was borrowed from the
+ * pool, the mean time requests waited for one, and the connection time per request, which bounds the requests per
+ * second that the pool can serve; the report is written to
+ * {@code target/connection-pool-report-open-in-view-<true|false>.txt}.
+ * <p>
+ * This test runs with the configured {@code spring.jpa.open-in-view}, i.e., with connections bound to the
+ * transactions of the data services; {@link OpenInViewConnectionPoolLoadTests} runs the same workload with connections
+ * bound to the request, including JSON serialization, for comparison.
+ * Tagged {@code load} and therefore only run with the Maven profile {@code load-tests}, e.g.:
+ * {@code mvn -pl application -P load-tests test -Dtest='*ConnectionPoolLoadTests' -Dload.concurrency=64}.
+ */
+@Slf4j
+@Tag("load")
+public class ConnectionPoolLoadTests extends AbstractSysTest {
+    private static final String POOL_USAGE_TIMER = "hikaricp.connections.usage";
+    private static final String POOL_ACQUIRE_TIMER = "hikaricp.connections.acquire";
+
+    @DynamicPropertySource
+    static void configurePool(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.hikari.maximum-pool-size", () -> "${load.pool-size:4}");
+        registry.add("spring.datasource.hikari.connection-timeout", () -> "30000"); // milliseconds
+        // one log line per request would dominate the console output
+        registry.add("logging.level.de.seuhd.campuscoffee", () -> "WARN");
+        registry.add("logging.level.de.seuhd.campuscoffee.tests.load", () -> "INFO"); // the report
+    }
+
+    @Value("${load.concurrency:32}")
+    private int concurrency;
+    @Value("${load.warmup:5s}")
+    private Duration warmup;
+    @Value("${load.duration:20s}")
+    private Duration duration;
+    @Value("${load.seed-pos:500}")
+    private int seedPos;
+    @Value("${load.seed-users:100}")
+    private int seedUsers;
+    @Value("${load.pool-size:4}")
+    private int poolSize;
+    @Value("${load.page-size:200}")
+    private int pageSize;
+    @Value("${load.max-error-rate:0.001}")
+    private double maxErrorRate;
+    @Value("${spring.jpa.open-in-view}")
+    private boolean openInView;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @LocalServerPort
+    private int port;
+
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1) // the application does not support HTTP/2 without TLS
+            .executor(Executors.newVirtualThreadPerTaskExecutor())
+            .build();
+
+    @Test
+    void readWorkload() throws Exception {
+        posService.upsertAll(IntStream.range(0, seedPos).mapToObj(i -> pos("Seeded POS " + i)).toList());
+        IntStream.range(0, seedUsers).forEach(i -> userService.upsert(user("seeded_user_" + i)));
+
+        runWorkload(warmup, new LatencyStats("WARMUP")); // let the JIT compile the hot paths and fill the pool
+        TimerSnapshot usageBefore = TimerSnapshot.of(meterRegistry.get(POOL_USAGE_TIMER).timer());
+        TimerSnapshot acquireBefore = TimerSnapshot.of(meterRegistry.get(POOL_ACQUIRE_TIMER).timer());
+        LatencyStats stats = new LatencyStats("READ");
+        long startNanos = System.nanoTime();
+        runWorkload(duration, stats);
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - startNanos);
+        TimerSnapshot usage = TimerSnapshot.of(meterRegistry.get(POOL_USAGE_TIMER).timer()).minus(usageBefore);
+        TimerSnapshot acquire = TimerSnapshot.of(meterRegistry.get(POOL_ACQUIRE_TIMER).timer()).minus(acquireBefore);
+
+        // the pool serves at most this many requests per second if requests hold connections as long as measured
+        double connectionMillisPerRequest = stats.count() == 0 ? 0 : usage.totalMillis / stats.count();
+        double poolCapacity = connectionMillisPerRequest == 0 ? 0 : poolSize * 1000 / connectionMillisPerRequest;
+        String report = LatencyStats.header() + System.lineSeparator()
+                + stats.format(elapsed) + System.lineSeparator()
+                + String.format("open-in-view=%b, %d clients, pool size %d, %d s%n", openInView, concurrency,
+                        poolSize, elapsed.toSeconds())
+                + String.format("connections borrowed: %d, mean usage %.2f ms, mean acquire %.2f ms%n",
+                        usage.count, usage.meanMillis(), acquire.meanMillis())
+                + String.format("connection time per request %.2f ms, pool capacity %.1f requests/s%n",
+                        connectionMillisPerRequest, poolCapacity);
+        log.info("Connection pool report:{}{}", System.lineSeparator(), report);
+        Path reportFile = Path.of("target", "connection-pool-report-open-in-view-" + openInView + ".txt");
+        Files.createDirectories(reportFile.toAbsolutePath().getParent());
+        Files.writeString(reportFile, report);
+
+        assertThat(stats.errorRate()).as("error rate").isLessThanOrEqualTo(maxErrorRate);
+    }
+
+    /**
+     * Runs the workload with the configured number of concurrent clients, each on its own virtual thread.
+     * Each request reads either a page of POS or all users.
+     *
+     * @param duration how long the clients send requests
+     * @param stats    the statistics of the requests
+     */
+    private void runWorkload(Duration duration, LatencyStats stats) throws Exception {
+        long deadline = System.nanoTime() + duration.toNanos();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<Void>> clients = new ArrayList<>();
+            for (int i = 0; i < concurrency; i++) {
+                clients.add(executor.submit(() -> {
+                    while (System.nanoTime() < deadline) {
+                        sendRequest(stats);
+                    }
+                    return null;
+                }));
+            }
+            for (Future<Void> client : clients) {
+                client.get();
+            }
+        } catch (ExecutionException e) {
+            throw (Exception) e.getCause();
+        }
+    }
+
+    private void sendRequest(LatencyStats stats) throws InterruptedException {
+        String path = ThreadLocalRandom.current().nextBoolean()
+                ? "/api/pos?limit=" + pageSize
+                : "/api/users";
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path)).GET().build();
+
+        long startNanos = System.nanoTime();
+        boolean success;
+        try {
+            HttpResponse<Void> response = httpClient.send(request, HttpResponse.BodyHandlers.discarding());
+            success = HttpStatus.valueOf(response.statusCode()).is2xxSuccessful();
+        } catch (IOException e) {
+            success = false;
+        }
+        stats.record(System.nanoTime() - startNanos, success);
+    }
+
+    private static Pos pos(String name) {
+        return Pos.builder()
+                .name(name)
+                .description("Seeded for the connection pool load test")
+                .type(PosType.CAFE)
+                .campus(CampusType.ALTSTADT)
+                .street("Hauptstraße")
+                .houseNumber("1a")
+                .postalCode(69117)
+                .city("Heidelberg")
+                .build();
+    }
+
+    private static User user(String name) {
+        return User.builder()
+                .name(name)
+                .emailAddress(name + "@example.org")
+                .firstName("Load")
+                .lastName("Test")
+                .build();
+    }
+
+    /**
+     * Count and total time of a pool timer at one point in time, so that the warm-up can be subtracted.
+     */
+    private record TimerSnapshot(long count, double totalMillis) {
+        static TimerSnapshot of(Timer timer) {
+            return new TimerSnapshot(timer.count(), timer.totalTime(TimeUnit.MILLISECONDS));
+        }
+
+        TimerSnapshot minus(TimerSnapshot before) {
+            return new TimerSnapshot(count - before.count, totalMillis - before.totalMillis);
+        }
+
+        double meanMillis() {
+            return count == 0 ? 0 : totalMillis / count;
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package de.seuhd.campuscoffee.tests.load;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Collects the latencies and errors of one operation of a load test.
+ * Safe to use from many threads at the same time; the statistics are computed after the load test.
+ */
+class LatencyStats {
+    /**
+     * Upper bounds of the histogram buckets in milliseconds; the last bucket collects all slower requests.
+     */
+    private static final long[] BUCKET_BOUNDS_MILLIS = {1, 2, 5, 10, 20, 50, 100, 200, 500, 1000};
+
+    private final String name;
+    private final ConcurrentLinkedQueue<Long> latenciesNanos = new ConcurrentLinkedQueue<>();
+    private final AtomicLong errors = new AtomicLong();
+
+    LatencyStats(String name) {
+        this.name = name;
+    }
+
+    /**
+     * Combines the statistics of several operations.
+     *
+     * @param name  the name of the combined statistics
+     * @param stats the statistics to combine
+     * @return new statistics with the latencies and errors of all given statistics
+     */
+    static LatencyStats combine(String name, Collection<LatencyStats> stats) {
+        LatencyStats combined = new LatencyStats(name);
+        for (LatencyStats operationStats : stats) {
+            combined.latenciesNanos.addAll(operationStats.latenciesNanos);
+            combined.errors.addAndGet(operationStats.errors.get());
+        }
+        return combined;
+    }
+
+    /**
+     * Records a request. Failed requests count towards the latencies as well.
+     *
+     * @param latencyNanos the time from sending the request until the response was read
+     * @param success      whether the response had the expected status
+     */
+    void record(long latencyNanos, boolean success) {
+        latenciesNanos.add(latencyNanos);
+        if (!success) {
+            errors.incrementAndGet();
+        }
+    }
+
+    long count() {
+        return latenciesNanos.size();
+    }
+
+    long errors() {
+        return errors.get();
+    }
+
+    double errorRate() {
+        return count() == 0 ? 0 : (double) errors() / count();
+    }
+
+    double throughput(Duration elapsed) {
+        return count() * 1_000_000_000.0 / elapsed.toNanos();
+    }
+
+    /**
+     * Calculates a latency percentile (nearest-rank method).
+     *
+     * @param percentile the percentile between 0 (exclusive) and 100 (inclusive)
+     * @return the latency that the given percentage of requests did not exceed; zero if there were no requests
+     */
+    Duration percentile(double percentile) {
+        long[] sorted = sortedLatencies();
+        if (sorted.length == 0) {
+            return Duration.ZERO;
+        }
+        int rank = (int) Math.ceil(percentile / 100 * sorted.length);
+        return Duration.ofNanos(sorted[Math.max(rank, 1) - 1]);
+    }
+
+    /**
+     * Formats the statistics as one line of the load test report, followed by the latency histogram.
+     *
+     * @param elapsed the duration of the measurement
+     * @return the formatted statistics
+     */
+    String format(Duration elapsed) {
+        long[] sorted = sortedLatencies();
+        long[] buckets = new long[BUCKET_BOUNDS_MILLIS.length + 1];
+        for (long latencyNanos : sorted) {
+            int bucket = 0;
+            while (bucket < BUCKET_BOUNDS_MILLIS.length && latencyNanos > BUCKET_BOUNDS_MILLIS[bucket] * 1_000_000) {
+                bucket++;
+            }
+            buckets[bucket]++;
+        }
+        String histogram = IntStream.range(0, buckets.length)
+                .filter(bucket -> buckets[bucket] > 0)
+                .mapToObj(bucket -> (bucket < BUCKET_BOUNDS_MILLIS.length
+                        ? "<=" + BUCKET_BOUNDS_MILLIS[bucket] + "ms"
+                        : ">" + BUCKET_BOUNDS_MILLIS[bucket - 1] + "ms") + ": " + buckets[bucket])
+                .collect(Collectors.joining(", "));
+        return String.format(Locale.ROOT, "%-16s %8d %7d %9.1f %9.2f %9.2f %9.2f %9.2f %9.2f%n%16s %s",
+                name, count(), errors(), throughput(elapsed),
+                millis(percentile(50)), millis(percentile(90)), millis(percentile(99)), millis(percentile(99.9)),
+                sorted.length == 0 ? 0 : sorted[sorted.length - 1] / 1_000_000.0,
+                "", histogram);
+    }
+
+    /**
+     * Returns the header line for {@link #format(Duration)}.
+     *
+     * @return the column names
+     */
+    static String header() {
+        return String.format(Locale.ROOT, "%-16s %8s %7s %9s %9s %9s %9s %9s %9s",
+                "operation", "requests", "errors", "req/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+    }
+
+    private long[] sortedLatencies() {
+        long[] sorted = latenciesNanos.stream().mapToLong(Long::longValue).toArray();
+        Arrays.sort(sorted);
+        return sorted;
+    }
+
+    private static double millis(Duration duration) {
+        return duration.toNanos() / 1_000_000.0;
+    }
+}
@@ -0,0 +1,13 @@
+package de.seuhd.campuscoffee.tests.load;
+
+import org.junit.jupiter.api.Tag;
+import org.springframework.test.context.TestPropertySource;
+
+/**
+ * The workload of {@link ConnectionPoolLoadTests} with the persistence context and its connection kept open for the
+ * whole request (open-in-view), as the baseline for the connection pool report.
+ */
+@Tag("load")
+@TestPropertySource(properties = "spring.jpa.open-in-view=true")
+public class OpenInViewConnectionPoolLoadTests extends ConnectionPoolLoadTests {
+}
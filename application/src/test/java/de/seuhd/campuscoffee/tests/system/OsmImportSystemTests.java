@@ -0,0 +1,383 @@
+package de.seuhd.campuscoffee.tests.system;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import de.seuhd.campuscoffee.api.dtos.OsmImportDto;
+import de.seuhd.campuscoffee.api.dtos.PosDto;
+import de.seuhd.campuscoffee.data.persistence.PosEntity;
+import de.seuhd.campuscoffee.domain.model.BatchItemResult;
+import de.seuhd.campuscoffee.domain.model.CampusType;
+import de.seuhd.campuscoffee.domain.model.ImportSummary;
+import de.seuhd.campuscoffee.domain.model.OsmSyncSummary;
+import de.seuhd.campuscoffee.domain.model.Pos;
+import de.seuhd.campuscoffee.domain.tests.TestFixtures;
+import io.restassured.http.ContentType;
+import io.restassured.response.Response;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Collectors;
+import java.util.zip.GZIPOutputStream;
+
+import static de.seuhd.campuscoffee.tests.SystemTestUtils.Requests.posRequests;
+import static io.restassured.RestAssured.given;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * System tests for importing POS from OpenStreetMap.
+ * Instead of the OSM API, the application talks to a local stub server that serves a few fixed nodes.
+ * Single-node responses carry an ETag, and conditional requests for unchanged nodes are answered with
+ * 304 (Not Modified). Extract imports read a small OSM file that is created for each test.
+ */
+public class OsmImportSystemTests extends AbstractSysTest {
+    private static final String NODES_PATH = "/nodes";
+    private static final String NODE_PATH = "/node/";
+    private static final String NODES_QUERY_PREFIX = "nodes=";
+    private static final String NODE_ETAG = "\"v1\"";
+
+    /**
+     * Nodes served by the stub server. Node 3 lacks a postcode; node 4 does not exist.
+     */
+    private static final Map<Long, String> OSM_NODES = Map.of(
+            1L, node(1L, Map.of("amenity", "cafe", "name", "Café Eins", "addr:street", "Hauptstraße",
+                    "addr:housenumber", "1", "addr:postcode", "69117", "addr:city", "Heidelberg")),
+            2L, node(2L, Map.of("amenity", "vending_machine", "name", "Automat Zwei", "addr:street", "Hauptstraße",
+                    "addr:housenumber", "2a", "addr:postcode", "69117", "addr:city", "Heidelberg")),
+            3L, node(3L, Map.of("amenity", "cafe", "name", "Café Drei", "addr:street", "Hauptstraße",
+                    "addr:housenumber", "3", "addr:city", "Heidelberg"))
+    );
+
+    private static final HttpServer osmStubServer;
+    private static final List<String> osmRequests = new CopyOnWriteArrayList<>();
+    private static final List<String> osmNotModifiedRequests = new CopyOnWriteArrayList<>();
+
+    static {
+        try {
+            osmStubServer = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        osmStubServer.createContext("/", OsmImportSystemTests::handleOsmRequest);
+        osmStubServer.start();
+    }
+
+    @DynamicPropertySource
+    static void configureOsmApi(DynamicPropertyRegistry registry) {
+        String baseUrl = "http://localhost:" + osmStubServer.getAddress().getPort();
+        registry.add("osm.api.base-url", () -> baseUrl);
+        // room for exactly two single-digit node IDs per multi-fetch request
+        registry.add("osm.api.max-url-length", () -> baseUrl.length() + "/nodes?nodes=1%2C2".length());
+        registry.add("osm.api.min-request-interval", () -> "0ms");
+        // cached nodes are revalidated on every import
+        registry.add("osm.cache.max-age", () -> "0s");
+    }
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void clearOsmRequests() {
+        osmRequests.clear();
+        osmNotModifiedRequests.clear();
+        jdbcTemplate.update("DELETE FROM osm_node_cache");
+    }
+
+    @Test
+    void importPosFromOsmNodes() {
+        Response response = given()
+                .contentType(ContentType.JSON)
+                .body(OsmImportDto.builder().nodeIds(List.of(1L, 2L, 3L, 4L)).campusType(CampusType.BERGHEIM).build())
+                .when()
+                .post("/api/pos/import/osm")
+                .then()
+                .statusCode(HttpStatus.OK.value())
+                .extract().response();
+
+        assertThat(response.jsonPath().getList("status", String.class))
+                .containsExactly("SUCCEEDED", "SUCCEEDED", "FAILED", "FAILED");
+        assertThat(response.jsonPath().getList("errorCode", String.class))
+                .containsExactly(null, null, "MissingFieldException", "NotFoundException");
+        assertThat(response.jsonPath().getList("statusCode", Integer.class))
+                .containsExactly(null, null, HttpStatus.BAD_REQUEST.value(), HttpStatus.NOT_FOUND.value());
+        assertThat(response.jsonPath().getList("value.name", String.class))
+                .containsExactly("Café Eins", "Automat Zwei");
+        assertThat(response.jsonPath().getList("value.campus", String.class))
+                .containsExactly("BERGHEIM", "BERGHEIM");
+        assertThat(response.jsonPath().getList("value.osmNodeId", Long.class))
+                .containsExactly(1L, 2L);
+        assertThat(response.jsonPath().getList("value.latitude", Double.class))
+                .containsExactly(49.41, 49.41);
+
+        // one request per chunk, and single requests for the chunk with the missing node
+        assertThat(osmRequests)
+                .containsExactlyInAnyOrder("/nodes?nodes=1,2", "/nodes?nodes=3,4", "/node/3", "/node/4");
+    }
+
+    @Test
+    void importPosFromOsmNodesWithDuplicateNodeIds() {
+        Response response = given()
+                .contentType(ContentType.JSON)
+                .body(OsmImportDto.builder().nodeIds(List.of(1L, 1L)).campusType(CampusType.ALTSTADT).build())
+                .when()
+                .post("/api/pos/import/osm")
+                .then()
+                .statusCode(HttpStatus.OK.value())
+                .extract().response();
+
+        // the node is fetched once, but the second POS with the same name is rejected
+        assertThat(response.jsonPath().getList("errorCode", String.class))
+                .containsExactly(null, "DuplicationException");
+        assertThat(osmRequests).containsExactly("/nodes?nodes=1");
+    }
+
+    @Test
+    void reimportPosFromOsmNodesUpdatesExistingPos() {
+        posService.importFromOsmNodes(List.of(1L, 2L), CampusType.BERGHEIM);
+        Pos editedPos = posService.upsert(posService.getByName("Café Eins").toBuilder().description("Edited").build());
+
+        // importing the same nodes again updates the POS by their names instead of failing
+        importPosFromOsmNode(1L);
+        List<BatchItemResult<Pos>> results = posService.importFromOsmNodes(List.of(1L, 2L), CampusType.INF);
+
+        assertThat(results).allMatch(BatchItemResult::succeeded);
+        assertThat(posService.getAll()).hasSize(2);
+        Pos reimportedPos = posService.getByName("Café Eins");
+        assertThat(reimportedPos.id()).isEqualTo(editedPos.id());
+        assertThat(reimportedPos.createdAt()).isEqualTo(editedPos.createdAt());
+        assertThat(reimportedPos.description()).isEqualTo("n/a");
+        assertThat(reimportedPos.campus()).isEqualTo(CampusType.INF);
+    }
+
+    @Test
+    void osmNodeOfPosIsIgnoredInRequests() {
+        PosDto posToCreate = posDtoMapper.fromDomain(TestFixtures.getPosFixturesForInsertion().getFirst());
+        PosDto createdPos = posRequests.create(List.of(posToCreate.toBuilder().osmNodeId(42L).osmVersion(7L).build()))
+                .getFirst();
+        assertThat(createdPos.osmNodeId()).isNull();
+        assertThat(createdPos.osmVersion()).isNull();
+
+        // an update of an imported POS keeps its node and version
+        importPosFromOsmNode(1L);
+        PosDto importedPos = posDtoMapper.fromDomain(posService.getByName("Café Eins"));
+        PosDto updatedPos = posRequests.update(List.of(importedPos.toBuilder()
+                .description("Edited")
+                .osmNodeId(42L)
+                .osmVersion(7L)
+                .build())).getFirst();
+        assertThat(updatedPos.description()).isEqualTo("Edited");
+        assertThat(updatedPos.osmNodeId()).isEqualTo(1L);
+        assertThat(updatedPos.osmVersion()).isEqualTo(1L);
+    }
+
+    @Test
+    void reimportPosFromOsmNodesAllocatesNoIds() {
+        List<Long> importedIds = posService.importFromOsmNodes(List.of(1L, 2L), CampusType.BERGHEIM).stream()
+                .map(result -> Objects.requireNonNull(result.value()).id())
+                .toList();
+        posService.importFromOsmNodes(List.of(1L, 2L), CampusType.INF);
+        Pos createdPos = posService.upsertByName(TestFixtures.getPosList().getFirst());
+
+        // new POS share a block of IDs, and updating existing POS draws none, so the next POS starts the next block
+        assertThat(importedIds.getLast()).isEqualTo(importedIds.getFirst() + 1);
+        assertThat(createdPos.id()).isEqualTo(importedIds.getFirst() + PosEntity.ID_ALLOCATION_SIZE);
+    }
+
+    @Test
+    void reimportPosFromOsmNodeRevalidatesCachedNode() {
+        importPosFromOsmNode(1L);
+        posService.clear();
+        importPosFromOsmNode(1L);
+
+        // the second request is conditional and the node is served from the cache
+        assertThat(osmRequests).containsExactly("/node/1", "/node/1");
+        assertThat(osmNotModifiedRequests).containsExactly("/node/1");
+        assertThat(posService.getByName("Café Eins").campus()).isEqualTo(CampusType.ALTSTADT);
+    }
+
+    @Test
+    void reimportPosFromOsmNodesRevalidatesCachedNodes() {
+        importPosFromOsmNode(1L);
+        posService.clear();
+        osmRequests.clear();
+
+        Response response = given()
+                .contentType(ContentType.JSON)
+                .body(OsmImportDto.builder().nodeIds(List.of(1L, 2L)).campusType(CampusType.BERGHEIM).build())
+                .when()
+                .post("/api/pos/import/osm")
+                .then()
+                .statusCode(HttpStatus.OK.value())
+                .extract().response();
+
+        assertThat(response.jsonPath().getList("value.name", String.class))
+                .containsExactly("Café Eins", "Automat Zwei");
+        // the cached node is revalidated by its version with the multi-fetch request of the uncached node
+        assertThat(osmRequests).containsExactly("/nodes?nodes=1,2");
+        assertThat(osmNotModifiedRequests).isEmpty();
+    }
+
+    @Test
+    void syncPosFromUnchangedOsmNodesRevalidatesCachedNodes() {
+        posService.importFromOsmNodes(List.of(1L, 2L), CampusType.BERGHEIM);
+        osmRequests.clear();
+        // marks the cached nodes, so that the test can tell whether they are stored again
+        jdbcTemplate.update("UPDATE osm_node_cache SET tags = tags || '{\"cached\": \"yes\"}', "
+                + "fetched_at = fetched_at - interval '1 day'");
+        List<Pos> importedPos = posService.getAll();
+
+        OsmSyncSummary summary = posService.syncFromOsm(Duration.ZERO, 2);
+
+        assertThat(summary.checked()).isEqualTo(2);
+        assertThat(summary.changed()).isEqualTo(0);
+        // one multi-fetch request per batch, and no request per node
+        assertThat(osmRequests).containsExactly("/nodes?nodes=1,2");
+        assertThat(osmNotModifiedRequests).isEmpty();
+        // the unchanged nodes are only marked as revalidated, and the POS are not written
+        assertThat(jdbcTemplate.queryForList("SELECT tags ->> 'cached' FROM osm_node_cache WHERE node_id IN (1, 2) "
+                + "AND fetched_at > now() AT TIME ZONE 'UTC' - interval '1 hour'", String.class))
+                .containsExactly("yes", "yes");
+        assertThat(posService.getAll()).containsExactlyInAnyOrderElementsOf(importedPos);
+    }
+
+    @Test
+    void syncPosFromOsm() {
+        posService.importFromOsmNodes(List.of(1L, 2L), CampusType.BERGHEIM);
+        Pos editedPos = posService.getByName("Café Eins").toBuilder().description("Edited").build();
+        posService.upsert(editedPos);
+
+        OsmSyncSummary summary = posService.syncFromOsm(Duration.ZERO, 1);
+
+        assertThat(summary.checked()).isEqualTo(2);
+        assertThat(summary.changed()).isEqualTo(1);
+        assertThat(summary.failed()).isEqualTo(0);
+        Pos syncedPos = posService.getById(Objects.requireNonNull(editedPos.id()));
+        assertThat(syncedPos.description()).isEqualTo("n/a");
+        assertThat(syncedPos.campus()).isEqualTo(CampusType.BERGHEIM);
+        assertThat(syncedPos.osmNodeId()).isEqualTo(1L);
+        assertThat(syncedPos.osmVersion()).isEqualTo(1L);
+
+        // POS that were just synced are not checked again
+        assertThat(posService.syncFromOsm(Duration.ofHours(1), 1).checked()).isEqualTo(0);
+    }
+
+    @Test
+    void importPosFromOsmExtract(@TempDir Path tempDir) throws IOException {
+        Path extract = tempDir.resolve("extract.osm.gz");
+        try (Writer writer = new OutputStreamWriter(
+                new GZIPOutputStream(Files.newOutputStream(extract)), StandardCharsets.UTF_8)) {
+            writer.write("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n<osm version=\"0.6\" generator=\"test\">\n"
+                    + OSM_NODES.get(1L) // imported
+                    + OSM_NODES.get(3L) // missing postcode
+                    + node(5L, Map.of("amenity", "bench")) // not a POS
+                    + node(6L, Map.of()) // no tags
+                    + " <node id=\"7\" visible=\"false\" version=\"2\"/>\n" // deleted
+                    + " <way id=\"8\">\n  <tag k=\"amenity\" v=\"cafe\"/>\n </way>\n" // not a node
+                    + "</osm>\n");
+        }
+
+        ImportSummary summary = posService.importFromOsmExtract(extract, CampusType.INF);
+
+        assertThat(summary.processed()).isEqualTo(2);
+        assertThat(summary.imported()).isEqualTo(1);
+        assertThat(summary.failed()).isEqualTo(1);
+        assertThat(posService.getByName("Café Eins").campus()).isEqualTo(CampusType.INF);
+        assertThat(osmRequests).isEmpty();
+    }
+
+    @Test
+    void importPosFromUnsupportedOsmExtract(@TempDir Path tempDir) throws IOException {
+        Path extract = Files.createFile(tempDir.resolve("extract.osm.pbf"));
+
+        assertThrows(IllegalArgumentException.class, () -> posService.importFromOsmExtract(extract, CampusType.INF));
+    }
+
+    private void importPosFromOsmNode(Long nodeId) {
+        given()
+                .contentType(ContentType.JSON)
+                .body("\"" + CampusType.ALTSTADT + "\"")
+                .when()
+                .post("/api/pos/import/osm/{nodeId}", nodeId)
+                .then()
+                .statusCode(HttpStatus.CREATED.value());
+    }
+
+    /**
+     * Serves single-node and multi-node requests like the OSM API: a multi-node request fails with
+     * 404 (Not Found) if any of the requested nodes does not exist. Single-node responses have an ETag,
+     * which never changes because the nodes are fixed.
+     *
+     * @param exchange the HTTP exchange
+     * @throws IOException if the response cannot be written
+     */
+    private static void handleOsmRequest(HttpExchange exchange) throws IOException {
+        String path = exchange.getRequestURI().getPath();
+        String query = exchange.getRequestURI().getQuery();
+        osmRequests.add(query == null ? path : path + "?" + query);
+
+        List<Long> nodeIds;
+        if (path.equals(NODES_PATH) && query != null && query.startsWith(NODES_QUERY_PREFIX)) {
+            nodeIds = Arrays.stream(query.substring(NODES_QUERY_PREFIX.length()).split(","))
+                    .map(Long::valueOf)
+                    .toList();
+        } else if (path.startsWith(NODE_PATH)) {
+            nodeIds = List.of(Long.valueOf(path.substring(NODE_PATH.length())));
+        } else {
+            nodeIds = List.of();
+        }
+
+        if (nodeIds.isEmpty() || !OSM_NODES.keySet().containsAll(nodeIds)) {
+            exchange.sendResponseHeaders(HttpStatus.NOT_FOUND.value(), -1);
+            exchange.close();
+            return;
+        }
+        if (path.startsWith(NODE_PATH)
+                && NODE_ETAG.equals(exchange.getRequestHeaders().getFirst(HttpHeaders.IF_NONE_MATCH))) {
+            osmNotModifiedRequests.add(path);
+            exchange.sendResponseHeaders(HttpStatus.NOT_MODIFIED.value(), -1);
+            exchange.close();
+            return;
+        }
+        if (path.startsWith(NODE_PATH)) {
+            exchange.getResponseHeaders().add(HttpHeaders.ETAG, NODE_ETAG);
+        }
+        byte[] body = ("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n<osm version=\"0.6\" generator=\"stub\">\n"
+                + nodeIds.stream().map(OSM_NODES::get).collect(Collectors.joining())
+                + "</osm>\n").getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "text/xml; charset=utf-8");
+        exchange.sendResponseHeaders(HttpStatus.OK.value(), body.length);
+        try (OutputStream outputStream = exchange.getResponseBody()) {
+            outputStream.write(body);
+        }
+    }
+
+    private static String node(Long nodeId, Map<String, String> tags) {
+        return " <node id=\"" + nodeId + "\" visible=\"true\" version=\"1\" lat=\"49.41\" lon=\"8.70\">\n"
+                + tags.entrySet().stream()
+                        .map(tag -> "  <tag k=\"" + tag.getKey() + "\" v=\"" + tag.getValue() + "\"/>\n")
+                        .collect(Collectors.joining())
+                + " </node>\n";
+    }
+}
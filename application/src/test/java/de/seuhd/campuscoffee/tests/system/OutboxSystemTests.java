@@ -0,0 +1,104 @@
+package de.seuhd.campuscoffee.tests.system;
+
+import de.seuhd.campuscoffee.domain.model.ChangeType;
+import de.seuhd.campuscoffee.domain.model.OutboxEvent;
+import de.seuhd.campuscoffee.domain.model.Pos;
+import de.seuhd.campuscoffee.domain.model.User;
+import de.seuhd.campuscoffee.domain.ports.OutboxDataService;
+import de.seuhd.campuscoffee.domain.tests.TestFixtures;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+
+/**
+ * System tests for the outbox. The scheduled relay is disabled in tests (see SystemTestUtils), so the tests relay
+ * the outbox explicitly.
+ */
+public class OutboxSystemTests extends AbstractSysTest {
+    private static final int RELAY_LIMIT = 1000;
+
+    @Autowired
+    private OutboxDataService outboxDataService;
+
+    @Test
+    void relayPosAndUserChanges() {
+        LocalDateTime start = LocalDateTime.now(ZoneId.of("UTC"));
+        Pos createdPos = posService.upsert(TestFixtures.getPosFixturesForInsertion().getFirst());
+        User createdUser = userService.upsert(TestFixtures.getUserListForInsertion().getFirst());
+        Pos updatedPos = posService.upsert(createdPos.toBuilder().description("Updated description").build());
+        posService.delete(Objects.requireNonNull(createdPos.id()));
+
+        List<OutboxEvent> events = relayAll(start);
+
+        // a deletion orders after the last update of the object by its version
+        assertThat(events).extracting(OutboxEvent::aggregateType, OutboxEvent::aggregateId,
+                        OutboxEvent::aggregateVersion, OutboxEvent::type)
+                .containsExactly(
+                        tuple(OutboxEvent.POS, createdPos.id(), createdPos.version(), ChangeType.UPSERTED),
+                        tuple(OutboxEvent.USER, createdUser.id(), createdUser.version(), ChangeType.UPSERTED),
+                        tuple(OutboxEvent.POS, createdPos.id(), updatedPos.version(), ChangeType.UPSERTED),
+                        tuple(OutboxEvent.POS, createdPos.id(), updatedPos.version() + 1, ChangeType.DELETED)
+                );
+        assertThat(updatedPos.version()).isGreaterThan(createdPos.version());
+        assertThat(events.get(0).payload()).contains("\"name\":\"" + createdPos.name() + "\"");
+        assertThat(events.get(1).payload()).contains("\"emailAddress\":\"" + createdUser.emailAddress() + "\"");
+        assertThat(events.get(2).payload()).contains("\"description\":\"Updated description\"");
+        assertThat(events.get(3).payload()).isNull();
+        assertThat(relayAll(start)).isEmpty();
+    }
+
+    @Test
+    void relayBatchUpsertChanges() {
+        LocalDateTime start = LocalDateTime.now(ZoneId.of("UTC"));
+        List<Pos> createdPosList = TestFixtures.createPosFixtures(posService);
+        posService.upsertAll(createdPosList.stream()
+                .map(pos -> pos.toBuilder().description("Updated description").build())
+                .toList());
+
+        assertThat(relayAll(start))
+                .extracting(OutboxEvent::aggregateId, OutboxEvent::aggregateVersion)
+                .containsExactlyInAnyOrderElementsOf(createdPosList.stream()
+                        .flatMap(pos -> Stream.of(tuple(pos.id(), pos.version()), tuple(pos.id(), pos.version() + 1)))
+                        .toList());
+    }
+
+    @Test
+    void failedRelayKeepsEvents() {
+        LocalDateTime start = LocalDateTime.now(ZoneId.of("UTC"));
+        Pos createdPos = posService.upsert(TestFixtures.getPosFixturesForInsertion().getFirst());
+
+        assertThatThrownBy(() -> outboxDataService.relay(RELAY_LIMIT, events -> {
+            throw new IllegalStateException("Sink unavailable");
+        })).isInstanceOf(IllegalStateException.class);
+
+        assertThat(relayAll(start))
+                .extracting(OutboxEvent::aggregateId)
+                .containsExactly(createdPos.id());
+    }
+
+    /**
+     * Relays the outbox until it is drained.
+     *
+     * @param since the start of the test; events recorded by previous tests are dropped
+     * @return the relayed events recorded since the start of the test, in relay order
+     */
+    private List<OutboxEvent> relayAll(LocalDateTime since) {
+        List<OutboxEvent> relayedEvents = new ArrayList<>();
+        while (outboxDataService.relay(RELAY_LIMIT, relayedEvents::addAll) == RELAY_LIMIT) {
+            // drain the outbox
+        }
+        return relayedEvents.stream()
+                .filter(event -> !event.createdAt().isBefore(since))
+                .toList();
+    }
+}
@@ -1,16 +1,44 @@
 package de.seuhd.campuscoffee.tests.system;
 
+import de.seuhd.campuscoffee.api.dtos.OsmImportDto;
+import de.seuhd.campuscoffee.api.dtos.PosChangesDto;
 import de.seuhd.campuscoffee.api.dtos.PosDto;
+import de.seuhd.campuscoffee.domain.model.CampusType;
 import de.seuhd.campuscoffee.domain.model.Pos;
+import de.seuhd.campuscoffee.domain.model.PosType;
 import de.seuhd.campuscoffee.domain.tests.TestFixtures;
 import org.junit.jupiter.api.Test;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.time.Duration;
+import java.time.temporal.ChronoUnit;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.stream.Stream;
 
+import io.restassured.RestAssured;
+import io.restassured.http.ContentType;
+import io.restassured.response.Response;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
 
 import static de.seuhd.campuscoffee.tests.SystemTestUtils.Requests.posRequests;
+import static io.restassured.RestAssured.given;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.hasKey;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.nullValue;
 
 /**
  * System tests for the operations related to POS (Point of Sale).
@@ -25,6 +53,27 @@ public class PosSystemTests extends AbstractSysTest {
         assertEqualsIgnoringIdAndTimestamps(createdPos, posToCreate);
     }
 
+    @Test
+    void createOrUpdatePosWithIncompleteLocation() {
+        PosDto posDto = posDtoMapper.fromDomain(TestFixtures.getPosFixturesForInsertion().getFirst());
+        given()
+                .contentType(ContentType.JSON)
+                .body(posDto.toBuilder().latitude(49.41).longitude(null).build())
+                .when()
+                .post("/api/pos")
+                .then()
+                .statusCode(HttpStatus.BAD_REQUEST.value());
+
+        Pos createdPos = TestFixtures.createPosFixtures(posService).getFirst();
+        given()
+                .contentType(ContentType.JSON)
+                .body(posDtoMapper.fromDomain(createdPos).toBuilder().latitude(null).build())
+                .when()
+                .put("/api/pos/{id}", createdPos.id())
+                .then()
+                .statusCode(HttpStatus.BAD_REQUEST.value());
+    }
+
     @Test
     void getAllCreatedPos() {
         List<Pos> createdPosList = TestFixtures.createPosFixtures(posService);
@@ -80,6 +129,55 @@ public class PosSystemTests extends AbstractSysTest {
         assertEqualsIgnoringTimestamps(retrievedPos, posToUpdate);
     }
 
+    @Test
+    void updatePosNotFoundOrDuplicate() {
+        List<Pos> createdPosList = TestFixtures.createPosFixtures(posService);
+        Pos posToUpdate = createdPosList.getFirst();
+        Pos unknownPos = posToUpdate.toBuilder().id(posToUpdate.id() + 1000).build();
+        Pos duplicatePos = posToUpdate.toBuilder().name(createdPosList.get(1).name()).build();
+
+        given()
+                .contentType(ContentType.JSON)
+                .body(posDtoMapper.fromDomain(unknownPos))
+                .when()
+                .put("/api/pos/{id}", unknownPos.id())
+                .then()
+                .statusCode(HttpStatus.NOT_FOUND.value());
+        given()
+                .contentType(ContentType.JSON)
+                .body(posDtoMapper.fromDomain(duplicatePos))
+                .when()
+                .put("/api/pos/{id}", duplicatePos.id())
+                .then()
+                .statusCode(HttpStatus.CONFLICT.value());
+
+        // the failed update is rolled back, and the creation time is kept by updates
+        Pos retrievedPos = posDtoMapper.toDomain(posRequests.retrieveById(posToUpdate.id()));
+        assertEqualsIgnoringTimestamps(retrievedPos, posToUpdate);
+        assertThat(retrievedPos.createdAt()).isCloseTo(posToUpdate.createdAt(), within(1, ChronoUnit.MICROS));
+    }
+
+    @Test
+    void filterPosByNameAfterRename() {
+        List<Pos> createdPosList = TestFixtures.createPosFixtures(posService);
+        Pos posToRename = createdPosList.getFirst();
+        String oldName = posToRename.name();
+
+        // populate the name cache before the update
+        posRequests.retrieveByFilter("name", oldName);
+        Pos renamedPos = posToRename.toBuilder().name(oldName + " (Renamed)").build();
+        posRequests.update(List.of(posDtoMapper.fromDomain(renamedPos)));
+
+        given()
+                .queryParam("name", oldName)
+                .when()
+                .get("/api/pos/filter")
+                .then()
+                .statusCode(HttpStatus.NOT_FOUND.value());
+        Pos filteredPos = posDtoMapper.toDomain(posRequests.retrieveByFilter("name", renamedPos.name()));
+        assertEqualsIgnoringTimestamps(filteredPos, renamedPos);
+    }
+
     @Test
     void deletePos() {
         List<Pos> createdPosList = TestFixtures.createPosFixtures(posService);
@@ -99,4 +197,575 @@ public class PosSystemTests extends AbstractSysTest {
         assertThat(remainingPosIds)
                 .doesNotContain(posToDelete.id());
     }
+
+    @Test
+    void getPosPageByPage() {
+        List<Pos> createdPosList = TestFixtures.createPosFixtures(posService);
+
+        Response firstPage = given()
+                .contentType(ContentType.JSON)
+                .queryParam("limit", 2)
+                .when()
+                .get("/api/pos")
+                .then()
+                .statusCode(HttpStatus.OK.value())
+                .extract().response();
+        List<PosDto> firstPosPage = firstPage.jsonPath().getList("$", PosDto.class);
+
+        assertThat(firstPosPage).extracting(PosDto::id)
+                .containsExactly(createdPosList.get(0).id(), createdPosList.get(1).id());
+        assertThat(firstPage.header(HttpHeaders.LINK)).contains("after=" + createdPosList.get(1).id());
+
+        List<PosDto> secondPosPage = given()
+                .contentType(ContentType.JSON)
+                .queryParam("after", createdPosList.get(1).id())
+                .queryParam("limit", 10)
+                .when()
+                .get("/api/pos")
+                .then()
+                .statusCode(HttpStatus.OK.value())
+                .header(HttpHeaders.LINK, nullValue())
+                .extract().jsonPath().getList("$", PosDto.class);
+
+        assertThat(secondPosPage).extracting(PosDto::id)
+                .containsExactly(createdPosList.get(2).id(), createdPosList.get(3).id());
+    }
+
+    @Test
+    void queryPosWithFiltersAndSort() {
+        List<Pos> createdPosList = TestFixtures.createPosFixtures(posService);
+
+        List<PosDto> retrievedPos = given()
+                .queryParam("campus", CampusType.INF)
+                .queryParam("city", "Heidelberg")
+                .queryParam("sort", "-name")
+                .when()
+                .get("/api/pos")
+                .then()
+                .statusCode(HttpStatus.OK.value())
+                .extract().jsonPath().getList("$", PosDto.class);
+
+        assertThat(retrievedPos).extracting(PosDto::id)
+                .containsExactly(createdPosList.get(2).id(), createdPosList.get(1).id());
+
+        given()
+                .queryParam("type", PosType.VENDING_MACHINE)
+                .queryParam("postalCode", 12345)
+                .queryParam("fields", "id,name")
+                .when()
+                .get("/api/pos")
+                .then()
+                .statusCode(HttpStatus.OK.value())
+                .body("size()", equalTo(1))
+                .body("[0].id", equalTo(createdPosList.get(3).id().intValue()))
+                .body("[0].name", equalTo(createdPosList.get(3).name()))
+                .body("[0]", not(hasKey("city")));
+    }
+
+    @Test
+    void queryPosWithInvalidParameters() {
+        TestFixtures.createPosFixtures(posService);
+
+        for (String[] parameter : List.of(
+                new String[]{"sort", "description"},
+                new String[]{"fields", "id,unknown"},
+                new String[]{"campus", "UNKNOWN"})) {
+            given()
+                    .queryParam(parameter[0], parameter[1])
+                    .when()
+                    .get("/api/pos")
+                    .then()
+                    .statusCode(HttpStatus.BAD_REQUEST.value());
+        }
+
+        given()
+                .queryParam("sort", "name")
+                .queryParam("after", 1)
+                .when()
+                .get("/api/pos")
+                .then()
+                .statusCode(HttpStatus.BAD_REQUEST.value());
+    }
+
+    @Test
+    void searchPos() {
+        List<Pos> createdPosList = TestFixtures.createPosFixtures(posService);
+
+        // full-text search in names and descriptions, similarity search for typos
+        assertThat(searchPos("botanik")).extracting(PosDto::id).containsExactly(createdPosList.get(2).id());
+        assertThat(searchPos("Botanick")).extracting(PosDto::id).containsExactly(createdPosList.get(2).id());
+        assertThat(searchPos("vending")).extracting(PosDto::id).containsExactly(createdPosList.get(3).id());
+        assertThat(searchPos("waffles")).extracting(PosDto::id).containsExactly(createdPosList.get(0).id());
+        assertThat(searchPos("espresso")).isEmpty();
+
+        given()
+                .queryParam("q", " ")
+                .when()
+                .get("/api/pos/search")
+                .then()
+                .statusCode(HttpStatus.BAD_REQUEST.value());
+    }
+
+    @Test
+    void searchPosPageByPage() {
+        TestFixtures.createPosFixtures(posService);
+
+        Response firstPage = given()
+                .queryParam("q", "hall or seating")
+                .queryParam("limit", 1)
+                .when()
+                .get("/api/pos/search")
+                .then()
+                .statusCode(HttpStatus.OK.value())
+                .extract().response();
+        List<PosDto> secondPage = given()
+                .queryParam("q", "hall or seating")
+                .queryParam("offset", 1)
+                .queryParam("limit", 1)
+                .when()
+                .get("/api/pos/search")
+                .then()
+                .statusCode(HttpStatus.OK.value())
+                .extract().jsonPath().getList("$", PosDto.class);
+
+        assertThat(firstPage.header(HttpHeaders.LINK)).contains("offset=1");
+        assertThat(firstPage.jsonPath().getList("$", PosDto.class)).hasSize(1);
+        assertThat(secondPage).hasSize(1);
+    }
+
+    @Test
+    void getNearbyPos() {
+        List<Pos> createdPosList = TestFixtures.createPosFixtures(posService);
+        Pos cafeBotanik = createdPosList.get(2);
+
+        // Bäcker Görtz is about 670 m away from Café Botanik, Schmelzpunkt about 2.4 km
+        assertThat(getNearbyPos(cafeBotanik, 1000, 10)).extracting(PosDto::id)
+                .containsExactly(cafeBotanik.id(), createdPosList.get(1).id());
+        assertThat(getNearbyPos(cafeBotanik, 5000, 10)).extracting(PosDto::id)
+                .containsExactly(cafeBotanik.id(), createdPosList.get(1).id(), createdPosList.get(0).id());
+        assertThat(getNearbyPos(cafeBotanik, 5000, 1)).extracting(PosDto::id)
+                .containsExactly(cafeBotanik.id());
+
+        given()
+                .queryParam("lat", 91)
+                .queryParam("lon", 8.7)
+                .when()
+                .get("/api/pos/nearby")
+                .then()
+                .statusCode(HttpStatus.BAD_REQUEST.value());
+    }
+
+    @Test
+    void getAllPosIfModified() {
+        List<Pos> createdPosList = TestFixtures.createPosFixtures(posService);
+
+        String eTag = given()
+                .when()
+                .get("/api/pos")
+                .then()
+                .statusCode(HttpStatus.OK.value())
+                .header(HttpHeaders.LAST_MODIFIED, nullValue())
+                .extract().header(HttpHeaders.ETAG);
+        given()
+                .header(HttpHeaders.IF_NONE_MATCH, eTag)
+                .when()
+                .get("/api/pos")
+                .then()
+                .statusCode(HttpStatus.NOT_MODIFIED.value())
+                .header(HttpHeaders.ETAG, equalTo(eTag));
+
+        // any write to the POS table changes the ETag of the collection
+        Pos posToUpdate = createdPosList.getFirst();
+        posService.upsert(posToUpdate.toBuilder().description("Updated description").build());
+
+        String updatedETag = given()
+                .header(HttpHeaders.IF_NONE_MATCH, eTag)
+                .when()
+                .get("/api/pos")
+                .then()
+                .statusCode(HttpStatus.OK.value())
+                .extract().header(HttpHeaders.ETAG);
+        assertThat(updatedETag).isNotEqualTo(eTag);
+    }
+
+    @Test
+    void getAllPosIfModifiedWithConcurrentWriters() throws Exception {
+        List<Pos> createdPosList = TestFixtures.createPosFixtures(posService);
+
+        try (Connection connection = DriverManager.getConnection(postgresContainer.getJdbcUrl(),
+                postgresContainer.getUsername(), postgresContainer.getPassword())) {
+            // the first writer updates a POS and keeps its transaction open
+            connection.setAutoCommit(false);
+            try (PreparedStatement statement = connection.prepareStatement(
+                    "UPDATE pos SET description = 'Updated by the first writer', version = version + 1 WHERE id = ?")) {
+                statement.setLong(1, createdPosList.getFirst().id());
+                assertThat(statement.executeUpdate()).isEqualTo(1);
+            }
+            String eTag = getAllPosETag();
+
+            // a second writer, which starts later, neither waits for the first one nor is hidden by it
+            assertTimeoutPreemptively(Duration.ofSeconds(5), () -> posService.upsert(
+                    createdPosList.get(1).toBuilder().description("Updated by the second writer").build()));
+            String eTagAfterSecondWriter = getAllPosETag();
+            assertThat(eTagAfterSecondWriter).isNotEqualTo(eTag);
+
+            // the first writer commits last, but its change is not hidden by the later one of the second writer
+            connection.commit();
+            assertThat(getAllPosETag()).isNotEqualTo(eTagAfterSecondWriter);
+        }
+    }
+
+    @Test
+    void getAllPosIfModifiedIgnoresWritesWithoutChanges() {
+        List<Pos> createdPosList = TestFixtures.createPosFixtures(posService);
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(new DriverManagerDataSource(postgresContainer.getJdbcUrl(),
+                postgresContainer.getUsername(), postgresContainer.getPassword()));
+        String eTag = getAllPosETag();
+
+        // neither updates of the OSM sync time, which keep the version of the POS, nor updates of no rows count
+        jdbcTemplate.update("UPDATE pos SET osm_synced_at = now() WHERE id = ?", createdPosList.getFirst().id());
+        jdbcTemplate.update("UPDATE pos SET version = version + 1 WHERE id = -1");
+
+        assertThat(getAllPosETag()).isEqualTo(eTag);
+    }
+
+    @Test
+    void getPosByIdIfModified() {
+        List<Pos> createdPosList = TestFixtures.createPosFixtures(posService);
+        Pos pos = createdPosList.getFirst();
+
+        String eTag = given()
+                .when()
+                .get("/api/pos/{id}", pos.id())
+                .then()
+                .statusCode(HttpStatus.OK.value())
+                .extract().header(HttpHeaders.ETAG);
+        given()
+                .header(HttpHeaders.IF_NONE_MATCH, eTag)
+                .when()
+                .get("/api/pos/{id}", pos.id())
+                .then()
+                .statusCode(HttpStatus.NOT_MODIFIED.value());
+
+        // updating another POS does not affect the ETag of this POS
+        posService.upsert(createdPosList.get(1).toBuilder().description("Updated description").build());
+        given()
+                .header(HttpHeaders.IF_NONE_MATCH, eTag)
+                .when()
+                .get("/api/pos/{id}", pos.id())
+                .then()
+                .statusCode(HttpStatus.NOT_MODIFIED.value());
+
+        posService.upsert(pos.toBuilder().description("Updated description").build());
+        given()
+                .header(HttpHeaders.IF_NONE_MATCH, eTag)
+                .when()
+                .get("/api/pos/{id}", pos.id())
+                .then()
+                .statusCode(HttpStatus.OK.value())
+                .body("description", equalTo("Updated description"));
+    }
+
+    @Test
+    void updatePosIfMatch() {
+        Pos pos = TestFixtures.createPosFixtures(posService).getFirst();
+        String eTag = given()
+                .when()
+                .get("/api/pos/{id}", pos.id())
+                .then()
+                .statusCode(HttpStatus.OK.value())
+                .extract().header(HttpHeaders.ETAG);
+
+        // an update based on the current version succeeds and returns the ETag of the new version
+        String updatedETag = given()
+                .contentType(ContentType.JSON)
+                .header(HttpHeaders.IF_MATCH, eTag)
+                .body(posDtoMapper.fromDomain(pos.toBuilder().description("First update").build()))
+                .when()
+                .put("/api/pos/{id}", pos.id())
+                .then()
+                .statusCode(HttpStatus.OK.value())
+                .extract().header(HttpHeaders.ETAG);
+        assertThat(updatedETag).isNotEqualTo(eTag);
+        given()
+                .header(HttpHeaders.IF_NONE_MATCH, updatedETag)
+                .when()
+                .get("/api/pos/{id}", pos.id())
+                .then()
+                .statusCode(HttpStatus.NOT_MODIFIED.value());
+
+        // an update based on the outdated version fails and does not overwrite the first update
+        given()
+                .contentType(ContentType.JSON)
+                .header(HttpHeaders.IF_MATCH, eTag)
+                .body(posDtoMapper.fromDomain(pos.toBuilder().description("Second update").build()))
+                .when()
+                .put("/api/pos/{id}", pos.id())
+                .then()
+                .statusCode(HttpStatus.PRECONDITION_FAILED.value())
+                .body("errorCode", equalTo("VersionConflictException"));
+        assertThat(posRequests.retrieveById(pos.id()).description()).isEqualTo("First update");
+
+        // without 'If-Match', the POS is overwritten regardless of its version
+        given()
+                .contentType(ContentType.JSON)
+                .body(posDtoMapper.fromDomain(pos.toBuilder().description("Second update").build()))
+                .when()
+                .put("/api/pos/{id}", pos.id())
+                .then()
+                .statusCode(HttpStatus.OK.value())
+                .body("description", equalTo("Second update"));
+    }
+
+    @Test
+    void getPosChanges() {
+        List<Pos> createdPosList = TestFixtures.createPosFixtures(posService);
+
+        PosChangesDto allPos = getPosChanges(null);
+        assertThat(allPos.updated()).extracting(PosDto::id)
+                .containsExactlyElementsOf(createdPosList.stream().map(Pos::id).toList());
+        assertThat(allPos.deleted()).isEmpty();
+
+        Pos posToUpdate = createdPosList.get(0);
+        Pos posToDelete = createdPosList.get(1);
+        posService.upsert(posToUpdate.toBuilder().description("Updated description").build());
+        posService.delete(Objects.requireNonNull(posToDelete.id()));
+
+        // changes of transactions in progress during the previous call are returned again, so the other fixtures may
+        // be included as well
+        PosChangesDto changes = getPosChanges(allPos.next());
+        assertThat(changes.updated()).extracting(PosDto::id)
+                .contains(posToUpdate.id())
+                .doesNotContain(posToDelete.id());
+        assertThat(changes.updated()).filteredOn(pos -> pos.id().equals(posToUpdate.id()))
+                .extracting(PosDto::description)
+                .containsExactly("Updated description");
+        assertThat(changes.deleted()).contains(posToDelete.id());
+
+        PosChangesDto noChanges = getPosChanges(changes.next());
+        assertThat(noChanges.updated()).isEmpty();
+        assertThat(noChanges.deleted()).isEmpty();
+
+        // timestamps, which earlier versions returned as tokens, are rejected
+        given()
+                .queryParam("since", "2025-11-21T12:00:00.123456")
+                .when()
+                .get("/api/pos/changes")
+                .then()
+                .statusCode(HttpStatus.BAD_REQUEST.value());
+    }
+
+    @Test
+    void getPosChangesSinceExpiredToken() {
+        List<Pos> createdPosList = TestFixtures.createPosFixtures(posService);
+        PosChangesDto allPos = getPosChanges(null);
+        posService.delete(Objects.requireNonNull(createdPosList.getFirst().id()));
+
+        // the deletion is older than the retention, so it is forgotten and the token that precedes it expires
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(new DriverManagerDataSource(postgresContainer.getJdbcUrl(),
+                postgresContainer.getUsername(), postgresContainer.getPassword()));
+        jdbcTemplate.update("UPDATE pos_tombstones SET deleted_at = deleted_at - interval '31 days'");
+        assertThat(posService.pruneDeletions(Duration.ofDays(30))).isPositive();
+        given()
+                .queryParam("since", allPos.next())
+                .when()
+                .get("/api/pos/changes")
+                .then()
+                .statusCode(HttpStatus.GONE.value())
+                .body("errorCode", equalTo("SyncTokenExpiredException"));
+
+        // after fetching all POS again, the client continues with the new token
+        PosChangesDto resync = getPosChanges(null);
+        assertThat(resync.updated()).hasSize(createdPosList.size() - 1);
+        PosChangesDto changes = getPosChanges(resync.next());
+        assertThat(changes.deleted()).isEmpty();
+    }
+
+    @Test
+    void getPosChangesOfLateCommits() throws Exception {
+        List<Pos> createdPosList = TestFixtures.createPosFixtures(posService);
+        Pos posToUpdate = createdPosList.getFirst();
+
+        try (Connection connection = DriverManager.getConnection(postgresContainer.getJdbcUrl(),
+                postgresContainer.getUsername(), postgresContainer.getPassword())) {
+            // a long transaction updates a POS ...
+            connection.setAutoCommit(false);
+            try (PreparedStatement statement = connection.prepareStatement(
+                    "UPDATE pos SET description = 'Updated late', version = version + 1 WHERE id = ?")) {
+                statement.setLong(1, posToUpdate.id());
+                assertThat(statement.executeUpdate()).isEqualTo(1);
+            }
+
+            // ... while a client syncs and a later write commits first
+            PosChangesDto allPos = getPosChanges(null);
+            posService.upsert(createdPosList.get(1).toBuilder().description("Updated early").build());
+            PosChangesDto changes = getPosChanges(allPos.next());
+            assertThat(changes.updated()).extracting(PosDto::id).contains(createdPosList.get(1).id());
+
+            // the update of the long transaction is returned by the next sync, although it committed last
+            connection.commit();
+            assertThat(getPosChanges(changes.next()).updated())
+                    .filteredOn(pos -> pos.id().equals(posToUpdate.id()))
+                    .extracting(PosDto::description)
+                    .containsExactly("Updated late");
+        }
+    }
+
+    @Test
+    void streamPosChanges() {
+        List<Pos> createdPosList = TestFixtures.createPosFixtures(posService);
+        Pos posToUpdate = createdPosList.get(0);
+        Long posToDeleteId = Objects.requireNonNull(createdPosList.get(1).id());
+
+        List<String> events = assertTimeoutPreemptively(Duration.ofSeconds(10), () -> {
+            try (HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build()) {
+                // the stream is subscribed once the response headers are received
+                HttpResponse<Stream<String>> response = client.send(
+                        HttpRequest.newBuilder(URI.create(RestAssured.baseURI + "/api/pos/stream")).build(),
+                        HttpResponse.BodyHandlers.ofLines());
+                assertThat(response.statusCode()).isEqualTo(HttpStatus.OK.value());
+
+                posService.upsert(posToUpdate.toBuilder().description("Updated description").build());
+                posService.delete(posToDeleteId);
+
+                try (Stream<String> lines = response.body()) {
+                    return lines.filter(line -> line.startsWith("event:") || line.startsWith("data:"))
+                            .limit(4)
+                            .toList();
+                }
+            }
+        });
+
+        assertThat(events.get(0)).isEqualTo("event:upserted");
+        assertThat(events.get(1))
+                .contains("\"id\":" + posToUpdate.id())
+                .contains("\"description\":\"Updated description\"");
+        assertThat(events.get(2)).isEqualTo("event:deleted");
+        assertThat(events.get(3)).isEqualTo("data:{\"id\":" + posToDeleteId + "}");
+    }
+
+    @Test
+    void exportAllPos() {
+        List<Pos> createdPosList = TestFixtures.createPosFixtures(posService);
+
+        List<Pos> exportedPos = given()
+                .when()
+                .get("/api/pos/export")
+                .then()
+                .statusCode(HttpStatus.OK.value())
+                .contentType(ContentType.JSON)
+                .extract().jsonPath().getList("$", PosDto.class)
+                .stream()
+                .map(posDtoMapper::toDomain)
+                .toList();
+
+        assertEqualsIgnoringTimestamps(exportedPos, createdPosList);
+    }
+
+    @Test
+    void upsertPosBatch() {
+        List<Pos> createdPosList = TestFixtures.createPosFixtures(posService);
+        Pos posToUpdate = createdPosList.getFirst().toBuilder()
+                .description("Updated description")
+                .build();
+        Pos posToCreate = createdPosList.get(1).toBuilder()
+                .id(null)
+                .name("New POS")
+                .build();
+        Pos posWithDuplicateName = posToCreate.toBuilder().build();
+        Pos posWithUnknownId = createdPosList.get(2).toBuilder()
+                .id(createdPosList.getLast().id() + 1000)
+                .name("Unknown POS")
+                .build();
+
+        List<PosDto> requestBody = List.of(posToUpdate, posToCreate, posWithDuplicateName, posWithUnknownId).stream()
+                .map(posDtoMapper::fromDomain)
+                .toList();
+        Response response = given()
+                .contentType(ContentType.JSON)
+                .body(requestBody)
+                .when()
+                .post("/api/pos/batch")
+                .then()
+                .statusCode(HttpStatus.OK.value())
+                .extract().response();
+
+        assertThat(response.jsonPath().getList("index", Integer.class)).containsExactly(0, 1, 2, 3);
+        assertThat(response.jsonPath().getList("status", String.class))
+                .containsExactly("SUCCEEDED", "SUCCEEDED", "FAILED", "FAILED");
+        assertThat(response.jsonPath().getList("errorCode", String.class))
+                .containsExactly(null, null, "DuplicationException", "NotFoundException");
+        assertEqualsIgnoringTimestamps(
+                posDtoMapper.toDomain(response.jsonPath().getObject("[0].value", PosDto.class)), posToUpdate);
+        assertEqualsIgnoringIdAndTimestamps(
+                posDtoMapper.toDomain(posRequests.retrieveByFilter("name", posToCreate.name())), posToCreate);
+    }
+
+    @Test
+    void upsertPosBatchWithInvalidPos() {
+        PosDto invalidPos = posDtoMapper.fromDomain(TestFixtures.getPosFixturesForInsertion().getFirst()).toBuilder()
+                .name("")
+                .build();
+
+        given()
+                .contentType(ContentType.JSON)
+                .body(List.of(invalidPos))
+                .when()
+                .post("/api/pos/batch")
+                .then()
+                .statusCode(HttpStatus.BAD_REQUEST.value());
+    }
+
+    @Test
+    void importPosFromOsmWithoutNodeIds() {
+        given()
+                .contentType(ContentType.JSON)
+                .body(OsmImportDto.builder().nodeIds(List.of()).campusType(CampusType.ALTSTADT).build())
+                .when()
+                .post("/api/pos/import/osm")
+                .then()
+                .statusCode(HttpStatus.BAD_REQUEST.value());
+    }
+
+    private String getAllPosETag() {
+        return given()
+                .when()
+                .get("/api/pos")
+                .then()
+                .statusCode(HttpStatus.OK.value())
+                .extract().header(HttpHeaders.ETAG);
+    }
+
+    private List<PosDto> getNearbyPos(Pos pos, int radius, int limit) {
+        return given()
+                .queryParam("lat", pos.latitude())
+                .queryParam("lon", pos.longitude())
+                .queryParam("radius", radius)
+                .queryParam("limit", limit)
+                .when()
+                .get("/api/pos/nearby")
+                .then()
+                .statusCode(HttpStatus.OK.value())
+                .extract().jsonPath().getList("$", PosDto.class);
+    }
+
+    private PosChangesDto getPosChanges(Long since) {
+        return given()
+                .queryParams(since == null ? Map.of() : Map.of("since", since))
+                .when()
+                .get("/api/pos/changes")
+                .then()
+                .statusCode(HttpStatus.OK.value())
+                .extract().as(PosChangesDto.class);
+    }
+
+    private List<PosDto> searchPos(String query) {
+        return given()
+                .queryParam("q", query)
+                .when()
+                .get("/api/pos/search")
+                .then()
+                .statusCode(HttpStatus.OK.value())
+                .extract().jsonPath().getList("$", PosDto.class);
+    }
 }
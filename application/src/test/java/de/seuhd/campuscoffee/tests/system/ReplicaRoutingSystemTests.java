@@ -0,0 +1,159 @@
+package de.seuhd.campuscoffee.tests.system;
+
+import de.seuhd.campuscoffee.api.filter.ReadYourWritesFilter;
+import de.seuhd.campuscoffee.domain.model.Pos;
+import de.seuhd.campuscoffee.domain.model.User;
+import de.seuhd.campuscoffee.domain.tests.TestFixtures;
+import io.restassured.http.ContentType;
+import io.restassured.response.Response;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+import javax.sql.DataSource;
+
+import static de.seuhd.campuscoffee.tests.SystemTestUtils.getPostgresContainer;
+import static io.restassured.RestAssured.given;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.not;
+
+/**
+ * System tests for reading from database replicas (see ReplicaRoutingConfig).
+ * The replica is a second PostgreSQL instance with the same schema, but without replication, so that the tests can
+ * tell which database served a read: rows inserted directly into the replica are only found on the replica, and rows
+ * written through the application only on the primary.
+ */
+public class ReplicaRoutingSystemTests extends AbstractSysTest {
+    private static final PostgreSQLContainer<?> replicaContainer;
+    private static final JdbcTemplate replica;
+
+    static {
+        replicaContainer = getPostgresContainer("replica");
+        replicaContainer.start();
+        DataSource dataSource = new DriverManagerDataSource(
+                replicaContainer.getJdbcUrl(), replicaContainer.getUsername(), replicaContainer.getPassword());
+        Flyway.configure().dataSource(dataSource).locations("classpath:db/migration").load().migrate();
+        replica = new JdbcTemplate(dataSource);
+    }
+
+    @DynamicPropertySource
+    static void configureReplicas(DynamicPropertyRegistry registry) {
+        // the first replica cannot be reached, so reads have to skip it
+        registry.add("replicas.urls[0]", () -> "jdbc:postgresql://localhost:1/unavailable");
+        registry.add("replicas.urls[1]", replicaContainer::getJdbcUrl);
+        registry.add("replicas.connection-timeout", () -> "250ms");
+    }
+
+    @BeforeEach
+    void clearReplica() {
+        replica.update("DELETE FROM users");
+    }
+
+    @Test
+    void readsAreServedByReplica() {
+        replica.update("INSERT INTO users (id, created_at, updated_at, login_name, email_address, first_name, last_name) "
+                + "VALUES (1000, now(), now(), 'replica_user', 'replica@uni-heidelberg.de', 'Rep', 'Lica')");
+
+        for (int i = 0; i < 3; i++) {
+            given()
+                    .when()
+                    .get("/api/users/{id}", 1000)
+                    .then()
+                    .statusCode(HttpStatus.OK.value())
+                    .body("name", equalTo("replica_user"));
+        }
+        assertThat(userService.getall()).extracting(User::name).containsExactly("replica_user");
+    }
+
+    @Test
+    void clientsReadTheirOwnWritesFromPrimary() {
+        User userToCreate = TestFixtures.getUserListForInsertion().getFirst();
+        Response response = given()
+                .contentType(ContentType.JSON)
+                .body(userDtoMapper.fromDomain(userToCreate))
+                .when()
+                .post("/api/users")
+                .then()
+                .statusCode(HttpStatus.CREATED.value())
+                .extract().response();
+        assertThat(response.getCookie(ReadYourWritesFilter.COOKIE_NAME)).isNotNull();
+        long id = response.jsonPath().getLong("id");
+
+        // the client that created the user reads from the primary ...
+        given()
+                .cookies(response.getCookies())
+                .when()
+                .get("/api/users/{id}", id)
+                .then()
+                .statusCode(HttpStatus.OK.value())
+                .body("name", equalTo(userToCreate.name()));
+
+        // ... while other clients read from the replica, which never receives the user in this test
+        given()
+                .when()
+                .get("/api/users/{id}", id)
+                .then()
+                .statusCode(HttpStatus.NOT_FOUND.value());
+    }
+
+    @Test
+    void cachedLookupsReadFromPrimary() {
+        Pos createdPos = TestFixtures.createPosFixtures(posService).getFirst();
+
+        // POS by ID are cached, so they are always read from the primary
+        given()
+                .when()
+                .get("/api/pos/{id}", createdPos.id())
+                .then()
+                .statusCode(HttpStatus.OK.value())
+                .body("name", equalTo(createdPos.name()));
+
+        // exports are read from the replica
+        given()
+                .when()
+                .get("/api/pos/export")
+                .then()
+                .statusCode(HttpStatus.OK.value())
+                .body("$", empty());
+    }
+
+    @Test
+    void changesAndCollectionVersionsReadFromPrimary() {
+        String eTag = given()
+                .when()
+                .get("/api/pos")
+                .then()
+                .statusCode(HttpStatus.OK.value())
+                .extract().header(HttpHeaders.ETAG);
+        Pos createdPos = TestFixtures.createPosFixtures(posService).getFirst();
+
+        // the version of the collection and the list are read from the primary, so the write is not hidden by the
+        // replica ...
+        given()
+                .header(HttpHeaders.IF_NONE_MATCH, eTag)
+                .when()
+                .get("/api/pos")
+                .then()
+                .statusCode(HttpStatus.OK.value())
+                .header(HttpHeaders.ETAG, not(equalTo(eTag)))
+                .body("id", hasItem(createdPos.id().intValue()));
+
+        // ... and neither are the changes, whose sync token must not skip what the replica has not replayed yet
+        given()
+                .when()
+                .get("/api/pos/changes")
+                .then()
+                .statusCode(HttpStatus.OK.value())
+                .body("updated.id", hasItem(createdPos.id().intValue()));
+    }
+}
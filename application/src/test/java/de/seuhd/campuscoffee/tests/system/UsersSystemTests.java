@@ -6,7 +6,15 @@ import org.junit.jupiter.api.Test;
 
 import de.seuhd.campuscoffee.domain.model.User;
 import de.seuhd.campuscoffee.domain.tests.TestFixtures;
+import io.restassured.http.ContentType;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+
 import static de.seuhd.campuscoffee.tests.SystemTestUtils.Requests.userRequests;
+import static io.restassured.RestAssured.given;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.not;
 
 
 public class UsersSystemTests extends AbstractSysTest {
@@ -35,6 +43,61 @@ public class UsersSystemTests extends AbstractSysTest {
         assertEqualsIgnoringTimestamps(retrievedUsers, createdUserList);
     }
 
+    @Test
+    void updateUser() {
+        List<User> createdUserList = TestFixtures.createUsers(userService);
+        User userToUpdate = createdUserList.getFirst().toBuilder()
+                .firstName("Updated")
+                .build();
+
+        User updatedUser = userDtoMapper.toDomain(userRequests.update(List.of(userDtoMapper.fromDomain(userToUpdate))).getFirst());
+
+        assertEqualsIgnoringTimestamps(updatedUser, userToUpdate);
+        assertEqualsIgnoringTimestamps(userDtoMapper.toDomain(userRequests.retrieveById(userToUpdate.id())), userToUpdate);
+    }
+
+    @Test
+    void updateUserIfMatch() {
+        User user = TestFixtures.createUsers(userService).getFirst();
+        String eTag = given()
+                .when()
+                .get("/api/users/{id}", user.id())
+                .then()
+                .statusCode(HttpStatus.OK.value())
+                .extract().header(HttpHeaders.ETAG);
+        given()
+                .contentType(ContentType.JSON)
+                .header(HttpHeaders.IF_MATCH, eTag)
+                .body(userDtoMapper.fromDomain(user.toBuilder().firstName("First").build()))
+                .when()
+                .put("/api/users/{id}", user.id())
+                .then()
+                .statusCode(HttpStatus.OK.value())
+                .header(HttpHeaders.ETAG, not(equalTo(eTag)));
+
+        // the user was changed since the ETag was read
+        given()
+                .contentType(ContentType.JSON)
+                .header(HttpHeaders.IF_MATCH, eTag)
+                .body(userDtoMapper.fromDomain(user.toBuilder().firstName("Second").build()))
+                .when()
+                .put("/api/users/{id}", user.id())
+                .then()
+                .statusCode(HttpStatus.PRECONDITION_FAILED.value());
+        assertThat(userRequests.retrieveById(user.id()).firstName()).isEqualTo("First");
+    }
+
+    @Test
+    void reloadUserFixtures() {
+        List<User> createdUserList = TestFixtures.createUsers(userService);
+
+        // loading the fixtures again updates the existing users instead of failing on their login names
+        List<User> reloadedUserList = TestFixtures.createUsers(userService);
+
+        assertEqualsIgnoringTimestamps(reloadedUserList, createdUserList);
+        assertThat(userService.getall()).hasSameSizeAs(createdUserList);
+    }
+
     @Test
     void getUserById() {
         List<User> createdUserList = TestFixtures.createUsers(userService);
@@ -46,4 +109,30 @@ public class UsersSystemTests extends AbstractSysTest {
 
         assertEqualsIgnoringTimestamps(retrievedUser, createdUser);
     }
-}
\ No newline at end of file
+
+    @Test
+    void getAllUsersIfModified() {
+        List<User> createdUserList = TestFixtures.createUsers(userService);
+
+        String eTag = given()
+                .when()
+                .get("/api/users")
+                .then()
+                .statusCode(HttpStatus.OK.value())
+                .extract().header(HttpHeaders.ETAG);
+        given()
+                .header(HttpHeaders.IF_NONE_MATCH, eTag)
+                .when()
+                .get("/api/users")
+                .then()
+                .statusCode(HttpStatus.NOT_MODIFIED.value());
+
+        userService.delete(createdUserList.getFirst().id());
+        given()
+                .header(HttpHeaders.IF_NONE_MATCH, eTag)
+                .when()
+                .get("/api/users")
+                .then()
+                .statusCode(HttpStatus.OK.value());
+    }
+}
@@ -0,0 +1,74 @@
+package de.seuhd.campuscoffee.benchmarks;
+
+import de.seuhd.campuscoffee.data.mapper.HouseNumberCodec;
+import de.seuhd.campuscoffee.data.persistence.AddressEntity;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the {@link HouseNumberCodec} used by the POS entity mapper with the regex-based house number
+ * handling it replaced. Run with {@code -prof gc} to compare the allocation per mapped house number.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HouseNumberCodecBenchmark {
+    @Param({"7", "21a", "1234b"})
+    private String houseNumber;
+    private Integer number;
+    private Character suffix;
+
+    @Setup
+    public void setUp() {
+        HouseNumberCodec.HouseNumber parsed = HouseNumberCodec.parse(houseNumber);
+        number = parsed.number();
+        suffix = parsed.suffix();
+    }
+
+    @Benchmark
+    public AddressEntity splitRegex() {
+        AddressEntity addressEntity = new AddressEntity();
+        String numericPart = houseNumber.replaceAll("[^0-9]", "");
+        String suffixPart = houseNumber.replaceAll("[0-9]", "");
+        addressEntity.setHouseNumber(numericPart.isEmpty() ? null : Integer.parseInt(numericPart));
+        addressEntity.setHouseNumberSuffix(suffixPart.isEmpty() ? null : suffixPart.charAt(0));
+        return addressEntity;
+    }
+
+    @Benchmark
+    public AddressEntity splitCodec() {
+        AddressEntity addressEntity = new AddressEntity();
+        HouseNumberCodec.HouseNumber parsed = HouseNumberCodec.parse(houseNumber);
+        addressEntity.setHouseNumber(parsed.number());
+        addressEntity.setHouseNumberSuffix(parsed.suffix());
+        return addressEntity;
+    }
+
+    @Benchmark
+    public String mergeConcat() {
+        String houseNumberWithSuffix = number.toString();
+        if (suffix != null) {
+            houseNumberWithSuffix += suffix;
+        }
+        return houseNumberWithSuffix;
+    }
+
+    @Benchmark
+    public String mergeCodec() {
+        return HouseNumberCodec.format(number, suffix);
+    }
+}
@@ -0,0 +1,300 @@
+package de.seuhd.campuscoffee.benchmarks;
+
+import de.seuhd.campuscoffee.data.persistence.PosRepository;
+import de.seuhd.campuscoffee.domain.exceptions.DuplicationException;
+import de.seuhd.campuscoffee.domain.exceptions.NotFoundException;
+import de.seuhd.campuscoffee.domain.exceptions.SyncTokenExpiredException;
+import de.seuhd.campuscoffee.domain.model.BatchItemResult;
+import de.seuhd.campuscoffee.domain.model.CollectionVersion;
+import de.seuhd.campuscoffee.domain.model.Pos;
+import de.seuhd.campuscoffee.domain.model.PosChanges;
+import de.seuhd.campuscoffee.domain.model.PosQuery;
+import de.seuhd.campuscoffee.domain.model.PosSort;
+import de.seuhd.campuscoffee.domain.ports.PosDataService;
+import org.jspecify.annotations.NonNull;
+import org.jspecify.annotations.Nullable;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * POS data service that keeps the POS in memory, so that the domain layer can be benchmarked without a database.
+ * Behaves like the JPA adapter for IDs, timestamps, and name uniqueness. Queries are evaluated on the stored POS,
+ * searches match the query as a substring of names and descriptions, and every write gets the next value of a change
+ * counter, which serves as collection version and sync token.
+ */
+class InMemoryPosDataService implements PosDataService {
+    private final Map<Long, Pos> posById = new ConcurrentSkipListMap<>();
+    private final Map<String, Long> idByName = new ConcurrentSkipListMap<>();
+    private final Map<Long, Long> changeIdById = new ConcurrentSkipListMap<>();
+    private final Map<Long, Long> deletedChangeIdById = new ConcurrentSkipListMap<>();
+    private final Map<Long, LocalDateTime> deletedAtById = new ConcurrentSkipListMap<>();
+    private final Map<Long, LocalDateTime> osmSyncedAtById = new ConcurrentSkipListMap<>();
+    private final AtomicLong idSequence = new AtomicLong();
+    private final AtomicLong changeSequence = new AtomicLong();
+    private final AtomicLong syncHorizon = new AtomicLong();
+
+    @Override
+    public synchronized void clear() {
+        posById.clear();
+        idByName.clear();
+        changeIdById.clear();
+        deletedChangeIdById.clear();
+        deletedAtById.clear();
+        osmSyncedAtById.clear();
+        changeSequence.incrementAndGet();
+    }
+
+    @Override
+    public @NonNull List<Pos> getAll() {
+        return List.copyOf(posById.values());
+    }
+
+    @Override
+    public @NonNull List<Pos> getPage(@Nullable Long after, int limit) {
+        return posById.values().stream()
+                .filter(pos -> after == null || Objects.requireNonNull(pos.id()) > after)
+                .limit(limit)
+                .toList();
+    }
+
+    @Override
+    public @NonNull List<Pos> query(@NonNull PosQuery query) {
+        Comparator<Pos> order = query.sort().stream()
+                .map(InMemoryPosDataService::comparator)
+                .reduce((first, second) -> first.thenComparing(second))
+                .orElse((pos1, pos2) -> 0)
+                .thenComparing(Pos::id);
+        return posById.values().stream()
+                .filter(pos -> query.campus() == null || pos.campus() == query.campus())
+                .filter(pos -> query.type() == null || pos.type() == query.type())
+                .filter(pos -> query.postalCode() == null || pos.postalCode().equals(query.postalCode()))
+                .filter(pos -> query.city() == null || pos.city().equals(query.city()))
+                .filter(pos -> query.after() == null || Objects.requireNonNull(pos.id()) > query.after())
+                .sorted(order)
+                .limit(query.limit() == null ? Long.MAX_VALUE : query.limit())
+                .toList();
+    }
+
+    @Override
+    public @NonNull List<Pos> search(@NonNull String query, int offset, int limit) {
+        // hits in the name rank before hits in the description only
+        String lowerCaseQuery = query.toLowerCase(Locale.ROOT);
+        Predicate<Pos> nameMatches = pos -> pos.name().toLowerCase(Locale.ROOT).contains(lowerCaseQuery);
+        return posById.values().stream()
+                .filter(nameMatches.or(pos -> pos.description().toLowerCase(Locale.ROOT).contains(lowerCaseQuery)))
+                .sorted(Comparator.comparing((Pos pos) -> !nameMatches.test(pos)))
+                .skip(offset)
+                .limit(limit)
+                .toList();
+    }
+
+    @Override
+    public @NonNull List<Pos> nearby(double latitude, double longitude, double radius, int limit) {
+        Map<Pos, Double> distanceByPos = new HashMap<>();
+        for (Pos pos : posById.values()) {
+            if (pos.latitude() != null && pos.longitude() != null) {
+                double distance = distance(latitude, longitude, pos.latitude(), pos.longitude());
+                if (distance <= radius) {
+                    distanceByPos.put(pos, distance);
+                }
+            }
+        }
+        return distanceByPos.keySet().stream()
+                .sorted(Comparator.comparing((Pos pos) -> distanceByPos.get(pos)).thenComparing(Pos::id))
+                .limit(limit)
+                .toList();
+    }
+
+    @Override
+    public void streamAll(@NonNull Consumer<? super Pos> consumer) {
+        posById.values().forEach(consumer);
+    }
+
+    @Override
+    public @NonNull Optional<List<Pos>> queryIfModified(@NonNull PosQuery query,
+                                                        @NonNull Predicate<? super CollectionVersion> notModified) {
+        // read the version first, so that a concurrent write results in an outdated version
+        CollectionVersion version = new CollectionVersion(Long.toString(changeSequence.get()));
+        return notModified.test(version) ? Optional.empty() : Optional.of(query(query));
+    }
+
+    @Override
+    public @NonNull PosChanges getChanges(@Nullable Long since) {
+        // writes are synchronized, so every change with a lower change ID than the next one is visible
+        long next = changeSequence.get() + 1;
+        if (since == null) {
+            return new PosChanges(getAll(), List.of(), next);
+        }
+        List<Pos> updated = changeIdById.entrySet().stream()
+                .filter(entry -> entry.getValue() >= since)
+                .map(entry -> posById.get(entry.getKey()))
+                .filter(Objects::nonNull) // deleted in between
+                .toList();
+        List<Long> deleted = deletedChangeIdById.entrySet().stream()
+                .filter(entry -> entry.getValue() >= since)
+                .map(Map.Entry::getKey)
+                .toList();
+        if (since < syncHorizon.get()) {
+            throw new SyncTokenExpiredException(Pos.class, since);
+        }
+        return new PosChanges(updated, deleted, Math.max(next, since));
+    }
+
+    @Override
+    public synchronized int pruneDeletions(@NonNull LocalDateTime deletedBefore) {
+        List<Long> prunedIds = deletedAtById.entrySet().stream()
+                .filter(entry -> entry.getValue().isBefore(deletedBefore))
+                .map(Map.Entry::getKey)
+                .toList();
+        for (Long id : prunedIds) {
+            long changeId = deletedChangeIdById.remove(id);
+            deletedAtById.remove(id);
+            syncHorizon.accumulateAndGet(changeId + 1, Math::max);
+        }
+        return prunedIds.size();
+    }
+
+    @Override
+    public @NonNull Pos getByName(@NonNull String name) {
+        Long id = idByName.get(name);
+        if (id == null) {
+            throw new NotFoundException(Pos.class, "name", name);
+        }
+        return getById(id);
+    }
+
+    @Override
+    public @NonNull Pos getById(@NonNull Long id) {
+        Pos pos = posById.get(id);
+        if (pos == null) {
+            throw new NotFoundException(Pos.class, id);
+        }
+        return pos;
+    }
+
+    @Override
+    public synchronized @NonNull Pos upsert(@NonNull Pos pos) {
+        LocalDateTime now = LocalDateTime.now(ZoneId.of("UTC"));
+        Pos existingPos = pos.id() == null ? null : getById(pos.id());
+        Long existingId = idByName.get(pos.name());
+        if (existingId != null && !existingId.equals(pos.id())) {
+            throw new DuplicationException(Pos.class, "name", pos.name());
+        }
+
+        Pos savedPos = pos.toBuilder()
+                .id(existingPos == null ? idSequence.incrementAndGet() : existingPos.id())
+                .createdAt(existingPos == null ? now : existingPos.createdAt())
+                .updatedAt(now)
+                .build();
+        if (existingPos != null) {
+            idByName.remove(existingPos.name());
+        }
+        posById.put(savedPos.id(), savedPos);
+        idByName.put(savedPos.name(), savedPos.id());
+        changeIdById.put(savedPos.id(), changeSequence.incrementAndGet());
+        return savedPos;
+    }
+
+    @Override
+    public @NonNull List<BatchItemResult<Pos>> upsertAll(@NonNull List<Pos> posList) {
+        List<BatchItemResult<Pos>> results = new ArrayList<>(posList.size());
+        for (int i = 0; i < posList.size(); i++) {
+            try {
+                results.add(BatchItemResult.success(i, upsert(posList.get(i))));
+            } catch (NotFoundException | DuplicationException e) {
+                results.add(BatchItemResult.failure(i, e));
+            }
+        }
+        return results;
+    }
+
+    @Override
+    public synchronized @NonNull Pos upsertByName(@NonNull Pos pos) {
+        return upsert(pos.toBuilder().id(idByName.get(pos.name())).build());
+    }
+
+    @Override
+    public @NonNull List<BatchItemResult<Pos>> upsertAllByName(@NonNull List<Pos> posList) {
+        List<BatchItemResult<Pos>> results = new ArrayList<>(posList.size());
+        Set<String> names = new HashSet<>();
+        for (int i = 0; i < posList.size(); i++) {
+            Pos pos = posList.get(i);
+            results.add(names.add(pos.name())
+                    ? BatchItemResult.success(i, upsertByName(pos))
+                    : BatchItemResult.failure(i, new DuplicationException(Pos.class, "name", pos.name())));
+        }
+        return results;
+    }
+
+    @Override
+    public @NonNull List<Pos> getOsmSyncCandidates(@Nullable Long after, @NonNull LocalDateTime syncedBefore,
+                                                   int limit) {
+        return posById.values().stream()
+                .filter(pos -> pos.osmNodeId() != null)
+                .filter(pos -> after == null || Objects.requireNonNull(pos.id()) > after)
+                .filter(pos -> osmSyncedAtById.getOrDefault(pos.id(), pos.updatedAt()).isBefore(syncedBefore))
+                .limit(limit)
+                .toList();
+    }
+
+    @Override
+    public void markOsmSynced(@NonNull Collection<Long> ids) {
+        // the sync time is not part of the domain model, so the POS do not change
+        LocalDateTime now = LocalDateTime.now(ZoneId.of("UTC"));
+        ids.stream()
+                .filter(posById::containsKey)
+                .forEach(id -> osmSyncedAtById.put(id, now));
+    }
+
+    @Override
+    public synchronized void delete(@NonNull Long id) {
+        Pos pos = getById(id);
+        posById.remove(id);
+        idByName.remove(pos.name());
+        changeIdById.remove(id);
+        osmSyncedAtById.remove(id);
+        deletedChangeIdById.put(id, changeSequence.incrementAndGet());
+        deletedAtById.put(id, LocalDateTime.now(ZoneId.of("UTC")));
+    }
+
+    private static Comparator<Pos> comparator(PosSort sort) {
+        Comparator<Pos> comparator = switch (sort.key()) {
+            case ID -> Comparator.comparing(Pos::id);
+            case NAME -> Comparator.comparing(Pos::name);
+            case TYPE -> Comparator.comparing(Pos::type);
+            case CAMPUS -> Comparator.comparing(Pos::campus);
+            case POSTAL_CODE -> Comparator.comparing(Pos::postalCode);
+            case CITY -> Comparator.comparing(Pos::city);
+            case CREATED_AT -> Comparator.comparing(Pos::createdAt);
+            case UPDATED_AT -> Comparator.comparing(Pos::updatedAt);
+        };
+        return sort.descending() ? comparator.reversed() : comparator;
+    }
+
+    /**
+     * Great-circle distance in meters between two locations (haversine formula), as computed by the JPA adapter.
+     */
+    private static double distance(double latitude1, double longitude1, double latitude2, double longitude2) {
+        double sinLatitude = Math.sin(Math.toRadians(latitude2 - latitude1) / 2);
+        double sinLongitude = Math.sin(Math.toRadians(longitude2 - longitude1) / 2);
+        return 2 * PosRepository.EARTH_RADIUS_METERS * Math.asin(Math.sqrt(sinLatitude * sinLatitude
+                + Math.cos(Math.toRadians(latitude1)) * Math.cos(Math.toRadians(latitude2))
+                * sinLongitude * sinLongitude));
+    }
+}
@@ -0,0 +1,37 @@
+package de.seuhd.campuscoffee.benchmarks;
+
+import de.seuhd.campuscoffee.domain.model.OsmAmenity;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the lookup of OSM amenity values, which runs for every tagged node of an OSM extract.
+ * The parameters cover the first and the last constant as well as a value that is not a POS amenity
+ * (the most frequent case in extracts).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OsmAmenityBenchmark {
+    @Param({"bar", "vending_machine", "bench"})
+    private String osmValue;
+
+    @Benchmark
+    public Optional<OsmAmenity> fromOsmValue() {
+        return OsmAmenity.fromOsmValue(osmValue);
+    }
+}
@@ -0,0 +1,109 @@
+package de.seuhd.campuscoffee.benchmarks;
+
+import com.fasterxml.jackson.dataformat.xml.XmlMapper;
+import de.seuhd.campuscoffee.data.client.OsmResponse;
+import de.seuhd.campuscoffee.data.client.OsmXmlParser;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import javax.xml.stream.XMLStreamException;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Compares the StAX-based {@link OsmXmlParser} with the previous Jackson-based parsing of OSM API responses
+ * (a new {@link XmlMapper} per response and a tree-based deserializer).
+ * Run with {@code -Djmh.args="OsmXmlParserBenchmark -prof gc"} to compare the allocation rates as well.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OsmXmlParserBenchmark {
+    private static final int NODES_PER_RESPONSE = 100;
+
+    private final XmlMapper sharedXmlMapper = new XmlMapper();
+    private String singleNodeResponse;
+    private String multiNodeResponse;
+
+    @Setup
+    public void setUp() {
+        singleNodeResponse = osmDocument(node(5589879349L));
+        multiNodeResponse = osmDocument(IntStream.range(0, NODES_PER_RESPONSE)
+                .mapToObj(i -> node(5589879349L + i))
+                .collect(Collectors.joining()));
+    }
+
+    /**
+     * The previous implementation: a new mapper for each response.
+     */
+    @Benchmark
+    public OsmResponse jacksonNewMapperSingleNode() throws IOException {
+        return new XmlMapper().readValue(singleNodeResponse, OsmResponse.class);
+    }
+
+    /**
+     * The previous implementation with a shared mapper, to separate the cost of creating the mapper.
+     */
+    @Benchmark
+    public OsmResponse jacksonSharedMapperSingleNode() throws IOException {
+        return sharedXmlMapper.readValue(singleNodeResponse, OsmResponse.class);
+    }
+
+    @Benchmark
+    public OsmResponse staxSingleNode() throws XMLStreamException {
+        return OsmXmlParser.parseNode(singleNodeResponse);
+    }
+
+    @Benchmark
+    public List<OsmResponse> staxMultiNode() throws XMLStreamException {
+        return OsmXmlParser.parseNodes(multiNodeResponse);
+    }
+
+    private static String osmDocument(String nodes) {
+        return """
+                <?xml version="1.0" encoding="UTF-8"?>
+                <osm version="0.6" generator="openstreetmap-cgimap 2.0.1" copyright="OpenStreetMap and contributors" \
+                attribution="http://www.openstreetmap.org/copyright" license="http://opendatacommons.org/licenses/odbl/1-0/">
+                """ + nodes + "</osm>\n";
+    }
+
+    /**
+     * Creates a node with the tags of a typical café, including tags that the parser does not need.
+     */
+    private static String node(long nodeId) {
+        return """
+                 <node id="%d" visible="true" version="7" changeset="150000000" timestamp="2024-05-01T10:00:00Z" \
+                user="mapper" uid="123456" lat="49.4108452" lon="8.7071567">
+                  <tag k="addr:city" v="Heidelberg"/>
+                  <tag k="addr:country" v="DE"/>
+                  <tag k="addr:housenumber" v="21"/>
+                  <tag k="addr:postcode" v="69117"/>
+                  <tag k="addr:street" v="Untere Straße"/>
+                  <tag k="amenity" v="cafe"/>
+                  <tag k="check_date" v="2024-04-20"/>
+                  <tag k="cuisine" v="coffee_shop"/>
+                  <tag k="diet:vegan" v="yes"/>
+                  <tag k="internet_access" v="wlan"/>
+                  <tag k="name" v="Rada Coffee &amp; Rösterei"/>
+                  <tag k="opening_hours" v="Mo-Fr 08:00-18:00; Sa 09:00-18:00; Su 10:00-18:00"/>
+                  <tag k="outdoor_seating" v="yes"/>
+                  <tag k="website" v="https://radacoffee.com"/>
+                  <tag k="wheelchair" v="limited"/>
+                 </node>
+                """.formatted(nodeId);
+    }
+}
@@ -0,0 +1,112 @@
+package de.seuhd.campuscoffee.benchmarks;
+
+import de.seuhd.campuscoffee.api.dtos.PosDto;
+import de.seuhd.campuscoffee.api.mapper.PosDtoMapper;
+import de.seuhd.campuscoffee.api.mapper.PosDtoMapperImpl;
+import de.seuhd.campuscoffee.data.mapper.PosEntityMapper;
+import de.seuhd.campuscoffee.data.mapper.PosEntityMapperImpl;
+import de.seuhd.campuscoffee.data.persistence.AddressEntity;
+import de.seuhd.campuscoffee.data.persistence.PosEntity;
+import de.seuhd.campuscoffee.data.persistence.PosRow;
+import de.seuhd.campuscoffee.domain.model.CampusType;
+import de.seuhd.campuscoffee.domain.model.Pos;
+import de.seuhd.campuscoffee.domain.model.PosType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the MapStruct mappers that every POS passes on its way between the REST API and the database.
+ * The mapper implementations generated by MapStruct are used directly, without a Spring context.
+ * Reading a POS list maps {@link PosRow} projections ({@code entityMapperFromRow}) instead of entities.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PosMapperBenchmark {
+    private final PosEntityMapper posEntityMapper = new PosEntityMapperImpl();
+    private final PosDtoMapper posDtoMapper = new PosDtoMapperImpl();
+    private Pos pos;
+    private PosEntity posEntity;
+    private PosRow posRow;
+    private PosDto posDto;
+
+    @Setup
+    public void setUp() {
+        LocalDateTime now = LocalDateTime.of(2025, 11, 21, 12, 0);
+        pos = Pos.builder()
+                .id(42L)
+                .createdAt(now)
+                .updatedAt(now)
+                .version(3L)
+                .name("Rada Coffee & Rösterei")
+                .description("Specialty coffee roastery in the old town")
+                .type(PosType.CAFE)
+                .campus(CampusType.ALTSTADT)
+                .street("Untere Straße")
+                .houseNumber("21a")
+                .postalCode(69117)
+                .city("Heidelberg")
+                .osmNodeId(5589879349L)
+                .osmVersion(7L)
+                .latitude(49.4115)
+                .longitude(8.7101)
+                .build();
+        posEntity = posEntityMapper.toEntity(pos);
+        posEntity.setId(pos.id());
+        posEntity.setCreatedAt(now);
+        posEntity.setUpdatedAt(now);
+        posRow = new PosRow(pos.id(), now, now, pos.version(), pos.name(), pos.description(), pos.type(), pos.campus(),
+                pos.street(), 21, 'a', pos.postalCode(), pos.city(), pos.osmNodeId(), pos.osmVersion(), pos.latitude(),
+                pos.longitude());
+        posDto = posDtoMapper.fromDomain(pos);
+    }
+
+    @Benchmark
+    public Pos entityMapperFromEntity() {
+        return posEntityMapper.fromEntity(posEntity);
+    }
+
+    @Benchmark
+    public Pos entityMapperFromRow() {
+        return posEntityMapper.fromRow(posRow);
+    }
+
+    @Benchmark
+    public PosEntity entityMapperToEntity() {
+        return posEntityMapper.toEntity(pos);
+    }
+
+    @Benchmark
+    public AddressEntity entityMapperSplitHouseNumber() {
+        return posEntityMapper.splitHouseNumber(pos, new AddressEntity());
+    }
+
+    @Benchmark
+    public String entityMapperMergeHouseNumber() {
+        return posEntityMapper.mergeHouseNumber(posEntity);
+    }
+
+    @Benchmark
+    public PosDto dtoMapperFromDomain() {
+        return posDtoMapper.fromDomain(pos);
+    }
+
+    @Benchmark
+    public Pos dtoMapperToDomain() {
+        return posDtoMapper.toDomain(posDto);
+    }
+}
@@ -0,0 +1,68 @@
+package de.seuhd.campuscoffee.benchmarks;
+
+import de.seuhd.campuscoffee.domain.impl.PosServiceImpl;
+import de.seuhd.campuscoffee.domain.model.CampusType;
+import de.seuhd.campuscoffee.domain.model.Pos;
+import de.seuhd.campuscoffee.domain.model.PosType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link PosServiceImpl#upsert(Pos)} end to end against the {@link InMemoryPosDataService}, i.e., the
+ * overhead of the domain layer (checks, logging) without the database.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PosServiceBenchmark {
+    private final InMemoryPosDataService posDataService = new InMemoryPosDataService();
+    // upsert does not use OSM data, and nobody listens to the published changes
+    private final PosServiceImpl posService = new PosServiceImpl(posDataService, null, event -> {
+    });
+    private Pos existingPos;
+    private long nameCounter;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        // start each iteration with an empty data store, so that the map does not grow across iterations
+        posDataService.clear();
+        existingPos = posDataService.upsert(pos("Existing POS"));
+    }
+
+    @Benchmark
+    public Pos upsertNewPos() {
+        return posService.upsert(pos("POS " + nameCounter++));
+    }
+
+    @Benchmark
+    public Pos upsertExistingPos() {
+        return posService.upsert(existingPos);
+    }
+
+    private static Pos pos(String name) {
+        return Pos.builder()
+                .name(name)
+                .description("Specialty coffee roastery in the old town")
+                .type(PosType.CAFE)
+                .campus(CampusType.ALTSTADT)
+                .street("Untere Straße")
+                .houseNumber("21a")
+                .postalCode(69117)
+                .city("Heidelberg")
+                .build();
+    }
+}
@@ -1,8 +1,12 @@
 package de.seuhd.campuscoffee.data.client;
 
 import org.springframework.cloud.openfeign.FeignClient;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestParam;
 
 /**
  * Feign client for OpenStreetMap API integration.
@@ -15,10 +19,25 @@ import org.springframework.web.bind.annotation.PathVariable;
 public interface OsmFeignClient {
     /**
      * Fetches a node by its ID from the OpenStreetMap API.
+     * If an ETag is given, the request is conditional: the API responds with 304 (Not Modified) and without a body
+     * if the node has not changed, which Feign reports as a {@link feign.FeignException} with this status.
      *
-     * @param nodeId the OSM node ID
-     * @return XML response as a String
+     * @param nodeId      the OSM node ID
+     * @param ifNoneMatch the ETag of the cached response, or null for an unconditional request
+     * @return the response with the XML as a String and the ETag header (if any)
      */
     @GetMapping("/node/{id}")
-    String fetchNode(@PathVariable("id") Long nodeId);
+    ResponseEntity<String> fetchNode(
+            @PathVariable("id") Long nodeId,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch);
+
+    /**
+     * Fetches multiple nodes by their IDs from the OpenStreetMap API in a single request.
+     * The API responds with 404 (Not Found) if any of the nodes does not exist.
+     *
+     * @param nodeIds comma-separated list of OSM node IDs
+     * @return XML response with one node element per node as a String
+     */
+    @GetMapping("/nodes")
+    String fetchNodes(@RequestParam("nodes") String nodeIds);
 }
@@ -0,0 +1,79 @@
+package de.seuhd.campuscoffee.data.client;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.function.Supplier;
+
+/**
+ * Limits the load that this application puts on the OpenStreetMap API, which is shared by everyone
+ * (see the <a href="https://operations.osmfoundation.org/policies/api/">OSM API usage policy</a>).
+ * At most {@code osm.api.max-concurrent-requests} requests are in flight at any time, and consecutive requests
+ * are started at least {@code osm.api.min-request-interval} apart.
+ * <p>
+ * Callers that wait for a slot are blocked, so concurrent imports should run on virtual threads.
+ */
+@Slf4j
+@Component
+public class OsmRequestLimiter {
+    private final Semaphore inFlightRequests;
+    private final long minIntervalNanos;
+    private long nextRequestNanos = System.nanoTime();
+
+    public OsmRequestLimiter(
+            @Value("${osm.api.max-concurrent-requests:4}") int maxConcurrentRequests,
+            @Value("${osm.api.min-request-interval:100ms}") Duration minRequestInterval) {
+        if (maxConcurrentRequests < 1) {
+            throw new IllegalArgumentException("The maximum number of concurrent OSM requests must be positive.");
+        }
+        this.inFlightRequests = new Semaphore(maxConcurrentRequests, true);
+        this.minIntervalNanos = minRequestInterval.toNanos();
+    }
+
+    /**
+     * Sends a request to the OSM API as soon as the limits allow it.
+     *
+     * @param request the request to send
+     * @param <T>     the type of the response
+     * @return the response of the request
+     */
+    public <T> T execute(Supplier<T> request) {
+        try {
+            inFlightRequests.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for an OSM request slot.", e);
+        }
+        try {
+            awaitNextRequestSlot();
+            return request.get();
+        } finally {
+            inFlightRequests.release();
+        }
+    }
+
+    /**
+     * Reserves the next start time for a request and sleeps until it is reached.
+     */
+    private void awaitNextRequestSlot() {
+        long now = System.nanoTime();
+        long requestNanos;
+        synchronized (this) {
+            requestNanos = Math.max(now, nextRequestNanos);
+            nextRequestNanos = requestNanos + minIntervalNanos;
+        }
+        long delayNanos = requestNanos - now;
+        if (delayNanos > 0) {
+            log.trace("Delaying OSM request by {} ms", Duration.ofNanos(delayNanos).toMillis());
+            try {
+                Thread.sleep(Duration.ofNanos(delayNanos));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while waiting for an OSM request slot.", e);
+            }
+        }
+    }
+}
@@ -11,6 +11,9 @@ import java.util.Map;
 /**
  * DTO for OSM API XML responses.
  * Combines the root osm element and nested node element into a single class.
+ * <p>
+ * Responses are parsed with the {@link OsmXmlParser}; the Jackson mapping via {@link OsmResponseDeserializer}
+ * is kept as the baseline for the parser benchmarks.
  */
 @Data
 @Builder(toBuilder = true)
@@ -19,5 +22,8 @@ import java.util.Map;
 @JsonDeserialize(using = OsmResponseDeserializer.class)
 public class OsmResponse {
     private Long id;
+    private Long version;
+    private Double latitude;
+    private Double longitude;
     private Map<String, String> tags;
 }
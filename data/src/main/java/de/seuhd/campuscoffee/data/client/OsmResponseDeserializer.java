@@ -14,6 +14,8 @@ import java.util.stream.StreamSupport;
 
 /**
  * Custom deserializer that extracts node id and tags from the OSM XML nested structure.
+ * Materializes the whole document as a tree; see {@link OsmXmlParser} for the single-pass parser that is used
+ * by the application.
  */
 public class OsmResponseDeserializer extends JsonDeserializer<OsmResponse> {
     @Override
@@ -28,6 +30,8 @@ public class OsmResponseDeserializer extends JsonDeserializer<OsmResponse> {
 
         return OsmResponse.builder()
                 .id(nodeElement.get("id").asLong())
+                .latitude(nodeElement.has("lat") ? nodeElement.get("lat").asDouble() : null)
+                .longitude(nodeElement.has("lon") ? nodeElement.get("lon").asDouble() : null)
                 .tags(deserializeTags(nodeElement.get("tag")))
                 .build();
     }
@@ -0,0 +1,194 @@
+package de.seuhd.campuscoffee.data.client;
+
+import org.jspecify.annotations.Nullable;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.InputStream;
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Single-pass StAX parser for OSM XML documents (API responses as well as extracts).
+ * In contrast to a Jackson tree, the document is never materialized: the parser pulls the node and tag elements
+ * one by one and keeps only the tags that are needed to create a POS, so its memory usage does not depend on the
+ * document size. Deleted nodes (visible="false") as well as ways and relations are skipped.
+ * <p>
+ * The parser factory is created once and shared, since creating it involves a service lookup. Creating readers
+ * from a configured factory is thread-safe.
+ */
+public final class OsmXmlParser {
+    private static final String NODE_ELEMENT = "node";
+    private static final String TAG_ELEMENT = "tag";
+    private static final String ID_ATTRIBUTE = "id";
+    private static final String VISIBLE_ATTRIBUTE = "visible";
+    private static final String VERSION_ATTRIBUTE = "version";
+    private static final String LATITUDE_ATTRIBUTE = "lat";
+    private static final String LONGITUDE_ATTRIBUTE = "lon";
+    private static final String KEY_ATTRIBUTE = "k";
+    private static final String VALUE_ATTRIBUTE = "v";
+
+    /**
+     * Tags that are kept in addition to the address tags.
+     */
+    private static final Set<String> RELEVANT_TAGS = Set.of("name", "name:de", "name:en", "amenity", "description");
+    private static final String ADDRESS_TAG_PREFIX = "addr:";
+
+    private static final XMLInputFactory XML_INPUT_FACTORY = createXmlInputFactory();
+
+    private OsmXmlParser() {}
+
+    /**
+     * Parses an OSM XML document that contains a single node, e.g., the response of
+     * {@link OsmFeignClient#fetchNode(Long, String)}.
+     *
+     * @param xml the OSM XML document
+     * @return the ID, coordinates, and relevant tags of the (first) node
+     * @throws XMLStreamException if the document is malformed or does not contain a node
+     */
+    public static OsmResponse parseNode(String xml) throws XMLStreamException {
+        List<OsmResponse> nodes = parseNodes(xml);
+        if (nodes.isEmpty()) {
+            throw new XMLStreamException("Missing node element in OSM XML document.");
+        }
+        return nodes.getFirst();
+    }
+
+    /**
+     * Parses an OSM XML document that contains multiple nodes, e.g., the response of
+     * {@link OsmFeignClient#fetchNodes(String)}.
+     *
+     * @param xml the OSM XML document
+     * @return the ID, coordinates, and relevant tags of each visible node in document order
+     * @throws XMLStreamException if the document is malformed
+     */
+    public static List<OsmResponse> parseNodes(String xml) throws XMLStreamException {
+        List<OsmResponse> nodes = new ArrayList<>();
+        parseNodes(new StringReader(xml), nodes::add);
+        return nodes;
+    }
+
+    /**
+     * Parses an OSM XML document from a stream and passes each visible node to the consumer as soon as its
+     * end tag has been read. The stream is not closed.
+     *
+     * @param inputStream the OSM XML document (encoding is detected from the XML declaration)
+     * @param consumer    the consumer that is called for each node
+     * @throws XMLStreamException if the document is malformed
+     */
+    public static void parseNodes(InputStream inputStream, Consumer<OsmResponse> consumer)
+            throws XMLStreamException {
+        parseNodes(XML_INPUT_FACTORY.createXMLStreamReader(inputStream), consumer);
+    }
+
+    private static void parseNodes(Reader reader, Consumer<OsmResponse> consumer) throws XMLStreamException {
+        parseNodes(XML_INPUT_FACTORY.createXMLStreamReader(reader), consumer);
+    }
+
+    private static void parseNodes(XMLStreamReader reader, Consumer<OsmResponse> consumer)
+            throws XMLStreamException {
+        try {
+            Long nodeId = null;
+            Long version = null;
+            Double latitude = null;
+            Double longitude = null;
+            boolean visible = false;
+            Map<String, String> tags = Map.of();
+            while (reader.hasNext()) {
+                int event = reader.next();
+                if (event == XMLStreamConstants.START_ELEMENT) {
+                    String element = reader.getLocalName();
+                    if (NODE_ELEMENT.equals(element)) {
+                        nodeId = parseId(reader);
+                        version = parseVersion(reader);
+                        latitude = parseCoordinate(reader, LATITUDE_ATTRIBUTE);
+                        longitude = parseCoordinate(reader, LONGITUDE_ATTRIBUTE);
+                        visible = !"false".equals(reader.getAttributeValue(null, VISIBLE_ATTRIBUTE));
+                        tags = Map.of(); // most nodes of an extract have no tags, so the map is created lazily
+                    } else if (nodeId != null && TAG_ELEMENT.equals(element)) {
+                        String key = reader.getAttributeValue(null, KEY_ATTRIBUTE);
+                        if (key != null && isRelevantTag(key)) {
+                            if (tags.isEmpty()) {
+                                tags = new HashMap<>();
+                            }
+                            tags.put(key, reader.getAttributeValue(null, VALUE_ATTRIBUTE));
+                        }
+                    }
+                } else if (event == XMLStreamConstants.END_ELEMENT && nodeId != null
+                        && NODE_ELEMENT.equals(reader.getLocalName())) {
+                    if (visible) {
+                        consumer.accept(OsmResponse.builder()
+                                .id(nodeId)
+                                .version(version)
+                                .latitude(latitude)
+                                .longitude(longitude)
+                                .tags(tags)
+                                .build());
+                    }
+                    nodeId = null;
+                }
+            }
+        } finally {
+            reader.close();
+        }
+    }
+
+    private static Long parseId(XMLStreamReader reader) throws XMLStreamException {
+        String id = reader.getAttributeValue(null, ID_ATTRIBUTE);
+        if (id == null) {
+            throw new XMLStreamException("Missing id attribute of node element.", reader.getLocation());
+        }
+        try {
+            return Long.valueOf(id);
+        } catch (NumberFormatException e) {
+            throw new XMLStreamException("Invalid id attribute of node element: " + id, reader.getLocation(), e);
+        }
+    }
+
+    private static @Nullable Long parseVersion(XMLStreamReader reader) throws XMLStreamException {
+        String version = reader.getAttributeValue(null, VERSION_ATTRIBUTE);
+        if (version == null) {
+            return null; // extracts may omit the version (e.g., osmium with --omit-metadata)
+        }
+        try {
+            return Long.valueOf(version);
+        } catch (NumberFormatException e) {
+            throw new XMLStreamException("Invalid version attribute of node element: " + version,
+                    reader.getLocation(), e);
+        }
+    }
+
+    private static @Nullable Double parseCoordinate(XMLStreamReader reader, String attribute)
+            throws XMLStreamException {
+        String coordinate = reader.getAttributeValue(null, attribute);
+        if (coordinate == null) {
+            return null; // deleted nodes have no coordinates
+        }
+        try {
+            return Double.valueOf(coordinate);
+        } catch (NumberFormatException e) {
+            throw new XMLStreamException("Invalid " + attribute + " attribute of node element: " + coordinate,
+                    reader.getLocation(), e);
+        }
+    }
+
+    private static boolean isRelevantTag(String key) {
+        return key.startsWith(ADDRESS_TAG_PREFIX) || RELEVANT_TAGS.contains(key);
+    }
+
+    private static XMLInputFactory createXmlInputFactory() {
+        XMLInputFactory factory = XMLInputFactory.newFactory();
+        // OSM documents do not use DTDs, and resolving external entities would be a security risk (XXE)
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        return factory;
+    }
+}
@@ -0,0 +1,24 @@
+package de.seuhd.campuscoffee.data.config;
+
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuration for the in-process caches of the data layer.
+ * The caches are provided by Caffeine; their names, maximum size, and TTL are configured via the
+ * {@code spring.cache} properties in {@code application.yaml}. Hit, miss, and eviction counts are exposed as
+ * {@code cache.*} actuator metrics.
+ */
+@Configuration
+@EnableCaching
+public class CacheConfig {
+    /**
+     * Cache for POS looked up by their ID.
+     */
+    public static final String POS_BY_ID = "pos-by-id";
+
+    /**
+     * Cache for POS looked up by their (unique) name.
+     */
+    public static final String POS_BY_NAME = "pos-by-name";
+}
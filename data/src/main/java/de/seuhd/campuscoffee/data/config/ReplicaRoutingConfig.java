@@ -0,0 +1,80 @@
+package de.seuhd.campuscoffee.data.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.PhysicalConnectionHandlingMode;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.flyway.FlywayDataSource;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Configuration for reading from PostgreSQL replicas, active if the list {@code replicas.urls} contains a JDBC URL.
+ * Read-only transactions (e.g., the reads of the POS and user data services) are sent to the replicas, all other
+ * statements to the primary configured by {@code spring.datasource} (see {@link ReplicaRoutingDataSource}).
+ * Replicas are accessed with the credentials of the primary. Schema migrations only run on the primary.
+ * <p>
+ * If the persistence context is kept open for the whole request ({@code spring.jpa.open-in-view}), Hibernate would keep
+ * the connection of the first transaction for all later transactions of the request, so connections are released
+ * after each transaction instead.
+ */
+@Configuration
+@ConditionalOnProperty("replicas.urls[0]")
+public class ReplicaRoutingConfig {
+
+    @Bean
+    @FlywayDataSource
+    @ConfigurationProperties("spring.datasource.hikari")
+    HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean
+    ReplicaRoutingDataSource replicaRoutingDataSource(
+            DataSourceProperties properties, HikariDataSource primaryDataSource, Environment environment,
+            @Value("${replicas.connection-timeout:1s}") Duration connectionTimeout,
+            @Value("${replicas.retry-interval:30s}") Duration retryInterval) {
+        List<String> urls = Binder.get(environment).bind("replicas.urls", Bindable.listOf(String.class)).get();
+        List<HikariDataSource> replicas = new ArrayList<>(urls.size());
+        for (int i = 0; i < urls.size(); i++) {
+            // the pool is started by the first request for a connection, so an unavailable replica does not
+            // prevent the application from starting
+            HikariDataSource replica = properties.initializeDataSourceBuilder()
+                    .type(HikariDataSource.class)
+                    .url(urls.get(i))
+                    .build();
+            replica.setPoolName("replica-" + (i + 1));
+            replica.setConnectionTimeout(connectionTimeout.toMillis());
+            replica.setReadOnly(true);
+            replicas.add(replica);
+        }
+        return new ReplicaRoutingDataSource(primaryDataSource, replicas, retryInterval);
+    }
+
+    @Bean
+    @Primary
+    DataSource dataSource(ReplicaRoutingDataSource replicaRoutingDataSource) {
+        // the connection is only requested for the first statement, when the transaction is known
+        return new LazyConnectionDataSourceProxy(replicaRoutingDataSource);
+    }
+
+    @Bean
+    HibernatePropertiesCustomizer releaseConnectionsAfterTransaction() {
+        return hibernateProperties -> hibernateProperties.put(AvailableSettings.CONNECTION_HANDLING,
+                PhysicalConnectionHandlingMode.DELAYED_ACQUISITION_AND_RELEASE_AFTER_TRANSACTION);
+    }
+}
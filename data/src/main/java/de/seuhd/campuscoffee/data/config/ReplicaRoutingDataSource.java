@@ -0,0 +1,95 @@
+package de.seuhd.campuscoffee.data.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import de.seuhd.campuscoffee.domain.model.ReadConsistency;
+import lombok.extern.slf4j.Slf4j;
+import org.jspecify.annotations.Nullable;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Data source that hands out connections to a replica for read-only transactions and to the primary otherwise.
+ * The transaction must be known when the connection is requested, so this data source is used behind a
+ * {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy} (see {@link ReplicaRoutingConfig}).
+ * <p>
+ * Replicas are used in turn, unless the latest state is required (see {@link ReadConsistency}). A replica that cannot
+ * provide a connection is skipped for the retry interval; if no replica is available, read-only transactions fall back
+ * to the primary.
+ */
+@Slf4j
+class ReplicaRoutingDataSource extends AbstractDataSource implements Closeable {
+    private final DataSource primary;
+    private final List<Replica> replicas;
+    private final Duration retryInterval;
+    private final AtomicInteger next = new AtomicInteger();
+
+    ReplicaRoutingDataSource(DataSource primary, List<HikariDataSource> replicas, Duration retryInterval) {
+        this.primary = primary;
+        this.replicas = replicas.stream().map(Replica::new).toList();
+        this.retryInterval = retryInterval;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (TransactionSynchronizationManager.isCurrentTransactionReadOnly() && !ReadConsistency.isLatestRequired()) {
+            Connection connection = getReplicaConnection();
+            if (connection != null) {
+                return connection;
+            }
+        }
+        return primary.getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        throw new SQLFeatureNotSupportedException("The credentials are configured for each database.");
+    }
+
+    @Override
+    public void close() {
+        replicas.forEach(replica -> replica.dataSource.close());
+    }
+
+    /**
+     * Gets a connection from the next available replica in turn.
+     *
+     * @return a connection to a replica, or null if no replica is available
+     */
+    private @Nullable Connection getReplicaConnection() {
+        int first = Math.floorMod(next.getAndIncrement(), replicas.size());
+        for (int i = 0; i < replicas.size(); i++) {
+            int index = (first + i) % replicas.size();
+            Replica replica = replicas.get(index);
+            if (System.nanoTime() - replica.unavailableUntilNanos < 0) {
+                continue;
+            }
+            try {
+                return replica.dataSource.getConnection();
+            } catch (SQLException | RuntimeException e) { // Hikari fails with a runtime exception if it cannot start
+                log.warn("Replica {} is unavailable, skipping it for {}: {}",
+                        replica.dataSource.getJdbcUrl(), retryInterval, e.getMessage());
+                replica.unavailableUntilNanos = System.nanoTime() + retryInterval.toNanos();
+            }
+        }
+        log.debug("No replica is available, reading from the primary.");
+        return null;
+    }
+
+    private static final class Replica {
+        private final HikariDataSource dataSource;
+        private volatile long unavailableUntilNanos = System.nanoTime();
+
+        private Replica(HikariDataSource dataSource) {
+            this.dataSource = dataSource;
+        }
+    }
+}
@@ -1,10 +1,13 @@
 package de.seuhd.campuscoffee.data.impl;
 
-import com.fasterxml.jackson.dataformat.xml.XmlMapper;
 import de.seuhd.campuscoffee.data.client.OsmFeignClient;
+import de.seuhd.campuscoffee.data.client.OsmRequestLimiter;
 import de.seuhd.campuscoffee.data.client.OsmResponse;
+import de.seuhd.campuscoffee.data.client.OsmXmlParser;
+import de.seuhd.campuscoffee.data.persistence.OsmNodeCacheEntity;
 import de.seuhd.campuscoffee.domain.exceptions.MissingFieldException;
 import de.seuhd.campuscoffee.domain.exceptions.NotFoundException;
+import de.seuhd.campuscoffee.domain.model.BatchItemResult;
 import de.seuhd.campuscoffee.domain.model.OsmAmenity;
 import de.seuhd.campuscoffee.domain.model.OsmNode;
 import de.seuhd.campuscoffee.domain.ports.OsmDataService;
@@ -12,41 +15,327 @@ import feign.FeignException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.jspecify.annotations.NonNull;
+import org.jspecify.annotations.Nullable;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 
+import javax.xml.stream.XMLStreamException;
+import java.io.BufferedInputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.zip.GZIPInputStream;
+import java.util.stream.Collectors;
 
 /**
  * OSM data service that fetches node data from the OpenStreetMap API.
+ * All requests go through the {@link OsmRequestLimiter}, so this service may be called concurrently.
+ * <p>
+ * Multiple nodes are fetched with the multi-fetch endpoint of the OSM API in chunks, so that the request URL
+ * does not exceed {@code osm.api.max-url-length}. If a chunk contains a node that does not exist, the API rejects
+ * the whole chunk, in which case the nodes of this chunk are fetched one by one.
+ * <p>
+ * Fetched nodes are stored in the {@link OsmNodeCache}. Nodes that were fetched less than {@code osm.cache.max-age}
+ * ago are served from the cache. A single older node is revalidated with a conditional request if its response had
+ * an ETag, so that an unchanged node is not transferred again. Older nodes of a batch are revalidated with the
+ * multi-fetch requests of the batch instead of one request per node: the OSM API has neither conditional nor
+ * version-only multi-fetch requests, so the fetched versions are compared with the cached ones, and unchanged nodes
+ * are only marked as revalidated instead of being stored again.
  */
 @Service
 @Slf4j
 @RequiredArgsConstructor
 class OsmDataServiceImpl implements OsmDataService {
+    /**
+     * Length of the path and query parameter of a multi-fetch request without the node IDs.
+     */
+    private static final int NODES_REQUEST_PATH_LENGTH = "/nodes?nodes=".length();
+    /**
+     * Length of the separator between two node IDs in a multi-fetch request (URL-encoded comma).
+     */
+    private static final int NODE_ID_SEPARATOR_LENGTH = "%2C".length();
+    /**
+     * Buffer size for reading OSM extract files (extracts of a city are hundreds of MB).
+     */
+    private static final int EXTRACT_BUFFER_SIZE = 64 * 1024;
+
     private final OsmFeignClient osmFeignClient;
+    private final OsmRequestLimiter osmRequestLimiter;
+    private final OsmNodeCache osmNodeCache;
+    @Value("${osm.api.base-url}")
+    private final String baseUrl;
+    @Value("${osm.api.max-url-length:2000}")
+    private final int maxUrlLength;
 
     @Override
     public @NonNull OsmNode fetchNode(@NonNull Long nodeId) {
+        Optional<OsmNodeCacheEntity> cachedNode = osmNodeCache.get(nodeId);
+        if (cachedNode.isPresent() && osmNodeCache.isFresh(cachedNode.get())) {
+            log.debug("Serving OSM node {} from cache", nodeId);
+            return toOsmNode(OsmNodeCache.toResponse(cachedNode.get()));
+        }
+        return fetchNode(nodeId, cachedNode.orElse(null));
+    }
+
+    @Override
+    public @NonNull List<BatchItemResult<OsmNode>> fetchNodes(@NonNull List<Long> nodeIds) {
+        List<Long> distinctNodeIds = nodeIds.stream().distinct().toList();
+        Map<Long, OsmNodeCacheEntity> cachedNodes = osmNodeCache.getAll(distinctNodeIds);
+
+        // fresh nodes are served from the cache; stale and uncached nodes are fetched with multi-fetch requests,
+        // which revalidate the stale nodes by their versions
+        Map<Long, BatchItemResult<OsmNode>> resultsByNodeId = new HashMap<>();
+        List<Long> nodeIdsToFetch = new ArrayList<>();
+        for (Long nodeId : distinctNodeIds) {
+            OsmNodeCacheEntity cachedNode = cachedNodes.get(nodeId);
+            if (cachedNode != null && osmNodeCache.isFresh(cachedNode)) {
+                resultsByNodeId.put(nodeId, toResult(OsmNodeCache.toResponse(cachedNode)));
+            } else {
+                nodeIdsToFetch.add(nodeId);
+            }
+        }
+        List<List<Long>> chunks = chunkByUrlLength(nodeIdsToFetch);
+        log.debug("Fetching {} OSM nodes: {} from cache, {} in {} requests...", nodeIds.size(),
+                resultsByNodeId.size(), nodeIdsToFetch.size(), chunks.size());
+
+        // the requests are sent concurrently (the request limiter caps the number of requests in flight)
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<Map<Long, BatchItemResult<OsmNode>>>> futures = new ArrayList<>();
+            for (List<Long> chunk : chunks) {
+                futures.add(executor.submit(() -> fetchChunk(chunk, cachedNodes)));
+            }
+            for (Future<Map<Long, BatchItemResult<OsmNode>>> future : futures) {
+                resultsByNodeId.putAll(future.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while fetching OSM nodes.", e);
+        } catch (ExecutionException e) {
+            // cannot happen because fetch failures are captured in the results
+            throw new IllegalStateException("Unexpected error while fetching OSM nodes.", e.getCause());
+        }
+
+        List<BatchItemResult<OsmNode>> results = new ArrayList<>(nodeIds.size());
+        for (int i = 0; i < nodeIds.size(); i++) {
+            results.add(resultsByNodeId.get(nodeIds.get(i)).withIndex(i));
+        }
+        return results;
+    }
+
+    @Override
+    public void streamExtract(@NonNull Path file, @NonNull Consumer<? super BatchItemResult<OsmNode>> consumer) {
+        String fileName = file.getFileName().toString();
+        if (fileName.endsWith(".pbf") || fileName.endsWith(".bz2")) {
+            throw new IllegalArgumentException("Unsupported OSM extract format: " + fileName + ". " +
+                    "Convert the file to .osm or .osm.gz first, e.g., with 'osmium cat'.");
+        }
+
+        log.debug("Reading OSM extract {}...", file);
+        AtomicInteger candidates = new AtomicInteger();
+        try (InputStream inputStream = openExtract(file)) {
+            OsmXmlParser.parseNodes(inputStream, osmResponse -> {
+                String amenity = osmResponse.getTags().get("amenity");
+                if (amenity == null || OsmAmenity.fromOsmValue(amenity).isEmpty()) {
+                    return; // not a POS
+                }
+                int index = candidates.getAndIncrement();
+                try {
+                    OsmNode osmNode = toOsmNode(osmResponse);
+                    consumer.accept(BatchItemResult.success(index, osmNode));
+                } catch (MissingFieldException e) {
+                    consumer.accept(BatchItemResult.failure(index, e));
+                }
+            });
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read OSM extract " + file, e);
+        } catch (XMLStreamException e) {
+            throw new IllegalArgumentException("Malformed OSM extract " + file + ": " + e.getMessage(), e);
+        }
+        log.debug("Found {} POS candidates in OSM extract {}", candidates.get(), file);
+    }
+
+    /**
+     * Opens an OSM extract file for reading and decompresses it if it is gzipped.
+     *
+     * @param file the OSM extract file (.osm or .osm.gz)
+     * @return a buffered stream with the XML content of the file
+     * @throws IOException if the file cannot be opened
+     */
+    private InputStream openExtract(Path file) throws IOException {
+        InputStream inputStream = new BufferedInputStream(Files.newInputStream(file), EXTRACT_BUFFER_SIZE);
+        if (file.getFileName().toString().endsWith(".gz")) {
+            return new GZIPInputStream(inputStream, EXTRACT_BUFFER_SIZE);
+        }
+        return inputStream;
+    }
+
+    /**
+     * Splits the node IDs into chunks whose multi-fetch request URL does not exceed the maximum URL length.
+     *
+     * @param nodeIds the distinct node IDs to fetch
+     * @return the chunks of node IDs; each chunk contains at least one node ID
+     */
+    private List<List<Long>> chunkByUrlLength(List<Long> nodeIds) {
+        int maxIdsLength = maxUrlLength - baseUrl.length() - NODES_REQUEST_PATH_LENGTH;
+        List<List<Long>> chunks = new ArrayList<>();
+        List<Long> chunk = new ArrayList<>();
+        int chunkLength = 0;
+        for (Long nodeId : nodeIds) {
+            int idLength = nodeId.toString().length() + (chunk.isEmpty() ? 0 : NODE_ID_SEPARATOR_LENGTH);
+            if (!chunk.isEmpty() && chunkLength + idLength > maxIdsLength) {
+                chunks.add(chunk);
+                chunk = new ArrayList<>();
+                idLength = nodeId.toString().length();
+                chunkLength = 0;
+            }
+            chunk.add(nodeId);
+            chunkLength += idLength;
+        }
+        if (!chunk.isEmpty()) {
+            chunks.add(chunk);
+        }
+        return chunks;
+    }
+
+    /**
+     * Fetches one chunk of nodes with a single multi-fetch request.
+     * Cached nodes whose version has not changed are marked as revalidated and served from the cache; only new and
+     * changed nodes are stored. Falls back to fetching the nodes one by one if the API rejects the chunk because a
+     * node does not exist.
+     *
+     * @param nodeIds     the node IDs of this chunk
+     * @param cachedNodes the cached (stale) versions of the nodes by their IDs; may contain other nodes
+     * @return the result for each node ID of this chunk (the index of the results is not set)
+     */
+    private Map<Long, BatchItemResult<OsmNode>> fetchChunk(List<Long> nodeIds,
+                                                           Map<Long, OsmNodeCacheEntity> cachedNodes) {
+        try {
+            String xmlResponse = osmRequestLimiter.execute(() -> osmFeignClient.fetchNodes(
+                    nodeIds.stream().map(String::valueOf).collect(Collectors.joining(","))));
+            if (xmlResponse == null || xmlResponse.isEmpty()) {
+                log.error("Empty response from OSM API for nodes {}", nodeIds);
+                return notFound(nodeIds);
+            }
+
+            Map<Long, OsmResponse> osmResponsesByNodeId = OsmXmlParser.parseNodes(xmlResponse).stream()
+                    .collect(Collectors.toMap(OsmResponse::getId, Function.identity(), (first, second) -> first));
+            // multi-fetch responses have no ETag, so the version of a node is its validator
+            Map<Boolean, List<OsmResponse>> osmResponsesByUnchanged = osmResponsesByNodeId.values().stream()
+                    .collect(Collectors.partitioningBy(osmResponse -> isUnchanged(osmResponse, cachedNodes)));
+            osmNodeCache.markAllRevalidated(osmResponsesByUnchanged.get(true).stream()
+                    .map(OsmResponse::getId)
+                    .toList());
+            osmNodeCache.putAll(osmResponsesByUnchanged.get(false), null);
+            log.debug("Revalidated {} unchanged and stored {} new or changed OSM nodes",
+                    osmResponsesByUnchanged.get(true).size(), osmResponsesByUnchanged.get(false).size());
+            return nodeIds.stream().collect(Collectors.toMap(Function.identity(), nodeId -> {
+                OsmResponse osmResponse = osmResponsesByNodeId.get(nodeId);
+                if (osmResponse == null) {
+                    log.warn("OSM node {} not found", nodeId);
+                    return BatchItemResult.failure(0, new NotFoundException(OsmNode.class, nodeId));
+                }
+                return toResult(osmResponse);
+            }));
+
+        } catch (FeignException.NotFound e) {
+            log.info("At least one of the OSM nodes {} does not exist, fetching them one by one", nodeIds);
+            return nodeIds.stream().collect(Collectors.toMap(Function.identity(),
+                    nodeId -> fetchResult(nodeId, cachedNodes.get(nodeId))));
+        } catch (FeignException e) {
+            log.error("HTTP error fetching OSM nodes {}: {} - {}",
+                    nodeIds, e.status(), e.getMessage());
+            return notFound(nodeIds);
+        } catch (Exception e) {
+            log.error("Error fetching OSM nodes {}", nodeIds, e);
+            return notFound(nodeIds);
+        }
+    }
+
+    /**
+     * Checks whether a fetched node has the same version as its cached version, i.e., whether the cached version
+     * need not be stored again.
+     *
+     * @param osmResponse the fetched node
+     * @param cachedNodes the cached versions of the nodes by their IDs
+     * @return true if the node is cached with the same, known version
+     */
+    private static boolean isUnchanged(OsmResponse osmResponse, Map<Long, OsmNodeCacheEntity> cachedNodes) {
+        OsmNodeCacheEntity cachedNode = cachedNodes.get(osmResponse.getId());
+        return cachedNode != null && osmResponse.getVersion() != null
+                && osmResponse.getVersion().equals(cachedNode.getVersion());
+    }
+
+    /**
+     * Creates failed results for nodes that could not be fetched.
+     *
+     * @param nodeIds the node IDs
+     * @return a failed result with a {@link NotFoundException} for each node ID
+     */
+    private Map<Long, BatchItemResult<OsmNode>> notFound(List<Long> nodeIds) {
+        return nodeIds.stream().collect(Collectors.toMap(Function.identity(),
+                nodeId -> BatchItemResult.failure(0, new NotFoundException(OsmNode.class, nodeId))));
+    }
+
+    /**
+     * Fetches a single node from the OSM API and caches it.
+     * If a cached version of the node exists, the request is conditional, and the cached version is used if the
+     * node has not changed.
+     *
+     * @param nodeId     the node ID
+     * @param cachedNode the cached (stale) version of the node, or null if the node is not cached
+     * @return the fetched or revalidated node
+     * @throws NotFoundException     if the node does not exist or cannot be fetched
+     * @throws MissingFieldException if required fields are missing
+     */
+    private OsmNode fetchNode(Long nodeId, @Nullable OsmNodeCacheEntity cachedNode) {
         try {
             log.debug("Fetching OSM node {}...", nodeId);
-            String xmlResponse = osmFeignClient.fetchNode(nodeId);
+            String etag = cachedNode == null ? null : cachedNode.getEtag();
+            ResponseEntity<String> response = osmRequestLimiter.execute(() -> osmFeignClient.fetchNode(nodeId, etag));
+            String xmlResponse = response.getBody();
 
             if (xmlResponse == null || xmlResponse.isEmpty()) {
                 log.error("Empty response from OSM API for node {}", nodeId);
                 throw new NotFoundException(OsmNode.class, nodeId);
             }
 
-            OsmNode node = parseOsmXml(xmlResponse, nodeId);
+            OsmResponse osmResponse = OsmXmlParser.parseNode(xmlResponse);
+            osmNodeCache.putAll(List.of(osmResponse), response.getHeaders().getETag());
+            OsmNode node = toOsmNode(osmResponse);
 
             log.debug("Successfully fetched and parsed OSM node {}", nodeId);
             return node;
 
         } catch (FeignException.NotFound e) {
             log.warn("OSM node {} not found", nodeId);
+            osmNodeCache.evict(nodeId);
             throw new NotFoundException(OsmNode.class, nodeId);
         } catch (FeignException e) {
+            if (e.status() == HttpStatus.NOT_MODIFIED.value() && cachedNode != null) {
+                log.debug("OSM node {} not modified, serving it from cache", nodeId);
+                osmNodeCache.markRevalidated(nodeId);
+                return toOsmNode(OsmNodeCache.toResponse(cachedNode));
+            }
+            if (e.status() == HttpStatus.GONE.value()) {
+                // the node was deleted
+                osmNodeCache.evict(nodeId);
+            }
             log.error("HTTP error fetching OSM node {}: {} - {}",
                     nodeId, e.status(), e.getMessage());
             throw new NotFoundException(OsmNode.class, nodeId);
@@ -60,19 +349,44 @@ class OsmDataServiceImpl implements OsmDataService {
     }
 
     /**
-     * Parses the OSM XML response and extracts node data.
+     * Fetches a single node of a batch and captures a failure in the result instead of throwing it.
      *
-     * @param xmlResponse the XML response from OSM API
-     * @param nodeId the node ID for error reporting
-     * @return parsed OsmNode object
-     * @throws IOException if XML parsing fails
+     * @param nodeId     the node ID
+     * @param cachedNode the cached (stale) version of the node, or null if the node is not cached
+     * @return the result for this node (the index of the result is not set)
+     */
+    private BatchItemResult<OsmNode> fetchResult(Long nodeId, @Nullable OsmNodeCacheEntity cachedNode) {
+        try {
+            return BatchItemResult.success(0, fetchNode(nodeId, cachedNode));
+        } catch (NotFoundException | MissingFieldException e) {
+            return BatchItemResult.failure(0, e);
+        }
+    }
+
+    /**
+     * Extracts the node data from a node of a batch and captures missing fields in the result.
+     *
+     * @param osmResponse the fetched or cached OSM node
+     * @return the result for this node (the index of the result is not set)
+     */
+    private BatchItemResult<OsmNode> toResult(OsmResponse osmResponse) {
+        try {
+            return BatchItemResult.success(0, toOsmNode(osmResponse));
+        } catch (MissingFieldException e) {
+            return BatchItemResult.failure(0, e);
+        }
+    }
+
+    /**
+     * Extracts the node data from the tags, version, and coordinates of an OSM node.
+     *
+     * @param osmResponse the fetched or cached OSM node
+     * @return OsmNode object with the data of the node
      * @throws MissingFieldException if required fields are missing
      */
-    private OsmNode parseOsmXml(String xmlResponse, Long nodeId) throws IOException {
-        // parse XML using Jackson (deserializer ensures node element and id are present)
-        XmlMapper xmlMapper = new XmlMapper();
-        OsmResponse osmResponse = xmlMapper.readValue(xmlResponse, OsmResponse.class);
+    private OsmNode toOsmNode(OsmResponse osmResponse) {
         Map<String, String> tags = osmResponse.getTags();
+        Long nodeId = osmResponse.getId();
 
         // extract required fields
         String name = getRequiredTag(tags, "name", nodeId);
@@ -102,6 +416,9 @@ class OsmDataServiceImpl implements OsmDataService {
                 .houseNumber(houseNumber)
                 .postcode(postcode)
                 .description(description.orElse("n/a"))
+                .version(osmResponse.getVersion())
+                .latitude(osmResponse.getLatitude())
+                .longitude(osmResponse.getLongitude())
                 .build();
     }
 
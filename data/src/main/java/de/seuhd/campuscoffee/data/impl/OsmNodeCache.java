@@ -0,0 +1,125 @@
+package de.seuhd.campuscoffee.data.impl;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import de.seuhd.campuscoffee.data.client.OsmResponse;
+import de.seuhd.campuscoffee.data.persistence.OsmNodeCacheEntity;
+import de.seuhd.campuscoffee.data.persistence.OsmNodeCacheRepository;
+import lombok.RequiredArgsConstructor;
+import org.jspecify.annotations.Nullable;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Persistent cache of fetched OpenStreetMap nodes (table osm_node_cache), keyed by node ID.
+ * Each entry holds the latest fetched version of the node and the ETag of its response, if it was fetched alone.
+ * Entries younger than {@code osm.cache.max-age} are served without contacting the OSM API; older entries are
+ * revalidated by the {@link OsmDataServiceImpl}, by their ETag or by their version.
+ */
+@Component
+@RequiredArgsConstructor
+class OsmNodeCache {
+    private final OsmNodeCacheRepository osmNodeCacheRepository;
+    private final ObjectMapper objectMapper;
+    @Value("${osm.cache.max-age:1h}")
+    private final Duration maxAge;
+
+    Optional<OsmNodeCacheEntity> get(Long nodeId) {
+        return osmNodeCacheRepository.findById(nodeId);
+    }
+
+    Map<Long, OsmNodeCacheEntity> getAll(Collection<Long> nodeIds) {
+        return osmNodeCacheRepository.findAllById(nodeIds).stream()
+                .collect(Collectors.toMap(OsmNodeCacheEntity::getNodeId, Function.identity()));
+    }
+
+    /**
+     * Checks whether a cached node may be used without revalidating it.
+     *
+     * @param entry the cached node
+     * @return true if the node was fetched or revalidated less than the maximum age ago
+     */
+    boolean isFresh(OsmNodeCacheEntity entry) {
+        return entry.getFetchedAt().plus(maxAge).isAfter(now());
+    }
+
+    /**
+     * Stores the fetched nodes, replacing older versions.
+     *
+     * @param nodes the fetched nodes
+     * @param etag  the ETag of the response the nodes were fetched with; null for multi-node responses
+     */
+    @Transactional // one transaction for all nodes of a multi-fetch response
+    public void putAll(Collection<OsmResponse> nodes, @Nullable String etag) {
+        LocalDateTime now = now();
+        for (OsmResponse node : nodes) {
+            osmNodeCacheRepository.upsert(node.getId(), node.getVersion(), node.getLatitude(), node.getLongitude(),
+                    etag, toJson(node.getTags()), now);
+        }
+    }
+
+    /**
+     * Marks a cached node as revalidated, e.g., after the OSM API responded with 304 (Not Modified).
+     *
+     * @param nodeId the ID of the cached node
+     */
+    void markRevalidated(Long nodeId) {
+        markAllRevalidated(List.of(nodeId));
+    }
+
+    /**
+     * Marks cached nodes as revalidated without storing them again, e.g., after a multi-fetch response contained
+     * the cached versions of the nodes.
+     *
+     * @param nodeIds the IDs of the cached nodes
+     */
+    void markAllRevalidated(Collection<Long> nodeIds) {
+        if (!nodeIds.isEmpty()) {
+            osmNodeCacheRepository.updateFetchedAt(nodeIds, now());
+        }
+    }
+
+    /**
+     * Converts a cached node back to the response it was fetched with.
+     *
+     * @param entry the cached node
+     * @return the node as if it had just been fetched
+     */
+    static OsmResponse toResponse(OsmNodeCacheEntity entry) {
+        return OsmResponse.builder()
+                .id(entry.getNodeId())
+                .version(entry.getVersion())
+                .latitude(entry.getLatitude())
+                .longitude(entry.getLongitude())
+                .tags(entry.getTags())
+                .build();
+    }
+
+    void evict(Long nodeId) {
+        osmNodeCacheRepository.deleteById(nodeId);
+    }
+
+    private String toJson(Map<String, String> tags) {
+        try {
+            return objectMapper.writeValueAsString(tags);
+        } catch (JsonProcessingException e) {
+            // cannot happen for a map of strings
+            throw new IllegalStateException("Could not serialize OSM tags.", e);
+        }
+    }
+
+    private static LocalDateTime now() {
+        return LocalDateTime.now(ZoneId.of("UTC"));
+    }
+}
@@ -0,0 +1,45 @@
+package de.seuhd.campuscoffee.data.impl;
+
+import de.seuhd.campuscoffee.data.persistence.OutboxEventEntity;
+import de.seuhd.campuscoffee.data.persistence.OutboxEventRepository;
+import de.seuhd.campuscoffee.domain.model.OutboxEvent;
+import de.seuhd.campuscoffee.domain.ports.OutboxDataService;
+import de.seuhd.campuscoffee.domain.ports.OutboxSink;
+import lombok.RequiredArgsConstructor;
+import org.jspecify.annotations.NonNull;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Implementation of the outbox data service that the domain layer provides as a port.
+ * The events are written by {@link OutboxWriter} in the transactions of the POS and user data services.
+ */
+@Service
+@RequiredArgsConstructor
+class OutboxDataServiceImpl implements OutboxDataService {
+    private final OutboxEventRepository outboxEventRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    @Override
+    public int relay(int limit, @NonNull OutboxSink sink) {
+        return Objects.requireNonNull(transactionTemplate.execute(status -> {
+            // the rows stay locked until the transaction ends, so concurrent relays skip them
+            List<OutboxEventEntity> entities = outboxEventRepository.findOldestForUpdateSkipLocked(limit);
+            if (entities.isEmpty()) {
+                return 0;
+            }
+            sink.send(entities.stream().map(OutboxDataServiceImpl::fromEntity).toList());
+            // removed in the same transaction, so that events the sink rejected are sent again
+            outboxEventRepository.deleteAllByIdInBatch(entities.stream().map(OutboxEventEntity::getId).toList());
+            return entities.size();
+        }));
+    }
+
+    private static OutboxEvent fromEntity(OutboxEventEntity entity) {
+        return new OutboxEvent(entity.getId(), entity.getAggregateType(), entity.getAggregateId(),
+                entity.getAggregateVersion(), entity.getType(), entity.getPayload(), entity.getCreatedAt());
+    }
+}
@@ -0,0 +1,86 @@
+package de.seuhd.campuscoffee.data.impl;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import de.seuhd.campuscoffee.data.persistence.OutboxEventEntity;
+import de.seuhd.campuscoffee.data.persistence.OutboxEventRepository;
+import de.seuhd.campuscoffee.domain.model.ChangeType;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Records changes of POS and users in the outbox (table outbox_events), from which the relay sends them to downstream
+ * systems (see {@link OutboxDataServiceImpl}).
+ * All methods must be called in the transaction that writes the change, so that the change and its event are
+ * committed or rolled back together.
+ */
+@Component
+@RequiredArgsConstructor
+class OutboxWriter {
+    private final OutboxEventRepository outboxEventRepository;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Records a created or updated object.
+     *
+     * @param aggregateType the kind of the object (see {@link de.seuhd.campuscoffee.domain.model.OutboxEvent})
+     * @param id            the ID of the object
+     * @param version       the version of the object as written
+     * @param state         the domain object as written
+     */
+    void upserted(String aggregateType, Long id, Long version, Object state) {
+        outboxEventRepository.save(
+                new OutboxEventEntity(null, aggregateType, id, version, ChangeType.UPSERTED, toJson(state), now()));
+    }
+
+    /**
+     * Records created or updated objects, inserting the events in JDBC batches.
+     *
+     * @param aggregateType the kind of the objects
+     * @param states        the domain objects as written
+     * @param idOf          extracts the ID of an object
+     * @param versionOf     extracts the version of an object
+     * @param <T>           the type of the domain objects
+     */
+    <T> void upsertedAll(String aggregateType, Collection<T> states, Function<? super T, Long> idOf,
+                         Function<? super T, Long> versionOf) {
+        LocalDateTime now = now();
+        List<OutboxEventEntity> events = states.stream()
+                .map(state -> new OutboxEventEntity(null, aggregateType, idOf.apply(state), versionOf.apply(state),
+                        ChangeType.UPSERTED, toJson(state), now))
+                .toList();
+        outboxEventRepository.saveAll(events);
+    }
+
+    /**
+     * Records a deleted object. The event gets the version following the last version of the object, so that it
+     * orders after all updates of the object (see {@link de.seuhd.campuscoffee.domain.ports.OutboxSink}).
+     *
+     * @param aggregateType the kind of the object
+     * @param id            the ID of the object
+     * @param lastVersion   the version of the object when it was deleted
+     */
+    void deleted(String aggregateType, Long id, Long lastVersion) {
+        outboxEventRepository.save(new OutboxEventEntity(null, aggregateType, id, lastVersion + 1, ChangeType.DELETED,
+                null, now()));
+    }
+
+    private String toJson(Object state) {
+        try {
+            return objectMapper.writeValueAsString(state);
+        } catch (JsonProcessingException e) {
+            // cannot happen for the records of the domain model
+            throw new IllegalStateException("Could not serialize " + state.getClass().getSimpleName() + ".", e);
+        }
+    }
+
+    private static LocalDateTime now() {
+        return LocalDateTime.now(ZoneId.of("UTC"));
+    }
+}
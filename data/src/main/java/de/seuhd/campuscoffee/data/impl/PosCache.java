@@ -0,0 +1,83 @@
+package de.seuhd.campuscoffee.data.impl;
+
+import de.seuhd.campuscoffee.data.config.CacheConfig;
+import de.seuhd.campuscoffee.domain.model.Pos;
+import org.jspecify.annotations.Nullable;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Read-through caches of POS by ID and by name in front of the {@link PosDataServiceImpl} (see {@link CacheConfig}).
+ * <p>
+ * A load that reads a POS before a write commits may only put it into the cache after the write invalidated the
+ * cache, where the outdated POS would stay until the TTL expires. Invalidations therefore increment a generation,
+ * and a load that sees a different generation after it put the POS evicts it again: either the load sees the new
+ * generation, or the invalidation evicts the cache after the load put the POS. Writes must invalidate after their
+ * commit; then no load that read before the commit leaves an entry behind once the write has returned.
+ * Concurrent loads of the same key are merged into one.
+ */
+@Component
+class PosCache {
+    private final Cache posById;
+    private final Cache posByName;
+    private final AtomicLong generation = new AtomicLong();
+
+    PosCache(CacheManager cacheManager) {
+        this.posById = Objects.requireNonNull(cacheManager.getCache(CacheConfig.POS_BY_ID));
+        this.posByName = Objects.requireNonNull(cacheManager.getCache(CacheConfig.POS_BY_NAME));
+    }
+
+    Pos getById(Long id, Supplier<Pos> loader) {
+        return get(posById, id, loader);
+    }
+
+    Pos getByName(String name, Supplier<Pos> loader) {
+        return get(posByName, name, loader);
+    }
+
+    /**
+     * Invalidates the cached POS with the given ID and all POS cached by name, since a renamed POS is stale in the
+     * name cache under its old name. Must be called after the write committed.
+     *
+     * @param id the ID of the written POS, or null to invalidate all POS (e.g., if the IDs are unknown)
+     */
+    void invalidate(@Nullable Long id) {
+        generation.incrementAndGet();
+        if (id == null) {
+            posById.clear();
+        } else {
+            posById.evict(id);
+        }
+        posByName.clear();
+    }
+
+    /**
+     * Invalidates all cached POS. Must be called after the write committed.
+     */
+    void invalidateAll() {
+        invalidate(null);
+    }
+
+    private Pos get(Cache cache, Object key, Supplier<Pos> loader) {
+        long loadGeneration = generation.get();
+        Pos pos;
+        try {
+            pos = cache.get(key, loader::get);
+        } catch (Cache.ValueRetrievalException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause; // e.g., NotFoundException
+            }
+            throw e;
+        }
+        if (generation.get() != loadGeneration) {
+            // the POS may have been read before a concurrent write; a newer entry is only loaded again
+            cache.evict(key);
+        }
+        return Objects.requireNonNull(pos);
+    }
+}
@@ -3,77 +3,312 @@ package de.seuhd.campuscoffee.data.impl;
 import de.seuhd.campuscoffee.data.mapper.PosEntityMapper;
 import de.seuhd.campuscoffee.data.persistence.PosEntity;
 import de.seuhd.campuscoffee.data.persistence.PosRepository;
+import de.seuhd.campuscoffee.data.persistence.PosRow;
+import de.seuhd.campuscoffee.data.persistence.PosSpecifications;
+import de.seuhd.campuscoffee.data.persistence.PosTombstoneRepository;
 import de.seuhd.campuscoffee.data.util.ConstraintViolationChecker;
+import de.seuhd.campuscoffee.domain.model.BatchItemResult;
+import de.seuhd.campuscoffee.domain.model.CollectionVersion;
+import de.seuhd.campuscoffee.domain.model.OutboxEvent;
 import de.seuhd.campuscoffee.domain.model.Pos;
+import de.seuhd.campuscoffee.domain.model.PosChanges;
+import de.seuhd.campuscoffee.domain.model.PosQuery;
+import de.seuhd.campuscoffee.domain.model.PosSortKey;
+import de.seuhd.campuscoffee.domain.model.ReadConsistency;
 import de.seuhd.campuscoffee.domain.exceptions.DuplicationException;
 import de.seuhd.campuscoffee.domain.exceptions.NotFoundException;
+import de.seuhd.campuscoffee.domain.exceptions.SyncTokenExpiredException;
+import de.seuhd.campuscoffee.domain.exceptions.VersionConflictException;
 import de.seuhd.campuscoffee.domain.ports.PosDataService;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.jspecify.annotations.NonNull;
+import org.jspecify.annotations.Nullable;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
 /**
  * Implementation of the POS data service that the domain layer provides as a port.
  * This layer is responsible for data access and persistence.
  * Business logic should be in the service layer.
+ * <p>
+ * Lookups by ID and name are served from read-through caches (see {@link PosCache}). All write operations
+ * invalidate the caches after their transactions committed or failed, and loads that raced with a write do not
+ * leave their result in the cache, so once a write has returned, lookups on this instance return its result.
+ * Writes of other application instances become visible after the configured TTL at the latest.
+ * <p>
+ * Queries that only read POS lists fetch {@link PosRow} projections instead of managed entities, which are mapped
+ * to domain objects without an intermediate entity.
+ * <p>
+ * Upserts by name resolve existing names in the database ({@code INSERT ... ON CONFLICT}) instead of looking them up
+ * first or translating the violated unique constraint, so repeated imports need a single statement per chunk.
+ * <p>
+ * Deleting POS leaves tombstones in the same transaction, so that {@link #getChanges} can report deletions; pruning
+ * old tombstones expires the sync tokens that would need them.
+ * Upserts and deletions are recorded in the outbox in the transaction of the change (see {@link OutboxWriter});
+ * {@link #clear()} is a reset for testing and is not recorded.
+ * <p>
+ * Reads run in read-only transactions: Hibernate neither keeps snapshots of the loaded entities for dirty checking
+ * nor flushes the session, and the connection returns to the pool when the method returns (open-in-view is off).
  */
+@Slf4j
 @Service
 @RequiredArgsConstructor
 class PosDataServiceImpl implements PosDataService {
     private final PosRepository posRepository;
+    private final PosTombstoneRepository posTombstoneRepository;
     private final PosEntityMapper posEntityMapper;
+    private final OutboxWriter outboxWriter;
+    private final PosCache posCache;
+    private final TransactionTemplate transactionTemplate;
+    @Value("${pos.batch.chunk-size:500}")
+    private final int batchChunkSize;
 
     @Override
     public void clear() {
-        posRepository.deleteAllInBatch();
-        posRepository.flush();
-        posRepository.resetSequence(); // ensure consistent IDs after clearing (for local testing)
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                posTombstoneRepository.upsertAllPos(LocalDateTime.now(ZoneId.of("UTC")));
+                posRepository.deleteAllInBatch();
+            });
+        } finally {
+            posCache.invalidateAll();
+        }
+        // note: the ID sequence is not reset because Hibernate allocates IDs in blocks (see PosEntity),
+        // so restarting the sequence would hand out IDs from blocks that are still in use
     }
 
     @Override
+    @Transactional(readOnly = true)
     public @NonNull List<Pos> getAll() {
-        return posRepository.findAll().stream()
-                .map(posEntityMapper::fromEntity)
+        return posRepository.findAllRows().stream()
+                .map(posEntityMapper::fromRow)
+                .toList();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public @NonNull List<Pos> getPage(@Nullable Long after, int limit) {
+        return posRepository.findRowsByIdGreaterThan(after == null ? Long.MIN_VALUE : after, Limit.of(limit))
+                .stream()
+                .map(posEntityMapper::fromRow)
+                .toList();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public @NonNull List<Pos> query(@NonNull PosQuery query) {
+        List<Specification<PosEntity>> filters = new ArrayList<>();
+        if (query.campus() != null) {
+            filters.add(PosSpecifications.hasCampus(query.campus()));
+        }
+        if (query.type() != null) {
+            filters.add(PosSpecifications.hasType(query.type()));
+        }
+        if (query.postalCode() != null) {
+            filters.add(PosSpecifications.hasPostalCode(query.postalCode()));
+        }
+        if (query.city() != null) {
+            filters.add(PosSpecifications.hasCity(query.city()));
+        }
+        if (query.after() != null) {
+            filters.add(PosSpecifications.hasIdGreaterThan(query.after()));
+        }
+
+        // the ID makes the order unique, so that equal values of the sort keys are returned in a stable order
+        Sort sort = Sort.by(query.sort().stream()
+                .map(posSort -> new Sort.Order(posSort.descending() ? Sort.Direction.DESC : Sort.Direction.ASC,
+                        toEntityProperty(posSort.key())))
+                .toList()
+        ).and(Sort.by("id"));
+
+        return posRepository.findRows(Specification.allOf(filters), sort,
+                        query.limit() == null ? Limit.unlimited() : Limit.of(query.limit()))
+                .stream()
+                .map(posEntityMapper::fromRow)
+                .toList();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public @NonNull List<Pos> search(@NonNull String query, int offset, int limit) {
+        List<Long> ids = posRepository.searchIds(query, offset, limit);
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        // the rows are fetched by their primary key, so only the search query needs to rank them
+        Map<Long, PosRow> rowsById = posRepository.findRowsByIdIn(ids).stream()
+                .collect(Collectors.toMap(PosRow::id, Function.identity()));
+        return ids.stream()
+                .map(rowsById::get)
+                .filter(Objects::nonNull) // deleted in between
+                .map(posEntityMapper::fromRow)
                 .toList();
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public @NonNull List<Pos> nearby(double latitude, double longitude, double radius, int limit) {
+        // bounding box of the circle around the location: one degree of latitude is always the same distance,
+        // while one degree of longitude shrinks towards the poles
+        double latitudeDelta = Math.toDegrees(radius / PosRepository.EARTH_RADIUS_METERS);
+        double minLatitude = latitude - latitudeDelta;
+        double maxLatitude = latitude + latitudeDelta;
+        double minLongitude = -180;
+        double maxLongitude = 180;
+        if (minLatitude > -90 && maxLatitude < 90) {
+            double longitudeDelta = Math.toDegrees(
+                    Math.asin(Math.sin(radius / PosRepository.EARTH_RADIUS_METERS) / Math.cos(Math.toRadians(latitude))));
+            // boxes that cross the antimeridian are not split, but searched across all longitudes
+            if (longitude - longitudeDelta >= -180 && longitude + longitudeDelta <= 180) {
+                minLongitude = longitude - longitudeDelta;
+                maxLongitude = longitude + longitudeDelta;
+            }
+        }
+
+        return posRepository.findRowsNearby(latitude, longitude, minLatitude, maxLatitude, minLongitude,
+                        maxLongitude, radius, Limit.of(limit))
+                .stream()
+                .map(posEntityMapper::fromRow)
+                .toList();
+    }
+
+    @Override
+    @Transactional(readOnly = true) // the cursor behind the stream is only open within a transaction
+    public void streamAll(@NonNull Consumer<? super Pos> consumer) {
+        // rows are not managed by the persistence context, so it does not grow with the table
+        try (Stream<PosRow> posRows = posRepository.streamAllRows()) {
+            posRows.forEach(posRow -> consumer.accept(posEntityMapper.fromRow(posRow)));
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public @NonNull Optional<List<Pos>> queryIfModified(@NonNull PosQuery query,
+                                                        @NonNull Predicate<? super CollectionVersion> notModified) {
+        // the version is computed from the change IDs that a trigger sets on every write (see V13__row_change_ids.sql);
+        // read from the primary, since a lagging replica would confirm outdated copies, and the snapshots of replicas
+        // do not list the transactions in progress that the version depends on; the POS are read in the same
+        // transaction, so that the request borrows a single connection
+        try (ReadConsistency.Scope ignored = ReadConsistency.requireLatest()) {
+            if (notModified.test(new CollectionVersion(posRepository.findCollectionVersion()))) {
+                return Optional.empty();
+            }
+            return Optional.of(query(query));
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public @NonNull PosChanges getChanges(@Nullable Long since) {
+        // read from the primary: the snapshots of replicas do not know which transactions of the primary are in
+        // progress, and a replica that lags behind would return a token beyond changes it has not replayed yet
+        try (ReadConsistency.Scope ignored = ReadConsistency.requireLatest()) {
+            // transactions may commit in a different order than their IDs, so the next call starts at the oldest
+            // transaction that is still in progress; read before the changes, so that every change that this call
+            // does not see has at least this change ID and is returned by the next call, however long it takes
+            long next = posRepository.findLowestInvisibleChangeId();
+            if (since == null) {
+                return new PosChanges(getAll(), List.of(), next);
+            }
+
+            // rows are read before tombstones, so a POS deleted in between is at least reported as deleted
+            List<Pos> updated = posRepository.findRowsByChangeIdAtLeast(since).stream()
+                    .map(posEntityMapper::fromRow)
+                    .toList();
+            List<Long> deleted = posTombstoneRepository.findPosIdsByChangeIdAtLeast(since);
+            // the horizon is read after the tombstones, so that tombstones pruned in between expire the token
+            if (since < posTombstoneRepository.findSyncHorizon()) {
+                throw new SyncTokenExpiredException(Pos.class, since);
+            }
+            return new PosChanges(updated, deleted, Math.max(next, since));
+        }
+    }
+
+    @Override
+    @Transactional
+    public int pruneDeletions(@NonNull LocalDateTime deletedBefore) {
+        return posTombstoneRepository.deleteDeletedBefore(deletedBefore);
+    }
+
     @Override
     public @NonNull Pos getByName(@NonNull String name) {
-        return posRepository.findByName(name)
-                .map(posEntityMapper::fromEntity)
-                .orElseThrow(() -> new NotFoundException(Pos.class, PosEntity.NAME_COLUMN, name));
+        // cache hits do not borrow a connection; cache misses read from the primary, so that a replica that lags
+        // behind a write does not put the outdated POS back into the cache after the write invalidated it
+        return posCache.getByName(name, () -> {
+            try (ReadConsistency.Scope ignored = ReadConsistency.requireLatest()) {
+                return posRepository.findRowByName(name)
+                        .map(posEntityMapper::fromRow)
+                        .orElseThrow(() -> new NotFoundException(Pos.class, PosEntity.NAME_COLUMN, name));
+            }
+        });
     }
 
     @Override
     public @NonNull Pos getById(@NonNull Long id) {
-        return posRepository.findById(id)
-                .map(posEntityMapper::fromEntity)
-                .orElseThrow(() -> new NotFoundException(Pos.class, id));
+        // see getByName
+        return posCache.getById(id, () -> {
+            try (ReadConsistency.Scope ignored = ReadConsistency.requireLatest()) {
+                return posRepository.findRowById(id)
+                        .map(posEntityMapper::fromRow)
+                        .orElseThrow(() -> new NotFoundException(Pos.class, id));
+            }
+        });
     }
 
     @Override
     public @NonNull Pos upsert(@NonNull Pos pos) {
         // map POS domain object to entity and save
         try {
-            if (pos.id() == null) {
-                // create new POS
-                return posEntityMapper.fromEntity(
-                        posRepository.saveAndFlush(posEntityMapper.toEntity(pos))
-                );
-            }
+            return Objects.requireNonNull(transactionTemplate.execute(status -> {
+                Pos upsertedPos;
+                if (pos.id() == null) {
+                    // create new POS
+                    upsertedPos = posEntityMapper.fromEntity(
+                            posRepository.saveAndFlush(posEntityMapper.toEntity(pos))
+                    );
+                } else {
+                    // update existing POS: a single UPDATE ... RETURNING checks that the POS exists (with the expected
+                    // version, if any), writes it, and returns the updated row, without reading the entity first or
+                    // flushing it afterward; only if no row was updated, a second query tells the two cases apart
+                    upsertedPos = posRepository.updateReturningRow(pos.id(), pos.version(),
+                                    posEntityMapper.toEntity(pos), LocalDateTime.now(ZoneId.of("UTC")))
+                            .map(posEntityMapper::fromRow)
+                            .orElseThrow(() -> pos.version() != null && posRepository.existsById(pos.id())
+                                    ? new VersionConflictException(Pos.class, pos.id(), pos.version())
+                                    : new NotFoundException(Pos.class, pos.id()));
+                }
 
-            // update existing POS
-            PosEntity posEntity = posRepository.findById(pos.id())
-                    .orElseThrow(() -> new NotFoundException(Pos.class, pos.id()));
-
-            // use mapper to update entity fields automatically
-            // note: timestamps are managed by JPA lifecycle callbacks (@PreUpdate)
-            posEntityMapper.updateEntity(pos, posEntity);
-
-            return posEntityMapper.fromEntity(posRepository.saveAndFlush(posEntity));
+                outboxWriter.upserted(OutboxEvent.POS, upsertedPos.id(), upsertedPos.version(), upsertedPos);
+                return upsertedPos;
+            }));
         } catch (DataIntegrityViolationException e) {
             // translate database constraint violations to domain exceptions
             // this is the adapter's responsibility in hexagonal architecture
@@ -82,14 +317,253 @@ class PosDataServiceImpl implements PosDataService {
             }
             // re-throw if it's a different constraint violation
             throw e;
+        } finally {
+            posCache.invalidate(pos.id());
+        }
+    }
+
+    @Override
+    public @NonNull List<BatchItemResult<Pos>> upsertAll(@NonNull List<Pos> posList) {
+        List<BatchItemResult<Pos>> results = new ArrayList<>(posList.size());
+        try {
+            for (int from = 0; from < posList.size(); from += batchChunkSize) {
+                int to = Math.min(from + batchChunkSize, posList.size());
+                results.addAll(upsertChunk(posList.subList(from, to), from));
+            }
+        } finally {
+            posCache.invalidateAll();
+        }
+        return results;
+    }
+
+    @Override
+    public @NonNull Pos upsertByName(@NonNull Pos pos) {
+        try {
+            return Objects.requireNonNull(transactionTemplate.execute(status -> {
+                Pos upsertedPos = posEntityMapper.fromRow(posRepository.upsertAllByNameReturningRows(
+                        List.of(posEntityMapper.toEntity(pos)), LocalDateTime.now(ZoneId.of("UTC"))).getFirst());
+                outboxWriter.upserted(OutboxEvent.POS, upsertedPos.id(), upsertedPos.version(), upsertedPos);
+                return upsertedPos;
+            }));
+        } finally {
+            posCache.invalidateAll(); // the ID is only known afterward
+        }
+    }
+
+    @Override
+    public @NonNull List<BatchItemResult<Pos>> upsertAllByName(@NonNull List<Pos> posList) {
+        List<BatchItemResult<Pos>> results = new ArrayList<>(posList.size());
+        try {
+            for (int from = 0; from < posList.size(); from += batchChunkSize) {
+                int to = Math.min(from + batchChunkSize, posList.size());
+                results.addAll(upsertChunkByName(posList.subList(from, to), from));
+            }
+        } finally {
+            posCache.invalidateAll();
+        }
+        return results;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public @NonNull List<Pos> getOsmSyncCandidates(@Nullable Long after, @NonNull LocalDateTime syncedBefore,
+                                                   int limit) {
+        return posRepository.findOsmSyncCandidates(after == null ? Long.MIN_VALUE : after, syncedBefore,
+                        Limit.of(limit))
+                .stream()
+                .map(posEntityMapper::fromRow)
+                .toList();
+    }
+
+    @Override
+    public void markOsmSynced(@NonNull Collection<Long> ids) {
+        // the sync time is not part of the domain model, so the caches stay valid
+        if (!ids.isEmpty()) {
+            posRepository.updateOsmSyncedAt(ids, LocalDateTime.now(ZoneId.of("UTC")));
         }
     }
 
     @Override
     public void delete(@NonNull Long id) {
-        if (!posRepository.existsById(id)) {
-            throw new NotFoundException(Pos.class, id);
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                Long lastVersion = posRepository.deleteByIdReturningVersion(id)
+                        .orElseThrow(() -> new NotFoundException(Pos.class, id));
+                posTombstoneRepository.upsert(id, LocalDateTime.now(ZoneId.of("UTC")));
+                outboxWriter.deleted(OutboxEvent.POS, id, lastVersion);
+            });
+        } finally {
+            posCache.invalidate(id);
+        }
+    }
+
+    /**
+     * Maps a sort key to the corresponding property of {@link PosEntity}.
+     *
+     * @param key the sort key
+     * @return the property path, e.g., "address.city"
+     */
+    private static String toEntityProperty(PosSortKey key) {
+        return switch (key) {
+            case ID -> "id";
+            case NAME -> "name";
+            case TYPE -> "type";
+            case CAMPUS -> "campus";
+            case POSTAL_CODE -> "address.postalCode";
+            case CITY -> "address.city";
+            case CREATED_AT -> "createdAt";
+            case UPDATED_AT -> "updatedAt";
+        };
+    }
+
+    /**
+     * Writes one chunk of a batch upsert in a single transaction.
+     * If the database nevertheless rejects the chunk (e.g., because of a concurrent write, detected by the version of
+     * the entities, or an unexpected constraint violation), the transaction is rolled back and the POS are written
+     * one by one instead, so that only the offending POS fail.
+     *
+     * @param chunk  the POS of this chunk
+     * @param offset the index of the first POS of this chunk in the whole batch
+     * @return one result per POS of the chunk
+     */
+    private List<BatchItemResult<Pos>> upsertChunk(List<Pos> chunk, int offset) {
+        try {
+            return Objects.requireNonNull(transactionTemplate.execute(status -> writeChunk(chunk, offset)));
+        } catch (DataIntegrityViolationException | OptimisticLockingFailureException e) {
+            log.warn("Batch upsert of POS {} to {} failed, retrying them one by one: {}",
+                    offset, offset + chunk.size() - 1, e.getMessage());
+            return IntStream.range(0, chunk.size())
+                    .mapToObj(i -> upsertItem(chunk.get(i), offset + i))
+                    .toList();
+        }
+    }
+
+    /**
+     * Writes the POS of one chunk using batched statements.
+     * Unknown IDs and duplicate names are detected with two queries for the whole chunk up front,
+     * because a failing statement would abort the entire transaction.
+     *
+     * @param chunk  the POS of this chunk
+     * @param offset the index of the first POS of this chunk in the whole batch
+     * @return one result per POS of the chunk
+     */
+    private List<BatchItemResult<Pos>> writeChunk(List<Pos> chunk, int offset) {
+        Set<Long> ids = chunk.stream()
+                .map(Pos::id)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Map<Long, PosEntity> existingPosById = posRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(PosEntity::getId, Function.identity()));
+        Map<String, Long> existingIdByName = posRepository.findByNameIn(chunk.stream().map(Pos::name).toList())
+                .stream()
+                .collect(Collectors.toMap(PosEntity::getName, PosEntity::getId));
+
+        List<BatchItemResult<Pos>> results = new ArrayList<>(Collections.nCopies(chunk.size(), null));
+        Map<Integer, PosEntity> entitiesToSave = new HashMap<>();
+        Set<String> namesInChunk = new HashSet<>();
+        for (int i = 0; i < chunk.size(); i++) {
+            Pos pos = chunk.get(i);
+            PosEntity posEntity = pos.id() == null ? posEntityMapper.toEntity(pos) : existingPosById.get(pos.id());
+            Long existingId = existingIdByName.get(pos.name());
+            if (posEntity == null) {
+                results.set(i, BatchItemResult.failure(offset + i, new NotFoundException(Pos.class, pos.id())));
+            } else if ((existingId != null && !existingId.equals(pos.id())) || !namesInChunk.add(pos.name())) {
+                results.set(i, BatchItemResult.failure(offset + i,
+                        new DuplicationException(Pos.class, PosEntity.NAME_COLUMN, pos.name())));
+            } else {
+                if (pos.id() != null) {
+                    // timestamps are managed by JPA lifecycle callbacks (@PreUpdate)
+                    posEntityMapper.updateEntity(pos, posEntity);
+                }
+                entitiesToSave.put(i, posEntity);
+            }
+        }
+
+        // inserts and updates are sent in JDBC batches on flush (see hibernate.jdbc.batch_size)
+        posRepository.saveAll(entitiesToSave.values());
+        posRepository.flush();
+        Map<Long, Pos> upsertedPosById = new HashMap<>();
+        entitiesToSave.forEach((i, posEntity) -> {
+            Pos upsertedPos = posEntityMapper.fromEntity(posEntity);
+            upsertedPosById.put(upsertedPos.id(), upsertedPos);
+            results.set(i, BatchItemResult.success(offset + i, upsertedPos));
+        });
+        outboxWriter.upsertedAll(OutboxEvent.POS, upsertedPosById.values(), Pos::id, Pos::version);
+        return results;
+    }
+
+    /**
+     * Writes one chunk of a batch upsert by name with a single statement in its own transaction.
+     * A statement cannot update the same row twice, so names that occur more than once in the chunk are rejected
+     * up front. If the database nevertheless rejects the statement (e.g., because of a check constraint), the POS
+     * are written one by one instead, so that only the offending POS fail.
+     *
+     * @param chunk  the POS of this chunk
+     * @param offset the index of the first POS of this chunk in the whole batch
+     * @return one result per POS of the chunk
+     */
+    private List<BatchItemResult<Pos>> upsertChunkByName(List<Pos> chunk, int offset) {
+        List<BatchItemResult<Pos>> results = new ArrayList<>(Collections.nCopies(chunk.size(), null));
+        Map<String, Integer> indexByName = new LinkedHashMap<>();
+        for (int i = 0; i < chunk.size(); i++) {
+            Pos pos = chunk.get(i);
+            if (indexByName.putIfAbsent(pos.name(), i) != null) {
+                results.set(i, BatchItemResult.failure(offset + i,
+                        new DuplicationException(Pos.class, PosEntity.NAME_COLUMN, pos.name())));
+            }
+        }
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                List<PosEntity> values = indexByName.values().stream()
+                        .map(i -> posEntityMapper.toEntity(chunk.get(i)))
+                        .toList();
+                Map<Long, Pos> upsertedPosById = new HashMap<>();
+                for (PosRow posRow : posRepository.upsertAllByNameReturningRows(values,
+                        LocalDateTime.now(ZoneId.of("UTC")))) {
+                    Pos upsertedPos = posEntityMapper.fromRow(posRow);
+                    int i = indexByName.get(upsertedPos.name());
+                    upsertedPosById.put(upsertedPos.id(), upsertedPos);
+                    results.set(i, BatchItemResult.success(offset + i, upsertedPos));
+                }
+                outboxWriter.upsertedAll(OutboxEvent.POS, upsertedPosById.values(), Pos::id, Pos::version);
+            });
+        } catch (DataIntegrityViolationException e) {
+            log.warn("Batch upsert by name of POS {} to {} failed, retrying them one by one: {}",
+                    offset, offset + chunk.size() - 1, e.getMessage());
+            indexByName.values().forEach(i -> results.set(i, upsertItemByName(chunk.get(i), offset + i)));
+        }
+        return results;
+    }
+
+    /**
+     * Upserts a single POS of a batch by its name and captures a failure in the result instead of throwing it.
+     *
+     * @param pos   the POS to upsert
+     * @param index the index of the POS in the whole batch
+     * @return the result for this POS
+     */
+    private BatchItemResult<Pos> upsertItemByName(Pos pos, int index) {
+        try {
+            return BatchItemResult.success(index, upsertByName(pos));
+        } catch (DataIntegrityViolationException e) {
+            return BatchItemResult.failure(index, e);
+        }
+    }
+
+    /**
+     * Upserts a single POS of a batch and captures a failure in the result instead of throwing it.
+     *
+     * @param pos   the POS to upsert
+     * @param index the index of the POS in the whole batch
+     * @return the result for this POS
+     */
+    private BatchItemResult<Pos> upsertItem(Pos pos, int index) {
+        try {
+            // like the batch, the single upsert overwrites any version
+            return BatchItemResult.success(index, upsert(pos.toBuilder().version(null).build()));
+        } catch (NotFoundException | DuplicationException | DataIntegrityViolationException e) {
+            return BatchItemResult.failure(index, e);
         }
-        posRepository.deleteById(id);
     }
 }
@@ -1,10 +1,17 @@
 package de.seuhd.campuscoffee.data.impl;
 
+import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Predicate;
 
 import org.jspecify.annotations.NonNull;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import de.seuhd.campuscoffee.data.mapper.UserEntityMapper;
 import de.seuhd.campuscoffee.data.persistence.UserEntity;
@@ -12,6 +19,10 @@ import de.seuhd.campuscoffee.data.persistence.UserRepository;
 import de.seuhd.campuscoffee.data.util.ConstraintViolationChecker;
 import de.seuhd.campuscoffee.domain.exceptions.DuplicationException;
 import de.seuhd.campuscoffee.domain.exceptions.NotFoundException;
+import de.seuhd.campuscoffee.domain.exceptions.VersionConflictException;
+import de.seuhd.campuscoffee.domain.model.CollectionVersion;
+import de.seuhd.campuscoffee.domain.model.OutboxEvent;
+import de.seuhd.campuscoffee.domain.model.ReadConsistency;
 import de.seuhd.campuscoffee.domain.model.User;
 import de.seuhd.campuscoffee.domain.ports.UserDataService;
 import lombok.RequiredArgsConstructor;
@@ -19,6 +30,11 @@ import lombok.RequiredArgsConstructor;
  * Implementation of the user data service that the domain layer provides as a port.
  * This layer is responsible for data access and persistence.
  * Business logic should be in the service layer.
+ * <p>
+ * Upserts and deletions are recorded in the outbox in the transaction of the change (see {@link OutboxWriter});
+ * {@link #clear()} is a reset for testing and is not recorded.
+ * <p>
+ * Reads run in read-only transactions, in which Hibernate neither snapshots the loaded entities nor flushes.
  */
 @Service
 @RequiredArgsConstructor
@@ -28,6 +44,8 @@ class UserDataServiceImpl implements UserDataService {
 
     private final UserRepository userRepository;
     private final UserEntityMapper userEntityMapper;
+    private final OutboxWriter outboxWriter;
+    private final TransactionTemplate transactionTemplate;
 
     @Override
     public void clear() {
@@ -38,6 +56,7 @@ class UserDataServiceImpl implements UserDataService {
 
     @Override
     @NonNull
+    @Transactional(readOnly = true)
     public List<User> getAll() {
         return userRepository.findAll().stream()
                 .map(userEntityMapper::fromEntity)
@@ -46,6 +65,21 @@ class UserDataServiceImpl implements UserDataService {
 
     @Override
     @NonNull
+    @Transactional(readOnly = true)
+    public Optional<List<User>> getAllIfModified(@NonNull Predicate<? super CollectionVersion> notModified) {
+        // the version is computed from the change IDs that a trigger sets on every write (see V13__row_change_ids.sql)
+        // and read from the primary like the version of the POS collection, together with the users
+        try (ReadConsistency.Scope ignored = ReadConsistency.requireLatest()) {
+            if (notModified.test(new CollectionVersion(userRepository.findCollectionVersion()))) {
+                return Optional.empty();
+            }
+            return Optional.of(getAll());
+        }
+    }
+
+    @Override
+    @NonNull
+    @Transactional(readOnly = true)
     public User getById(@NonNull Long id) {
         return userRepository.findById(id)
                 .map(userEntityMapper::fromEntity)
@@ -54,6 +88,7 @@ class UserDataServiceImpl implements UserDataService {
 
     @Override
     @NonNull
+    @Transactional(readOnly = true)
     public User getByName(@NonNull String Name) {
         return userRepository.findByName(Name)
                 .map(userEntityMapper::fromEntity)
@@ -65,21 +100,27 @@ class UserDataServiceImpl implements UserDataService {
     public User upsert(@NonNull User user) {
         // map User domain object to entity and save
         try {
-            if (user.id() == null) {
-                // Create a new user
-                return userEntityMapper.fromEntity(
-                        userRepository.saveAndFlush(userEntityMapper.toEntity(user))
-                );
-            }
-
-            // update an existing user
-            UserEntity userEntity = userRepository.findById(user.id())
-                    .orElseThrow(() -> new NotFoundException(User.class, user.id()));
+            return Objects.requireNonNull(transactionTemplate.execute(status -> {
+                User upsertedUser;
+                if (user.id() == null) {
+                    // Create a new user
+                    upsertedUser = userEntityMapper.fromEntity(
+                            userRepository.saveAndFlush(userEntityMapper.toEntity(user))
+                    );
+                } else {
+                    // update an existing user in a single statement that fails to find unknown IDs and outdated
+                    // versions; only if no row was updated, a second query tells the two cases apart
+                    upsertedUser = userRepository.updateReturning(user.id(), user.version(),
+                                    userEntityMapper.toEntity(user), LocalDateTime.now(ZoneId.of("UTC")))
+                            .map(userEntityMapper::fromEntity)
+                            .orElseThrow(() -> user.version() != null && userRepository.existsById(user.id())
+                                    ? new VersionConflictException(User.class, user.id(), user.version())
+                                    : new NotFoundException(User.class, user.id()));
+                }
 
-            // update entity with data from domain model
-            userEntityMapper.updateEntity(user, userEntity);
-
-            return userEntityMapper.fromEntity(userRepository.saveAndFlush(userEntity));
+                outboxWriter.upserted(OutboxEvent.USER, upsertedUser.id(), upsertedUser.version(), upsertedUser);
+                return upsertedUser;
+            }));
         } catch (DataIntegrityViolationException e) {
             // translate database constraint violations to domain exceptions
             // this is the adapter's responsibility in hexagonal architecture
@@ -94,10 +135,30 @@ class UserDataServiceImpl implements UserDataService {
     }
 
     @Override
-    public void delete(@NonNull Long id) {
-        if (!userRepository.existsById(id)) {
-            throw new NotFoundException(User.class, id);
+    @NonNull
+    public User upsertByName(@NonNull User user) {
+        try {
+            return Objects.requireNonNull(transactionTemplate.execute(status -> {
+                // an existing login name is resolved by the database, so only the email address can be a duplicate
+                User upsertedUser = userEntityMapper.fromEntity(userRepository.upsertByNameReturning(
+                        userEntityMapper.toEntity(user), LocalDateTime.now(ZoneId.of("UTC"))));
+                outboxWriter.upserted(OutboxEvent.USER, upsertedUser.id(), upsertedUser.version(), upsertedUser);
+                return upsertedUser;
+            }));
+        } catch (DataIntegrityViolationException e) {
+            if (ConstraintViolationChecker.isConstraintViolation(e, UserEntity.EMAIL_ADDRESS_CONSTRAINT)) {
+                throw new DuplicationException(User.class, UserEntity.EMAIL_ADDRESS_COLUMN, user.emailAddress());
+            }
+            throw e;
         }
-        userRepository.deleteById(id);
+    }
+
+    @Override
+    public void delete(@NonNull Long id) {
+        transactionTemplate.executeWithoutResult(status -> {
+            Long lastVersion = userRepository.deleteByIdReturningVersion(id)
+                    .orElseThrow(() -> new NotFoundException(User.class, id));
+            outboxWriter.deleted(OutboxEvent.USER, id, lastVersion);
+        });
     }
 }
@@ -0,0 +1,89 @@
+package de.seuhd.campuscoffee.data.mapper;
+
+import org.jspecify.annotations.NonNull;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * Converts between the house number string of the domain model (e.g., "21a") and the numeric part and suffix that
+ * are stored in separate columns.
+ * <p>
+ * Both directions run on every mapped POS, so they avoid regular expressions and intermediate strings:
+ * parsing is a single pass over the characters, and plain house numbers below {@value #CACHE_SIZE}
+ * (which covers almost all real addresses) are served from pre-computed parse results and strings.
+ */
+public final class HouseNumberCodec {
+    static final int CACHE_SIZE = 1024;
+    private static final String[] FORMATTED = new String[CACHE_SIZE];
+    private static final HouseNumber[] PARSED = new HouseNumber[CACHE_SIZE];
+
+    static {
+        for (int i = 0; i < CACHE_SIZE; i++) {
+            FORMATTED[i] = Integer.toString(i);
+            PARSED[i] = new HouseNumber(i, null);
+        }
+    }
+
+    private HouseNumberCodec() {
+    }
+
+    /**
+     * A house number split into its numeric part and suffix.
+     *
+     * @param number the numeric part; null if the house number contains no digits
+     * @param suffix the suffix; null if the house number contains no other characters than digits
+     */
+    public record HouseNumber(@Nullable Integer number, @Nullable Character suffix) {
+    }
+
+    /**
+     * Splits a house number into its numeric part and suffix.
+     * All digits form the numeric part and the first other character is the suffix, e.g., "21a" becomes 21 and 'a',
+     * "12-14" becomes 1214 and '-'.
+     *
+     * @param houseNumber the house number to split; must not be null
+     * @return the numeric part and suffix
+     * @throws NumberFormatException if the digits do not fit into an int
+     */
+    public static @NonNull HouseNumber parse(@NonNull String houseNumber) {
+        int number = 0;
+        boolean hasDigits = false;
+        char suffix = 0;
+        boolean hasSuffix = false;
+        for (int i = 0; i < houseNumber.length(); i++) {
+            char c = houseNumber.charAt(i);
+            if (c >= '0' && c <= '9') {
+                int digit = c - '0';
+                if (number > (Integer.MAX_VALUE - digit) / 10) {
+                    throw new NumberFormatException("House number out of range: \"" + houseNumber + "\"");
+                }
+                number = number * 10 + digit;
+                hasDigits = true;
+            } else if (!hasSuffix) {
+                suffix = c;
+                hasSuffix = true;
+            }
+        }
+
+        if (!hasSuffix) {
+            return hasDigits && number < CACHE_SIZE ? PARSED[number] : new HouseNumber(hasDigits ? number : null, null);
+        }
+        return new HouseNumber(hasDigits ? number : null, suffix);
+    }
+
+    /**
+     * Merges the numeric part and suffix of a house number into a single string.
+     * This is the inverse operation of {@link #parse(String)}.
+     *
+     * @param number the numeric part; may be null
+     * @param suffix the suffix; may be null
+     * @return the merged house number, or null if there is no numeric part
+     */
+    public static @Nullable String format(@Nullable Integer number, @Nullable Character suffix) {
+        if (number == null) {
+            return null;
+        }
+        int value = number;
+        String formatted = value >= 0 && value < CACHE_SIZE ? FORMATTED[value] : Integer.toString(value);
+        return suffix == null ? formatted : formatted + suffix.charValue();
+    }
+}
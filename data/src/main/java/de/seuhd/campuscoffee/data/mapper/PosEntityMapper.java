@@ -2,6 +2,7 @@ package de.seuhd.campuscoffee.data.mapper;
 
 import de.seuhd.campuscoffee.data.persistence.AddressEntity;
 import de.seuhd.campuscoffee.data.persistence.PosEntity;
+import de.seuhd.campuscoffee.data.persistence.PosRow;
 import de.seuhd.campuscoffee.domain.model.Pos;
 import org.mapstruct.*;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
@@ -41,20 +42,38 @@ public interface PosEntityMapper {
     @Mapping(target = "houseNumber", expression = "java(mergeHouseNumber(source))")
     Pos fromEntity(PosEntity source);
 
+    /**
+     * Converts a read-only row projection to a domain model.
+     * House numbers are merged like in {@link #fromEntity(PosEntity)}.
+     *
+     * @param source the row to convert; may be null
+     * @return the domain model, or null if source is null
+     */
+    @Mapping(target = "houseNumber",
+            expression = "java(HouseNumberCodec.format(source.houseNumber(), source.houseNumberSuffix()))")
+    Pos fromRow(PosRow source);
+
     /**
      * Converts a domain model to a JPA entity.
      * Creates a new AddressEntity and parses the house number string into numeric and suffix parts.
+     * The version is managed by the data store; an expected version of the domain model is passed to the
+     * update separately.
      *
      * @param source the domain model to convert; may be null
      * @return the JPA entity, or null if source is null
      */
+    @Mapping(target = "version", ignore = true)
+    @Mapping(target = "osmSyncedAt", ignore = true)
+    @Mapping(target = "changeId", ignore = true)
     @Mapping(target = "address", expression = "java(splitHouseNumber(source, new AddressEntity()))")
     PosEntity toEntity(Pos source);
 
     /**
      * Updates an existing JPA entity with data from the domain model.
      * This method is intended for update operations where the entity already exists.
-     * JPA-managed fields (id, createdAt, updatedAt) are preserved and not overwritten.
+     * JPA-managed fields (id, createdAt, updatedAt, version) are preserved and not overwritten.
+     * The link to the OpenStreetMap node and the coordinates are only overwritten if the domain model has them, so
+     * that editing an imported POS does not unlink it from its source node or remove its location.
      * The address is updated in place rather than being replaced, preserving the entity relationship.
      *
      * @param source the domain model containing the new data; must not be null
@@ -63,6 +82,13 @@ public interface PosEntityMapper {
     @Mapping(target = "id", ignore = true)
     @Mapping(target = "createdAt", ignore = true)
     @Mapping(target = "updatedAt", ignore = true)
+    @Mapping(target = "version", ignore = true)
+    @Mapping(target = "osmSyncedAt", ignore = true)
+    @Mapping(target = "changeId", ignore = true)
+    @Mapping(target = "osmNodeId", nullValuePropertyMappingStrategy = NullValuePropertyMappingStrategy.IGNORE)
+    @Mapping(target = "osmVersion", nullValuePropertyMappingStrategy = NullValuePropertyMappingStrategy.IGNORE)
+    @Mapping(target = "latitude", nullValuePropertyMappingStrategy = NullValuePropertyMappingStrategy.IGNORE)
+    @Mapping(target = "longitude", nullValuePropertyMappingStrategy = NullValuePropertyMappingStrategy.IGNORE)
     @Mapping(target = "address", expression = "java(splitHouseNumber(source, target.getAddress()))")
     void updateEntity(Pos source, @MappingTarget PosEntity target);
 
@@ -82,18 +108,14 @@ public interface PosEntityMapper {
      */
     @SuppressWarnings("unused")
     default String mergeHouseNumber(PosEntity source) {
-        if (source.getAddress() == null || source.getAddress().getHouseNumber() == null) {
+        if (source.getAddress() == null) {
             return null;
         }
-        String houseNumberWithSuffix = source.getAddress().getHouseNumber().toString();
-        if (source.getAddress().getHouseNumberSuffix() != null) {
-            houseNumberWithSuffix += source.getAddress().getHouseNumberSuffix();
-        }
-        return houseNumberWithSuffix;
+        return HouseNumberCodec.format(source.getAddress().getHouseNumber(), source.getAddress().getHouseNumberSuffix());
     }
 
     /**
-     * Maps address fields from domain model to entity (i.e., splits house number strings).
+     * Maps address fields from domain model to entity (i.e., splits house number strings, see {@link HouseNumberCodec}).
      *
      * @param source the domain model containing address data; must not be null
      * @param addressEntity the AddressEntity to populate; must not be null
@@ -116,18 +138,9 @@ public interface PosEntityMapper {
         if (source.houseNumber().isEmpty()) {
             return addressEntity;
         }
-        String numericPart = source.houseNumber().replaceAll("[^0-9]", "");
-        String suffixPart = source.houseNumber().replaceAll("[0-9]", "");
-        if (!numericPart.isEmpty()) {
-            addressEntity.setHouseNumber(Integer.parseInt(numericPart));
-        } else {
-            addressEntity.setHouseNumber(null);
-        }
-        if (!suffixPart.isEmpty()) {
-            addressEntity.setHouseNumberSuffix(suffixPart.charAt(0));
-        } else {
-            addressEntity.setHouseNumberSuffix(null);
-        }
+        HouseNumberCodec.HouseNumber houseNumber = HouseNumberCodec.parse(source.houseNumber());
+        addressEntity.setHouseNumber(houseNumber.number());
+        addressEntity.setHouseNumberSuffix(houseNumber.suffix());
 
         return addressEntity;
     }
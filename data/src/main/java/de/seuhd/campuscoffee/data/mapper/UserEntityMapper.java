@@ -19,12 +19,22 @@ import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean
 @ConditionalOnMissingBean // prevent IntelliJ warning about duplicate beans
 public interface UserEntityMapper {
     User fromEntity(UserEntity source);
+
+    /**
+     * Converts a domain model to a JPA entity.
+     * The version is managed by the data store; an expected version of the domain model is passed to the
+     * update separately.
+     *
+     * @param source the domain model to convert; may be null
+     * @return the JPA entity, or null if source is null
+     */
+    @Mapping(target = "version", ignore = true)
     UserEntity toEntity(User source);
 
     /**
      * Updates an existing JPA entity with data from the domain model.
      * This method is intended for update operations where the entity already exists.
-     * JPA-managed fields (id, createdAt, updatedAt) are preserved and not overwritten.
+     * JPA-managed fields (id, createdAt, updatedAt, version) are preserved and not overwritten.
      *
      * @param source the domain model containing the new data; must not be null
      * @param target the existing JPA entity to update; must not be null
@@ -32,5 +42,6 @@ public interface UserEntityMapper {
     @Mapping(target = "id", ignore = true)
     @Mapping(target = "createdAt", ignore = true)
     @Mapping(target = "updatedAt", ignore = true)
+    @Mapping(target = "version", ignore = true)
     void updateEntity(User source, @MappingTarget UserEntity target);
 }
@@ -0,0 +1,23 @@
+package de.seuhd.campuscoffee.data.persistence;
+
+/**
+ * Native query that computes the version of a table (e.g., all POS) from the change IDs of its rows, i.e., the IDs of
+ * the transactions that last changed them (see migration V9). Repositories append the name of the table and
+ * {@code ") c"}.
+ * <p>
+ * The version consists of the latest change ID, the number of rows, and the transactions with a lower ID that are
+ * still in progress: any committed change increases the latest change ID, removes a transaction from the ones in
+ * progress, or (for deletions) decreases the number of rows, even if transactions commit in a different order than
+ * their IDs. Reading the version neither locks anything nor writes, so it neither blocks writers nor is blocked by them.
+ */
+final class CollectionVersionQuery {
+    static final String SELECT_FROM = """
+            SELECT concat(c.max_change_id, '.', c.row_count, (
+                SELECT string_agg('.' || s.xid, '' ORDER BY s.xid)
+                FROM (SELECT x::text::bigint AS xid FROM pg_snapshot_xip(pg_current_snapshot()) x) s
+                WHERE s.xid < c.max_change_id))
+            FROM (SELECT coalesce(max(change_id), 0) AS max_change_id, count(*) AS row_count FROM\s""";
+
+    private CollectionVersionQuery() {
+    }
+}
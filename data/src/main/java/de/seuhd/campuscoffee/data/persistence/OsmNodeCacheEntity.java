@@ -0,0 +1,45 @@
+package de.seuhd.campuscoffee.data.persistence;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * Database entity for a cached OpenStreetMap node.
+ * Stores the latest fetched version of the node together with the ETag of the response it was fetched with.
+ */
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "osm_node_cache")
+public class OsmNodeCacheEntity {
+    @Id
+    @Column(name = "node_id")
+    private Long nodeId;
+
+    private Long version;
+
+    private Double latitude;
+
+    private Double longitude;
+
+    private String etag;
+
+    @JdbcTypeCode(SqlTypes.JSON)
+    private Map<String, String> tags;
+
+    @Column(name = "fetched_at")
+    private LocalDateTime fetchedAt;
+}
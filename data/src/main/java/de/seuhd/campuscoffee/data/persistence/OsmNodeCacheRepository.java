@@ -0,0 +1,39 @@
+package de.seuhd.campuscoffee.data.persistence;
+
+import jakarta.transaction.Transactional;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+
+/**
+ * Repository for persisting cached OpenStreetMap nodes.
+ */
+public interface OsmNodeCacheRepository extends JpaRepository<OsmNodeCacheEntity, Long> {
+    /**
+     * Inserts or replaces the cached node in a single statement (instead of a select followed by an insert or
+     * update, as with save() for entities with assigned IDs).
+     */
+    @Modifying
+    @Transactional
+    @Query(value = """
+            INSERT INTO osm_node_cache (node_id, version, latitude, longitude, etag, tags, fetched_at)
+            VALUES (:nodeId, :version, :latitude, :longitude, :etag, CAST(:tags AS jsonb), :fetchedAt)
+            ON CONFLICT (node_id) DO UPDATE SET
+                version = EXCLUDED.version,
+                latitude = EXCLUDED.latitude,
+                longitude = EXCLUDED.longitude,
+                etag = EXCLUDED.etag,
+                tags = EXCLUDED.tags,
+                fetched_at = EXCLUDED.fetched_at
+            """, nativeQuery = true)
+    void upsert(Long nodeId, Long version, Double latitude, Double longitude, String etag, String tags,
+                LocalDateTime fetchedAt);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE OsmNodeCacheEntity n SET n.fetchedAt = :fetchedAt WHERE n.nodeId IN :nodeIds")
+    void updateFetchedAt(Collection<Long> nodeIds, LocalDateTime fetchedAt);
+}
@@ -0,0 +1,59 @@
+package de.seuhd.campuscoffee.data.persistence;
+
+import de.seuhd.campuscoffee.domain.model.ChangeType;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Database entity for a change of a POS or user that has not been relayed to downstream systems yet.
+ * Written in the transaction of the change, so that a change is recorded if and only if it is committed.
+ */
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "outbox_events")
+public class OutboxEventEntity {
+    /**
+     * Number of IDs Hibernate reserves per sequence call; must match the increment of outbox_events_seq.
+     * Allocating IDs in blocks allows the events of a batch upsert to be inserted in JDBC batches.
+     */
+    public static final int ID_ALLOCATION_SIZE = 50;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "outbox_events_sequence_generator")
+    @SequenceGenerator(name = "outbox_events_sequence_generator", sequenceName = "outbox_events_seq",
+            allocationSize = ID_ALLOCATION_SIZE)
+    private Long id;
+
+    @Column(name = "aggregate_type")
+    private String aggregateType;
+
+    @Column(name = "aggregate_id")
+    private Long aggregateId;
+
+    @Column(name = "aggregate_version")
+    private Long aggregateVersion;
+
+    @Enumerated(EnumType.STRING)
+    private ChangeType type;
+
+    private String payload;
+
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+}
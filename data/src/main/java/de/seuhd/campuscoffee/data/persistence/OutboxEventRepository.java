@@ -0,0 +1,22 @@
+package de.seuhd.campuscoffee.data.persistence;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+
+import java.util.List;
+
+/**
+ * Repository for persisting outbox events.
+ */
+public interface OutboxEventRepository extends JpaRepository<OutboxEventEntity, Long> {
+    /**
+     * Retrieves and locks the oldest outbox events. Events that are locked by another transaction (i.e., that another
+     * relay is currently sending) are skipped instead of waited for.
+     * Must be called in the transaction that removes the events after sending them.
+     *
+     * @param limit the maximum number of events
+     * @return the events ordered by ID
+     */
+    @Query(value = "SELECT * FROM outbox_events ORDER BY id LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<OutboxEventEntity> findOldestForUpdateSkipLocked(int limit);
+}
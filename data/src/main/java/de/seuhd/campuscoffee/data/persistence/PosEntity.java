@@ -23,10 +23,15 @@ import java.time.ZoneId;
 public class PosEntity {
     public static final String NAME_COLUMN = "name";
     public static final String NAME_CONSTRAINT = "pos_name_key";
+    /**
+     * Number of IDs Hibernate reserves per sequence call; must match the increment of pos_seq.
+     * Allocating IDs in blocks avoids one sequence round trip per insert and allows inserts to be batched.
+     */
+    public static final int ID_ALLOCATION_SIZE = 50;
 
     @Id
     @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "pos_sequence_generator")
-    @SequenceGenerator(name = "pos_sequence_generator", sequenceName = "pos_seq", allocationSize = 1)
+    @SequenceGenerator(name = "pos_sequence_generator", sequenceName = "pos_seq", allocationSize = ID_ALLOCATION_SIZE)
     private Long id;
 
     @Column(name = "created_at")
@@ -35,6 +40,13 @@ public class PosEntity {
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
 
+    /**
+     * Incremented by Hibernate on every update of the managed entity and by the native updates of the repository,
+     * which only update the row if it still has the version the caller expects.
+     */
+    @Version
+    private Long version;
+
     @Column(name = NAME_COLUMN, unique = true)
     private String name;
 
@@ -49,6 +61,30 @@ public class PosEntity {
     @Embedded
     private AddressEntity address;
 
+    @Column(name = "osm_node_id")
+    private Long osmNodeId;
+
+    @Column(name = "osm_version")
+    private Long osmVersion;
+
+    private Double latitude;
+
+    private Double longitude;
+
+    /**
+     * Time of the last OSM sync that checked this POS (see PosRepository#updateOsmSyncedAt); not part of the domain
+     * model and not changed by regular updates.
+     */
+    @Column(name = "osm_synced_at")
+    private LocalDateTime osmSyncedAt;
+
+    /**
+     * ID of the transaction that last changed this POS, set by a database trigger (see migration V9); only read in
+     * queries and never written by the application.
+     */
+    @Column(name = "change_id", insertable = false, updatable = false)
+    private Long changeId;
+
     /**
      * JPA lifecycle callback: set timestamps before persisting a new entity.
      * This ensures timestamps reflect actual database operation time.
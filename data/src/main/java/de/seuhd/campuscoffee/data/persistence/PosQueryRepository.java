@@ -0,0 +1,64 @@
+package de.seuhd.campuscoffee.data.persistence;
+
+import org.jspecify.annotations.Nullable;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Repository fragment for POS queries with dynamic filters that read {@link PosRow} projections.
+ * Spring Data's specification executor only returns managed entities, so the query is built with the Criteria API.
+ * Also hosts the single-statement update and upsert, which return the written rows as projections for the same reason.
+ */
+public interface PosQueryRepository {
+    /**
+     * Retrieves the POS that match the given specification as read-only rows in a single query.
+     *
+     * @param specification the filters to apply
+     * @param sort          the sort order; properties of the address are addressed as, e.g., "address.city"
+     * @param limit         the maximum number of rows to return
+     * @return the matching rows in the given order
+     */
+    List<PosRow> findRows(Specification<PosEntity> specification, Sort sort, Limit limit);
+
+    /**
+     * Updates an existing POS in a single statement that also returns the updated row ({@code UPDATE ... RETURNING}),
+     * so that neither an existence check nor a read of the entity is needed before the update, and nothing needs to
+     * be flushed afterward.
+     * Like {@code PosEntityMapper#updateEntity}, the creation time and the OSM sync time are kept, and the link to the
+     * OSM node and the coordinates are only overwritten if the given values have them. The version is incremented;
+     * with an expected version, the POS is only updated if it still has this version (optimistic locking).
+     * The row is returned as a projection, because a managed instance of the POS in the persistence context would
+     * otherwise be returned with its old state. Must be called in a transaction.
+     *
+     * @param id              the ID of the POS to update
+     * @param expectedVersion the version the POS must have to be updated; null to update any version
+     * @param values          the new values of the POS (e.g., mapped from the domain model); the ID, version, and
+     *                        timestamps are ignored
+     * @param updatedAt       the time of the update
+     * @return the updated row, or empty if no POS with the given ID and expected version exists
+     */
+    Optional<PosRow> updateReturningRow(Long id, @Nullable Long expectedVersion, PosEntity values,
+                                        LocalDateTime updatedAt);
+
+    /**
+     * Creates or updates POS by their unique name in a single statement (an {@code UPDATE} of the existing names and
+     * an {@code INSERT ... ON CONFLICT (name) DO UPDATE} of the others, both {@code RETURNING} the rows), so that a
+     * repeated import neither needs to look up the names first nor fails with a constraint violation.
+     * A POS that already exists keeps its ID and creation time, and is otherwise updated like in
+     * {@link #updateReturningRow} without an expected version. Only new POS draw IDs from the sequence: they take
+     * blocks of {@link PosEntity#ID_ALLOCATION_SIZE} IDs like Hibernate does, so that both never hand out the same ID,
+     * and updating existing POS uses up no IDs.
+     * Must be called in a transaction.
+     *
+     * @param values    the POS to write (e.g., mapped from the domain model); the IDs, versions, and timestamps are
+     *                  ignored, and the names must be distinct, since a statement cannot update the same row twice
+     * @param updatedAt the time of the upsert, also used as the creation time of new POS
+     * @return the written rows, in no particular order
+     */
+    List<PosRow> upsertAllByNameReturningRows(List<PosEntity> values, LocalDateTime updatedAt);
+}
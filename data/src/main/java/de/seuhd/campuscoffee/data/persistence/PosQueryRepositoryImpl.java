@@ -0,0 +1,253 @@
+package de.seuhd.campuscoffee.data.persistence;
+
+import de.seuhd.campuscoffee.domain.model.CampusType;
+import de.seuhd.campuscoffee.domain.model.PosType;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.query.NativeQuery;
+import org.hibernate.type.StandardBasicTypes;
+import org.jspecify.annotations.Nullable;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Implementation of the {@link PosQueryRepository} fragment, picked up by Spring Data through its name.
+ */
+@RequiredArgsConstructor
+class PosQueryRepositoryImpl implements PosQueryRepository {
+    // same columns as PosRepository#SELECT_ROW
+    private static final String RETURNING_ROW = """
+            RETURNING id, created_at, updated_at, version, name, description, type, campus, street, house_number,
+                house_number_suffix, postal_code, city, osm_node_id, osm_version, latitude, longitude
+            """;
+    private static final String UPDATE_RETURNING_ROW = """
+            UPDATE pos SET
+                updated_at = :updatedAt,
+                version = version + 1,
+                name = :name,
+                description = :description,
+                type = :type,
+                campus = :campus,
+                street = :street,
+                house_number = :houseNumber,
+                house_number_suffix = :houseNumberSuffix,
+                postal_code = :postalCode,
+                city = :city,
+                osm_node_id = COALESCE(:osmNodeId, osm_node_id),
+                osm_version = COALESCE(:osmVersion, osm_version),
+                latitude = COALESCE(:latitude, latitude),
+                longitude = COALESCE(:longitude, longitude)
+            WHERE id = :id AND version = COALESCE(:expectedVersion, version)
+            """ + RETURNING_ROW;
+    private static final String UPSERT_BY_NAME_INPUT = """
+            WITH input (ord, name, description, type, campus, street, house_number, house_number_suffix, postal_code,
+                city, osm_node_id, osm_version, latitude, longitude) AS (
+            VALUES
+            """;
+    // one row per POS, with the parameters named like in UPDATE_RETURNING_ROW plus the index of the POS
+    private static final String UPSERT_BY_NAME_VALUES = """
+            (%1$d, :name%1$d, :description%1$d, :type%1$d, :campus%1$d, :street%1$d, :houseNumber%1$d,
+                :houseNumberSuffix%1$d, :postalCode%1$d, :city%1$d, :osmNodeId%1$d, :osmVersion%1$d, :latitude%1$d,
+                :longitude%1$d)""";
+    // existing POS are updated without IDs; sequence values in VALUES or INSERT ... ON CONFLICT would be drawn for
+    // every row, and each one reserves a whole block (see PosEntity#ID_ALLOCATION_SIZE), so only the missing POS
+    // draw IDs, in blocks they share like Hibernate does; the names are still checked on insert, since a concurrent
+    // transaction may have created a missing POS in the meantime
+    private static final String UPSERT_BY_NAME_WRITE = """
+            ),
+            updated AS (
+                UPDATE pos SET
+                    updated_at = :updatedAt,
+                    version = pos.version + 1,
+                    description = input.description,
+                    type = input.type,
+                    campus = input.campus,
+                    street = input.street,
+                    house_number = input.house_number,
+                    house_number_suffix = input.house_number_suffix,
+                    postal_code = input.postal_code,
+                    city = input.city,
+                    osm_node_id = COALESCE(input.osm_node_id, pos.osm_node_id),
+                    osm_version = COALESCE(input.osm_version, pos.osm_version),
+                    latitude = COALESCE(input.latitude, pos.latitude),
+                    longitude = COALESCE(input.longitude, pos.longitude)
+                FROM input
+                WHERE pos.name = input.name
+                RETURNING pos.id, pos.created_at, pos.updated_at, pos.version, pos.name, pos.description, pos.type,
+                    pos.campus, pos.street, pos.house_number, pos.house_number_suffix, pos.postal_code, pos.city,
+                    pos.osm_node_id, pos.osm_version, pos.latitude, pos.longitude
+            ),
+            missing AS (
+                SELECT input.*, row_number() OVER (ORDER BY input.ord) - 1 AS n
+                FROM input
+                WHERE NOT EXISTS (SELECT FROM pos WHERE pos.name = input.name)
+            ),
+            id_blocks AS (
+                SELECT block, nextval('pos_seq') AS first_id
+                FROM generate_series(0, (SELECT (count(*) + %1$d - 1) / %1$d FROM missing) - 1) AS block
+            ),
+            inserted AS (
+                INSERT INTO pos (id, created_at, updated_at, name, description, type, campus, street, house_number,
+                    house_number_suffix, postal_code, city, osm_node_id, osm_version, latitude, longitude)
+                SELECT id_blocks.first_id + mod(missing.n, %1$d), :updatedAt, :updatedAt, missing.name,
+                    missing.description, missing.type, missing.campus, missing.street, missing.house_number,
+                    missing.house_number_suffix, missing.postal_code, missing.city, missing.osm_node_id,
+                    missing.osm_version, missing.latitude, missing.longitude
+                FROM missing JOIN id_blocks ON id_blocks.block = missing.n / %1$d
+                ON CONFLICT (name) DO UPDATE SET
+                    updated_at = EXCLUDED.updated_at,
+                    version = pos.version + 1,
+                    description = EXCLUDED.description,
+                    type = EXCLUDED.type,
+                    campus = EXCLUDED.campus,
+                    street = EXCLUDED.street,
+                    house_number = EXCLUDED.house_number,
+                    house_number_suffix = EXCLUDED.house_number_suffix,
+                    postal_code = EXCLUDED.postal_code,
+                    city = EXCLUDED.city,
+                    osm_node_id = COALESCE(EXCLUDED.osm_node_id, pos.osm_node_id),
+                    osm_version = COALESCE(EXCLUDED.osm_version, pos.osm_version),
+                    latitude = COALESCE(EXCLUDED.latitude, pos.latitude),
+                    longitude = COALESCE(EXCLUDED.longitude, pos.longitude)
+            """ + RETURNING_ROW + """
+            )
+            SELECT * FROM updated
+            UNION ALL
+            SELECT * FROM inserted
+            """;
+
+    private final EntityManager entityManager;
+
+    @Override
+    public List<PosRow> findRows(Specification<PosEntity> specification, Sort sort, Limit limit) {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<PosRow> query = criteriaBuilder.createQuery(PosRow.class);
+        Root<PosEntity> pos = query.from(PosEntity.class);
+        Path<AddressEntity> address = pos.get("address");
+
+        // same columns as PosRepository#SELECT_ROW
+        query.select(criteriaBuilder.construct(PosRow.class,
+                pos.get("id"), pos.get("createdAt"), pos.get("updatedAt"), pos.get("version"), pos.get("name"),
+                pos.get("description"),
+                pos.get("type"), pos.get("campus"), address.get("street"), address.get("houseNumber"),
+                address.get("houseNumberSuffix"), address.get("postalCode"), address.get("city"),
+                pos.get("osmNodeId"), pos.get("osmVersion"), pos.get("latitude"), pos.get("longitude")));
+        Predicate predicate = specification.toPredicate(pos, query, criteriaBuilder);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.orderBy(QueryUtils.toOrders(sort, pos, criteriaBuilder));
+
+        TypedQuery<PosRow> typedQuery = entityManager.createQuery(query);
+        if (limit.isLimited()) {
+            typedQuery.setMaxResults(limit.max());
+        }
+        return typedQuery.getResultList();
+    }
+
+    @Override
+    public Optional<PosRow> updateReturningRow(Long id, @Nullable Long expectedVersion, PosEntity values,
+                                               LocalDateTime updatedAt) {
+        @SuppressWarnings("unchecked")
+        NativeQuery<Object[]> query = entityManager.createNativeQuery(UPDATE_RETURNING_ROW).unwrap(NativeQuery.class);
+        query.setParameter("id", id, StandardBasicTypes.LONG)
+                .setParameter("expectedVersion", expectedVersion, StandardBasicTypes.LONG)
+                .setParameter("updatedAt", updatedAt, StandardBasicTypes.LOCAL_DATE_TIME);
+        setValueParameters(query, values, "");
+        return getRows(query).stream().findFirst();
+    }
+
+    @Override
+    public List<PosRow> upsertAllByNameReturningRows(List<PosEntity> values, LocalDateTime updatedAt) {
+        if (values.isEmpty()) {
+            return List.of();
+        }
+        String sql = IntStream.range(0, values.size())
+                .mapToObj(UPSERT_BY_NAME_VALUES::formatted)
+                .collect(Collectors.joining(",\n", UPSERT_BY_NAME_INPUT,
+                        "\n" + UPSERT_BY_NAME_WRITE.formatted(PosEntity.ID_ALLOCATION_SIZE)));
+        @SuppressWarnings("unchecked")
+        NativeQuery<Object[]> query = entityManager.createNativeQuery(sql).unwrap(NativeQuery.class);
+        query.setParameter("updatedAt", updatedAt, StandardBasicTypes.LOCAL_DATE_TIME);
+        for (int i = 0; i < values.size(); i++) {
+            setValueParameters(query, values.get(i), String.valueOf(i));
+        }
+        return getRows(query);
+    }
+
+    /**
+     * Binds the columns of a POS that both the update and the upsert write.
+     * Parameters are typed explicitly, since null values have no type the database could infer.
+     *
+     * @param query  the query to bind the parameters of
+     * @param values the values of the POS
+     * @param suffix the suffix of the parameter names (e.g., the index of the POS in a multi-row statement)
+     */
+    private static void setValueParameters(NativeQuery<Object[]> query, PosEntity values, String suffix) {
+        AddressEntity address = values.getAddress();
+        query.setParameter("name" + suffix, values.getName(), StandardBasicTypes.STRING)
+                .setParameter("description" + suffix, values.getDescription(), StandardBasicTypes.STRING)
+                .setParameter("type" + suffix, values.getType().name(), StandardBasicTypes.STRING)
+                .setParameter("campus" + suffix, values.getCampus().name(), StandardBasicTypes.STRING)
+                .setParameter("street" + suffix, address.getStreet(), StandardBasicTypes.STRING)
+                .setParameter("houseNumber" + suffix, address.getHouseNumber(), StandardBasicTypes.INTEGER)
+                .setParameter("houseNumberSuffix" + suffix, address.getHouseNumberSuffix(),
+                        StandardBasicTypes.CHARACTER)
+                .setParameter("postalCode" + suffix, address.getPostalCode(), StandardBasicTypes.INTEGER)
+                .setParameter("city" + suffix, address.getCity(), StandardBasicTypes.STRING)
+                .setParameter("osmNodeId" + suffix, values.getOsmNodeId(), StandardBasicTypes.LONG)
+                .setParameter("osmVersion" + suffix, values.getOsmVersion(), StandardBasicTypes.LONG)
+                .setParameter("latitude" + suffix, values.getLatitude(), StandardBasicTypes.DOUBLE)
+                .setParameter("longitude" + suffix, values.getLongitude(), StandardBasicTypes.DOUBLE);
+    }
+
+    /**
+     * Executes a statement ending with {@link #RETURNING_ROW} and maps the returned rows.
+     * The columns are typed explicitly, like the parameters.
+     *
+     * @param query the statement to execute
+     * @return the returned rows
+     */
+    private static List<PosRow> getRows(NativeQuery<Object[]> query) {
+        List<Object[]> rows = query
+                .addScalar("id", StandardBasicTypes.LONG)
+                .addScalar("created_at", StandardBasicTypes.LOCAL_DATE_TIME)
+                .addScalar("updated_at", StandardBasicTypes.LOCAL_DATE_TIME)
+                .addScalar("version", StandardBasicTypes.LONG)
+                .addScalar("name", StandardBasicTypes.STRING)
+                .addScalar("description", StandardBasicTypes.STRING)
+                .addScalar("type", StandardBasicTypes.STRING)
+                .addScalar("campus", StandardBasicTypes.STRING)
+                .addScalar("street", StandardBasicTypes.STRING)
+                .addScalar("house_number", StandardBasicTypes.INTEGER)
+                .addScalar("house_number_suffix", StandardBasicTypes.CHARACTER)
+                .addScalar("postal_code", StandardBasicTypes.INTEGER)
+                .addScalar("city", StandardBasicTypes.STRING)
+                .addScalar("osm_node_id", StandardBasicTypes.LONG)
+                .addScalar("osm_version", StandardBasicTypes.LONG)
+                .addScalar("latitude", StandardBasicTypes.DOUBLE)
+                .addScalar("longitude", StandardBasicTypes.DOUBLE)
+                .getResultList();
+        return rows.stream()
+                .map(row -> new PosRow((Long) row[0], (LocalDateTime) row[1], (LocalDateTime) row[2],
+                        (Long) row[3], (String) row[4], (String) row[5], PosType.valueOf((String) row[6]),
+                        CampusType.valueOf((String) row[7]), (String) row[8], (Integer) row[9], (Character) row[10],
+                        (Integer) row[11], (String) row[12], (Long) row[13], (Long) row[14], (Double) row[15],
+                        (Double) row[16]))
+                .toList();
+    }
+}
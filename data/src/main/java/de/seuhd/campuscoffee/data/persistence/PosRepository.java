@@ -1,25 +1,214 @@
 package de.seuhd.campuscoffee.data.persistence;
 
+import jakarta.persistence.QueryHint;
 import jakarta.transaction.Transactional;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * Repository for persisting point-of-sale (POS) entities.
  */
-public interface PosRepository extends JpaRepository<PosEntity, Long>, ResettableSequenceRepository {
-    Optional<PosEntity> findByName(String name);
+public interface PosRepository extends JpaRepository<PosEntity, Long>, PosQueryRepository {
+    /**
+     * Number of rows the JDBC driver fetches per round trip when streaming POS entities.
+     */
+    String STREAM_FETCH_SIZE = "500";
+    /**
+     * Select clause of the queries that read POS as {@link PosRow} projections instead of managed entities.
+     */
+    String SELECT_ROW = """
+            SELECT new de.seuhd.campuscoffee.data.persistence.PosRow(
+                p.id, p.createdAt, p.updatedAt, p.version, p.name, p.description, p.type, p.campus,
+                p.address.street, p.address.houseNumber, p.address.houseNumberSuffix, p.address.postalCode,
+                p.address.city, p.osmNodeId, p.osmVersion, p.latitude, p.longitude)
+            FROM PosEntity p
+            """;
+    /**
+     * Mean earth radius in meters, used for great-circle distances.
+     */
+    double EARTH_RADIUS_METERS = 6_371_008.8;
+    /**
+     * Great-circle distance in meters between a POS and the location (:latitude, :longitude) (haversine formula).
+     */
+    String DISTANCE = "(2 * " + EARTH_RADIUS_METERS + """
+             * asin(sqrt(
+                power(sin(radians(p.latitude - :latitude) / 2), 2)
+                + cos(radians(:latitude)) * cos(radians(p.latitude)) * power(sin(radians(p.longitude - :longitude) / 2), 2))))
+            """;
+
+    List<PosEntity> findByNameIn(Collection<String> names);
+
+    /**
+     * Retrieves all POS as read-only rows, ordered by ID.
+     *
+     * @return all POS rows ordered by ID
+     */
+    @Query(SELECT_ROW + "ORDER BY p.id")
+    List<PosRow> findAllRows();
+
+    /**
+     * Retrieves the POS with an ID greater than the given one as read-only rows, ordered by ID (keyset pagination).
+     * The primary key index makes the cost of a page independent of its position in the table.
+     *
+     * @param id    the exclusive lower bound of the ID
+     * @param limit the maximum number of rows to return
+     * @return the matching rows ordered by ID
+     */
+    @Query(SELECT_ROW + "WHERE p.id > :id ORDER BY p.id")
+    List<PosRow> findRowsByIdGreaterThan(Long id, Limit limit);
+
+    /**
+     * Streams all POS as read-only rows ordered by ID using a server-side cursor.
+     * Must be called within a transaction and the returned stream must be closed after use.
+     *
+     * @return a stream of all POS rows ordered by ID
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE))
+    @Query(SELECT_ROW + "ORDER BY p.id")
+    Stream<PosRow> streamAllRows();
+
+    /**
+     * Retrieves the POS created or updated by transactions with at least the given ID as read-only rows, ordered by
+     * ID. The index on the change ID (see migration V9) makes the cost depend on the number of changed POS only.
+     *
+     * @param changeId the inclusive lower bound of the change ID
+     * @return the matching rows ordered by ID
+     */
+    @Query(SELECT_ROW + "WHERE p.changeId >= :changeId ORDER BY p.id")
+    List<PosRow> findRowsByChangeIdAtLeast(long changeId);
+
+    /**
+     * Retrieves the lowest ID of the transactions that are still in progress, or the ID of the next transaction if
+     * there are none. Every change that is not visible yet will have at least this change ID, no matter in which
+     * order the transactions commit.
+     *
+     * @return the lowest change ID that is not visible yet
+     */
+    @Query(value = "SELECT pg_snapshot_xmin(pg_current_snapshot())::text::bigint", nativeQuery = true)
+    long findLowestInvisibleChangeId();
+
+    /**
+     * Computes the current version of the POS table (see {@link CollectionVersionQuery}).
+     * The index on the change IDs (see migration V9) makes this an index-only scan.
+     *
+     * @return the version of the POS table
+     */
+    @Query(value = CollectionVersionQuery.SELECT_FROM + "pos) c", nativeQuery = true)
+    String findCollectionVersion();
+
+    /**
+     * Deletes the POS with the given ID in one statement, so that the returned version is the last version of the
+     * POS even if it is updated concurrently.
+     *
+     * @param id the ID of the POS to delete
+     * @return the version of the deleted POS, or empty if there is no POS with this ID
+     */
+    @Query(value = "DELETE FROM pos WHERE id = :id RETURNING version", nativeQuery = true)
+    Optional<Long> deleteByIdReturningVersion(Long id);
+
+    /**
+     * Retrieves the POS with the given IDs as read-only rows, in no particular order.
+     *
+     * @param ids the IDs of the POS to retrieve
+     * @return the rows of the POS that exist
+     */
+    @Query(SELECT_ROW + "WHERE p.id IN :ids")
+    List<PosRow> findRowsByIdIn(Collection<Long> ids);
+
+    /**
+     * Retrieves the POS with the given ID as a read-only row.
+     *
+     * @param id the ID of the POS
+     * @return the row of the POS, or empty if there is no POS with this ID
+     */
+    @Query(SELECT_ROW + "WHERE p.id = :id")
+    Optional<PosRow> findRowById(Long id);
+
+    /**
+     * Retrieves the POS with the given name as a read-only row.
+     *
+     * @param name the name of the POS
+     * @return the row of the POS, or empty if there is no POS with this name
+     */
+    @Query(SELECT_ROW + "WHERE p.name = :name")
+    Optional<PosRow> findRowByName(String name);
+
+    /**
+     * Retrieves the POS within the given distance of a location as read-only rows, nearest first.
+     * The bounding box of the circle around the location, which the caller computes, narrows the POS down using the
+     * index on the coordinates (see migration V8), so only the POS within the box are compared by distance.
+     *
+     * @param latitude     the latitude of the location in degrees
+     * @param longitude    the longitude of the location in degrees
+     * @param minLatitude  the southern edge of the bounding box
+     * @param maxLatitude  the northern edge of the bounding box
+     * @param minLongitude the western edge of the bounding box
+     * @param maxLongitude the eastern edge of the bounding box
+     * @param radius       the maximum distance in meters
+     * @param limit        the maximum number of rows to return
+     * @return the matching rows ordered by distance, then by ID
+     */
+    @Query(SELECT_ROW + """
+            WHERE p.latitude BETWEEN :minLatitude AND :maxLatitude
+              AND p.longitude BETWEEN :minLongitude AND :maxLongitude
+              AND """ + DISTANCE + " <= :radius ORDER BY " + DISTANCE + ", p.id")
+    List<PosRow> findRowsNearby(double latitude, double longitude, double minLatitude, double maxLatitude,
+                                double minLongitude, double maxLongitude, double radius, Limit limit);
+
+    /**
+     * Searches POS names and descriptions and returns the IDs of the hits, best hits first.
+     * A POS is a hit if its full-text search vector matches the query (web search syntax, e.g., quoted phrases or
+     * "-word" to exclude a word), or if the query is similar to a word of its name or description (trigram word
+     * similarity, which tolerates typos). Hits are ranked by the full-text rank plus the similarity to the name.
+     * All three conditions are backed by GIN indexes (see migration V7).
+     *
+     * @param query  the search query
+     * @param offset the number of hits to skip
+     * @param limit  the maximum number of hits to return
+     * @return the IDs of the hits, best hits first
+     */
+    @Query(value = """
+            SELECT p.id
+            FROM pos p, websearch_to_tsquery('simple', :query) tsquery
+            WHERE p.search_vector @@ tsquery OR :query <% p.name OR :query <% p.description
+            ORDER BY ts_rank(p.search_vector, tsquery) + word_similarity(:query, p.name) DESC, p.id
+            LIMIT :limit OFFSET :offset""", nativeQuery = true)
+    List<Long> searchIds(String query, int offset, int limit);
+
+    /**
+     * Retrieves the POS imported from OpenStreetMap that have not been synced with their source node since the
+     * given time, ordered by ID (keyset pagination). POS that have never been synced count as synced when they
+     * were last updated.
+     *
+     * @param id           the exclusive lower bound of the ID
+     * @param syncedBefore the exclusive upper bound of the last sync time
+     * @param limit        the maximum number of rows to return
+     * @return the matching rows ordered by ID
+     */
+    @Query(SELECT_ROW + """
+            WHERE p.osmNodeId IS NOT NULL AND p.id > :id AND COALESCE(p.osmSyncedAt, p.updatedAt) < :syncedBefore
+            ORDER BY p.id""")
+    List<PosRow> findOsmSyncCandidates(Long id, LocalDateTime syncedBefore, Limit limit);
 
     /**
-     * Resets the POS ID sequence to start from 1.
-     * Note: This is primarily intended for testing purposes to ensure consistent IDs after clearing the table.
+     * Sets the time of the last OSM sync of the given POS.
+     * This is a bulk update, so it does not change the update timestamp of the POS.
+     *
+     * @param ids      the IDs of the synced POS
+     * @param syncedAt the time of the sync
      */
-    @Override
     @Modifying
     @Transactional
-    @Query(value = "ALTER SEQUENCE pos_seq RESTART WITH 1", nativeQuery = true)
-    void resetSequence();
+    @Query("UPDATE PosEntity p SET p.osmSyncedAt = :syncedAt WHERE p.id IN :ids")
+    void updateOsmSyncedAt(Collection<Long> ids, LocalDateTime syncedAt);
 }
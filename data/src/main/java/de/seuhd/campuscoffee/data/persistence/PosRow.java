@@ -0,0 +1,35 @@
+package de.seuhd.campuscoffee.data.persistence;
+
+import de.seuhd.campuscoffee.domain.model.CampusType;
+import de.seuhd.campuscoffee.domain.model.PosType;
+
+import java.time.LocalDateTime;
+
+/**
+ * Read-only projection of a POS row for queries that only read POS (see {@link PosRepository#SELECT_ROW}).
+ * In contrast to {@link PosEntity}, Hibernate neither manages nor snapshots these objects, so reading many POS
+ * does not fill the persistence context.
+ * <p>
+ * Rows are mapped to domain {@code Pos} records, which the API then maps to its DTOs, instead of directly to DTOs:
+ * the data and API modules may only be accessed by the application (see {@code ArchitectureTests}), so neither can
+ * know the types of the other, and the ports of the domain return domain records.
+ */
+public record PosRow(
+        Long id,
+        LocalDateTime createdAt,
+        LocalDateTime updatedAt,
+        Long version,
+        String name,
+        String description,
+        PosType type,
+        CampusType campus,
+        String street,
+        Integer houseNumber,
+        Character houseNumberSuffix,
+        Integer postalCode,
+        String city,
+        Long osmNodeId,
+        Long osmVersion,
+        Double latitude,
+        Double longitude
+) {}
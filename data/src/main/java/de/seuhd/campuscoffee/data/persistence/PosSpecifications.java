@@ -0,0 +1,35 @@
+package de.seuhd.campuscoffee.data.persistence;
+
+import de.seuhd.campuscoffee.domain.model.CampusType;
+import de.seuhd.campuscoffee.domain.model.PosType;
+import org.springframework.data.jpa.domain.Specification;
+
+/**
+ * Filters for POS queries (see {@link PosQueryRepository}).
+ * Each filter is backed by an index on the filtered column and the ID (see migration V6).
+ */
+public final class PosSpecifications {
+    private PosSpecifications() {
+    }
+
+    public static Specification<PosEntity> hasCampus(CampusType campus) {
+        return (pos, query, criteriaBuilder) -> criteriaBuilder.equal(pos.get("campus"), campus);
+    }
+
+    public static Specification<PosEntity> hasType(PosType type) {
+        return (pos, query, criteriaBuilder) -> criteriaBuilder.equal(pos.get("type"), type);
+    }
+
+    public static Specification<PosEntity> hasPostalCode(Integer postalCode) {
+        return (pos, query, criteriaBuilder) ->
+                criteriaBuilder.equal(pos.get("address").get("postalCode"), postalCode);
+    }
+
+    public static Specification<PosEntity> hasCity(String city) {
+        return (pos, query, criteriaBuilder) -> criteriaBuilder.equal(pos.get("address").get("city"), city);
+    }
+
+    public static Specification<PosEntity> hasIdGreaterThan(Long id) {
+        return (pos, query, criteriaBuilder) -> criteriaBuilder.greaterThan(pos.<Long>get("id"), id);
+    }
+}
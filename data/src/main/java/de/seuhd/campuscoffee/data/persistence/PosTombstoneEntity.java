@@ -0,0 +1,38 @@
+package de.seuhd.campuscoffee.data.persistence;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Database entity for a deleted POS.
+ * Deleted rows cannot be found by their change ID, so clients that sync the changes of the POS since a given token
+ * learn about deletions from these tombstones. POS IDs are never reused, so a tombstone cannot hide a new POS.
+ */
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "pos_tombstones")
+public class PosTombstoneEntity {
+    @Id
+    @Column(name = "pos_id")
+    private Long posId;
+
+    @Column(name = "deleted_at")
+    private LocalDateTime deletedAt;
+
+    /**
+     * ID of the transaction that deleted the POS, set by a database trigger (see migration V10).
+     */
+    @Column(name = "change_id", insertable = false, updatable = false)
+    private Long changeId;
+}
@@ -0,0 +1,80 @@
+package de.seuhd.campuscoffee.data.persistence;
+
+import jakarta.transaction.Transactional;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Repository for persisting the tombstones of deleted POS.
+ */
+public interface PosTombstoneRepository extends JpaRepository<PosTombstoneEntity, Long> {
+    /**
+     * Retrieves the IDs of the POS deleted by transactions with at least the given ID, using the index on the change
+     * ID (see migration V10).
+     *
+     * @param changeId the inclusive lower bound of the change ID
+     * @return the IDs of the deleted POS ordered by ID
+     */
+    @Query("SELECT t.posId FROM PosTombstoneEntity t WHERE t.changeId >= :changeId ORDER BY t.posId")
+    List<Long> findPosIdsByChangeIdAtLeast(long changeId);
+
+    /**
+     * Retrieves the lowest change ID that is still a valid sync token, i.e., every tombstone with at least this
+     * change ID still exists (see {@link #deleteDeletedBefore}).
+     *
+     * @return the lowest valid sync token
+     */
+    @Query(value = "SELECT min_change_id FROM pos_sync_horizon", nativeQuery = true)
+    long findSyncHorizon();
+
+    /**
+     * Removes the tombstones of POS deleted before the given time and raises the sync horizon above their change
+     * IDs in a single statement, so that both see the same tombstones.
+     *
+     * @param deletedAt the exclusive upper bound of the deletion time
+     * @return the number of removed tombstones
+     */
+    @Modifying
+    @Transactional
+    @Query(value = """
+            WITH horizon AS (
+                UPDATE pos_sync_horizon SET min_change_id = GREATEST(min_change_id,
+                    (SELECT max(change_id) + 1 FROM pos_tombstones WHERE deleted_at < :deletedAt))
+            )
+            DELETE FROM pos_tombstones WHERE deleted_at < :deletedAt
+            """, nativeQuery = true)
+    int deleteDeletedBefore(LocalDateTime deletedAt);
+
+    /**
+     * Adds a tombstone for the POS with the given ID in a single statement.
+     * Must be called in the transaction that deletes the POS.
+     *
+     * @param posId     the ID of the deleted POS
+     * @param deletedAt the time of the deletion
+     */
+    @Modifying
+    @Transactional
+    @Query(value = """
+            INSERT INTO pos_tombstones (pos_id, deleted_at) VALUES (:posId, :deletedAt)
+            ON CONFLICT (pos_id) DO UPDATE SET deleted_at = EXCLUDED.deleted_at
+            """, nativeQuery = true)
+    void upsert(Long posId, LocalDateTime deletedAt);
+
+    /**
+     * Adds a tombstone for every existing POS in a single statement, without loading the POS.
+     * Must be called in the transaction that deletes all POS.
+     *
+     * @param deletedAt the time of the deletion
+     */
+    @Modifying
+    @Transactional
+    @Query(value = """
+            INSERT INTO pos_tombstones (pos_id, deleted_at) SELECT id, :deletedAt FROM pos
+            ON CONFLICT (pos_id) DO UPDATE SET deleted_at = EXCLUDED.deleted_at
+            """, nativeQuery = true)
+    void upsertAllPos(LocalDateTime deletedAt);
+}
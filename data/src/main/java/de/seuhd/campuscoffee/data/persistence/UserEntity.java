@@ -12,6 +12,7 @@ import jakarta.persistence.PrePersist;
 import jakarta.persistence.PreUpdate;
 import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
@@ -43,6 +44,13 @@ public class UserEntity {
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
 
+    /**
+     * Incremented by Hibernate on every update of the managed entity and by the native updates of the repository,
+     * which only update the row if it still has the version the caller expects.
+     */
+    @Version
+    private Long version;
+
     @Column(name = LOGIN_NAME_COLUMN, unique = true)
     private String name;
 
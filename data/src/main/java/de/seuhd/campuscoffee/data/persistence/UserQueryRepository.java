@@ -0,0 +1,43 @@
+package de.seuhd.campuscoffee.data.persistence;
+
+import org.jspecify.annotations.Nullable;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+/**
+ * Repository fragment for the single-statement update and upsert of users.
+ */
+public interface UserQueryRepository {
+    /**
+     * Updates an existing user in a single statement that also returns the updated row ({@code UPDATE ... RETURNING}),
+     * so that neither an existence check nor a read of the entity is needed before the update, and nothing needs to
+     * be flushed afterward. The creation time is kept and the version is incremented; with an expected version, the
+     * user is only updated if they still have this version (optimistic locking).
+     * The row is returned as a detached entity, because a managed instance of the user in the persistence context
+     * would otherwise be returned with its old state. Must be called in a transaction.
+     *
+     * @param id              the ID of the user to update
+     * @param expectedVersion the version the user must have to be updated; null to update any version
+     * @param values          the new values of the user (e.g., mapped from the domain model); the ID, version, and
+     *                        timestamps are ignored
+     * @param updatedAt       the time of the update
+     * @return the updated user, or empty if no user with the given ID and expected version exists
+     */
+    Optional<UserEntity> updateReturning(Long id, @Nullable Long expectedVersion, UserEntity values,
+                                         LocalDateTime updatedAt);
+
+    /**
+     * Creates or updates a user by their unique login name in a single statement
+     * ({@code INSERT ... ON CONFLICT (login_name) DO UPDATE ... RETURNING}), so that a repeated import neither needs
+     * to look up the login name first nor fails with a constraint violation on it.
+     * An existing user keeps their ID and creation time, and their version is incremented. Must be called in a
+     * transaction.
+     *
+     * @param values    the user to write (e.g., mapped from the domain model); the ID, version, and timestamps are
+     *                  ignored
+     * @param updatedAt the time of the upsert, also used as the creation time of a new user
+     * @return the written user as a detached entity
+     */
+    UserEntity upsertByNameReturning(UserEntity values, LocalDateTime updatedAt);
+}
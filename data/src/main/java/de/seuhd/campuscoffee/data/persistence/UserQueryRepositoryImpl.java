@@ -0,0 +1,95 @@
+package de.seuhd.campuscoffee.data.persistence;
+
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.query.NativeQuery;
+import org.hibernate.type.StandardBasicTypes;
+import org.jspecify.annotations.Nullable;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Implementation of the {@link UserQueryRepository} fragment, picked up by Spring Data through its name.
+ */
+@RequiredArgsConstructor
+class UserQueryRepositoryImpl implements UserQueryRepository {
+    private static final String RETURNING = """
+            RETURNING id, created_at, updated_at, version, login_name, email_address, first_name, last_name
+            """;
+    private static final String UPDATE_RETURNING = """
+            UPDATE users SET
+                updated_at = :updatedAt,
+                version = version + 1,
+                login_name = :name,
+                email_address = :emailAddress,
+                first_name = :firstName,
+                last_name = :lastName
+            WHERE id = :id AND version = COALESCE(:expectedVersion, version)
+            """ + RETURNING;
+    private static final String UPSERT_BY_NAME_RETURNING = """
+            INSERT INTO users (id, created_at, updated_at, login_name, email_address, first_name, last_name)
+            VALUES (nextval('user_seq'), :updatedAt, :updatedAt, :name, :emailAddress, :firstName, :lastName)
+            ON CONFLICT (login_name) DO UPDATE SET
+                updated_at = EXCLUDED.updated_at,
+                version = users.version + 1,
+                email_address = EXCLUDED.email_address,
+                first_name = EXCLUDED.first_name,
+                last_name = EXCLUDED.last_name
+            """ + RETURNING;
+
+    private final EntityManager entityManager;
+
+    @Override
+    public Optional<UserEntity> updateReturning(Long id, @Nullable Long expectedVersion, UserEntity values,
+                                                LocalDateTime updatedAt) {
+        return execute(UPDATE_RETURNING, id, expectedVersion, values, updatedAt).stream().findFirst();
+    }
+
+    @Override
+    public UserEntity upsertByNameReturning(UserEntity values, LocalDateTime updatedAt) {
+        // the statement either inserts or updates the row, so it always returns exactly one
+        return execute(UPSERT_BY_NAME_RETURNING, null, null, values, updatedAt).getFirst();
+    }
+
+    /**
+     * Executes a statement that writes the given values and ends with {@link #RETURNING}.
+     * Parameters and columns are typed explicitly, since null values have no type the database could infer.
+     *
+     * @param sql             the statement to execute
+     * @param id              the value of the ID parameter; null if the statement has none
+     * @param expectedVersion the value of the expected version parameter, which statements with an ID parameter have
+     * @param values          the values of the user
+     * @param updatedAt       the time of the change
+     * @return the returned rows as detached entities
+     */
+    private List<UserEntity> execute(String sql, @Nullable Long id, @Nullable Long expectedVersion, UserEntity values,
+                                     LocalDateTime updatedAt) {
+        @SuppressWarnings("unchecked")
+        NativeQuery<Object[]> query = entityManager.createNativeQuery(sql).unwrap(NativeQuery.class);
+        if (id != null) {
+            query.setParameter("id", id, StandardBasicTypes.LONG)
+                    .setParameter("expectedVersion", expectedVersion, StandardBasicTypes.LONG);
+        }
+        List<Object[]> rows = query
+                .setParameter("updatedAt", updatedAt, StandardBasicTypes.LOCAL_DATE_TIME)
+                .setParameter("name", values.getName(), StandardBasicTypes.STRING)
+                .setParameter("emailAddress", values.getEmailAddress(), StandardBasicTypes.STRING)
+                .setParameter("firstName", values.getFirstName(), StandardBasicTypes.STRING)
+                .setParameter("lastName", values.getLastName(), StandardBasicTypes.STRING)
+                .addScalar("id", StandardBasicTypes.LONG)
+                .addScalar("created_at", StandardBasicTypes.LOCAL_DATE_TIME)
+                .addScalar("updated_at", StandardBasicTypes.LOCAL_DATE_TIME)
+                .addScalar("version", StandardBasicTypes.LONG)
+                .addScalar("login_name", StandardBasicTypes.STRING)
+                .addScalar("email_address", StandardBasicTypes.STRING)
+                .addScalar("first_name", StandardBasicTypes.STRING)
+                .addScalar("last_name", StandardBasicTypes.STRING)
+                .getResultList();
+        return rows.stream()
+                .map(row -> new UserEntity((Long) row[0], (LocalDateTime) row[1], (LocalDateTime) row[2],
+                        (Long) row[3], (String) row[4], (String) row[5], (String) row[6], (String) row[7]))
+                .toList();
+    }
+}
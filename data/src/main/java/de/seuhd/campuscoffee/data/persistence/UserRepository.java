@@ -11,9 +11,28 @@ import jakarta.transaction.Transactional;
 /**
  * Repository for persisting user entities.
  */
-public interface UserRepository extends JpaRepository<UserEntity, Long>, ResettableSequenceRepository {
+public interface UserRepository extends JpaRepository<UserEntity, Long>, UserQueryRepository,
+        ResettableSequenceRepository {
     Optional<UserEntity> findByName(String name);
 
+    /**
+     * Computes the current version of the users table (see {@link CollectionVersionQuery}).
+     *
+     * @return the version of the users table
+     */
+    @Query(value = CollectionVersionQuery.SELECT_FROM + "users) c", nativeQuery = true)
+    String findCollectionVersion();
+
+    /**
+     * Deletes the user with the given ID in one statement, so that the returned version is the last version of the
+     * user even if it is updated concurrently.
+     *
+     * @param id the ID of the user to delete
+     * @return the version of the deleted user, or empty if there is no user with this ID
+     */
+    @Query(value = "DELETE FROM users WHERE id = :id RETURNING version", nativeQuery = true)
+    Optional<Long> deleteByIdReturningVersion(Long id);
+
     /**
      * Resets the user ID sequence to start from 1.
      * Note: This is primarily intended for testing purposes to ensure consistent IDs after clearing the table.
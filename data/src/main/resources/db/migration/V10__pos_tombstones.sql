@@ -0,0 +1,25 @@
+SET TIME ZONE 'UTC';
+
+-- deleted POS, so that clients that sync changes can remove them (see PosTombstoneEntity); like changed POS, they are
+-- synced by the ID of the deleting transaction (see V9 and PosDataServiceImpl#getChanges)
+CREATE TABLE pos_tombstones (
+    pos_id bigint NOT NULL PRIMARY KEY,
+    deleted_at timestamp NOT NULL,
+    change_id bigint NOT NULL DEFAULT 0
+);
+
+CREATE TRIGGER pos_tombstones_change_id
+    BEFORE INSERT OR UPDATE ON pos_tombstones
+    FOR EACH ROW EXECUTE FUNCTION set_change_id();
+
+CREATE INDEX pos_tombstones_change_id_idx ON pos_tombstones (change_id);
+
+-- tombstones are pruned by deletion time (see PosTombstoneRepository#deleteDeletedBefore)
+CREATE INDEX pos_tombstones_deleted_at_idx ON pos_tombstones (deleted_at);
+
+-- sync tokens below this change ID have expired, since tombstones they would need were pruned
+CREATE TABLE pos_sync_horizon (
+    min_change_id bigint NOT NULL
+);
+
+INSERT INTO pos_sync_horizon (min_change_id) VALUES (0);
@@ -0,0 +1,16 @@
+SET TIME ZONE 'UTC';
+
+-- changes of POS and users, written in the transaction of the change and removed once relayed (see OutboxEventEntity)
+CREATE SEQUENCE outbox_events_seq INCREMENT BY 50; -- see OutboxEventEntity.ID_ALLOCATION_SIZE
+
+CREATE TABLE outbox_events (
+    id bigint NOT NULL PRIMARY KEY,
+    aggregate_type varchar(32) NOT NULL,
+    aggregate_id bigint NOT NULL,
+    -- the version of the changed row (see V12), so that consumers can order the events of an object, which are not
+    -- relayed in the order of their changes (see OutboxSink)
+    aggregate_version bigint NOT NULL,
+    type varchar(32) NOT NULL,
+    payload text, -- JSON of the object as written; null for deletions
+    created_at timestamp NOT NULL
+);
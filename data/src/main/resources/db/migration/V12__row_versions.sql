@@ -0,0 +1,18 @@
+SET TIME ZONE 'UTC';
+
+-- incremented on every update of a row (see @Version of PosEntity and UserEntity and the native updates), so that
+-- updates can be made conditional on the version a client has read (optimistic locking)
+ALTER TABLE pos ADD COLUMN version bigint NOT NULL DEFAULT 0;
+ALTER TABLE users ADD COLUMN version bigint NOT NULL DEFAULT 0;
+
+-- updates that do not increment the version (e.g., of the OSM sync time) do not change the row for clients, so they
+-- keep the change ID of the row (see V9)
+DROP TRIGGER pos_change_id_update ON pos;
+CREATE TRIGGER pos_change_id_update
+    BEFORE UPDATE ON pos
+    FOR EACH ROW WHEN (NEW.version IS DISTINCT FROM OLD.version) EXECUTE FUNCTION set_change_id();
+
+DROP TRIGGER users_change_id_update ON users;
+CREATE TRIGGER users_change_id_update
+    BEFORE UPDATE ON users
+    FOR EACH ROW WHEN (NEW.version IS DISTINCT FROM OLD.version) EXECUTE FUNCTION set_change_id();
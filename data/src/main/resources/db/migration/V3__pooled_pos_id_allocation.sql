@@ -0,0 +1,2 @@
+-- Hibernate reserves POS IDs in blocks of 50 (see PosEntity.ID_ALLOCATION_SIZE) to batch inserts
+ALTER SEQUENCE pos_seq INCREMENT BY 50;
@@ -0,0 +1,10 @@
+SET TIME ZONE 'UTC';
+
+-- latest fetched version of each OSM node, used to revalidate re-imports with conditional requests (see OsmNodeCache)
+CREATE TABLE osm_node_cache (
+    node_id bigint NOT NULL PRIMARY KEY,
+    version bigint,
+    etag varchar(255),
+    tags jsonb NOT NULL, -- only the tags needed to create a POS (see OsmXmlParser)
+    fetched_at timestamp NOT NULL
+);
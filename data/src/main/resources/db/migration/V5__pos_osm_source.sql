@@ -0,0 +1,10 @@
+SET TIME ZONE 'UTC';
+
+-- link POS imported from OpenStreetMap to their source node, so that they can be re-synced (see OsmSyncScheduler)
+ALTER TABLE pos
+    ADD COLUMN osm_node_id bigint,
+    ADD COLUMN osm_version bigint,
+    ADD COLUMN osm_synced_at timestamp; -- null until the first sync, updated_at is used instead
+
+-- the sync walks the POS imported from OSM in ID order (keyset pagination)
+CREATE INDEX pos_osm_id_idx ON pos (id) WHERE osm_node_id IS NOT NULL;
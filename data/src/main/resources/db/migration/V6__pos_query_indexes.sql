@@ -0,0 +1,8 @@
+SET TIME ZONE 'UTC';
+
+-- POS queries filter by campus, type, postal code, or city and return the matches ordered by ID (see PosQuery),
+-- so each index ends with the ID to serve the order and keyset pagination without sorting
+CREATE INDEX pos_campus_type_id_idx ON pos (campus, type, id);
+CREATE INDEX pos_type_id_idx ON pos (type, id);
+CREATE INDEX pos_postal_code_id_idx ON pos (postal_code, id);
+CREATE INDEX pos_city_id_idx ON pos (city, id);
@@ -0,0 +1,15 @@
+SET TIME ZONE 'UTC';
+
+-- trigram similarity for typo-tolerant search (see PosRepository#searchIds)
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+-- full-text search over names (higher weight) and descriptions; the 'simple' configuration neither stems nor removes
+-- stop words, since names and descriptions mix German and English
+ALTER TABLE pos
+    ADD COLUMN search_vector tsvector GENERATED ALWAYS AS (
+        setweight(to_tsvector('simple', name), 'A') || setweight(to_tsvector('simple', coalesce(description, '')), 'B')
+    ) STORED;
+
+CREATE INDEX pos_search_vector_idx ON pos USING gin (search_vector);
+CREATE INDEX pos_name_trgm_idx ON pos USING gin (name gin_trgm_ops);
+CREATE INDEX pos_description_trgm_idx ON pos USING gin (description gin_trgm_ops);
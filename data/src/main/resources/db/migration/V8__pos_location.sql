@@ -0,0 +1,17 @@
+SET TIME ZONE 'UTC';
+
+-- coordinates of POS (WGS 84, e.g., from their OpenStreetMap node) for nearby searches (see PosRepository#findRowsNearby)
+ALTER TABLE pos
+    ADD COLUMN latitude double precision CHECK (latitude BETWEEN -90 AND 90),
+    ADD COLUMN longitude double precision CHECK (longitude BETWEEN -180 AND 180),
+    ADD CONSTRAINT pos_location_check CHECK ((latitude IS NULL) = (longitude IS NULL));
+
+-- nearby searches first narrow the POS down to a bounding box around the location
+CREATE INDEX pos_location_idx ON pos (latitude, longitude) WHERE latitude IS NOT NULL;
+
+-- cached nodes need their coordinates as well; the cache is cleared since revalidating the old entries would keep them
+-- without coordinates
+ALTER TABLE osm_node_cache
+    ADD COLUMN latitude double precision,
+    ADD COLUMN longitude double precision;
+TRUNCATE osm_node_cache;
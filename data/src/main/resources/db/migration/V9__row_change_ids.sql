@@ -0,0 +1,33 @@
+SET TIME ZONE 'UTC';
+
+-- every row records the transaction that last changed it, so that clients can check cheaply whether a collection
+-- changed; the version of a collection is computed from its rows (see PosRepository#findCollectionVersion)
+ALTER TABLE pos ADD COLUMN change_id bigint NOT NULL DEFAULT 0;
+ALTER TABLE users ADD COLUMN change_id bigint NOT NULL DEFAULT 0;
+
+-- the 64-bit ID of the writing transaction, which never wraps around; it is assigned when the transaction first
+-- writes, so transactions may commit in a different order than their IDs
+CREATE FUNCTION set_change_id() RETURNS trigger AS $$
+BEGIN
+    NEW.change_id := pg_current_xact_id()::text::bigint;
+    RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER pos_change_id_insert
+    BEFORE INSERT ON pos
+    FOR EACH ROW EXECUTE FUNCTION set_change_id();
+CREATE TRIGGER pos_change_id_update
+    BEFORE UPDATE ON pos
+    FOR EACH ROW EXECUTE FUNCTION set_change_id();
+
+CREATE TRIGGER users_change_id_insert
+    BEFORE INSERT ON users
+    FOR EACH ROW EXECUTE FUNCTION set_change_id();
+CREATE TRIGGER users_change_id_update
+    BEFORE UPDATE ON users
+    FOR EACH ROW EXECUTE FUNCTION set_change_id();
+
+-- the latest change is read from the end of the index
+CREATE INDEX pos_change_id_idx ON pos (change_id);
+CREATE INDEX users_change_id_idx ON users (change_id);
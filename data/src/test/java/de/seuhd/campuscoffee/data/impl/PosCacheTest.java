@@ -0,0 +1,93 @@
+package de.seuhd.campuscoffee.data.impl;
+
+import de.seuhd.campuscoffee.data.config.CacheConfig;
+import de.seuhd.campuscoffee.domain.exceptions.NotFoundException;
+import de.seuhd.campuscoffee.domain.model.Pos;
+import de.seuhd.campuscoffee.domain.tests.TestFixtures;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+import org.springframework.cache.support.SimpleCacheManager;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Tests for {@link PosCache}. The caches load outside of a lock (like a skip list map does), so that invalidations do
+ * not wait for loads in progress; Caffeine may or may not wait for them, which it leaves undefined.
+ */
+public class PosCacheTest {
+    private final PosCache posCache = new PosCache(cacheManager());
+    private final Pos oldPos = TestFixtures.getPosList().getFirst();
+    private final Pos newPos = oldPos.toBuilder().description("Updated description").build();
+
+    @Test
+    void getByIdLoadsOnce() {
+        AtomicInteger loads = new AtomicInteger();
+        Long id = Objects.requireNonNull(oldPos.id());
+
+        posCache.getById(id, () -> {
+            loads.incrementAndGet();
+            return oldPos;
+        });
+        Pos cachedPos = posCache.getById(id, () -> {
+            loads.incrementAndGet();
+            return newPos;
+        });
+
+        assertThat(cachedPos).isEqualTo(oldPos);
+        assertThat(loads).hasValue(1);
+    }
+
+    @Test
+    void getByIdPassesLoaderExceptions() {
+        assertThrows(NotFoundException.class, () -> posCache.getById(42L, () -> {
+            throw new NotFoundException(Pos.class, 42L);
+        }));
+    }
+
+    @Test
+    void loadThatRacedWithWriteIsNotCached() throws Exception {
+        CountDownLatch loaded = new CountDownLatch(1);
+        CountDownLatch invalidated = new CountDownLatch(1);
+
+        // the load reads the POS before the write commits, but only finishes after the write invalidated the cache
+        CompletableFuture<Pos> load = CompletableFuture.supplyAsync(() -> posCache.getByName(oldPos.name(), () -> {
+            loaded.countDown();
+            awaitQuietly(invalidated);
+            return oldPos;
+        }));
+        assertThat(loaded.await(5, TimeUnit.SECONDS)).isTrue();
+        posCache.invalidate(oldPos.id());
+        invalidated.countDown();
+
+        assertThat(load.get(5, TimeUnit.SECONDS)).isEqualTo(oldPos);
+        assertThat(posCache.getByName(oldPos.name(), () -> newPos)).isEqualTo(newPos);
+    }
+
+    private static CacheManager cacheManager() {
+        SimpleCacheManager cacheManager = new SimpleCacheManager();
+        cacheManager.setCaches(List.of(
+                new ConcurrentMapCache(CacheConfig.POS_BY_ID, new ConcurrentSkipListMap<>(), false),
+                new ConcurrentMapCache(CacheConfig.POS_BY_NAME, new ConcurrentSkipListMap<>(), false)));
+        cacheManager.afterPropertiesSet();
+        return cacheManager;
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            assertThat(latch.await(5, TimeUnit.SECONDS)).isTrue();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package de.seuhd.campuscoffee.domain.exceptions;
+
+/**
+ * Exception thrown when changes are requested since a sync token that is older than the retained deletions,
+ * i.e., deletions that happened after the token may already have been forgotten. Clients have to fetch all entities
+ * again (full resync) and continue with the token returned then.
+ */
+public class SyncTokenExpiredException extends RuntimeException {
+
+    /**
+     * Creates an exception for an expired sync token.
+     *
+     * @param entityType the type of the synced entities (e.g., "Pos")
+     * @param token      the expired sync token
+     */
+    public SyncTokenExpiredException(Class<?> entityType, Long token) {
+        super("Sync token " + token + " has expired; fetch all " + entityType.getSimpleName() +
+                " again without a token.");
+    }
+}
@@ -0,0 +1,19 @@
+package de.seuhd.campuscoffee.domain.exceptions;
+
+/**
+ * Generic exception thrown when an entity is updated based on a version that is no longer current,
+ * i.e., the entity was changed since the version was read (optimistic locking).
+ */
+public class VersionConflictException extends RuntimeException {
+
+    /**
+     * Creates an exception for an outdated version of an entity.
+     *
+     * @param entityType      the type of entity (e.g., "Pos", "User")
+     * @param id              the ID of the entity
+     * @param expectedVersion the version the update was based on
+     */
+    public VersionConflictException(Class<?> entityType, Long id, Long expectedVersion) {
+        super(entityType.getSimpleName() + " with ID " + id + " is no longer at version " + expectedVersion + ".");
+    }
+}
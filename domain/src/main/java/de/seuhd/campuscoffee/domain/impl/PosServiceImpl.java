@@ -2,10 +2,19 @@ package de.seuhd.campuscoffee.domain.impl;
 
 import de.seuhd.campuscoffee.domain.exceptions.DuplicationException;
 import de.seuhd.campuscoffee.domain.exceptions.MissingFieldException;
+import de.seuhd.campuscoffee.domain.exceptions.NotFoundException;
+import de.seuhd.campuscoffee.domain.exceptions.VersionConflictException;
+import de.seuhd.campuscoffee.domain.model.BatchItemResult;
 import de.seuhd.campuscoffee.domain.model.CampusType;
+import de.seuhd.campuscoffee.domain.model.CollectionVersion;
+import de.seuhd.campuscoffee.domain.model.ImportSummary;
 import de.seuhd.campuscoffee.domain.model.OsmAmenity;
 import de.seuhd.campuscoffee.domain.model.OsmNode;
+import de.seuhd.campuscoffee.domain.model.OsmSyncSummary;
 import de.seuhd.campuscoffee.domain.model.Pos;
+import de.seuhd.campuscoffee.domain.model.PosChange;
+import de.seuhd.campuscoffee.domain.model.PosChanges;
+import de.seuhd.campuscoffee.domain.model.PosQuery;
 import de.seuhd.campuscoffee.domain.model.PosType;
 import de.seuhd.campuscoffee.domain.ports.OsmDataService;
 import de.seuhd.campuscoffee.domain.ports.PosDataService;
@@ -13,20 +22,39 @@ import de.seuhd.campuscoffee.domain.ports.PosService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.jspecify.annotations.NonNull;
+import org.jspecify.annotations.Nullable;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
 
 /**
  * Implementation of the POS service that handles business logic related to POS entities.
+ * Every POS written or deleted through this service (except by the OSM extract import) is published as a
+ * {@link PosChange} event after the data service committed the change.
  */
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class PosServiceImpl implements PosService {
+    /**
+     * Number of POS that are buffered and written together when importing an OSM extract.
+     */
+    public static final int EXTRACT_IMPORT_CHUNK_SIZE = 500;
+
     private final PosDataService posDataService;
     private final OsmDataService osmDataService;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     public void clear() {
@@ -40,6 +68,82 @@ public class PosServiceImpl implements PosService {
         return posDataService.getAll();
     }
 
+    @Override
+    public @NonNull List<Pos> getPage(@Nullable Long after, int limit) {
+        if (limit < 1) {
+            throw new IllegalArgumentException("Page size must be positive, but was " + limit + ".");
+        }
+        log.debug("Retrieving up to {} POS after ID: {}", limit, after);
+        return posDataService.getPage(after, limit);
+    }
+
+    @Override
+    public @NonNull List<Pos> query(@NonNull PosQuery query) {
+        validate(query);
+        log.debug("Querying POS: {}", query);
+        return posDataService.query(query);
+    }
+
+    @Override
+    public @NonNull Optional<List<Pos>> queryIfModified(@NonNull PosQuery query,
+                                                        @NonNull Predicate<? super CollectionVersion> notModified) {
+        validate(query);
+        log.debug("Querying POS if modified: {}", query);
+        return posDataService.queryIfModified(query, notModified);
+    }
+
+    @Override
+    public @NonNull List<Pos> search(@NonNull String query, int offset, int limit) {
+        if (query.isBlank()) {
+            throw new IllegalArgumentException("Search query must not be blank.");
+        }
+        if (offset < 0) {
+            throw new IllegalArgumentException("Offset must not be negative, but was " + offset + ".");
+        }
+        if (limit < 1) {
+            throw new IllegalArgumentException("Page size must be positive, but was " + limit + ".");
+        }
+        log.debug("Searching up to {} POS after {} hits for: {}", limit, offset, query);
+        return posDataService.search(query.strip(), offset, limit);
+    }
+
+    @Override
+    public @NonNull List<Pos> nearby(double latitude, double longitude, double radius, int limit) {
+        if (!(latitude >= -90 && latitude <= 90) || !(longitude >= -180 && longitude <= 180)) {
+            throw new IllegalArgumentException("Invalid coordinates: " + latitude + ", " + longitude + ".");
+        }
+        if (!(radius > 0)) {
+            throw new IllegalArgumentException("Radius must be positive, but was " + radius + ".");
+        }
+        if (limit < 1) {
+            throw new IllegalArgumentException("Page size must be positive, but was " + limit + ".");
+        }
+        log.debug("Retrieving up to {} POS within {} m of {}, {}", limit, radius, latitude, longitude);
+        return posDataService.nearby(latitude, longitude, radius, limit);
+    }
+
+    @Override
+    public void streamAll(@NonNull Consumer<? super Pos> consumer) {
+        log.debug("Streaming all POS");
+        posDataService.streamAll(consumer);
+    }
+
+    @Override
+    public @NonNull PosChanges getChanges(@Nullable Long since) {
+        log.debug("Retrieving POS changes since {}", since);
+        return posDataService.getChanges(since);
+    }
+
+    @Override
+    public int pruneDeletions(@NonNull Duration retention) {
+        if (!retention.isPositive()) {
+            throw new IllegalArgumentException("Retention must be positive, but was " + retention + ".");
+        }
+        int pruned = posDataService.pruneDeletions(LocalDateTime.now(ZoneId.of("UTC")).minus(retention));
+        log.info("Forgot {} POS deleted more than {} ago", pruned, retention);
+        return pruned;
+    }
+
     @Override
     public @NonNull Pos getById(@NonNull Long id) {
         log.debug("Retrieving POS with ID: {}", id);
@@ -59,15 +163,34 @@ public class PosServiceImpl implements PosService {
             log.info("Creating new POS: {}", pos.name());
         } else {
             // update an existing POS
+            // the data service throws a NotFoundException if the POS does not exist
             log.info("Updating POS with ID: {}", pos.id());
-            // POS ID must be set
-            Objects.requireNonNull(pos.id());
-            // POS must exist in the database before the update
-            posDataService.getById(pos.id());
         }
         return performUpsert(pos);
     }
 
+    @Override
+    public @NonNull Pos upsertByName(@NonNull Pos pos) {
+        log.info("Creating or updating POS by name: {}", pos.name());
+        // the data service resolves an existing name, so there is no duplicate name to report
+        Pos upsertedPos = posDataService.upsertByName(pos);
+        eventPublisher.publishEvent(PosChange.upserted(upsertedPos));
+        log.info("Successfully upserted POS with ID: {}", upsertedPos.id());
+        return upsertedPos;
+    }
+
+    @Override
+    public @NonNull List<BatchItemResult<Pos>> upsertAll(@NonNull List<Pos> posList) {
+        log.info("Upserting batch of {} POS", posList.size());
+        List<BatchItemResult<Pos>> results = posDataService.upsertAll(posList);
+        publishUpserted(results);
+        long failed = results.stream()
+                .filter(result -> !result.succeeded())
+                .count();
+        log.info("Upserted {} of {} POS ({} failed)", results.size() - failed, results.size(), failed);
+        return results;
+    }
+
     @Override
     public @NonNull Pos importFromOsmNode(@NonNull Long nodeId, @NonNull CampusType campusType) {
         log.info("Importing POS from OpenStreetMap node {}...", nodeId);
@@ -75,20 +198,158 @@ public class PosServiceImpl implements PosService {
         // Fetch the OSM node data using the port
         OsmNode osmNode = osmDataService.fetchNode(nodeId);
 
-        // Convert OSM node to POS domain object and upsert it
-        Pos savedPos = upsert(convertOsmNodeToPos(osmNode, campusType));
+        // Convert OSM node to POS domain object and upsert it, updating a POS imported before
+        Pos savedPos = upsertByName(convertOsmNodeToPos(osmNode, campusType));
         log.info("Successfully imported POS '{}' from OSM node {}", savedPos.name(), nodeId);
 
         return savedPos;
     }
 
+    @Override
+    public @NonNull List<BatchItemResult<Pos>> importFromOsmNodes(@NonNull List<Long> nodeIds,
+                                                                  @NonNull CampusType campusType) {
+        log.info("Importing {} POS from OpenStreetMap nodes...", nodeIds.size());
+
+        // fetch all nodes at once (the OSM data service fetches many nodes per request)
+        List<BatchItemResult<OsmNode>> fetchResults = osmDataService.fetchNodes(nodeIds);
+
+        // convert the fetched nodes and remember their position in the import
+        List<BatchItemResult<Pos>> results = new ArrayList<>(Collections.nCopies(fetchResults.size(), null));
+        List<Integer> convertedIndexes = new ArrayList<>();
+        List<Pos> convertedPos = new ArrayList<>();
+        for (BatchItemResult<OsmNode> fetchResult : fetchResults) {
+            if (fetchResult.error() != null) {
+                results.set(fetchResult.index(), BatchItemResult.failure(fetchResult.index(), fetchResult.error()));
+                continue;
+            }
+            try {
+                convertedPos.add(convertOsmNodeToPos(Objects.requireNonNull(fetchResult.value()), campusType));
+                convertedIndexes.add(fetchResult.index());
+            } catch (MissingFieldException e) {
+                results.set(fetchResult.index(), BatchItemResult.failure(fetchResult.index(), e));
+            }
+        }
+
+        // write all converted POS in one batch, updating POS imported before
+        List<BatchItemResult<Pos>> upsertResults = posDataService.upsertAllByName(convertedPos);
+        publishUpserted(upsertResults);
+        for (int i = 0; i < upsertResults.size(); i++) {
+            results.set(convertedIndexes.get(i), upsertResults.get(i).withIndex(convertedIndexes.get(i)));
+        }
+
+        long failed = results.stream()
+                .filter(result -> !result.succeeded())
+                .count();
+        log.info("Imported {} of {} POS from OpenStreetMap ({} failed)",
+                results.size() - failed, results.size(), failed);
+        return results;
+    }
+
+    @Override
+    public @NonNull ImportSummary importFromOsmExtract(@NonNull Path file, @NonNull CampusType campusType) {
+        log.info("Importing POS from OpenStreetMap extract {}...", file);
+        ExtractImport extractImport = new ExtractImport(campusType);
+        osmDataService.streamExtract(file, extractImport::accept);
+        ImportSummary summary = extractImport.finish();
+        log.info("Imported {} of {} POS from OpenStreetMap extract {} in {} s ({} failed, {} nodes/s)",
+                summary.imported(), summary.processed(), file, summary.duration().toSeconds(), summary.failed(),
+                Math.round(summary.processedPerSecond()));
+        return summary;
+    }
+
+    @Override
+    public @NonNull OsmSyncSummary syncFromOsm(@NonNull Duration maxAge, int batchSize) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("Batch size must be positive, but was " + batchSize + ".");
+        }
+        log.info("Syncing POS imported from OpenStreetMap that were not synced for {}...", maxAge);
+        long startNanos = System.nanoTime();
+        LocalDateTime syncedBefore = LocalDateTime.now(ZoneId.of("UTC")).minus(maxAge);
+        long checked = 0;
+        long changed = 0;
+        long failed = 0;
+
+        // batches are fetched one after another, so a sync does not use up the OSM API request limits
+        Long after = null;
+        List<Pos> batch;
+        while (!(batch = posDataService.getOsmSyncCandidates(after, syncedBefore, batchSize)).isEmpty()) {
+            after = batch.getLast().id();
+            List<BatchItemResult<OsmNode>> fetchResults = osmDataService.fetchNodes(
+                    batch.stream().map(pos -> Objects.requireNonNull(pos.osmNodeId())).toList());
+
+            List<Long> syncedIds = new ArrayList<>(batch.size());
+            for (int i = 0; i < batch.size(); i++) {
+                Pos pos = batch.get(i);
+                BatchItemResult<OsmNode> fetchResult = fetchResults.get(i);
+                checked++;
+                if (fetchResult.error() != null) {
+                    log.warn("Could not sync POS {} with OSM node {}: {}",
+                            pos.id(), pos.osmNodeId(), fetchResult.error().getMessage());
+                    failed++;
+                    continue;
+                }
+                try {
+                    OsmNode osmNode = Objects.requireNonNull(fetchResult.value());
+                    Pos syncedPos = convertOsmNodeToPos(osmNode, pos.campus()).toBuilder()
+                            .id(pos.id())
+                            .createdAt(pos.createdAt())
+                            .updatedAt(pos.updatedAt())
+                            .version(pos.version())
+                            .osmVersion(osmNode.version() == null ? pos.osmVersion() : osmNode.version())
+                            .latitude(osmNode.latitude() == null ? pos.latitude() : osmNode.latitude())
+                            .longitude(osmNode.longitude() == null ? pos.longitude() : osmNode.longitude())
+                            .build();
+                    if (!syncedPos.equals(pos)) {
+                        // only changed POS are written, and their update timestamp changes; the version makes sure
+                        // that a concurrent change of the POS is not overwritten with the data read before it
+                        eventPublisher.publishEvent(PosChange.upserted(posDataService.upsert(syncedPos)));
+                        changed++;
+                    }
+                    syncedIds.add(pos.id());
+                } catch (MissingFieldException | DuplicationException | NotFoundException
+                         | VersionConflictException e) {
+                    log.warn("Could not sync POS {} with OSM node {}: {}", pos.id(), pos.osmNodeId(), e.getMessage());
+                    failed++;
+                }
+            }
+            posDataService.markOsmSynced(syncedIds);
+        }
+
+        OsmSyncSummary summary = OsmSyncSummary.builder()
+                .checked(checked)
+                .changed(changed)
+                .failed(failed)
+                .duration(Duration.ofNanos(System.nanoTime() - startNanos))
+                .build();
+        log.info("Synced {} POS with OpenStreetMap in {} s ({} changed, {} failed)",
+                summary.checked(), summary.duration().toSeconds(), summary.changed(), summary.failed());
+        return summary;
+    }
+
     @Override
     public void delete(@NonNull Long id) {
         log.info("Trying to delete POS with ID: {}", id);
         posDataService.delete(id);
+        eventPublisher.publishEvent(PosChange.deleted(id));
         log.info("Deleted POS with ID: {}", id);
     }
 
+    /**
+     * Checks that a query can be answered.
+     *
+     * @param query the query to check
+     * @throws IllegalArgumentException if the limit is not positive or {@code after} is combined with sort criteria
+     */
+    private static void validate(@NonNull PosQuery query) {
+        if (query.limit() != null && query.limit() < 1) {
+            throw new IllegalArgumentException("Page size must be positive, but was " + query.limit() + ".");
+        }
+        if (query.after() != null && !query.sort().isEmpty()) {
+            // keyset pagination relies on the order by ID
+            throw new IllegalArgumentException("Pages after an ID can only be requested without sort criteria.");
+        }
+    }
+
     /**
      * Converts an OSM node to a POS domain object.
      * Maps OSM amenity types to POS types and validates required fields.
@@ -121,6 +382,10 @@ public class PosServiceImpl implements PosService {
                 .houseNumber(osmNode.houseNumber())
                 .postalCode(postalCode)
                 .city(osmNode.city())
+                .osmNodeId(osmNode.nodeId())
+                .osmVersion(osmNode.version())
+                .latitude(osmNode.latitude())
+                .longitude(osmNode.longitude())
                 .build();
     }
 
@@ -139,6 +404,17 @@ public class PosServiceImpl implements PosService {
         };
     }
 
+    /**
+     * Publishes a {@link PosChange} event for every POS that a batch upsert wrote.
+     *
+     * @param results the results of the batch upsert
+     */
+    private void publishUpserted(@NonNull List<BatchItemResult<Pos>> results) {
+        results.stream()
+                .filter(BatchItemResult::succeeded)
+                .forEach(result -> eventPublisher.publishEvent(PosChange.upserted(Objects.requireNonNull(result.value()))));
+    }
+
     /**
      * Performs the actual upsert operation with consistent error handling and logging.
      * Database constraint enforces name uniqueness - data layer will throw DuplicateEntityException if violated.
@@ -151,6 +427,7 @@ public class PosServiceImpl implements PosService {
     private @NonNull Pos performUpsert(@NonNull Pos pos) {
         try {
             Pos upsertedPos = posDataService.upsert(pos);
+            eventPublisher.publishEvent(PosChange.upserted(upsertedPos));
             log.info("Successfully upserted POS with ID: {}", upsertedPos.id());
             return upsertedPos;
         } catch (DuplicationException e) {
@@ -158,4 +435,70 @@ public class PosServiceImpl implements PosService {
             throw e;
         }
     }
+
+    /**
+     * State of a running OSM extract import: converts the streamed nodes, writes them in chunks,
+     * and counts the results.
+     */
+    private class ExtractImport {
+        private final CampusType campusType;
+        private final List<Pos> chunk = new ArrayList<>(EXTRACT_IMPORT_CHUNK_SIZE);
+        private final long startNanos = System.nanoTime();
+        private long processed;
+        private long imported;
+        private long failed;
+
+        ExtractImport(@NonNull CampusType campusType) {
+            this.campusType = campusType;
+        }
+
+        void accept(@NonNull BatchItemResult<OsmNode> fetchResult) {
+            processed++;
+            if (fetchResult.error() != null) {
+                failed++;
+                return;
+            }
+            try {
+                chunk.add(convertOsmNodeToPos(Objects.requireNonNull(fetchResult.value()), campusType));
+            } catch (MissingFieldException e) {
+                failed++;
+                return;
+            }
+            if (chunk.size() == EXTRACT_IMPORT_CHUNK_SIZE) {
+                writeChunk();
+            }
+        }
+
+        @NonNull ImportSummary finish() {
+            writeChunk();
+            return summary();
+        }
+
+        private void writeChunk() {
+            if (chunk.isEmpty()) {
+                return;
+            }
+            for (BatchItemResult<Pos> result : posDataService.upsertAllByName(chunk)) {
+                if (result.succeeded()) {
+                    imported++;
+                } else {
+                    failed++;
+                }
+            }
+            chunk.clear();
+            ImportSummary progress = summary();
+            log.info("Processed {} nodes of OpenStreetMap extract ({} imported, {} failed, {} nodes/s)",
+                    progress.processed(), progress.imported(), progress.failed(),
+                    Math.round(progress.processedPerSecond()));
+        }
+
+        private @NonNull ImportSummary summary() {
+            return ImportSummary.builder()
+                    .processed(processed)
+                    .imported(imported)
+                    .failed(failed)
+                    .duration(Duration.ofNanos(System.nanoTime() - startNanos))
+                    .build();
+        }
+    }
 }
@@ -1,13 +1,17 @@
 package de.seuhd.campuscoffee.domain.impl;
 
 import java.util.List;
-import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Predicate;
 
 import org.jspecify.annotations.NonNull;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
 import de.seuhd.campuscoffee.domain.exceptions.DuplicationException;
+import de.seuhd.campuscoffee.domain.model.CollectionVersion;
 import de.seuhd.campuscoffee.domain.model.User;
+import de.seuhd.campuscoffee.domain.model.UserChange;
 import de.seuhd.campuscoffee.domain.ports.UserDataService;
 import de.seuhd.campuscoffee.domain.ports.UserService;
 import lombok.RequiredArgsConstructor;
@@ -18,6 +22,7 @@ import lombok.extern.slf4j.Slf4j;
 @RequiredArgsConstructor
 public class UserServiceImpl implements UserService {
     private final UserDataService userDataService;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     public void clear() {
@@ -31,6 +36,12 @@ public class UserServiceImpl implements UserService {
         return userDataService.getAll();
     }
 
+    @Override
+    public @NonNull Optional<List<User>> getAllIfModified(@NonNull Predicate<? super CollectionVersion> notModified) {
+        log.debug("Retrieving all Users if modified");
+        return userDataService.getAllIfModified(notModified);
+    }
+
     @Override
     public @NonNull User getById(@NonNull Long id) {
         log.debug("Retrieving User with ID: {}", id);
@@ -50,19 +61,26 @@ public class UserServiceImpl implements UserService {
             log.info("Creating new User: {}", user.name());
         } else {
             // update an existing POS
+            // the data service throws a NotFoundException if the user does not exist
             log.info("Updating User with ID: {}", user.id());
-            // POS ID must be set
-            Objects.requireNonNull(user.id());
-            // POS must exist in the database before the update
-            userDataService.getById(user.id());
         }
         return performUpsert(user);
     }
 
+    @Override
+    public @NonNull User upsertByName(@NonNull User user) {
+        log.info("Creating or updating User by login name: {}", user.name());
+        User upsertedUser = userDataService.upsertByName(user);
+        eventPublisher.publishEvent(UserChange.upserted(upsertedUser));
+        log.info("Successfully upserted User with ID: {}", upsertedUser.id());
+        return upsertedUser;
+    }
+
     @Override
     public void delete(@NonNull Long id) {
         log.info("Trying to delete User with ID: {}", id);
         userDataService.delete(id);
+        eventPublisher.publishEvent(UserChange.deleted(id));
         log.info("Deleted User with ID: {}", id);
     }
 
@@ -78,6 +96,7 @@ public class UserServiceImpl implements UserService {
     private @NonNull User performUpsert(@NonNull User user) {
         try {
             User upsertedUser = userDataService.upsert(user);
+            eventPublisher.publishEvent(UserChange.upserted(upsertedUser));
             log.info("Successfully upserted User with ID: {}", upsertedUser.id());
             return upsertedUser;
         } catch (DuplicationException e) {
@@ -0,0 +1,42 @@
+package de.seuhd.campuscoffee.domain.model;
+
+import org.jspecify.annotations.NonNull;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * Domain record for the outcome of a single item of a batch operation.
+ * Batch operations report failures per item instead of aborting the whole batch,
+ * so exactly one of {@code value} and {@code error} is set.
+ *
+ * @param index the position of the item in the batch (starting at 0)
+ * @param value the result for the item if the operation succeeded; null otherwise
+ * @param error the exception that describes why the operation failed; null if it succeeded
+ * @param <T>   the type of the result
+ */
+public record BatchItemResult<T>(
+        int index,
+        @Nullable T value,
+        @Nullable RuntimeException error
+) {
+    public static <T> @NonNull BatchItemResult<T> success(int index, @NonNull T value) {
+        return new BatchItemResult<>(index, value, null);
+    }
+
+    public static <T> @NonNull BatchItemResult<T> failure(int index, @NonNull RuntimeException error) {
+        return new BatchItemResult<>(index, null, error);
+    }
+
+    /**
+     * Returns the same result for another position, e.g., when a batch was processed in parts.
+     *
+     * @param index the position of the item in the batch
+     * @return a copy of this result with the given index
+     */
+    public @NonNull BatchItemResult<T> withIndex(int index) {
+        return new BatchItemResult<>(index, value, error);
+    }
+
+    public boolean succeeded() {
+        return error == null;
+    }
+}
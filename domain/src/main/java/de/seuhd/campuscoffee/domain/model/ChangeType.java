@@ -0,0 +1,9 @@
+package de.seuhd.campuscoffee.domain.model;
+
+/**
+ * Enum for the kinds of changes published when POS or users are written (see {@link PosChange} and
+ * {@link UserChange}).
+ */
+public enum ChangeType {
+    UPSERTED, DELETED
+}
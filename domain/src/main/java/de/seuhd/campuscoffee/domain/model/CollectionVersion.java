@@ -0,0 +1,15 @@
+package de.seuhd.campuscoffee.domain.model;
+
+import org.jspecify.annotations.NonNull;
+
+/**
+ * Domain record that identifies the current state of a collection (e.g., all POS).
+ * Every committed write to the collection changes the version, so clients can tell from an unchanged version that
+ * their copy of the collection is still up to date.
+ *
+ * @param version the version of the collection; opaque, i.e., versions can only be compared for equality
+ */
+public record CollectionVersion(
+        @NonNull String version
+) {
+}
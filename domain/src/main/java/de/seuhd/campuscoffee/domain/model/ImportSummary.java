@@ -0,0 +1,31 @@
+package de.seuhd.campuscoffee.domain.model;
+
+import lombok.Builder;
+import org.jspecify.annotations.NonNull;
+
+import java.time.Duration;
+
+/**
+ * Domain record that summarizes a long-running import.
+ *
+ * @param processed the number of items that were processed
+ * @param imported  the number of items that were imported successfully
+ * @param failed    the number of items that could not be imported
+ * @param duration  the time the import took
+ */
+@Builder
+public record ImportSummary(
+        long processed,
+        long imported,
+        long failed,
+        @NonNull Duration duration
+) {
+    /**
+     * Calculates the throughput of the import.
+     *
+     * @return the number of processed items per second
+     */
+    public double processedPerSecond() {
+        return duration.isZero() ? processed : processed * 1_000_000_000.0 / duration.toNanos();
+    }
+}
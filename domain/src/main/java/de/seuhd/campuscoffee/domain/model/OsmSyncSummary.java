@@ -0,0 +1,23 @@
+package de.seuhd.campuscoffee.domain.model;
+
+import lombok.Builder;
+import org.jspecify.annotations.NonNull;
+
+import java.time.Duration;
+
+/**
+ * Domain record that summarizes a sync of imported POS with their OpenStreetMap nodes.
+ *
+ * @param checked  the number of POS whose node was fetched
+ * @param changed  the number of POS that were updated because their node changed
+ * @param failed   the number of POS that could not be synced (e.g., the node was deleted or is incomplete)
+ * @param duration the time the sync took
+ */
+@Builder
+public record OsmSyncSummary(
+        long checked,
+        long changed,
+        long failed,
+        @NonNull Duration duration
+) {
+}
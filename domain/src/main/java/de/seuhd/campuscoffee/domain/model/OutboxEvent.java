@@ -0,0 +1,34 @@
+package de.seuhd.campuscoffee.domain.model;
+
+import org.jspecify.annotations.NonNull;
+import org.jspecify.annotations.Nullable;
+
+import java.time.LocalDateTime;
+
+/**
+ * Domain record for a change of a POS or user that was recorded in the outbox, in the same transaction as the change
+ * itself, and is relayed to downstream systems (see {@link de.seuhd.campuscoffee.domain.ports.OutboxDataService}).
+ *
+ * @param id               the ID of the event; IDs are allocated in blocks, so they neither follow the order in which
+ *                         the events were recorded nor the order of their commits
+ * @param aggregateType    the kind of the changed object, i.e., {@value #POS} or {@value #USER}
+ * @param aggregateId      the ID of the changed object
+ * @param aggregateVersion the version of the changed object after the change; a deletion has the version of the
+ *                         deleted object plus one, so the versions of the events of an object increase with their
+ *                         changes
+ * @param type             the kind of change
+ * @param payload          the changed object as written, as JSON; null if it was deleted
+ * @param createdAt        the time the change was recorded (UTC)
+ */
+public record OutboxEvent(
+        @NonNull Long id,
+        @NonNull String aggregateType,
+        @NonNull Long aggregateId,
+        @NonNull Long aggregateVersion,
+        @NonNull ChangeType type,
+        @Nullable String payload,
+        @NonNull LocalDateTime createdAt
+) {
+    public static final String POS = "pos";
+    public static final String USER = "user";
+}
@@ -18,6 +18,8 @@ import java.time.LocalDateTime;
  * @param id          the unique identifier; null when the POS has not been created yet
  * @param createdAt   timestamp set on POS creation
  * @param updatedAt   timestamp set on POS creation and update
+ * @param version     incremented on every update; when updating a POS, the version the POS must still have
+ *                    (optimistic locking), or null to overwrite any version
  * @param name        the name of the POS
  * @param description a description of the POS
  * @param type        the type of POS (cafe, bakery, etc.)
@@ -26,12 +28,17 @@ import java.time.LocalDateTime;
  * @param houseNumber house number (may include suffix such as "21a")
  * @param postalCode  postal code
  * @param city        city name
+ * @param osmNodeId   the ID of the OpenStreetMap node the POS was imported from; null if not imported from OSM
+ * @param osmVersion  the version of the OpenStreetMap node the POS data is based on; null if unknown
+ * @param latitude    the latitude of the POS in degrees (WGS 84); null if unknown
+ * @param longitude   the longitude of the POS in degrees (WGS 84); null if unknown
  */
 @Builder(toBuilder = true)
 public record Pos(
         @Nullable Long id, // null when the POS has not been created yet
         @Nullable LocalDateTime createdAt, // set on POS creation
         @Nullable LocalDateTime updatedAt, // set on POS creation and update
+        @Nullable Long version, // set on POS creation and incremented on update
         @NonNull String name,
         @NonNull String description,
         @NonNull PosType type,
@@ -39,7 +46,11 @@ public record Pos(
         @NonNull String street,
         @NonNull String houseNumber,
         @NonNull Integer postalCode,
-        @NonNull String city
+        @NonNull String city,
+        @Nullable Long osmNodeId, // set when imported from OpenStreetMap
+        @Nullable Long osmVersion, // set when imported from OpenStreetMap, if the node has a version
+        @Nullable Double latitude, // set together with longitude, e.g., when imported from OpenStreetMap
+        @Nullable Double longitude
 ) implements Serializable { // serializable to allow cloning (see TestFixtures class).
     @Serial
     private static final long serialVersionUID = 1L;
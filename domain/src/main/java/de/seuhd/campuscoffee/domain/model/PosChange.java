@@ -0,0 +1,28 @@
+package de.seuhd.campuscoffee.domain.model;
+
+import org.jspecify.annotations.NonNull;
+import org.jspecify.annotations.Nullable;
+
+import java.util.Objects;
+
+/**
+ * Domain event for a POS that was created, updated, or deleted.
+ * Published as an application event after the change was committed.
+ *
+ * @param type the kind of change
+ * @param id   the ID of the changed POS
+ * @param pos  the POS as written; null if it was deleted
+ */
+public record PosChange(
+        @NonNull ChangeType type,
+        @NonNull Long id,
+        @Nullable Pos pos
+) {
+    public static @NonNull PosChange upserted(@NonNull Pos pos) {
+        return new PosChange(ChangeType.UPSERTED, Objects.requireNonNull(pos.id()), pos);
+    }
+
+    public static @NonNull PosChange deleted(@NonNull Long id) {
+        return new PosChange(ChangeType.DELETED, id, null);
+    }
+}
@@ -0,0 +1,22 @@
+package de.seuhd.campuscoffee.domain.model;
+
+import lombok.Builder;
+import org.jspecify.annotations.NonNull;
+
+import java.util.List;
+
+/**
+ * Domain record for the changes of the POS since a given sync token, which clients apply to their copy of the POS.
+ *
+ * @param updated the POS created or updated since the given token, ordered by ID
+ * @param deleted the IDs of the POS deleted since the given token, ordered by ID
+ * @param next    the token to pass to the next request for changes; changes of transactions that were in progress
+ *                may be returned again, so clients must apply changes idempotently
+ */
+@Builder
+public record PosChanges(
+        @NonNull List<Pos> updated,
+        @NonNull List<Long> deleted,
+        @NonNull Long next
+) {
+}
@@ -0,0 +1,34 @@
+package de.seuhd.campuscoffee.domain.model;
+
+import lombok.Builder;
+import org.jspecify.annotations.NonNull;
+import org.jspecify.annotations.Nullable;
+
+import java.util.List;
+
+/**
+ * Domain record for a query of POS with optional filters, sort order, and page size.
+ * Filters that are null are not applied, and all applied filters must match.
+ *
+ * @param campus     only POS on this campus
+ * @param type       only POS of this type
+ * @param postalCode only POS with this postal code
+ * @param city       only POS in this city
+ * @param sort       the sort criteria in order of precedence; POS are always sorted by ID last
+ * @param after      only POS with an ID greater than this one (keyset pagination); only allowed without sort criteria
+ * @param limit      the maximum number of POS to return; null for no limit
+ */
+@Builder
+public record PosQuery(
+        @Nullable CampusType campus,
+        @Nullable PosType type,
+        @Nullable Integer postalCode,
+        @Nullable String city,
+        @NonNull List<PosSort> sort,
+        @Nullable Long after,
+        @Nullable Integer limit
+) {
+    public PosQuery {
+        sort = sort == null ? List.of() : List.copyOf(sort);
+    }
+}
@@ -0,0 +1,27 @@
+package de.seuhd.campuscoffee.domain.model;
+
+import org.jspecify.annotations.NonNull;
+
+/**
+ * Domain record for one sort criterion of a POS query.
+ *
+ * @param key        the property to sort by
+ * @param descending whether to sort in descending instead of ascending order
+ */
+public record PosSort(
+        @NonNull PosSortKey key,
+        boolean descending
+) {
+    /**
+     * Parses a sort criterion of the form {@code property} (ascending) or {@code -property} (descending).
+     *
+     * @param sort the sort criterion, e.g., "-postalCode"
+     * @return the parsed sort criterion
+     * @throws IllegalArgumentException if POS cannot be sorted by the property
+     */
+    public static @NonNull PosSort parse(@NonNull String sort) {
+        return sort.startsWith("-")
+                ? new PosSort(PosSortKey.fromProperty(sort.substring(1)), true)
+                : new PosSort(PosSortKey.fromProperty(sort), false);
+    }
+}
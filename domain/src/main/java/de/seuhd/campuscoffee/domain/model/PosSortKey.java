@@ -0,0 +1,42 @@
+package de.seuhd.campuscoffee.domain.model;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.jspecify.annotations.NonNull;
+
+import java.util.Arrays;
+
+/**
+ * Enum for the POS properties that POS queries can be sorted by (see {@link PosQuery}).
+ */
+@Getter
+@RequiredArgsConstructor
+public enum PosSortKey {
+    ID("id"),
+    NAME("name"),
+    TYPE("type"),
+    CAMPUS("campus"),
+    POSTAL_CODE("postalCode"),
+    CITY("city"),
+    CREATED_AT("createdAt"),
+    UPDATED_AT("updatedAt");
+
+    /**
+     * The name of the sorted property in the {@link Pos} domain model.
+     */
+    private final String property;
+
+    /**
+     * Looks up the sort key for a property of the {@link Pos} domain model.
+     *
+     * @param property the property name, e.g., "postalCode"
+     * @return the sort key for the property
+     * @throws IllegalArgumentException if POS cannot be sorted by the property
+     */
+    public static @NonNull PosSortKey fromProperty(@NonNull String property) {
+        return Arrays.stream(values())
+                .filter(key -> key.property.equals(property))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("POS cannot be sorted by '" + property + "'."));
+    }
+}
@@ -0,0 +1,48 @@
+package de.seuhd.campuscoffee.domain.model;
+
+/**
+ * Consistency required by the reads of the current thread.
+ * If the data store has replicas, reads may be served by a replica that lags behind the primary. Within
+ * {@link #requireLatest()}, reads must see all committed writes instead, e.g., because the client has just written
+ * (read-your-writes) or because the result is cached. Scopes can be nested; closing a scope restores the enclosing one.
+ */
+public final class ReadConsistency {
+    private static final ThreadLocal<Boolean> LATEST_REQUIRED = new ThreadLocal<>();
+
+    private ReadConsistency() {
+    }
+
+    /**
+     * A consistency requirement that applies until it is closed.
+     */
+    public interface Scope extends AutoCloseable {
+        @Override
+        void close();
+    }
+
+    /**
+     * Requires the reads of the current thread to see all committed writes until the returned scope is closed.
+     *
+     * @return the scope to close after the reads
+     */
+    public static Scope requireLatest() {
+        Boolean enclosing = LATEST_REQUIRED.get();
+        LATEST_REQUIRED.set(true);
+        return () -> {
+            if (enclosing == null) {
+                LATEST_REQUIRED.remove();
+            } else {
+                LATEST_REQUIRED.set(enclosing);
+            }
+        };
+    }
+
+    /**
+     * Checks whether the reads of the current thread must see all committed writes.
+     *
+     * @return true within {@link #requireLatest()}
+     */
+    public static boolean isLatestRequired() {
+        return Boolean.TRUE.equals(LATEST_REQUIRED.get());
+    }
+}
@@ -14,6 +14,8 @@ import lombok.Builder;
  * @param id
  * @param createdAt
  * @param updatedAt
+ * @param version incremented on every update; when updating a user, the version the user must still have
+ *                (optimistic locking), or null to overwrite any version
  * @param name
  * @param firstName
  * @param lastName
@@ -25,6 +27,7 @@ public record User(
         @Nullable Long id,
         @Nullable LocalDateTime createdAt,
         @Nullable LocalDateTime updatedAt,
+        @Nullable Long version,
         @NonNull String name,
         @NonNull String firstName,
         @NonNull String lastName,
@@ -0,0 +1,28 @@
+package de.seuhd.campuscoffee.domain.model;
+
+import org.jspecify.annotations.NonNull;
+import org.jspecify.annotations.Nullable;
+
+import java.util.Objects;
+
+/**
+ * Domain event for a user who was created, updated, or deleted.
+ * Published as an application event after the change was committed.
+ *
+ * @param type the kind of change
+ * @param id   the ID of the changed user
+ * @param user the user as written; null if it was deleted
+ */
+public record UserChange(
+        @NonNull ChangeType type,
+        @NonNull Long id,
+        @Nullable User user
+) {
+    public static @NonNull UserChange upserted(@NonNull User user) {
+        return new UserChange(ChangeType.UPSERTED, Objects.requireNonNull(user.id()), user);
+    }
+
+    public static @NonNull UserChange deleted(@NonNull Long id) {
+        return new UserChange(ChangeType.DELETED, id, null);
+    }
+}
@@ -1,9 +1,15 @@
 package de.seuhd.campuscoffee.domain.ports;
 
+import de.seuhd.campuscoffee.domain.exceptions.MissingFieldException;
+import de.seuhd.campuscoffee.domain.model.BatchItemResult;
 import de.seuhd.campuscoffee.domain.model.OsmNode;
 import de.seuhd.campuscoffee.domain.exceptions.NotFoundException;
 import org.jspecify.annotations.NonNull;
 
+import java.nio.file.Path;
+import java.util.List;
+import java.util.function.Consumer;
+
 /**
  * Port for importing Point of Sale data from OpenStreetMap.
  * This interface defines the contract for fetching OSM node data.
@@ -18,4 +24,29 @@ public interface OsmDataService {
      * @throws NotFoundException if the node doesn't exist or can't be fetched
      */
     @NonNull OsmNode fetchNode(@NonNull Long nodeId);
+
+    /**
+     * Fetches multiple OpenStreetMap nodes by their IDs.
+     * Implementations should fetch many nodes per request to the OSM API instead of one request per node.
+     *
+     * @param nodeIds the OpenStreetMap node IDs to fetch
+     * @return one result per node ID in the order of the input list; never null. Failed results contain a
+     *         {@link NotFoundException} if the node doesn't exist or can't be fetched, or a
+     *         {@link MissingFieldException} if the node lacks required fields.
+     */
+    @NonNull List<BatchItemResult<OsmNode>> fetchNodes(@NonNull List<Long> nodeIds);
+
+    /**
+     * Reads the POS candidates from a local OpenStreetMap extract file, i.e., all nodes with an amenity that is
+     * supported by {@link de.seuhd.campuscoffee.domain.model.OsmAmenity}. Other nodes are skipped.
+     * The file is streamed, so implementations must not keep the nodes in memory.
+     *
+     * @param file     the OSM extract file
+     * @param consumer the consumer that is called for each POS candidate in file order; the index of the result
+     *                 counts the candidates. Failed results contain a {@link MissingFieldException} if the node
+     *                 lacks required fields.
+     * @throws IllegalArgumentException if the file format is not supported or the file is malformed
+     * @throws java.io.UncheckedIOException if the file cannot be read
+     */
+    void streamExtract(@NonNull Path file, @NonNull Consumer<? super BatchItemResult<OsmNode>> consumer);
 }
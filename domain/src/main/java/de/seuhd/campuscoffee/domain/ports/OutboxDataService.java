@@ -0,0 +1,22 @@
+package de.seuhd.campuscoffee.domain.ports;
+
+import de.seuhd.campuscoffee.domain.model.OutboxEvent;
+import org.jspecify.annotations.NonNull;
+
+/**
+ * Port for relaying the outbox, in which the data services record every change of a POS or user in the transaction
+ * that writes the change (see {@link OutboxEvent}).
+ */
+public interface OutboxDataService {
+    /**
+     * Sends the oldest pending events to the sink and removes them from the outbox.
+     * Several application instances may relay concurrently: events that another instance is currently sending are
+     * skipped, so every batch is only sent by one instance. No delivery order is guaranteed, not even for the events
+     * of one object; consumers order them by their versions as described in {@link OutboxSink}.
+     *
+     * @param limit the maximum number of events to send
+     * @param sink  the sink to send the events to; if it throws, the events stay in the outbox
+     * @return the number of events sent; less than the limit if the outbox is drained
+     */
+    int relay(int limit, @NonNull OutboxSink sink);
+}
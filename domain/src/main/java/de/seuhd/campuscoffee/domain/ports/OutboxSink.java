@@ -0,0 +1,27 @@
+package de.seuhd.campuscoffee.domain.ports;
+
+import de.seuhd.campuscoffee.domain.model.OutboxEvent;
+import org.jspecify.annotations.NonNull;
+
+import java.util.List;
+
+/**
+ * Port for the destination of the outbox events, e.g., a log or a message broker.
+ * Events are delivered at least once: if a sink throws, the whole batch is sent again later.
+ * <p>
+ * Events are not delivered in the order of their changes, not even for the same object: event IDs are allocated in
+ * blocks, transactions commit in any order, and concurrent relays send their batches independently. Consumers
+ * therefore order the events of an object by {@link OutboxEvent#aggregateVersion()}, which increases with every
+ * change of the object, including its deletion, and apply an event only if its version is greater than that of the
+ * last event they applied for the object; this also discards events that are delivered again.
+ */
+@FunctionalInterface
+public interface OutboxSink {
+    /**
+     * Sends a batch of outbox events.
+     *
+     * @param events the events ordered by their IDs, which is neither the order of their commits nor of their versions
+     * @throws RuntimeException if the events could not be sent; they are kept in the outbox then
+     */
+    void send(@NonNull List<OutboxEvent> events);
+}
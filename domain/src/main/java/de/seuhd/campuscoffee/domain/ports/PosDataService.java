@@ -1,10 +1,23 @@
 package de.seuhd.campuscoffee.domain.ports;
 
+import de.seuhd.campuscoffee.domain.exceptions.DuplicationException;
+import de.seuhd.campuscoffee.domain.model.BatchItemResult;
+import de.seuhd.campuscoffee.domain.model.CollectionVersion;
 import de.seuhd.campuscoffee.domain.model.Pos;
+import de.seuhd.campuscoffee.domain.model.PosChanges;
+import de.seuhd.campuscoffee.domain.model.PosQuery;
 import de.seuhd.campuscoffee.domain.exceptions.NotFoundException;
+import de.seuhd.campuscoffee.domain.exceptions.SyncTokenExpiredException;
+import de.seuhd.campuscoffee.domain.exceptions.VersionConflictException;
 import org.jspecify.annotations.NonNull;
+import org.jspecify.annotations.Nullable;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
 
 /**
  * Port interface for POS data operations.
@@ -28,6 +41,91 @@ public interface PosDataService {
      */
     @NonNull List<Pos> getAll();
 
+    /**
+     * Retrieves a page of POS entities ordered by their ID (keyset pagination).
+     * In contrast to offset pagination, the cost of a page does not grow with its position in the table.
+     *
+     * @param after the ID of the last POS of the previous page (exclusive); null to start with the first POS
+     * @param limit the maximum number of POS to return; must be positive
+     * @return the POS with an ID greater than {@code after}, ordered by ID; never null, but may be empty
+     */
+    @NonNull List<Pos> getPage(@Nullable Long after, int limit);
+
+    /**
+     * Retrieves the POS entities that match the filters of the given query with a single query to the data store,
+     * sorted by the given criteria and finally by ID.
+     *
+     * @param query the filters, sort criteria, and page size; must not be null
+     * @return the matching POS; never null, but may be empty
+     */
+    @NonNull List<Pos> query(@NonNull PosQuery query);
+
+    /**
+     * Retrieves the POS entities that match the given query like {@link #query}, unless the caller's copy of them is
+     * still up to date. The version of the POS collection, which changes with every committed write, and the POS are
+     * read in a single transaction, i.e., with a single connection; the version is read first, so that a concurrent
+     * write results in an outdated version rather than in a missed change.
+     *
+     * @param query       the filters, sort criteria, and page size; must not be null
+     * @param notModified called with the current version of the POS collection; returns true if the caller's copy
+     *                    is up to date, so that the POS need not be read
+     * @return the matching POS, or empty if the caller's copy is up to date; never null
+     */
+    @NonNull Optional<List<Pos>> queryIfModified(@NonNull PosQuery query,
+                                                 @NonNull Predicate<? super CollectionVersion> notModified);
+
+    /**
+     * Searches the names and descriptions of all POS entities using full-text search and trigram similarity.
+     *
+     * @param query  the search query; must not be blank
+     * @param offset the number of hits to skip
+     * @param limit  the maximum number of hits to return; must be positive
+     * @return the hits ranked by relevance, best hits first; never null, but may be empty
+     */
+    @NonNull List<Pos> search(@NonNull String query, int offset, int limit);
+
+    /**
+     * Retrieves the POS entities with coordinates within the given distance of a location.
+     *
+     * @param latitude  the latitude of the location in degrees (WGS 84)
+     * @param longitude the longitude of the location in degrees (WGS 84)
+     * @param radius    the maximum distance in meters; must be positive
+     * @param limit     the maximum number of POS to return; must be positive
+     * @return the POS within the distance, nearest first; never null, but may be empty
+     */
+    @NonNull List<Pos> nearby(double latitude, double longitude, double radius, int limit);
+
+    /**
+     * Passes all POS entities ordered by their ID to the given consumer, one at a time.
+     * Rows are read from the data store incrementally, so memory usage does not depend on the number of POS.
+     *
+     * @param consumer the consumer that is called for each POS; must not be null
+     */
+    void streamAll(@NonNull Consumer<? super Pos> consumer);
+
+
+    /**
+     * Retrieves the POS entities created, updated, or deleted since the given sync token.
+     * Only changed POS are read from the data store; deleted POS are known from the tombstones written on deletion.
+     * Tokens follow the order in which changes become visible, so no change is skipped, even if its transaction
+     * commits after later ones.
+     *
+     * @param since the token returned by the previous call; null to retrieve all POS
+     * @return the changed POS, the IDs of the deleted POS, and the token to pass to the next call; never null
+     * @throws SyncTokenExpiredException if tombstones that the token would need were pruned (see
+     *                                   {@link #pruneDeletions})
+     */
+    @NonNull PosChanges getChanges(@Nullable Long since);
+
+    /**
+     * Removes the tombstones of POS deleted before the given time, so that they do not accumulate forever.
+     * Tokens that were returned before these deletions expire, since their changes would lack the deletions.
+     *
+     * @param deletedBefore the exclusive upper bound of the deletion time
+     * @return the number of removed tombstones
+     */
+    int pruneDeletions(@NonNull LocalDateTime deletedBefore);
+
     /**
      * Retrieves a single POS entity by its unique name and returns it as a domain object.
      *
@@ -50,13 +148,69 @@ public interface PosDataService {
      * Creates a new POS or updates an existing one.
      * If the POS has an ID and exists in the data store, it will be updated.
      * If the POS has no ID (null), a new POS will be created.
+     * An update with a version only succeeds if the stored POS still has this version (optimistic locking);
+     * an update without a version overwrites any version.
      *
      * @param pos the POS to create or update; must not be null
      * @return the persisted POS entity with updated timestamps and ID as a domain object; never null
      * @throws NotFoundException if attempting to update a POS that does not exist
+     * @throws VersionConflictException if attempting to update a POS that no longer has the given version
      */
     @NonNull Pos upsert(@NonNull Pos pos);
 
+    /**
+     * Creates or updates many POS at once.
+     * The POS are written in chunks, each chunk in a single transaction using batched statements.
+     * Items that cannot be written are reported individually and do not affect the other items.
+     *
+     * @param posList the POS to create (no ID) or update (existing ID); must not be null
+     * @return one result per POS in the order of the input list; a failed result contains a
+     *         {@link NotFoundException} for unknown IDs or a {@link DuplicationException} for duplicate names
+     */
+    @NonNull List<BatchItemResult<Pos>> upsertAll(@NonNull List<Pos> posList);
+
+    /**
+     * Creates a new POS or updates the existing POS with the same name, e.g., when an import is repeated.
+     * The data store resolves the name in the same statement that writes the POS, so an existing name neither
+     * needs to be looked up first nor causes a {@link DuplicationException}. The ID of the given POS is ignored;
+     * an existing POS keeps its ID and creation time.
+     *
+     * @param pos the POS to create or update; must not be null
+     * @return the persisted POS with its ID and timestamps; never null
+     */
+    @NonNull Pos upsertByName(@NonNull Pos pos);
+
+    /**
+     * Creates or updates many POS by their names at once, like {@link #upsertByName(Pos)}.
+     * The POS are written in chunks, each chunk with a single statement in its own transaction.
+     * Items that cannot be written are reported individually and do not affect the other items.
+     *
+     * @param posList the POS to create or update; must not be null
+     * @return one result per POS in the order of the input list; a failed result contains a
+     *         {@link DuplicationException} if the name already occurred earlier in the list
+     */
+    @NonNull List<BatchItemResult<Pos>> upsertAllByName(@NonNull List<Pos> posList);
+
+    /**
+     * Retrieves a page of POS imported from OpenStreetMap that have not been synced with their source node since
+     * the given time, ordered by their ID (keyset pagination).
+     *
+     * @param after        the ID of the last POS of the previous page (exclusive); null to start with the first POS
+     * @param syncedBefore POS synced at or after this time (UTC) are skipped; POS that have never been synced
+     *                     count as synced at their last update
+     * @param limit        the maximum number of POS to return; must be positive
+     * @return the POS with an OSM node ID that need to be synced, ordered by ID; never null, but may be empty
+     */
+    @NonNull List<Pos> getOsmSyncCandidates(@Nullable Long after, @NonNull LocalDateTime syncedBefore, int limit);
+
+    /**
+     * Records that the given POS have just been synced with their OpenStreetMap node.
+     * Does not change the update timestamps of the POS.
+     *
+     * @param ids the IDs of the synced POS; must not be null
+     */
+    void markOsmSynced(@NonNull Collection<Long> ids);
+
     /**
      * Deletes a POS by its unique identifier.
      *
@@ -2,12 +2,26 @@ package de.seuhd.campuscoffee.domain.ports;
 
 import de.seuhd.campuscoffee.domain.exceptions.DuplicationException;
 import de.seuhd.campuscoffee.domain.exceptions.NotFoundException;
+import de.seuhd.campuscoffee.domain.exceptions.SyncTokenExpiredException;
+import de.seuhd.campuscoffee.domain.exceptions.VersionConflictException;
 import de.seuhd.campuscoffee.domain.exceptions.MissingFieldException;
+import de.seuhd.campuscoffee.domain.model.BatchItemResult;
 import de.seuhd.campuscoffee.domain.model.CampusType;
+import de.seuhd.campuscoffee.domain.model.CollectionVersion;
+import de.seuhd.campuscoffee.domain.model.ImportSummary;
+import de.seuhd.campuscoffee.domain.model.OsmSyncSummary;
 import de.seuhd.campuscoffee.domain.model.Pos;
+import de.seuhd.campuscoffee.domain.model.PosChanges;
+import de.seuhd.campuscoffee.domain.model.PosQuery;
 import org.jspecify.annotations.NonNull;
+import org.jspecify.annotations.Nullable;
 
+import java.nio.file.Path;
+import java.time.Duration;
 import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
 
 /**
  * Service interface for POS (Point of Sale) operations.
@@ -32,6 +46,97 @@ public interface PosService {
      */
     @NonNull List<Pos> getAll();
 
+    /**
+     * Retrieves a page of Points of Sale ordered by their ID.
+     * Clients pass the ID of the last POS they received as {@code after} to fetch the next page.
+     *
+     * @param after the ID of the last POS of the previous page (exclusive); null to start with the first POS
+     * @param limit the maximum number of POS to return; must be positive
+     * @return the next page of POS; never null, but may be empty if there are no further POS
+     * @throws IllegalArgumentException if the limit is not positive
+     */
+    @NonNull List<Pos> getPage(@Nullable Long after, int limit);
+
+    /**
+     * Retrieves the Points of Sale that match the filters of the given query, sorted as requested.
+     * Without sort criteria, the POS are ordered by their ID, and {@code after} can be used to fetch the next page.
+     *
+     * @param query the filters, sort criteria, and page size; must not be null
+     * @return the matching POS; never null, but may be empty if no POS match
+     * @throws IllegalArgumentException if the limit is not positive or {@code after} is combined with sort criteria
+     */
+    @NonNull List<Pos> query(@NonNull PosQuery query);
+
+    /**
+     * Retrieves the Points of Sale that match the given query like {@link #query}, unless the client's copy of them is
+     * still up to date. The version of the POS collection changes whenever a POS is created, updated, or deleted, so
+     * clients can use it to check whether their copy is up to date without fetching the POS.
+     *
+     * @param query       the filters, sort criteria, and page size; must not be null
+     * @param notModified called with the current version of the POS collection; returns true if the client's copy
+     *                    is up to date
+     * @return the matching POS, or empty if the client's copy is up to date; never null
+     * @throws IllegalArgumentException if the limit is not positive or {@code after} is combined with sort criteria
+     */
+    @NonNull Optional<List<Pos>> queryIfModified(@NonNull PosQuery query,
+                                                 @NonNull Predicate<? super CollectionVersion> notModified);
+
+    /**
+     * Searches the names and descriptions of all Points of Sale, tolerating typos, and returns the best hits first.
+     *
+     * @param query  the search query, e.g., "botanik"; quoted phrases and "-word" to exclude words are supported
+     * @param offset the number of hits to skip (for pagination); must not be negative
+     * @param limit  the maximum number of hits to return; must be positive
+     * @return the hits, best hits first; never null, but may be empty
+     * @throws IllegalArgumentException if the query is blank, the offset is negative, or the limit is not positive
+     */
+    @NonNull List<Pos> search(@NonNull String query, int offset, int limit);
+
+    /**
+     * Retrieves the Points of Sale nearest to a location, e.g., to find the closest coffee.
+     * POS without coordinates are not considered.
+     *
+     * @param latitude  the latitude of the location in degrees (WGS 84); between -90 and 90
+     * @param longitude the longitude of the location in degrees (WGS 84); between -180 and 180
+     * @param radius    the maximum distance of the POS in meters; must be positive
+     * @param limit     the maximum number of POS to return; must be positive
+     * @return the POS within the distance, nearest first; never null, but may be empty
+     * @throws IllegalArgumentException if a coordinate is out of range, or the radius or limit is not positive
+     */
+    @NonNull List<Pos> nearby(double latitude, double longitude, double radius, int limit);
+
+    /**
+     * Passes all Points of Sale ordered by their ID to the given consumer without loading them into memory at once.
+     * This is intended for large exports that are written to the client row by row.
+     *
+     * @param consumer the consumer that is called for each POS; must not be null
+     */
+    void streamAll(@NonNull Consumer<? super Pos> consumer);
+
+    /**
+     * Retrieves the changes of the Points of Sale since the given sync token, so that clients that keep a copy of the
+     * POS only need to fetch what changed instead of all POS.
+     * Clients pass the token returned with the changes to the next call.
+     *
+     * Deleted POS are only reported for a limited time (see {@link #pruneDeletions}); clients whose token is older
+     * have to fetch all POS again.
+     *
+     * @param since the token returned with the previous changes; null to retrieve all POS
+     * @return the created or updated POS, the IDs of the deleted POS, and the token for the next call; never null
+     * @throws SyncTokenExpiredException if the token is older than the retained deletions
+     */
+    @NonNull PosChanges getChanges(@Nullable Long since);
+
+    /**
+     * Forgets the Points of Sale deleted longer ago than the given retention, so that they are no longer reported as
+     * deleted by {@link #getChanges}. Sync tokens that were returned before these deletions expire.
+     *
+     * @param retention how long deleted POS are reported; must be positive
+     * @return the number of forgotten deleted POS
+     * @throws IllegalArgumentException if the retention is not positive
+     */
+    int pruneDeletions(@NonNull Duration retention);
+
     /**
      * Retrieves a specific Point of Sale by its unique identifier.
      *
@@ -68,10 +173,32 @@ public interface PosService {
      * @param pos the POS entity to create or update; must not be null
      * @return the persisted POS entity with populated ID and timestamps; never null
      * @throws NotFoundException if attempting to update a POS that does not exist
+     * @throws VersionConflictException if the POS has a version, but the stored POS no longer has this version
      * @throws DuplicationException if a POS with the same name already exists
      */
     @NonNull Pos upsert(@NonNull Pos pos);
 
+    /**
+     * Creates a new POS or updates the existing POS with the same name.
+     * In contrast to {@link #upsert(Pos)}, an existing name is not a conflict, so importing the same POS again
+     * (e.g., from OpenStreetMap or a fixture file) updates it instead of failing. The ID of the given POS is ignored.
+     *
+     * @param pos the POS to create or update; must not be null
+     * @return the persisted POS with its ID and timestamps; never null
+     */
+    @NonNull Pos upsertByName(@NonNull Pos pos);
+
+    /**
+     * Creates or updates many Points of Sale in one operation.
+     * In contrast to {@link #upsert(Pos)}, a failing POS does not abort the operation. Instead, the failure
+     * is reported in the result for that POS, and all other POS are still created or updated.
+     *
+     * @param posList the POS to create (no ID) or update (existing ID); must not be null
+     * @return one result per POS in the order of the input list; never null. Failed results contain a
+     *         {@link NotFoundException} for unknown IDs or a {@link DuplicationException} for duplicate names.
+     */
+    @NonNull List<BatchItemResult<Pos>> upsertAll(@NonNull List<Pos> posList);
+
     /**
      * Imports a Point of Sale from an OpenStreetMap node.
      * Fetches POS data from OpenStreetMap using the {@link OsmDataService}, converts it to a POS entity,
@@ -82,7 +209,7 @@ public interface PosService {
      *   <li>Fetches the OSM node data using the provided node ID</li>
      *   <li>Extracts relevant tags (name, address, etc.)</li>
      *   <li>Maps OSM data to the POS domain model </li>
-     *   <li>Persists the POS entity using the upsert method</li>
+     *   <li>Persists the POS entity using {@link #upsertByName(Pos)}</li>
      * </ol>
      *
      * @param nodeId the OpenStreetMap node ID to import; must not be null
@@ -90,10 +217,55 @@ public interface PosService {
      * @return the created or updated POS entity; never null
      * @throws NotFoundException if the OSM node with the given ID doesn't exist or cannot be fetched
      * @throws MissingFieldException if the OSM node lacks required fields for creating a valid POS
-     * @throws DuplicationException if a POS with the same name already exists
      */
     @NonNull Pos importFromOsmNode(@NonNull Long nodeId, @NonNull CampusType campusType);
 
+    /**
+     * Imports multiple Point of Sale objects from OpenStreetMap nodes at once.
+     * The nodes are fetched with {@link OsmDataService#fetchNodes(List)}, which fetches many nodes per request
+     * to the OpenStreetMap API, and the resulting POS are written by name with
+     * {@link PosDataService#upsertAllByName(List)}.
+     * In contrast to {@link #importFromOsmNode(Long, CampusType)}, a failing node does not abort the import.
+     * Instead, the failure is reported in the result for this node.
+     *
+     * @param nodeIds    the OpenStreetMap node IDs to import; must not be null
+     * @param campusType the campus type to assign to the imported POS; must not be null
+     * @return one result per node ID in the order of the input list; never null. Failed results contain a
+     *         {@link NotFoundException} or {@link MissingFieldException} as described for
+     *         {@link #importFromOsmNode(Long, CampusType)}, or a {@link DuplicationException} if a node yields a
+     *         name that an earlier node of the import already had.
+     */
+    @NonNull List<BatchItemResult<Pos>> importFromOsmNodes(@NonNull List<Long> nodeIds, @NonNull CampusType campusType);
+
+    /**
+     * Imports all POS from a local OpenStreetMap extract file, e.g., of a whole city.
+     * The nodes are read with {@link OsmDataService#streamExtract(Path, java.util.function.Consumer)}, converted
+     * like in {@link #importFromOsmNode(Long, CampusType)}, and written in chunks with the batch upsert by name of the
+     * {@link PosDataService}, so the memory usage does not depend on the file size and a repeated import updates the
+     * POS of the previous one. Nodes that cannot be imported (e.g., missing fields or a name that occurs twice in a
+     * chunk) are counted as failed and do not abort the import.
+     *
+     * @param file       the OSM extract file; must not be null
+     * @param campusType the campus type to assign to all imported POS; must not be null
+     * @return the number of processed, imported, and failed nodes; never null
+     * @throws IllegalArgumentException if the file format is not supported or the file is malformed
+     */
+    @NonNull ImportSummary importFromOsmExtract(@NonNull Path file, @NonNull CampusType campusType);
+
+    /**
+     * Syncs the POS imported from OpenStreetMap with their source nodes.
+     * Only POS that have not been synced for at least {@code maxAge} are checked. Their nodes are fetched in
+     * batches with {@link OsmDataService#fetchNodes(List)}, which respects the OSM API request limits, and POS whose
+     * node changed are updated with {@link PosDataService#upsert(Pos)}; the campus of a POS is kept.
+     * A POS that cannot be synced (e.g., because its node was deleted) is counted as failed, left unchanged,
+     * and checked again in the next sync.
+     *
+     * @param maxAge    the minimum time since the last sync of a POS; must not be null
+     * @param batchSize the number of POS whose nodes are fetched together; must be positive
+     * @return the number of checked, changed, and failed POS; never null
+     */
+    @NonNull OsmSyncSummary syncFromOsm(@NonNull Duration maxAge, int batchSize);
+
     /**
      * Deletes a Point of Sale by its unique identifier.
      *
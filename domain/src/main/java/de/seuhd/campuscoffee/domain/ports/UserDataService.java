@@ -1,10 +1,15 @@
 package de.seuhd.campuscoffee.domain.ports;
 
 import java.util.List;
+import java.util.Optional;
+import java.util.function.Predicate;
 
 import org.jspecify.annotations.NonNull;
 
+import de.seuhd.campuscoffee.domain.exceptions.DuplicationException;
 import de.seuhd.campuscoffee.domain.exceptions.NotFoundException;
+import de.seuhd.campuscoffee.domain.exceptions.VersionConflictException;
+import de.seuhd.campuscoffee.domain.model.CollectionVersion;
 import de.seuhd.campuscoffee.domain.model.User;
 
 /**
@@ -32,6 +37,17 @@ public interface UserDataService {
      */
     @NonNull List<User> getAll();
 
+    /**
+     * Retrieves all user entities like {@link #getAll()}, unless the caller's copy of them is still up to date.
+     * The version of the user collection, which changes with every committed write, and the users are read in a
+     * single transaction, i.e., with a single connection; the version is read first.
+     *
+     * @param notModified called with the current version of the user collection; returns true if the caller's copy
+     *                    is up to date, so that the users need not be read
+     * @return all users, or empty if the caller's copy is up to date; never null
+     */
+    @NonNull Optional<List<User>> getAllIfModified(@NonNull Predicate<? super CollectionVersion> notModified);
+
     /**
      * Retrieves a single user entity by its unique identifier and returns it as a domain object.
      *
@@ -54,13 +70,28 @@ public interface UserDataService {
      * Creates a new user or updates an existing one.
      * If the user has an ID and exists in the data store, it will be updated.
      * If the user has no ID (null), a new user will be created.
+     * An update with a version only succeeds if the stored user still has this version (optimistic locking);
+     * an update without a version overwrites any version.
      *
      * @param user the user to create or update; must not be null
      * @return the persisted user entity with updated timestamps and ID as a domain object; never null
      * @throws NotFoundException if attempting to update a user that does not exist
+     * @throws VersionConflictException if attempting to update a user that no longer has the given version
      */
     @NonNull User upsert(@NonNull User user);
 
+    /**
+     * Creates a new user or updates the existing user with the same login name, e.g., when an import is repeated.
+     * The data store resolves the login name in the same statement that writes the user, so an existing login name
+     * neither needs to be looked up first nor causes a {@link DuplicationException}. The ID of the given user is
+     * ignored; an existing user keeps their ID and creation time.
+     *
+     * @param user the user to create or update; must not be null
+     * @return the persisted user with their ID and timestamps; never null
+     * @throws DuplicationException if another user already has the email address
+     */
+    @NonNull User upsertByName(@NonNull User user);
+
     /**
      * Deletes a user by their unique identifier.
      *
@@ -1,8 +1,13 @@
 package de.seuhd.campuscoffee.domain.ports;
 
 import java.util.List;
+import java.util.Optional;
+import java.util.function.Predicate;
 
+import de.seuhd.campuscoffee.domain.exceptions.DuplicationException;
 import de.seuhd.campuscoffee.domain.exceptions.NotFoundException;
+import de.seuhd.campuscoffee.domain.exceptions.VersionConflictException;
+import de.seuhd.campuscoffee.domain.model.CollectionVersion;
 import de.seuhd.campuscoffee.domain.model.User;
 import io.micrometer.common.lang.NonNull;
 
@@ -15,6 +20,16 @@ public interface UserService {
  */
 @NonNull List<User> getall();
 
+/**
+ * Retrieves all users, unless the client's copy of them is still up to date.
+ * The version of the user collection changes whenever a user is created, updated, or deleted.
+ *
+ * @param notModified called with the current version of the user collection; returns true if the client's copy is
+ *                    up to date
+ * @return all users, or empty if the client's copy is up to date
+ */
+@NonNull Optional<List<User>> getAllIfModified(@NonNull Predicate<? super CollectionVersion> notModified);
+
 /**
  * 
  * @param id
@@ -36,9 +51,20 @@ public interface UserService {
  * @param user
  * @return
  * @throws NotFoundException
+ * @throws VersionConflictException if the user has a version, but the stored user no longer has this version
  */
 @NonNull User upsert(@NonNull User user);
 
+/**
+ * Creates a new user or updates the existing user with the same login name, so that importing the same user again
+ * (e.g., from a fixture file) updates them instead of failing. The ID of the given user is ignored.
+ *
+ * @param user the user to create or update; must not be null
+ * @return the persisted user with their ID and timestamps; never null
+ * @throws DuplicationException if another user already has the email address
+ */
+@NonNull User upsertByName(@NonNull User user);
+
 
 @NonNull
 
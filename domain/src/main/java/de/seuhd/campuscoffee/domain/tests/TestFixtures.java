@@ -52,18 +52,21 @@ public class TestFixtures {
                     .name("Schmelzpunkt").description("Great waffles")
                     .type(PosType.CAFE).campus(CampusType.ALTSTADT)
                     .street("Hauptstraße").houseNumber("90").postalCode(69117).city("Heidelberg")
+                    .latitude(49.4107).longitude(8.7037)
                     .build(),
             Pos.builder()
                     .id(1L).createdAt(DATE_TIME).updatedAt(DATE_TIME)
                     .name("Bäcker Görtz ").description("Walking distance to lecture hall")
                     .type(PosType.BAKERY).campus(CampusType.INF)
                     .street("Berliner Str.").houseNumber("43").postalCode(69120).city("Heidelberg")
+                    .latitude(49.4179).longitude(8.6793)
                     .build(),
             Pos.builder()
                     .id(1L).createdAt(DATE_TIME).updatedAt(DATE_TIME)
                     .name("Café Botanik").description("Outdoor seating available")
                     .type(PosType.CAFETERIA).campus(CampusType.INF)
                     .street("Im Neuenheimer Feld").houseNumber("304").postalCode(69120).city("Heidelberg")
+                    .latitude(49.4166).longitude(8.6703)
                     .build(),
             Pos.builder()
                     .id(1L).createdAt(DATE_TIME).updatedAt(DATE_TIME)
@@ -99,13 +102,13 @@ public class TestFixtures {
 
     public static List<User> createUsers(UserService userService) {
         return getUserListForInsertion().stream()
-                .map(userService::upsert)
+                .map(userService::upsertByName)
                 .collect(Collectors.toList());
     }
 
     public static List<Pos> createPosFixtures(PosService posService) {
         return getPosFixturesForInsertion().stream()
-                .map(posService::upsert)
+                .map(posService::upsertByName)
                 .collect(Collectors.toList());
     }
 }
@@ -1,7 +1,20 @@
 package de.seuhd.campuscoffee.domain.ports;
 
 import de.seuhd.campuscoffee.domain.exceptions.NotFoundException;
+import de.seuhd.campuscoffee.domain.exceptions.DuplicationException;
+import de.seuhd.campuscoffee.domain.exceptions.MissingFieldException;
+import de.seuhd.campuscoffee.domain.exceptions.VersionConflictException;
+import de.seuhd.campuscoffee.domain.model.BatchItemResult;
+import de.seuhd.campuscoffee.domain.model.CampusType;
+import de.seuhd.campuscoffee.domain.model.ImportSummary;
+import de.seuhd.campuscoffee.domain.model.OsmAmenity;
+import de.seuhd.campuscoffee.domain.model.OsmNode;
+import de.seuhd.campuscoffee.domain.model.OsmSyncSummary;
 import de.seuhd.campuscoffee.domain.model.Pos;
+import de.seuhd.campuscoffee.domain.model.PosChange;
+import de.seuhd.campuscoffee.domain.model.PosQuery;
+import de.seuhd.campuscoffee.domain.model.PosSort;
+import de.seuhd.campuscoffee.domain.model.PosType;
 import de.seuhd.campuscoffee.domain.tests.TestFixtures;
 import de.seuhd.campuscoffee.domain.impl.PosServiceImpl;
 import org.junit.jupiter.api.Test;
@@ -9,13 +22,22 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
+import java.util.function.Consumer;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.*;
 
@@ -25,6 +47,12 @@ public class PosServiceTest {
     @Mock
     private PosDataService posDataService;
 
+    @Mock
+    private OsmDataService osmDataService;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private PosServiceImpl posService;
 
@@ -78,11 +106,13 @@ public class PosServiceTest {
         // given
         Pos pos = TestFixtures.getPosList().getFirst();
         Objects.requireNonNull(pos.id());
-        when(posDataService.getById(pos.id())).thenThrow(new NotFoundException(Pos.class, pos.id()));
+        when(posDataService.upsert(pos)).thenThrow(new NotFoundException(Pos.class, pos.id()));
 
         // when, then
         assertThrows(NotFoundException.class, () -> posService.upsert(pos));
-        verify(posDataService).getById(pos.id());
+        // existence is checked by the update itself, not by a separate read
+        verify(posDataService, never()).getById(any());
+        verify(eventPublisher, never()).publishEvent(any());
     }
 
 
@@ -91,12 +121,49 @@ public class PosServiceTest {
         // given
         Pos pos = TestFixtures.getPosList().getFirst();
         pos = pos.toBuilder().id(null).build();
-        when(posDataService.upsert(pos)).thenReturn(pos);
+        Pos createdPos = pos.toBuilder().id(1L).build();
+        when(posDataService.upsert(pos)).thenReturn(createdPos);
 
         // when, then
         posService.upsert(pos);
 
         verify(posDataService).upsert(pos);
+        verify(eventPublisher).publishEvent(PosChange.upserted(createdPos));
+    }
+
+    @Test
+    void upsertExistingPos() {
+        // given
+        Pos pos = TestFixtures.getPosList().getFirst();
+        when(posDataService.upsert(pos)).thenReturn(pos);
+
+        // when
+        Pos updatedPos = posService.upsert(pos);
+
+        // then
+        assertThat(updatedPos).isEqualTo(pos);
+        verify(posDataService, never()).getById(any());
+        verify(eventPublisher).publishEvent(PosChange.upserted(pos));
+    }
+
+    @Test
+    void deletePublishesChange() {
+        // when
+        posService.delete(1L);
+
+        // then
+        verify(posDataService).delete(1L);
+        verify(eventPublisher).publishEvent(PosChange.deleted(1L));
+    }
+
+    @Test
+    void deleteNotFoundPublishesNoChange() {
+        // given
+        doThrow(new NotFoundException(Pos.class, 1L)).when(posDataService).delete(1L);
+
+        // when, then
+        assertThrows(NotFoundException.class, () -> posService.delete(1L));
+        verifyNoInteractions(eventPublisher);
     }
 
     @Test
@@ -114,5 +181,336 @@ public class PosServiceTest {
                 .isEqualTo(pos);
         verify(posDataService).getByName(pos.name());
     }
-}
 
+    @Test
+    void getPageRetrievesPageAfterId() {
+        // given
+        List<Pos> page = TestFixtures.getPosList().subList(1, 3);
+        when(posDataService.getPage(1L, 2)).thenReturn(page);
+
+        // when
+        List<Pos> retrievedPos = posService.getPage(1L, 2);
+
+        // then
+        verify(posDataService).getPage(1L, 2);
+        assertThat(retrievedPos)
+                .usingRecursiveFieldByFieldElementComparator()
+                .containsExactlyElementsOf(page);
+    }
+
+    @Test
+    void getPageRejectsNonPositiveLimit() {
+        // when, then
+        assertThrows(IllegalArgumentException.class, () -> posService.getPage(null, 0));
+        verify(posDataService, never()).getPage(any(), anyInt());
+    }
+
+    @Test
+    void searchStripsQuery() {
+        // given
+        List<Pos> hits = TestFixtures.getPosList().subList(2, 3);
+        when(posDataService.search("botanik", 0, 10)).thenReturn(hits);
+
+        // when
+        List<Pos> retrievedPos = posService.search(" botanik ", 0, 10);
+
+        // then
+        verify(posDataService).search("botanik", 0, 10);
+        assertThat(retrievedPos).containsExactlyElementsOf(hits);
+    }
+
+    @Test
+    void searchRejectsInvalidParameters() {
+        // when, then
+        assertThrows(IllegalArgumentException.class, () -> posService.search(" ", 0, 10));
+        assertThrows(IllegalArgumentException.class, () -> posService.search("botanik", -1, 10));
+        assertThrows(IllegalArgumentException.class, () -> posService.search("botanik", 0, 0));
+        verify(posDataService, never()).search(any(), anyInt(), anyInt());
+    }
+
+    @Test
+    void nearbyRejectsInvalidParameters() {
+        // when, then
+        assertThrows(IllegalArgumentException.class, () -> posService.nearby(90.5, 8.7, 1000, 10));
+        assertThrows(IllegalArgumentException.class, () -> posService.nearby(49.4, -180.5, 1000, 10));
+        assertThrows(IllegalArgumentException.class, () -> posService.nearby(49.4, 8.7, 0, 10));
+        assertThrows(IllegalArgumentException.class, () -> posService.nearby(49.4, 8.7, 1000, 0));
+        verify(posDataService, never()).nearby(anyDouble(), anyDouble(), anyDouble(), anyInt());
+    }
+
+    @Test
+    void queryPassesFiltersAndSortToDataService() {
+        // given
+        PosQuery query = PosQuery.builder()
+                .campus(CampusType.INF)
+                .sort(List.of(PosSort.parse("-name")))
+                .limit(10)
+                .build();
+        List<Pos> matchingPos = TestFixtures.getPosList().subList(1, 3);
+        when(posDataService.query(query)).thenReturn(matchingPos);
+
+        // when
+        List<Pos> retrievedPos = posService.query(query);
+
+        // then
+        verify(posDataService).query(query);
+        assertThat(retrievedPos).containsExactlyElementsOf(matchingPos);
+    }
+
+    @Test
+    void queryRejectsPageAfterIdWithSort() {
+        // given
+        PosQuery query = PosQuery.builder()
+                .sort(List.of(PosSort.parse("city")))
+                .after(1L)
+                .build();
+
+        // when, then
+        assertThrows(IllegalArgumentException.class, () -> posService.query(query));
+        assertThrows(IllegalArgumentException.class, () -> posService.queryIfModified(query, version -> false));
+        assertThrows(IllegalArgumentException.class, () -> PosSort.parse("osmVersion"));
+        verify(posDataService, never()).query(any());
+        verify(posDataService, never()).queryIfModified(any(), any());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void streamAllPassesEveryPosToConsumer() {
+        // given
+        List<Pos> testFixtures = TestFixtures.getPosList();
+        doAnswer(invocation -> {
+            testFixtures.forEach(invocation.<Consumer<Pos>>getArgument(0));
+            return null;
+        }).when(posDataService).streamAll(any(Consumer.class));
+
+        // when
+        List<Pos> streamedPos = new ArrayList<>();
+        posService.streamAll(streamedPos::add);
+
+        // then
+        assertThat(streamedPos)
+                .usingRecursiveFieldByFieldElementComparator()
+                .containsExactlyElementsOf(testFixtures);
+    }
+
+    @Test
+    void upsertAllReturnsResultPerPos() {
+        // given
+        List<Pos> posList = TestFixtures.getPosList();
+        List<BatchItemResult<Pos>> results = List.of(
+                BatchItemResult.success(0, posList.getFirst()),
+                BatchItemResult.failure(1, new DuplicationException(Pos.class, "name", posList.get(1).name()))
+        );
+        when(posDataService.upsertAll(posList)).thenReturn(results);
+
+        // when
+        List<BatchItemResult<Pos>> upsertResults = posService.upsertAll(posList);
+
+        // then
+        verify(posDataService).upsertAll(posList);
+        assertThat(upsertResults).isEqualTo(results);
+        // only the succeeded POS were written
+        verify(eventPublisher).publishEvent(PosChange.upserted(posList.getFirst()));
+        verifyNoMoreInteractions(eventPublisher);
+    }
+
+    @Test
+    void importFromOsmNodeUpsertsByName() {
+        // given
+        OsmNode osmNode = OsmNode.builder()
+                .nodeId(1L)
+                .name("Rada Coffee")
+                .description("n/a")
+                .amenity(OsmAmenity.CAFE)
+                .street("Untere Straße")
+                .houseNumber("21")
+                .postcode("69117")
+                .city("Heidelberg")
+                .build();
+        when(osmDataService.fetchNode(1L)).thenReturn(osmNode);
+        when(posDataService.upsertByName(any(Pos.class))).thenAnswer(invocation ->
+                invocation.<Pos>getArgument(0).toBuilder().id(42L).build());
+
+        // when
+        Pos importedPos = posService.importFromOsmNode(1L, CampusType.ALTSTADT);
+
+        // then
+        assertThat(importedPos.id()).isEqualTo(42L);
+        assertThat(importedPos.osmNodeId()).isEqualTo(1L);
+        // an existing POS with the same name is updated by the data service instead of being a conflict
+        verify(posDataService, never()).upsert(any());
+        verify(eventPublisher).publishEvent(PosChange.upserted(importedPos));
+    }
+
+    @Test
+    void importFromOsmNodesReturnsResultPerNode() {
+        // given
+        OsmNode osmNode = OsmNode.builder()
+                .nodeId(1L)
+                .name("Rada Coffee")
+                .description("n/a")
+                .amenity(OsmAmenity.CAFE)
+                .street("Untere Straße")
+                .houseNumber("21")
+                .postcode("69117")
+                .city("Heidelberg")
+                .build();
+        when(osmDataService.fetchNodes(List.of(1L, 2L))).thenReturn(List.of(
+                BatchItemResult.success(0, osmNode),
+                BatchItemResult.failure(1, new NotFoundException(OsmNode.class, 2L))
+        ));
+        when(posDataService.upsertAllByName(anyList())).thenAnswer(invocation -> List.of(BatchItemResult.success(0,
+                invocation.<List<Pos>>getArgument(0).getFirst().toBuilder().id(42L).build())));
+
+        // when
+        List<BatchItemResult<Pos>> results = posService.importFromOsmNodes(List.of(1L, 2L), CampusType.ALTSTADT);
+
+        // then
+        assertThat(results).extracting(BatchItemResult::index).containsExactly(0, 1);
+        Pos importedPos = Objects.requireNonNull(results.getFirst().value());
+        assertThat(importedPos.name()).isEqualTo(osmNode.name());
+        assertThat(importedPos.campus()).isEqualTo(CampusType.ALTSTADT);
+        assertThat(importedPos.id()).isEqualTo(42L);
+        assertThat(results.get(1).error()).isInstanceOf(NotFoundException.class);
+        verify(posDataService).upsertAllByName(argThat(posList -> posList.size() == 1));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void importFromOsmExtractWritesPosInChunks() {
+        // given
+        int nodeCount = PosServiceImpl.EXTRACT_IMPORT_CHUNK_SIZE + 1;
+        doAnswer(invocation -> {
+            Consumer<BatchItemResult<OsmNode>> consumer = invocation.getArgument(1);
+            for (int i = 0; i < nodeCount; i++) {
+                consumer.accept(BatchItemResult.success(i, OsmNode.builder()
+                        .nodeId((long) i)
+                        .name("Café " + i)
+                        .description("n/a")
+                        .amenity(OsmAmenity.CAFE)
+                        .street("Hauptstraße")
+                        .houseNumber(String.valueOf(i + 1))
+                        .postcode("69117")
+                        .city("Heidelberg")
+                        .build()));
+            }
+            consumer.accept(BatchItemResult.failure(nodeCount,
+                    new MissingFieldException(OsmNode.class, (long) nodeCount, "addr:street")));
+            return null;
+        }).when(osmDataService).streamExtract(any(Path.class), any(Consumer.class));
+        when(posDataService.upsertAllByName(anyList())).thenAnswer(invocation -> invocation.<List<Pos>>getArgument(0)
+                .stream()
+                .map(pos -> BatchItemResult.success(0, pos))
+                .toList());
+
+        // when
+        ImportSummary summary = posService.importFromOsmExtract(Path.of("extract.osm"), CampusType.INF);
+
+        // then
+        verify(posDataService, times(2)).upsertAllByName(anyList());
+        assertThat(summary.processed()).isEqualTo(nodeCount + 1);
+        assertThat(summary.imported()).isEqualTo(nodeCount);
+        assertThat(summary.failed()).isEqualTo(1);
+    }
+
+    @Test
+    void syncFromOsmUpdatesOnlyChangedPos() {
+        // given
+        Pos unchangedPos = Pos.builder()
+                .id(1L)
+                .name("Café Eins")
+                .description("n/a")
+                .type(PosType.CAFE)
+                .campus(CampusType.ALTSTADT)
+                .street("Hauptstraße")
+                .houseNumber("1")
+                .postalCode(69117)
+                .city("Heidelberg")
+                .osmNodeId(11L)
+                .osmVersion(1L)
+                .build();
+        Pos changedPos = unchangedPos.toBuilder().id(2L).name("Café Zwei").osmNodeId(12L).build();
+        Pos deletedPos = unchangedPos.toBuilder().id(3L).name("Café Drei").osmNodeId(13L).build();
+        OsmNode unchangedNode = OsmNode.builder()
+                .nodeId(11L)
+                .name("Café Eins")
+                .description("n/a")
+                .amenity(OsmAmenity.CAFE)
+                .street("Hauptstraße")
+                .houseNumber("1")
+                .postcode("69117")
+                .city("Heidelberg")
+                .version(1L)
+                .build();
+        OsmNode changedNode = unchangedNode.toBuilder()
+                .nodeId(12L)
+                .name("Café Zwei")
+                .street("Plöck")
+                .version(2L)
+                .build();
+        when(posDataService.getOsmSyncCandidates(isNull(), any(), eq(3)))
+                .thenReturn(List.of(unchangedPos, changedPos, deletedPos));
+        when(posDataService.getOsmSyncCandidates(eq(3L), any(), eq(3))).thenReturn(List.of());
+        when(osmDataService.fetchNodes(List.of(11L, 12L, 13L))).thenReturn(List.of(
+                BatchItemResult.success(0, unchangedNode),
+                BatchItemResult.success(1, changedNode),
+                BatchItemResult.failure(2, new NotFoundException(OsmNode.class, 13L))
+        ));
+        when(posDataService.upsert(any(Pos.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // when
+        OsmSyncSummary summary = posService.syncFromOsm(Duration.ofDays(1), 3);
+
+        // then
+        assertThat(summary.checked()).isEqualTo(3);
+        assertThat(summary.changed()).isEqualTo(1);
+        assertThat(summary.failed()).isEqualTo(1);
+        verify(posDataService).upsert(changedPos.toBuilder().street("Plöck").osmVersion(2L).build());
+        verify(posDataService).markOsmSynced(List.of(1L, 2L));
+    }
+
+    @Test
+    void syncFromOsmDoesNotOverwriteConcurrentChanges() {
+        // given
+        Pos pos = Pos.builder()
+                .id(1L)
+                .version(4L)
+                .name("Café Eins")
+                .description("n/a")
+                .type(PosType.CAFE)
+                .campus(CampusType.ALTSTADT)
+                .street("Hauptstraße")
+                .houseNumber("1")
+                .postalCode(69117)
+                .city("Heidelberg")
+                .osmNodeId(11L)
+                .osmVersion(1L)
+                .build();
+        OsmNode changedNode = OsmNode.builder()
+                .nodeId(11L)
+                .name("Café Eins")
+                .description("n/a")
+                .amenity(OsmAmenity.CAFE)
+                .street("Plöck")
+                .houseNumber("1")
+                .postcode("69117")
+                .city("Heidelberg")
+                .version(2L)
+                .build();
+        Pos syncedPos = pos.toBuilder().street("Plöck").osmVersion(2L).build();
+        when(posDataService.getOsmSyncCandidates(isNull(), any(), eq(1))).thenReturn(List.of(pos));
+        when(posDataService.getOsmSyncCandidates(eq(1L), any(), eq(1))).thenReturn(List.of());
+        when(osmDataService.fetchNodes(List.of(11L))).thenReturn(List.of(BatchItemResult.success(0, changedNode)));
+        // the POS was changed after it was read for the sync
+        when(posDataService.upsert(syncedPos)).thenThrow(new VersionConflictException(Pos.class, 1L, 4L));
+
+        // when
+        OsmSyncSummary summary = posService.syncFromOsm(Duration.ofDays(1), 1);
+
+        // then
+        assertThat(summary.changed()).isZero();
+        assertThat(summary.failed()).isEqualTo(1);
+        verify(eventPublisher, never()).publishEvent(any());
+        verify(posDataService).markOsmSynced(List.of());
+    }
+}